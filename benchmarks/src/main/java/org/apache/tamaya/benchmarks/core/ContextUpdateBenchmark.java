@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of replacing a single property source, including the first lookup afterwards, which
+ * updates the configuration's snapshot. Modes:
+ * <ul>
+ *     <li>{@code rebuild}: a new context is built and a new configuration created, as done when installing a
+ *     new context.</li>
+ *     <li>{@code replace}: the property source is replaced in place by
+ *     {@link VersionedConfigurationContext#replacePropertySources}, so only its keys are evaluated again.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextUpdateBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int sources;
+
+    @Param({"100"})
+    public int keysPerSource;
+
+    @Param({"rebuild", "replace"})
+    public String mode;
+
+    private ConfigurationContext context;
+    private DefaultConfiguration configuration;
+    private PropertySource[] versions;
+    private PropertySource current;
+    private String changedKey;
+    private int round;
+
+    @Setup
+    public void setup() {
+        BenchmarkDataset dataset = BenchmarkDataset.generate(sources, keysPerSource, 0);
+        PropertySource replaced = dataset.getPropertySources().get(sources / 2);
+        context = new DefaultConfigurationContextBuilder().addPropertySources(dataset.getPropertySources()).build();
+        configuration = new DefaultConfiguration(context, true);
+        // two states of the replaced property source, differing in a single value.
+        Map<String, String> changed = new HashMap<>(replaced.getProperties());
+        changedKey = changed.keySet().iterator().next();
+        changed.put(changedKey, "changed");
+        versions = new PropertySource[]{replaced,
+                new SimplePropertySource(replaced.getName(), changed)};
+        current = replaced;
+    }
+
+    @Benchmark
+    public String replacePropertySource() {
+        PropertySource next = versions[++round & 1];
+        if ("replace".equals(mode)) {
+            ((VersionedConfigurationContext) context).replacePropertySources(Collections.singletonList(current),
+                    Collections.singletonList(next));
+        } else {
+            context = new DefaultConfigurationContextBuilder().setContext(context)
+                    .removePropertySources(current.getName()).addPropertySources(next).build();
+            configuration = new DefaultConfiguration(context, true);
+        }
+        current = next;
+        return configuration.get(changedKey);
+    }
+}
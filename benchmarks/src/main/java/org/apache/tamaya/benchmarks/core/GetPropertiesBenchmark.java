@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DefaultConfiguration#getProperties()} evaluated on each call with the incremental evaluation
+ * mode, where the property sources do not change between calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetPropertiesBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int sources;
+
+    @Param({"1000", "10000"})
+    public int keysPerSource;
+
+    @Param({"0", "5"})
+    public int filters;
+
+    private DefaultConfiguration directConfiguration;
+    private DefaultConfiguration incrementalConfiguration;
+
+    @Setup
+    public void setup() {
+        ConfigurationContext context = BenchmarkDataset.generate(sources, keysPerSource, filters).createContext();
+        directConfiguration = new DefaultConfiguration(context, false, 0, false);
+        incrementalConfiguration = new DefaultConfiguration(context, false, 0, true);
+    }
+
+    @Benchmark
+    public Map<String, String> direct() {
+        return directConfiguration.getProperties();
+    }
+
+    @Benchmark
+    public Map<String, String> incremental() {
+        return incrementalConfiguration.getProperties();
+    }
+}
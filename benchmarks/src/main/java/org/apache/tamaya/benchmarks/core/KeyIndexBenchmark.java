@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.spi.KeyIndexedPropertySource;
+import org.apache.tamaya.spi.KeyPresenceIndex;
+import org.apache.tamaya.spi.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single key lookups on property sources with expensive lookups, e.g. remote property sources, with
+ * and without publishing a {@link KeyPresenceIndex}. With {@code indexed=true} each property source is only
+ * asked for the keys it (probably) contains.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyIndexBenchmark {
+
+    @Param({"5", "20"})
+    public int sources;
+
+    @Param({"1000", "10000"})
+    public int keysPerSource;
+
+    @Param({"100", "1000"})
+    public int lookupCost;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private DefaultConfiguration configuration;
+    private String[] lookupKeys;
+
+    @Setup
+    public void setup() {
+        BenchmarkDataset dataset = BenchmarkDataset.generate(sources, keysPerSource, 0);
+        List<PropertySource> propertySources = new ArrayList<>();
+        for (PropertySource propertySource : dataset.getPropertySources()) {
+            propertySources.add(indexed ? new IndexedPropertySource(propertySource, lookupCost)
+                    : new ExpensivePropertySource(propertySource, lookupCost));
+        }
+        configuration = new DefaultConfiguration(dataset.createContext(propertySources), false, 0);
+        lookupKeys = dataset.getLookupKeys();
+    }
+
+    /**
+     * Per thread position within the lookup keys, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int position;
+
+        int next(int length) {
+            position = (position + 1) & (length - 1);
+            return position;
+        }
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return configuration.get(lookupKeys[cursor.next(lookupKeys.length)]);
+    }
+
+    /**
+     * Property source consuming CPU on each lookup, simulating an expensive (e.g. remote) lookup.
+     */
+    private static class ExpensivePropertySource implements PropertySource {
+        private final PropertySource delegate;
+        private final int lookupCost;
+
+        ExpensivePropertySource(PropertySource delegate, int lookupCost) {
+            this.delegate = delegate;
+            this.lookupCost = lookupCost;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return delegate.getOrdinal();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public String get(String key) {
+            Blackhole.consumeCPU(lookupCost);
+            return delegate.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return delegate.getProperties();
+        }
+
+        @Override
+        public boolean isScannable() {
+            return delegate.isScannable();
+        }
+    }
+
+    /**
+     * Expensive property source publishing a key index.
+     */
+    private static final class IndexedPropertySource extends ExpensivePropertySource
+            implements KeyIndexedPropertySource {
+        private final KeyPresenceIndex index;
+
+        IndexedPropertySource(PropertySource delegate, int lookupCost) {
+            super(delegate, lookupCost);
+            this.index = KeyPresenceIndex.of(delegate.getProperties().keySet());
+        }
+
+        @Override
+        public KeyPresenceIndex getKeyIndex() {
+            return index;
+        }
+    }
+}
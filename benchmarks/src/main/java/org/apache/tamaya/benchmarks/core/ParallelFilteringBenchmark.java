@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.core.internal.FilterPipeline;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel filtering of maps by {@link FilterPipeline#filter(Map)}, parameterized by
+ * the map size and the cost of a single filter invocation, to find the map size where parallel filtering starts
+ * to pay off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFilteringBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int entries;
+
+    /** The cost of a filter invocation, in {@link Blackhole#consumeCPU(long)} tokens. */
+    @Param({"0", "50", "500"})
+    public long filterCost;
+
+    private Map<String, String> properties;
+    private ForkJoinPool pool;
+    private FilterPipeline sequentialPipeline;
+    private FilterPipeline parallelPipeline;
+
+    @Setup
+    public void setup() {
+        properties = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            properties.put("app.section" + (i % 50) + ".item" + i, "value" + i);
+        }
+        List<PropertyFilter> filters = Collections.<PropertyFilter>singletonList(new CostlyFilter(filterCost));
+        pool = new ForkJoinPool();
+        sequentialPipeline = new FilterPipeline(filters, false, 0, null);
+        parallelPipeline = new FilterPipeline(filters, false, 1, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, String> sequential() {
+        return sequentialPipeline.filter(properties);
+    }
+
+    @Benchmark
+    public Map<String, String> parallel() {
+        return parallelPipeline.filter(properties);
+    }
+
+    /**
+     * Filter simulating work, not changing any value.
+     */
+    private static final class CostlyFilter implements PropertyFilter {
+        private final long cost;
+
+        CostlyFilter(long cost) {
+            this.cost = cost;
+        }
+
+        @Override
+        public String filterProperty(String key, String valueToBeFiltered) {
+            Blackhole.consumeCPU(cost);
+            return valueToBeFiltered;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive accessor {@link DefaultConfiguration#getInt(String, int)} with the boxed typed lookup.
+ * Run with {@code -prof gc}: with {@code snapshot=true} the raw value lookup does not allocate, so
+ * {@code gc.alloc.rate.norm} of {@link #getInt(KeyCursor)} should be (close to) zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveAccessBenchmark {
+
+    @Param({"true", "false"})
+    public boolean snapshot;
+
+    @Param({"1", "5"})
+    public int sources;
+
+    private DefaultConfiguration configuration;
+    private String[] intKeys;
+
+    @Setup
+    public void setup() {
+        BenchmarkDataset dataset = BenchmarkDataset.generate(sources, 1000, 0);
+        configuration = new DefaultConfiguration(dataset.createContext(), snapshot, 0);
+        intKeys = dataset.getIntKeys();
+    }
+
+    /**
+     * Per thread position within the lookup keys, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int position;
+
+        int next(int length) {
+            position = (position + 1) & (length - 1);
+            return position;
+        }
+    }
+
+    @Benchmark
+    public int getInt(KeyCursor cursor) {
+        return configuration.getInt(intKeys[cursor.next(intKeys.length)], -1);
+    }
+
+    @Benchmark
+    public Integer getTyped(KeyCursor cursor) {
+        return configuration.get(intKeys[cursor.next(intKeys.length)], Integer.class);
+    }
+}
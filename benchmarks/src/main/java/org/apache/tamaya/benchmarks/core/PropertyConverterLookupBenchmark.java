@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.PropertyConverterManager;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares contended converter lookups of {@link PropertyConverterManager} with the former read/write lock based
+ * implementation. Run {@link #main(String[])} for measuring with 1 up to 64 threads, or use the JMH {@code -t}
+ * option when running the benchmarks jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyConverterLookupBenchmark {
+
+    /** The thread counts measured by {@link #main(String[])}. */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"java.lang.Integer", "int", "java.math.BigDecimal", "java.net.URI"})
+    public String targetType;
+
+    private PropertyConverterManager manager;
+    private LockingPropertyConverterLookup lockingLookup;
+    private TypeLiteral<Object> type;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        manager = new PropertyConverterManager();
+        lockingLookup = new LockingPropertyConverterLookup(manager.getPropertyConverters());
+        if ("int".equals(targetType)) {
+            type = TypeLiteral.of(int.class);
+        } else {
+            type = TypeLiteral.of(Class.forName(targetType));
+        }
+        // resolve once, so the benchmark measures the hot path only.
+        manager.getPropertyConverters(type);
+    }
+
+    @Benchmark
+    public List<PropertyConverter<Object>> copyOnWriteLookup() {
+        return manager.getPropertyConverters(type);
+    }
+
+    @Benchmark
+    public List<PropertyConverter<Object>> readWriteLockLookup() {
+        return lockingLookup.getPropertyConverters(type);
+    }
+
+    /**
+     * Runs this benchmark for all thread counts from 1 up to 64.
+     *
+     * @param args not used.
+     * @throws RunnerException if the benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(PropertyConverterLookupBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
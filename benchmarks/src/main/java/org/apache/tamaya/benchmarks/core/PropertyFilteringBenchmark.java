@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.core;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.PropertyFiltering;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropertyFiltering#applyFilter(String, String, ConfigurationContext)} and
+ * {@link PropertyFiltering#applyFilters(Map, ConfigurationContext)}, parameterized by the number of keys and
+ * property filters, and whether the filters are declared as {@link org.apache.tamaya.spi.ScopedPropertyFilter}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyFilteringBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int keysPerSource;
+
+    @Param({"0", "1", "5"})
+    public int filters;
+
+    @Param({"false", "true"})
+    public boolean scopedFilters;
+
+    private ConfigurationContext context;
+    private Map<String, String> properties;
+    private String[] keys;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        BenchmarkDataset dataset = BenchmarkDataset.generate(1, keysPerSource, filters, scopedFilters);
+        context = dataset.createContext();
+        properties = new HashMap<>();
+        for (PropertySource propertySource : context.getPropertySources()) {
+            properties.putAll(propertySource.getProperties());
+        }
+        keys = dataset.getLookupKeys();
+        values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = properties.get(keys[i]);
+        }
+    }
+
+    /**
+     * Per thread position within the lookup keys, so threads do not share a counter.
+     */
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int position;
+
+        int next(int length) {
+            position = (position + 1) & (length - 1);
+            return position;
+        }
+    }
+
+    @Benchmark
+    public String applyFilter(KeyCursor cursor) {
+        int index = cursor.next(keys.length);
+        return PropertyFiltering.applyFilter(keys[index], values[index], context);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, String> applyFilters() {
+        return PropertyFiltering.applyFilters(properties, context);
+    }
+}
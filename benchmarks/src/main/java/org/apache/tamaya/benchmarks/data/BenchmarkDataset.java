@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.data;
+
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.ScopedPropertyFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reproducible dataset used by the benchmarks. All values are derived from the given seed, so two datasets created
+ * with the same parameters are equal. Property source {@code n} contains the keys {@code [n * step, n * step + keys)}
+ * with {@code step = keys * (1 - overlap)}, so subsequent property sources override a part of the keys of their
+ * predecessors. Every third key has an integer value, keys ending with {@code .secret} are processed by the
+ * generated filters. Filters are either plain {@link PropertyFilter}s or declare their scope as
+ * {@link ScopedPropertyFilter}s.
+ */
+public final class BenchmarkDataset {
+
+    /** The default seed. */
+    public static final long DEFAULT_SEED = 4711L;
+    /** The fraction of keys shared between subsequent property sources. */
+    public static final double OVERLAP = 0.25;
+    /** The number of lookup keys provided. */
+    private static final int LOOKUP_KEYS = 1024;
+    /** The fraction of lookup keys not present in any property source. */
+    private static final double MISS_RATIO = 0.1;
+
+    private final List<PropertySource> propertySources;
+    private final List<PropertyFilter> propertyFilters;
+    private final String[] lookupKeys;
+    private final String[] intKeys;
+
+    private BenchmarkDataset(List<PropertySource> propertySources, List<PropertyFilter> propertyFilters,
+                             String[] lookupKeys, String[] intKeys) {
+        this.propertySources = Collections.unmodifiableList(propertySources);
+        this.propertyFilters = Collections.unmodifiableList(propertyFilters);
+        this.lookupKeys = lookupKeys;
+        this.intKeys = intKeys;
+    }
+
+    /**
+     * Generates a new dataset using {@link #DEFAULT_SEED}.
+     *
+     * @param sourceCount the number of property sources, &gt; 0.
+     * @param keysPerSource the number of keys per property source, &gt; 0.
+     * @param filterCount the number of property filters, &gt;= 0.
+     * @return the new dataset, never null.
+     */
+    public static BenchmarkDataset generate(int sourceCount, int keysPerSource, int filterCount) {
+        return generate(sourceCount, keysPerSource, filterCount, false, DEFAULT_SEED);
+    }
+
+    /**
+     * Generates a new dataset using {@link #DEFAULT_SEED}.
+     *
+     * @param sourceCount the number of property sources, &gt; 0.
+     * @param keysPerSource the number of keys per property source, &gt; 0.
+     * @param filterCount the number of property filters, &gt;= 0.
+     * @param scopedFilters if true, the filters are {@link ScopedPropertyFilter}s.
+     * @return the new dataset, never null.
+     */
+    public static BenchmarkDataset generate(int sourceCount, int keysPerSource, int filterCount,
+                                            boolean scopedFilters) {
+        return generate(sourceCount, keysPerSource, filterCount, scopedFilters, DEFAULT_SEED);
+    }
+
+    /**
+     * Generates a new dataset.
+     *
+     * @param sourceCount the number of property sources, &gt; 0.
+     * @param keysPerSource the number of keys per property source, &gt; 0.
+     * @param filterCount the number of property filters, &gt;= 0.
+     * @param scopedFilters if true, the filters are {@link ScopedPropertyFilter}s.
+     * @param seed the seed used for generating values and lookup keys.
+     * @return the new dataset, never null.
+     */
+    public static BenchmarkDataset generate(int sourceCount, int keysPerSource, int filterCount,
+                                            boolean scopedFilters, long seed) {
+        if (sourceCount <= 0 || keysPerSource <= 0 || filterCount < 0) {
+            throw new IllegalArgumentException("Invalid dataset parameters: sources=" + sourceCount
+                    + ", keysPerSource=" + keysPerSource + ", filters=" + filterCount);
+        }
+        Random random = new Random(seed);
+        int step = Math.max(1, (int) (keysPerSource * (1 - OVERLAP)));
+        List<PropertySource> sources = new ArrayList<>(sourceCount);
+        for (int n = 0; n < sourceCount; n++) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = n * step; i < n * step + keysPerSource; i++) {
+                values.put(key(i), value(i, random));
+            }
+            values.put(PropertySource.TAMAYA_ORDINAL, String.valueOf(100 + n));
+            sources.add(new SimplePropertySource("benchmark-source-" + n, values));
+        }
+        List<PropertyFilter> filters = new ArrayList<>(filterCount);
+        for (int f = 0; f < filterCount; f++) {
+            filters.add(scopedFilters ? new ScopedMaskingPropertyFilter(f) : new MaskingPropertyFilter(f));
+        }
+        int keyCount = (sourceCount - 1) * step + keysPerSource;
+        String[] lookupKeys = new String[LOOKUP_KEYS];
+        for (int i = 0; i < lookupKeys.length; i++) {
+            if (random.nextDouble() < MISS_RATIO) {
+                lookupKeys[i] = "missing." + key(random.nextInt(keyCount));
+            } else {
+                lookupKeys[i] = key(random.nextInt(keyCount));
+            }
+        }
+        String[] intKeys = new String[LOOKUP_KEYS];
+        for (int i = 0; i < intKeys.length; i++) {
+            intKeys[i] = key(random.nextInt((keyCount + 2) / 3) * 3);
+        }
+        return new BenchmarkDataset(sources, filters, lookupKeys, intKeys);
+    }
+
+    private static String key(int index) {
+        String key = "app.section" + (index % 50) + ".item" + index;
+        return index % 10 == 7 ? key + ".secret" : key;
+    }
+
+    private static String value(int index, Random random) {
+        if (index % 3 == 0) {
+            return String.valueOf(random.nextInt(100000));
+        }
+        StringBuilder b = new StringBuilder(16);
+        for (int i = 0; i < 16; i++) {
+            b.append((char) ('a' + random.nextInt(26)));
+        }
+        return b.toString();
+    }
+
+    /**
+     * Creates a new {@link ConfigurationContext} containing the property sources and filters of this dataset.
+     *
+     * @return a new context, never null.
+     */
+    public ConfigurationContext createContext() {
+        return new DatasetConfigurationContext(propertySources, propertyFilters);
+    }
+
+    /**
+     * Creates a new {@link ConfigurationContext} containing the given property sources, e.g. wrappers of the
+     * property sources of this dataset, and the filters of this dataset.
+     *
+     * @param propertySources the property sources, ordered by increasing ordinal, not null.
+     * @return a new context, never null.
+     */
+    public ConfigurationContext createContext(List<PropertySource> propertySources) {
+        return new DatasetConfigurationContext(propertySources, propertyFilters);
+    }
+
+    /**
+     * Get the property sources of this dataset.
+     *
+     * @return the property sources, ordered by increasing ordinal.
+     */
+    public List<PropertySource> getPropertySources() {
+        return propertySources;
+    }
+
+    /**
+     * Get the property filters of this dataset.
+     *
+     * @return the property filters.
+     */
+    public List<PropertyFilter> getPropertyFilters() {
+        return propertyFilters;
+    }
+
+    /**
+     * Get the keys to be looked up, including keys not present in any property source.
+     *
+     * @return the lookup keys, the length is a power of two.
+     */
+    public String[] getLookupKeys() {
+        return lookupKeys.clone();
+    }
+
+    /**
+     * Get keys to be looked up, whose values are integers.
+     *
+     * @return the integer keys, the length is a power of two.
+     */
+    public String[] getIntKeys() {
+        return intKeys.clone();
+    }
+
+    /**
+     * Filter masking values of keys ending with {@code .secret}, whereas each filter instance only masks a part
+     * of these keys.
+     */
+    private static class MaskingPropertyFilter implements PropertyFilter {
+
+        private final int index;
+
+        MaskingPropertyFilter(int index) {
+            this.index = index;
+        }
+
+        boolean isMasked(String key) {
+            return key.endsWith(".secret") && key.length() % (index + 2) == 0;
+        }
+
+        @Override
+        public String filterProperty(String key, String valueToBeFiltered) {
+            if (valueToBeFiltered != null && isMasked(key)) {
+                return "*****";
+            }
+            return valueToBeFiltered;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{index=" + index + '}';
+        }
+    }
+
+    /**
+     * Masking filter declaring its scope, so it is only applied to the keys it masks, and only once.
+     */
+    private static final class ScopedMaskingPropertyFilter extends MaskingPropertyFilter
+            implements ScopedPropertyFilter {
+
+        ScopedMaskingPropertyFilter(int index) {
+            super(index);
+        }
+
+        @Override
+        public boolean appliesTo(String key) {
+            return isMasked(key);
+        }
+
+        @Override
+        public boolean isSinglePass() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.data;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.PropertyConverterManager;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationContextBuilder;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ConfigurationContext} used by the benchmarks, with exactly the property sources and filters of a
+ * {@link BenchmarkDataset} and the default converters.
+ */
+final class DatasetConfigurationContext implements ConfigurationContext {
+
+    private final PropertyConverterManager converterManager = new PropertyConverterManager();
+    private volatile List<PropertySource> propertySources;
+    private final List<PropertyFilter> propertyFilters;
+
+    DatasetConfigurationContext(List<PropertySource> propertySources, List<PropertyFilter> propertyFilters) {
+        // the dataset's sources are already ordered by increasing ordinal, as required by the context.
+        this.propertySources = Collections.unmodifiableList(new ArrayList<>(propertySources));
+        this.propertyFilters = Collections.unmodifiableList(new ArrayList<>(propertyFilters));
+    }
+
+    /**
+     * Adds the given property sources with the highest significance, regardless of their ordinal.
+     *
+     * @param propertySourcesToAdd the property sources to add.
+     */
+    @Override
+    public synchronized void addPropertySources(PropertySource... propertySourcesToAdd) {
+        List<PropertySource> sources = new ArrayList<>(this.propertySources);
+        sources.addAll(Arrays.asList(propertySourcesToAdd));
+        this.propertySources = Collections.unmodifiableList(sources);
+    }
+
+    @Override
+    public List<PropertySource> getPropertySources() {
+        return propertySources;
+    }
+
+    @Override
+    public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
+        converterManager.register(typeToConvert, propertyConverter);
+    }
+
+    @Override
+    public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
+        return converterManager.getPropertyConverters();
+    }
+
+    @Override
+    public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> type) {
+        return converterManager.getPropertyConverters(type);
+    }
+
+    @Override
+    public List<PropertyFilter> getPropertyFilters() {
+        return propertyFilters;
+    }
+
+    @Override
+    public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy() {
+        return PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
+    }
+
+    @Override
+    public ConfigurationContextBuilder toBuilder() {
+        return ConfigurationProvider.getConfigurationContextBuilder().setContext(this);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.events;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.events.KeySelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing a change of many keys to many listeners, each interested in a single key or section. Most
+ * listeners select a single key, every fifth listener a section. Modes:
+ * <ul>
+ *     <li>{@code broadcast}: all listeners receive the complete change and select their keys themselves.</li>
+ *     <li>{@code routed}: the listeners are subscribed by {@link KeySelector}s, so each changed key is routed to
+ *     the interested listeners only.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeRoutingBenchmark {
+
+    private static final int KEYS = 10000;
+    private static final int SECTIONS = 100;
+
+    @Param({"10000"})
+    public int subscriptions;
+
+    @Param({"1000"})
+    public int changedKeys;
+
+    @Param({"broadcast", "routed"})
+    public String mode;
+
+    private final List<SelectingListener> listeners = new ArrayList<>();
+    private ConfigurationChange change;
+
+    private static String key(int index) {
+        return "app.section" + (index % SECTIONS) + ".item" + index;
+    }
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < subscriptions; i++) {
+            KeySelector selector = i % 5 == 0 ? KeySelector.prefix("app.section" + (i % SECTIONS) + ".")
+                    : KeySelector.key(key(i % KEYS));
+            SelectingListener listener = new SelectingListener(selector, "broadcast".equals(mode));
+            listeners.add(listener);
+            if (listener.selecting) {
+                ConfigEventManager.addListener(listener, ConfigurationChange.class);
+            } else {
+                ConfigEventManager.subscribe(listener, selector);
+            }
+        }
+        Random random = new Random(4711L);
+        ConfigurationChangeBuilder builder = ConfigurationChangeBuilder.of(
+                FrozenConfiguration.of(ConfigurationProvider.getConfiguration()));
+        for (int i = 0; i < changedKeys; i++) {
+            builder.addChange(key(random.nextInt(KEYS)), String.valueOf(i));
+        }
+        change = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (SelectingListener listener : listeners) {
+            ConfigEventManager.removeListener(listener, ConfigurationChange.class);
+            ConfigEventManager.unsubscribe(listener);
+        }
+        listeners.clear();
+    }
+
+    @Benchmark
+    public void publish() {
+        ConfigEventManager.fireEvent(change);
+    }
+
+    /**
+     * Listener counting the changes of its keys.
+     */
+    private static final class SelectingListener implements ConfigEventListener {
+        private final KeySelector selector;
+        private final boolean selecting;
+        private long count;
+
+        SelectingListener(KeySelector selector, boolean selecting) {
+            this.selector = selector;
+            this.selecting = selecting;
+        }
+
+        @Override
+        public void onConfigEvent(ConfigEvent<?> event) {
+            for (PropertyChangeEvent change : ((ConfigurationChange) event).getChanges()) {
+                if (!selecting || selector.matches(change.getPropertyName())) {
+                    count++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.events;
+
+import org.apache.tamaya.benchmarks.data.BenchmarkDataset;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.spi.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a change check cycle: a few keys of a large configuration change, the configuration is frozen again
+ * and compared with the last frozen state. Modes:
+ * <ul>
+ *     <li>{@code copy}: the configuration is frozen without sharing structure with the last state.</li>
+ *     <li>{@code shared}: the configuration is frozen sharing all unchanged entries with the last state.</li>
+ *     <li>{@code apply}: the changed keys are known, so only they are applied to the last state.</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationDeltaBenchmark {
+
+    @Param({"10000", "100000"})
+    public int keys;
+
+    @Param({"10"})
+    public int changedKeys;
+
+    @Param({"copy", "shared", "apply"})
+    public String mode;
+
+    private DefaultConfiguration configuration;
+    private ChangingPropertySource changingSource;
+    private FrozenConfiguration lastConfig;
+    private int round;
+
+    @Setup
+    public void setup() {
+        BenchmarkDataset dataset = BenchmarkDataset.generate(4, keys / 4, 0);
+        List<PropertySource> propertySources = new ArrayList<>(dataset.getPropertySources());
+        changingSource = new ChangingPropertySource(changedKeys);
+        propertySources.add(changingSource);
+        configuration = new DefaultConfiguration(dataset.createContext(propertySources), false, 0);
+        lastConfig = FrozenConfiguration.of(configuration);
+    }
+
+    @Benchmark
+    public ConfigurationChange checkCycle() {
+        changingSource.change(++round);
+        FrozenConfiguration newConfig;
+        switch (mode) {
+            case "copy":
+                newConfig = FrozenConfiguration.of(configuration);
+                break;
+            case "shared":
+                newConfig = FrozenConfiguration.of(configuration, lastConfig);
+                break;
+            default:
+                ConfigurationChangeBuilder changeBuilder = ConfigurationChangeBuilder.of(lastConfig);
+                for (String key : changingSource.getProperties().keySet()) {
+                    changeBuilder.addChange(key, configuration.get(key));
+                }
+                newConfig = lastConfig.apply(changeBuilder.build());
+        }
+        ConfigurationChange change = ConfigurationChangeBuilder.of(lastConfig).addChanges(newConfig).build();
+        lastConfig = newConfig;
+        return change;
+    }
+
+    /**
+     * Property source overriding a fixed set of keys with values changing on each round.
+     */
+    private static final class ChangingPropertySource implements PropertySource {
+        private final String[] keys;
+        private volatile Map<String, String> properties = Collections.emptyMap();
+
+        ChangingPropertySource(int size) {
+            keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "changing.key" + i;
+            }
+        }
+
+        void change(int round) {
+            Map<String, String> newProperties = new HashMap<>();
+            for (String key : keys) {
+                newProperties.put(key, String.valueOf(round));
+            }
+            properties = newProperties;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 1000;
+        }
+
+        @Override
+        public String getName() {
+            return "changing";
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return true;
+        }
+    }
+}
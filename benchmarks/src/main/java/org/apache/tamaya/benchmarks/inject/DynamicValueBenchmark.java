@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.inject;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.inject.ConfigurationInjection;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures accessing injected {@link DynamicValue}s. With change monitoring enabled, the values are only evaluated
+ * after their keys changed, otherwise they are looked up and converted on each access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicValueBenchmark {
+
+    @Param({"false", "true"})
+    public boolean monitoring;
+
+    private ConfigurationContext oldContext;
+
+    private ServiceBean bean;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("bench.host", "localhost");
+        properties.put("bench.port", "8080");
+        oldContext = ConfigurationProvider.getConfigurationContext();
+        ConfigurationProvider.setConfigurationContext(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("bench", properties)).build());
+        ConfigEventManager.enableChangeMonitoring(monitoring);
+        bean = ConfigurationInjection.getConfigurationInjector().configure(new ServiceBean());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ConfigEventManager.enableChangeMonitoring(false);
+        ConfigurationProvider.setConfigurationContext(oldContext);
+    }
+
+    @Benchmark
+    public String stringValue() {
+        return bean.host.get();
+    }
+
+    @Benchmark
+    public Integer intValue() {
+        return bean.port.get();
+    }
+
+    /**
+     * Bean with dynamic values used by the benchmark.
+     */
+    public static class ServiceBean {
+        @Config("bench.host")
+        DynamicValue<String> host;
+
+        @Config("bench.port")
+        DynamicValue<Integer> port;
+    }
+}
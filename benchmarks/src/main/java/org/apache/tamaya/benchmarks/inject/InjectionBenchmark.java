@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.inject;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.inject.ConfigurationInjection;
+import org.apache.tamaya.inject.ConfigurationInjector;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures configuring new instances of a prototype scoped bean, comparing the injection plans compiled by
+ * {@link ConfigurationInjector} with the former reflective injection, see {@link ReflectiveInjector}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InjectionBenchmark {
+
+    private Configuration configuration;
+    private ConfigurationInjector injector;
+    private ReflectiveInjector reflectiveInjector;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("bench.host", "localhost");
+        properties.put("bench.port", "8080");
+        properties.put("bench.timeout", "30000");
+        properties.put("bench.user", "tamaya");
+        properties.put("bench.mode", "fast");
+        configuration = new DefaultConfiguration(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("bench", properties)).build());
+        injector = ConfigurationInjection.getConfigurationInjector();
+        reflectiveInjector = new ReflectiveInjector(ServiceBean.class);
+        // registers the type, so the benchmark measures configuring instances only.
+        injector.configure(new ServiceBean(), configuration);
+    }
+
+    @Benchmark
+    public ServiceBean compiledPlan() {
+        return injector.configure(new ServiceBean(), configuration);
+    }
+
+    @Benchmark
+    public ServiceBean reflective() {
+        return reflectiveInjector.configure(new ServiceBean(), configuration);
+    }
+
+    /**
+     * Converter declared explicitly on the benchmark bean.
+     */
+    public static final class UpperCaseConverter implements PropertyConverter<String> {
+        @Override
+        public String convert(String value, ConversionContext context) {
+            return value == null ? null : value.toUpperCase();
+        }
+    }
+
+    /**
+     * Typical configured bean, with string and numeric fields, an explicit converter, a default value and a
+     * configured setter.
+     */
+    public static class ServiceBean {
+        @Config("bench.host")
+        private String host;
+        @Config("bench.port")
+        private int port;
+        @Config("bench.timeout")
+        private long timeout;
+        @Config({"bench.missing", "bench.user"})
+        private String user;
+        @Config(value = "bench.retries", defaultValue = "3")
+        private Integer retries;
+        @Config("bench.mode")
+        @WithPropertyConverter(UpperCaseConverter.class)
+        private String mode;
+        private String name;
+
+        @Config(value = "bench.name", defaultValue = "service")
+        void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.inject;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.ConfigDefaultSections;
+import org.apache.tamaya.inject.api.InjectionUtils;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baseline for {@link InjectionBenchmark}: configures instances as
+ * {@code org.apache.tamaya.inject.internal.ConfiguredFieldImpl} and {@code ConfiguredSetterMethod} did before
+ * injection plans were introduced, i.e. reading the annotations, evaluating the keys, making the members
+ * accessible and creating explicit converters on each injection.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class ReflectiveInjector {
+
+    private final List<Field> fields = new ArrayList<>();
+    private final List<Method> methods = new ArrayList<>();
+
+    /**
+     * Collects the configured members of the given type, as done once per type by the injector.
+     *
+     * @param type the configured type, not null.
+     */
+    ReflectiveInjector(Class<?> type) {
+        for (Field f : type.getDeclaredFields()) {
+            if (f.isAnnotationPresent(Config.class)) {
+                fields.add(f);
+            }
+        }
+        for (Method m : type.getDeclaredMethods()) {
+            if (m.isAnnotationPresent(Config.class) && m.getParameterTypes().length == 1) {
+                methods.add(m);
+            }
+        }
+    }
+
+    <T> T configure(T instance, Configuration config) {
+        for (Field field : fields) {
+            Object value = evaluate(field, field, field.getType(), config);
+            try {
+                makeAccessible(field);
+                field.set(instance, value);
+            } catch (Exception e) {
+                throw new ConfigException("Failed to evaluate annotated field: " + field, e);
+            }
+        }
+        for (Method method : methods) {
+            Object value = evaluate(method, method, method.getParameterTypes()[0], config);
+            try {
+                makeAccessible(method);
+                method.invoke(instance, value);
+            } catch (Exception e) {
+                throw new ConfigException("Failed to annotation configured method: " + method, e);
+            }
+        }
+        return instance;
+    }
+
+    private static Object evaluate(AnnotatedElement element, Member member, Class<?> type, Configuration config) {
+        ConfigDefaultSections areasAnnot = member.getDeclaringClass().getAnnotation(ConfigDefaultSections.class);
+        Config prop = element.getAnnotation(Config.class);
+        List<String> keys = InjectionUtils.evaluateKeys(member, areasAnnot, prop);
+        String key = null;
+        String configValue = null;
+        for (String k : keys) {
+            configValue = config.get(k);
+            if (configValue != null) {
+                key = k;
+                break;
+            }
+        }
+        if (configValue == null && !prop.defaultValue().isEmpty()) {
+            configValue = prop.defaultValue();
+        }
+        TypeLiteral targetType = TypeLiteral.of(type);
+        WithPropertyConverter converterAnnot = element.getAnnotation(WithPropertyConverter.class);
+        if (converterAnnot != null) {
+            try {
+                PropertyConverter converter = PropertyConverter.class.cast(converterAnnot.value().newInstance());
+                Object value = converter.convert(configValue, new ConversionContext.Builder(key, targetType)
+                        .setAnnotatedElement(element).build());
+                if (value != null) {
+                    return value;
+                }
+            } catch (Exception e) {
+                throw new ConfigException("Failed to convert: " + element, e);
+            }
+        }
+        if (String.class == type) {
+            return configValue;
+        }
+        List<PropertyConverter> converters = (List) ConfigurationProvider.getConfigurationContext()
+                .getPropertyConverters(targetType);
+        ConversionContext ctx = new ConversionContext.Builder(ConfigurationProvider.getConfiguration(), key,
+                targetType).setAnnotatedElement(element).build();
+        for (PropertyConverter converter : converters) {
+            Object value = converter.convert(configValue, ctx);
+            if (value != null) {
+                return value;
+            }
+        }
+        throw new ConfigException("Non convertible property type: " + element);
+    }
+
+    private static void makeAccessible(final AccessibleObject member) throws Exception {
+        AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+            @Override
+            public Object run() throws Exception {
+                member.setAccessible(true);
+                return member;
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.inject;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.inject.ConfigurationInjection;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures refreshing injected {@link DynamicValue}s after one key changed. The values are either refreshed by
+ * publishing the change, so only the values depending on the key are refreshed in one batch, or by updating all
+ * values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefreshBenchmark {
+
+    /** The number of beans, each having one value per key. */
+    @Param({"100"})
+    public int beanCount;
+
+    private final Map<String, String> properties = new ConcurrentHashMap<>();
+
+    private ConfigurationContext oldContext;
+
+    private ServiceBean[] beans;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 10; i++) {
+            properties.put("bench.key" + i, "0");
+        }
+        oldContext = ConfigurationProvider.getConfigurationContext();
+        ConfigurationProvider.setConfigurationContext(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new MapPropertySource(properties)).build());
+        beans = new ServiceBean[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            beans[i] = ConfigurationInjection.getConfigurationInjector().configure(new ServiceBean());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ConfigurationProvider.setConfigurationContext(oldContext);
+    }
+
+    private String changeKey() {
+        String oldValue = String.valueOf(counter);
+        String newValue = String.valueOf(++counter);
+        properties.put("bench.key0", newValue);
+        return oldValue;
+    }
+
+    @Benchmark
+    public int publishChange() {
+        String oldValue = changeKey();
+        ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of()
+                .addChange("bench.key0", oldValue, properties.get("bench.key0")).build());
+        return counter;
+    }
+
+    @Benchmark
+    public int updateAllValues() {
+        changeKey();
+        int updated = 0;
+        for (ServiceBean bean : beans) {
+            for (DynamicValue<?> value : bean.values()) {
+                if (value.updateValue()) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Bean with dynamic values used by the benchmark.
+     */
+    public static class ServiceBean {
+        @Config("bench.key0") DynamicValue<String> value0;
+        @Config("bench.key1") DynamicValue<String> value1;
+        @Config("bench.key2") DynamicValue<String> value2;
+        @Config("bench.key3") DynamicValue<String> value3;
+        @Config("bench.key4") DynamicValue<String> value4;
+        @Config("bench.key5") DynamicValue<String> value5;
+        @Config("bench.key6") DynamicValue<String> value6;
+        @Config("bench.key7") DynamicValue<String> value7;
+        @Config("bench.key8") DynamicValue<String> value8;
+        @Config("bench.key9") DynamicValue<String> value9;
+
+        DynamicValue<?>[] values() {
+            return new DynamicValue<?>[]{value0, value1, value2, value3, value4, value5, value6, value7, value8,
+                    value9};
+        }
+    }
+
+    /**
+     * Property source backed by a map, which may be changed.
+     */
+    private static final class MapPropertySource implements PropertySource {
+        private final Map<String, String> properties;
+
+        MapPropertySource(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "bench";
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks.inject;
+
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.inject.ConfigurationInjection;
+import org.apache.tamaya.inject.api.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling the getters of a configuration template. With snapshots enabled, the values are cached per
+ * snapshot generation, otherwise they are looked up and converted on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private ServiceTemplate template;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("bench.host", "localhost");
+        properties.put("bench.port", "8080");
+        DefaultConfiguration configuration = new DefaultConfiguration(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("bench", properties)).build(), snapshot);
+        template = ConfigurationInjection.getConfigurationInjector().createTemplate(ServiceTemplate.class,
+                configuration);
+    }
+
+    @Benchmark
+    public String stringGetter() {
+        return template.host();
+    }
+
+    @Benchmark
+    public int intGetter() {
+        return template.port();
+    }
+
+    /**
+     * Template interface used by the benchmark.
+     */
+    public interface ServiceTemplate {
+        @Config("bench.host")
+        String host();
+
+        @Config("bench.port")
+        int port();
+    }
+}
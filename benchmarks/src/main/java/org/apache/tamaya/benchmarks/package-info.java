@@ -0,0 +1,30 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+/**
+ * JMH benchmarks for Tamaya. Build the module using {@code mvn install} and run the benchmarks from the
+ * self-contained jar, e.g.
+ * <pre>
+ * java -jar target/benchmarks.jar ConfigurationGetBenchmark -t 4 -p sources=5 -prof gc
+ * </pre>
+ * The {@code -t} option sets the number of threads, {@code -p} restricts the benchmark parameters and
+ * {@code -prof gc} additionally reports the allocation rate per operation. All benchmarks operating on
+ * configuration data use {@link org.apache.tamaya.benchmarks.data.BenchmarkDataset}, which generates the same
+ * property sources and filters for the same parameters, so results are comparable across releases.
+ */
+package org.apache.tamaya.benchmarks;
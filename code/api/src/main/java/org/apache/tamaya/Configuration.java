@@ -120,6 +120,58 @@ public interface Configuration {
      */
     <T> T getOrDefault(String key, TypeLiteral<T> type, T defaultValue);
 
+    /**
+     * Get the property value as {@code int}. The value is converted the same way as
+     * {@code getOrDefault(key, Integer.class, defaultValue)} does, but implementations should avoid boxing, so this
+     * method can be used on hot paths.
+     *
+     * @param key          the property's absolute, or relative path, e.g.
+     *                     {@code a/b/c/d.myProperty}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     * @throws ConfigException if the value could not be converted to {@code int}.
+     */
+    int getInt(String key, int defaultValue);
+
+    /**
+     * Get the property value as {@code long}. The value is converted the same way as
+     * {@code getOrDefault(key, Long.class, defaultValue)} does, but implementations should avoid boxing, so this
+     * method can be used on hot paths.
+     *
+     * @param key          the property's absolute, or relative path, e.g.
+     *                     {@code a/b/c/d.myProperty}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     * @throws ConfigException if the value could not be converted to {@code long}.
+     */
+    long getLong(String key, long defaultValue);
+
+    /**
+     * Get the property value as {@code double}. The value is converted the same way as
+     * {@code getOrDefault(key, Double.class, defaultValue)} does, but implementations should avoid boxing, so this
+     * method can be used on hot paths.
+     *
+     * @param key          the property's absolute, or relative path, e.g.
+     *                     {@code a/b/c/d.myProperty}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     * @throws ConfigException if the value could not be converted to {@code double}.
+     */
+    double getDouble(String key, double defaultValue);
+
+    /**
+     * Get the property value as {@code boolean}. The value is converted the same way as
+     * {@code getOrDefault(key, Boolean.class, defaultValue)} does, but implementations should avoid boxing, so this
+     * method can be used on hot paths.
+     *
+     * @param key          the property's absolute, or relative path, e.g.
+     *                     {@code a/b/c/d.myProperty}.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     * @throws ConfigException if the value could not be converted to {@code boolean}.
+     */
+    boolean getBoolean(String key, boolean defaultValue);
+
     /**
      * Access all currently known configuration properties as a full {@code Map<String,String>}.
      * Be aware that entries from non scannable parts of the registered {@link org.apache.tamaya.spi.PropertySource}
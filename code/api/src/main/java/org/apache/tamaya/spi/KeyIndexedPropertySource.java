@@ -0,0 +1,44 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+/**
+ * <p>Optional capability of a {@link PropertySource}, which publishes an index of the keys it contains. Before
+ * calling {@link #get(String)} the configuration consults the index and skips the property source for keys it
+ * does not contain. This avoids lookups, which are expensive for property sources accessing remote systems,
+ * for keys that are provided by other property sources only.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>{@link #get(String)} must return null for all keys not contained in the index returned.</li>
+ * <li>The index must be updated whenever keys are added, e.g. by replacing it with a new
+ * {@link KeyPresenceIndex} instance.</li>
+ * <li>Accessing the index must be cheap, it is called for every key accessed.</li>
+ * </ul>
+ */
+public interface KeyIndexedPropertySource extends PropertySource {
+
+    /**
+     * Access the current index of the keys contained in this property source.
+     *
+     * @return the current index, or null, if no index is available and this property source must be asked
+     * for every key.
+     */
+    KeyPresenceIndex getKeyIndex();
+}
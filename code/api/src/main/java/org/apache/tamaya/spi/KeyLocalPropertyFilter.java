@@ -0,0 +1,34 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+/**
+ * <p>Optional capability of a {@link PropertyFilter}, which declares that the values it returns only depend on
+ * the key and value passed. Components evaluating configuration changes incrementally, such as caches or change
+ * observers, can filter only the keys changed, if all filters registered are key local. Otherwise the values of
+ * all keys have to be filtered again, since any of them may depend on the keys changed.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>{@link #filterProperty(String, String)} must not access any other configuration value, e.g. for
+ * resolving references to other keys, and must not depend on any other state changing over time.</li>
+ * </ul>
+ */
+public interface KeyLocalPropertyFilter extends PropertyFilter {
+}
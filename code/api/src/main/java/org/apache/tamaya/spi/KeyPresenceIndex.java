@@ -0,0 +1,150 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable index telling if a key may be contained in a set of keys, as published by a
+ * {@link KeyIndexedPropertySource}. Small key sets are indexed exactly, larger key sets are indexed using a
+ * Bloom filter, which may report keys to be contained that are not (with a probability of about 1%), but never
+ * the other way round. This class is thread-safe.
+ */
+public final class KeyPresenceIndex {
+
+    /** The maximal number of keys indexed exactly. */
+    public static final int MAX_EXACT_SIZE = 1024;
+
+    /** The number of bits of the Bloom filter per key. */
+    private static final int BITS_PER_KEY = 10;
+    /** The number of hash functions of the Bloom filter. */
+    private static final int HASH_COUNT = 7;
+
+    /** The keys, if indexed exactly, or null. */
+    private final Set<String> keys;
+    /** The bits of the Bloom filter, or null. */
+    private final long[] bits;
+    /** The number of bits of the Bloom filter. */
+    private final int bitCount;
+    /** The number of keys indexed. */
+    private final int size;
+
+    private KeyPresenceIndex(Set<String> keys, long[] bits, int size) {
+        this.keys = keys;
+        this.bits = bits;
+        this.bitCount = bits != null ? bits.length * 64 : 0;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new index for the given keys.
+     *
+     * @param keys the keys, not null.
+     * @return the new index, never null.
+     */
+    public static KeyPresenceIndex of(Collection<String> keys) {
+        Set<String> keySet = new HashSet<>(Objects.requireNonNull(keys));
+        if (keySet.size() <= MAX_EXACT_SIZE) {
+            return new KeyPresenceIndex(Collections.unmodifiableSet(keySet), null, keySet.size());
+        }
+        KeyPresenceIndex index = new KeyPresenceIndex(null,
+                new long[(keySet.size() * BITS_PER_KEY + 63) / 64], keySet.size());
+        for (String key : keySet) {
+            index.add(key);
+        }
+        return index;
+    }
+
+    private void add(String key) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if the given key may be contained.
+     *
+     * @param key the key, not null.
+     * @return false, if the key is definitively not contained, true, if it is contained, or, for Bloom filter
+     * based indexes, may be contained.
+     */
+    public boolean mightContain(String key) {
+        if (keys != null) {
+            return keys.contains(key);
+        }
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if this index is exact, i.e. {@link #mightContain(String)} returns true only for keys contained.
+     *
+     * @return true, if this index is exact.
+     */
+    public boolean isExact() {
+        return keys != null;
+    }
+
+    /**
+     * Get the number of keys indexed.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Spreads the bits of a hash code (finalization step of MurmurHash3).
+     *
+     * @param hash the hash code.
+     * @return the mixed hash code.
+     */
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyPresenceIndex{" +
+                "size=" + size +
+                ", exact=" + isExact() +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+/**
+ * <p>Optional capability of a {@link PropertyFilter}, which declares the keys it may change and whether it has
+ * to take part in the repeated filter evaluation. By default all filters are applied to every key, and the
+ * whole filter chain is re-evaluated until no filter changes the value anymore. Implementing this interface
+ * allows the filter evaluation to skip this filter where it would not have any effect.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>{@link #appliesTo(String)} must return true for every key, whose value may be changed by
+ * {@link #filterProperty(String, String)}.</li>
+ * <li>A filter returning true for {@link #isSinglePass()} must be idempotent, i.e. filtering a value it
+ * has produced itself must not change it, and must not depend on being applied again, after subsequent
+ * filters have changed the value.</li>
+ * </ul>
+ */
+public interface ScopedPropertyFilter extends PropertyFilter {
+
+    /**
+     * Checks if this filter may change the value of the given key. The filter is not called for keys it does
+     * not apply to.
+     *
+     * @param key the key accessed, not null.
+     * @return true, if the filter must be applied to the given key.
+     */
+    boolean appliesTo(String key);
+
+    /**
+     * Checks if this filter must be applied only once per evaluation. Single pass filters are applied in the
+     * first evaluation cycle only, and are not considered when evaluating if another cycle is required.
+     *
+     * @return true, if this filter is applied only once.
+     */
+    boolean isSinglePass();
+}
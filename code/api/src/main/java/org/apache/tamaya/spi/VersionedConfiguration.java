@@ -0,0 +1,53 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+import org.apache.tamaya.Configuration;
+
+/**
+ * <p>Optional capability of a {@link Configuration}, which can tell cheaply if its values may have changed.
+ * Components caching values derived from a configuration, such as configuration templates, can compare the
+ * generation with the one seen before and reuse their cached values, if it is unchanged. Components detecting
+ * changes of property sources, such as change observers, can {@link #refresh()} precomputed values, so the
+ * changes become visible.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>The generation must change whenever any value of the configuration may have changed.</li>
+ * <li>The generation may change without values having changed, but never the other way round.</li>
+ * <li>If changes cannot be detected, e.g. because values are evaluated on each access, the generation
+ * must be 0.</li>
+ * </ul>
+ */
+public interface VersionedConfiguration extends Configuration {
+
+    /**
+     * Access the current generation of this configuration's values.
+     *
+     * @return the current generation, or 0, if changes cannot be detected.
+     */
+    long getGeneration();
+
+    /**
+     * Evaluates any values precomputed from the property sources again, so changes of their content become
+     * visible. The generation changes, if values are reevaluated. Configurations evaluating values on each
+     * access do nothing.
+     */
+    void refresh();
+}
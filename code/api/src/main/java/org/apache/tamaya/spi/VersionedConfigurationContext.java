@@ -0,0 +1,56 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+import java.util.Collection;
+
+/**
+ * <p>Optional capability of a {@link ConfigurationContext}, which allows replacing individual property sources
+ * in place. Instead of building and installing a new context for each change, e.g. when a single configuration
+ * file has been updated, the affected property sources are replaced atomically. Each change of the property
+ * sources increases the context's generation, so configurations and their caches can detect changes and
+ * update only the values affected.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>Readers must either see the property sources before or after a change, never an intermediate state.</li>
+ * <li>The generation must increase with every change of the property sources, including
+ * {@link #addPropertySources(PropertySource...)}.</li>
+ * </ul>
+ */
+public interface VersionedConfigurationContext extends ConfigurationContext {
+
+    /**
+     * Access the current generation of the property sources.
+     *
+     * @return the generation, increased on each change of the property sources.
+     */
+    long getGeneration();
+
+    /**
+     * Atomically removes and adds property sources. Property sources are removed by name, so a property source
+     * can be replaced by passing its old state to be removed and its new state to be added.
+     *
+     * @param removed the property sources to remove, not null. Property sources not registered are ignored.
+     * @param added the property sources to add, not null.
+     * @return the new generation.
+     */
+    long replacePropertySources(Collection<? extends PropertySource> removed,
+                                Collection<? extends PropertySource> added);
+}
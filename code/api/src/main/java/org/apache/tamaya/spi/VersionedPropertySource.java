@@ -0,0 +1,44 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.tamaya.spi;
+
+/**
+ * <p>Optional capability of a {@link PropertySource}, which can tell cheaply if its content has changed.
+ * Components detecting changes, such as caches or change observers, can compare the version with the one
+ * seen before and skip evaluating and comparing the properties, if it is unchanged.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>The version must change whenever the content returned by {@link #getProperties()} (or
+ * {@link #get(String)} for non scannable property sources) changes, e.g. by incrementing a revision
+ * counter or by using a fingerprint of the content.</li>
+ * <li>The version may change without the content having changed, but never the other way round.</li>
+ * <li>Evaluating the version must be considerably cheaper than evaluating the properties.</li>
+ * <li>Versions of different property sources are not comparable.</li>
+ * </ul>
+ */
+public interface VersionedPropertySource extends PropertySource {
+
+    /**
+     * Access the current version of this property source's content.
+     *
+     * @return the current version.
+     */
+    long getVersion();
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeyPresenceIndex}.
+ */
+public class KeyPresenceIndexTest {
+
+    @Test
+    public void testExactIndex() {
+        KeyPresenceIndex index = KeyPresenceIndex.of(Arrays.asList("a", "b.c", "b.c"));
+        assertTrue(index.isExact());
+        assertEquals(2, index.size());
+        assertTrue(index.mightContain("a"));
+        assertTrue(index.mightContain("b.c"));
+        assertFalse(index.mightContain("b"));
+    }
+
+    @Test
+    public void testBloomFilterIndex() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            keys.add("app.section" + (i % 50) + ".item" + i);
+        }
+        KeyPresenceIndex index = KeyPresenceIndex.of(keys);
+        assertFalse(index.isExact());
+        assertEquals(10000, index.size());
+        for (String key : keys) {
+            assertTrue(key, index.mightContain(key));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (index.mightContain("other.section" + (i % 50) + ".item" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("false positives: " + falsePositives, falsePositives < 300);
+    }
+}
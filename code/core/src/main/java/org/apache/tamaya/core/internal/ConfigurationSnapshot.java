@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, precomputed index of the final (combined and filtered) values of a {@link ConfigurationContext}. A
+ * snapshot is bound to the property source and filter lists it was built from, so it can cheaply detect if the
+ * context has been changed meanwhile (e.g. by calling {@link ConfigurationContext#addPropertySources}).
+ * If only some property sources have been replaced, a new snapshot can be derived from the previous one, reevaluating
+ * only the keys of the property sources added or removed.
+ * Each snapshot built gets a new, monotonically increasing generation number.
+ */
+final class ConfigurationSnapshot {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(ConfigurationSnapshot.class.getName());
+    /**
+     * Global generation counter, incremented on each snapshot built.
+     */
+    private static final AtomicLong GENERATION_COUNTER = new AtomicLong();
+
+    /** The property sources this snapshot was built from. */
+    private final List<PropertySource> propertySources;
+    /** The property filters this snapshot was built from. */
+    private final List<PropertyFilter> propertyFilters;
+    /** The final values, keyed by property key, or null, if the context could not be indexed. */
+    private final Map<String, String> values;
+    /** The generation of this snapshot. */
+    private final long generation;
+
+    private ConfigurationSnapshot(ConfigurationContext context, Map<String, String> values) {
+        this(context.getPropertySources(), context, values);
+    }
+
+    private ConfigurationSnapshot(List<PropertySource> propertySources, ConfigurationContext context,
+                                  Map<String, String> values) {
+        this.propertySources = propertySources;
+        this.propertyFilters = context.getPropertyFilters();
+        this.values = values != null ? Collections.unmodifiableMap(values) : null;
+        this.generation = GENERATION_COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Builds a new snapshot for the given configuration. Hereby for each key known by any of the
+     * context's property sources the final value is evaluated exactly the same way as
+     * {@link DefaultConfiguration#get(String)} does, so the {@link org.apache.tamaya.spi.PropertyValueCombinationPolicy}
+     * and the {@link PropertyFilter} chain are fully honored.
+     *
+     * @param configuration the configuration to be indexed, not null.
+     * @param context the configuration's context, not null.
+     * @return the new snapshot, never null. If the context contains non scannable property sources, which
+     * cannot be indexed, the snapshot returned is not {@link #isAvailable() available}.
+     */
+    static ConfigurationSnapshot of(DefaultConfiguration configuration, ConfigurationContext context) {
+        Objects.requireNonNull(configuration);
+        Set<String> keys = new HashSet<>();
+        for (PropertySource propertySource : context.getPropertySources()) {
+            if (!propertySource.isScannable()) {
+                LOG.fine("Configuration snapshot not available, non scannable PropertySource: "
+                        + propertySource.getName());
+                return new ConfigurationSnapshot(context, null);
+            }
+            keys.addAll(propertySource.getProperties().keySet());
+        }
+        Map<String, String> values = new HashMap<>(keys.size() * 4 / 3 + 1);
+        for (String key : keys) {
+            // keys filtered out are kept with a null value, so they are not reevaluated on access.
+            values.put(key, PropertyFiltering.applyFilter(key, configuration.evaluteRawValue(key), context));
+        }
+        ConfigurationSnapshot snapshot = new ConfigurationSnapshot(context, values);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Built configuration snapshot, generation: " + snapshot.generation + ", entries: "
+                    + values.size());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Derives a new snapshot for the given configuration from a previous snapshot. If the property filters did not
+     * change and are all {@link org.apache.tamaya.spi.KeyLocalPropertyFilter key local}, only the keys provided by
+     * the property sources added to or removed from the context are evaluated again, all other values are taken
+     * from the previous snapshot. Otherwise the snapshot is built completely, since the filtered value of any key
+     * may depend on the keys changed, see {@link #of(DefaultConfiguration, ConfigurationContext)}.
+     *
+     * @param configuration the configuration to be indexed, not null.
+     * @param context the configuration's context, not null.
+     * @param previous the previous snapshot of the configuration, or null.
+     * @return the new snapshot, never null.
+     */
+    static ConfigurationSnapshot of(DefaultConfiguration configuration, ConfigurationContext context,
+                                    ConfigurationSnapshot previous) {
+        if (previous == null || !previous.isAvailable() || previous.propertyFilters != context.getPropertyFilters()
+                || !PropertyFiltering.getFilterPipeline(context).isKeyLocal()) {
+            return of(configuration, context);
+        }
+        List<PropertySource> propertySources = context.getPropertySources();
+        Map<PropertySource, Boolean> previousSources = new IdentityHashMap<>();
+        for (PropertySource propertySource : previous.propertySources) {
+            previousSources.put(propertySource, Boolean.TRUE);
+        }
+        Set<String> keys = new HashSet<>();
+        for (PropertySource propertySource : propertySources) {
+            if (previousSources.remove(propertySource) == null) {
+                if (!propertySource.isScannable()) {
+                    return of(configuration, context);
+                }
+                keys.addAll(propertySource.getProperties().keySet());
+            }
+        }
+        for (PropertySource removed : previousSources.keySet()) {
+            keys.addAll(removed.getProperties().keySet());
+        }
+        Map<String, String> values = new HashMap<>(previous.values);
+        for (String key : keys) {
+            String rawValue = configuration.evaluteRawValue(key);
+            if (rawValue == null) {
+                values.remove(key);
+            } else {
+                values.put(key, PropertyFiltering.applyFilter(key, rawValue, context));
+            }
+        }
+        ConfigurationSnapshot snapshot = new ConfigurationSnapshot(propertySources, context, values);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Updated configuration snapshot, generation: " + snapshot.generation + ", keys evaluated: "
+                    + keys.size());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Checks if this snapshot still reflects the property sources and filters of the given context.
+     *
+     * @param context the context, not null.
+     * @return true, if the snapshot can be used for the given context.
+     */
+    boolean isValidFor(ConfigurationContext context) {
+        return propertySources == context.getPropertySources()
+                && propertyFilters == context.getPropertyFilters();
+    }
+
+    /**
+     * Checks if this snapshot contains the final values of its context. If not, values must be evaluated
+     * directly from the context.
+     *
+     * @return true, if the values of this snapshot can be used.
+     */
+    boolean isAvailable() {
+        return values != null;
+    }
+
+    /**
+     * Get the generation of this snapshot.
+     *
+     * @return the generation, always &gt; 0.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Access the final value of a key.
+     *
+     * @param key the key, not null.
+     * @return the value, or null, if the key is not present in any property source or was filtered out.
+     * @see #containsKey(String)
+     */
+    String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Checks if the given key is part of this snapshot, i.e. it is provided by at least one property source.
+     *
+     * @param key the key, not null.
+     * @return true, if the key has been evaluated, including keys removed by a filter.
+     */
+    boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigurationSnapshot{" +
+                "generation=" + generation +
+                ", entries=" + (values != null ? values.size() : "n/a") +
+                '}';
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.TypeLiteral;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of converted configuration values, keyed by property key and target type. Each entry also
+ * stores the raw String value it was converted from and the converter revision used, so an entry is only
+ * returned as long as the raw value and the registered converters did not change.
+ * When the capacity is exceeded entries not accessed since the last eviction run are evicted (second chance
+ * strategy). This class is thread-safe.
+ */
+public final class ConversionCache {
+
+    /** The maximal number of entries. */
+    private final int maxSize;
+    /** The cached entries. */
+    private final ConcurrentHashMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    /** Number of successful lookups. */
+    private final AtomicLong hits = new AtomicLong();
+    /** Number of failed lookups. */
+    private final AtomicLong misses = new AtomicLong();
+    /** Number of evicted entries. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximal number of entries, &gt; 0.
+     */
+    public ConversionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up a converted value.
+     *
+     * @param key the property key, not null.
+     * @param type the target type, not null.
+     * @param rawValue the current raw value, not null.
+     * @param converterRevision the current converter revision.
+     * @param <T> the target type
+     * @return the converted value, or null, if no matching entry is present.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, TypeLiteral<T> type, String rawValue, long converterRevision) {
+        CacheEntry entry = entries.get(new CacheKey(key, type));
+        if (entry != null && entry.converterRevision == converterRevision && entry.rawValue.equals(rawValue)) {
+            entry.accessed = true;
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores a converted value, replacing any existing entry for the same key and type.
+     *
+     * @param key the property key, not null.
+     * @param type the target type, not null.
+     * @param rawValue the raw value converted, not null.
+     * @param converterRevision the converter revision used for conversion.
+     * @param value the converted value, not null.
+     * @param <T> the target type
+     */
+    public <T> void put(String key, TypeLiteral<T> type, String rawValue, long converterRevision, T value) {
+        CacheKey cacheKey = new CacheKey(key, type);
+        entries.put(cacheKey, new CacheEntry(rawValue, converterRevision, value));
+        if (entries.size() > maxSize) {
+            evict(cacheKey);
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is within its bounds again.
+     *
+     * @param added the key just added, which is never evicted.
+     */
+    private void evict(CacheKey added) {
+        int toRemove = entries.size() - maxSize;
+        // first pass: remove entries not accessed since the last run, giving all others a second chance.
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iter = entries.entrySet().iterator();
+        while (toRemove > 0 && iter.hasNext()) {
+            Map.Entry<CacheKey, CacheEntry> next = iter.next();
+            CacheEntry entry = next.getValue();
+            if (next.getKey().equals(added)) {
+                continue;
+            }
+            if (entry.accessed) {
+                entry.accessed = false;
+            } else {
+                iter.remove();
+                evictions.incrementAndGet();
+                toRemove--;
+            }
+        }
+        // second pass: all entries were accessed recently, so remove any of them.
+        iter = entries.entrySet().iterator();
+        while (toRemove > 0 && iter.hasNext()) {
+            if (iter.next().getKey().equals(added)) {
+                continue;
+            }
+            iter.remove();
+            evictions.incrementAndGet();
+            toRemove--;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the maximal number of entries.
+     *
+     * @return the maximal size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the current number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of lookups that returned a cached value.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of lookups that did not return a cached value, including lookups of entries that
+     * were outdated.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of entries evicted due to the size limit.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionCache{" +
+                "size=" + entries.size() +
+                ", maxSize=" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * Key of a cache entry.
+     */
+    private static final class CacheKey {
+        private final String key;
+        private final TypeLiteral<?> type;
+        private final int hash;
+
+        CacheKey(String key, TypeLiteral<?> type) {
+            this.key = Objects.requireNonNull(key);
+            this.type = Objects.requireNonNull(type);
+            this.hash = 31 * key.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return key.equals(other.key) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cache entry.
+     */
+    private static final class CacheEntry {
+        private final String rawValue;
+        private final long converterRevision;
+        private final Object value;
+        private volatile boolean accessed;
+
+        CacheEntry(String rawValue, long converterRevision, Object value) {
+            this.rawValue = Objects.requireNonNull(rawValue);
+            this.converterRevision = converterRevision;
+            this.value = Objects.requireNonNull(value);
+        }
+    }
+}
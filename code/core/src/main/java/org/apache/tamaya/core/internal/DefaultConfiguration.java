@@ -31,6 +31,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,42 +41,287 @@ import java.util.logging.Logger;
  * chain of {@link PropertySource} and {@link PropertyFilter}
  * instance to evaluate the current Configuration.
  */
-public class DefaultConfiguration implements Configuration {
+public class DefaultConfiguration implements VersionedConfiguration {
     /**
      * The logger.
      */
     private static final Logger LOG = Logger.getLogger(DefaultConfiguration.class.getName());
 
+    /**
+     * System property to enable the snapshot evaluation mode by default.
+     * @see #isSnapshotEnabled()
+     */
+    public static final String SNAPSHOT_ENABLED_PROPERTY = "tamaya.core.snapshot.enabled";
+
+    /**
+     * System property to define the maximal number of entries of the conversion cache. The cache is
+     * disabled, if not set or set to a value &lt;= 0.
+     * @see #getConversionCache()
+     */
+    public static final String CONVERSION_CACHE_SIZE_PROPERTY = "tamaya.core.conversionCache.size";
+
+    /**
+     * System property to define the maximal number of values cached by the primitive accessors, such as
+     * {@link #getInt(String, int)}, default is {@value #DEFAULT_PRIMITIVE_CACHE_SIZE}. Values &lt; 1 are treated
+     * as 1.
+     */
+    public static final String PRIMITIVE_CACHE_SIZE_PROPERTY = "tamaya.core.primitiveCache.size";
+
+    /**
+     * The default maximal number of values cached by the primitive accessors.
+     */
+    public static final int DEFAULT_PRIMITIVE_CACHE_SIZE = 1024;
+
+    /**
+     * System property to enable the incremental evaluation of {@link #getProperties()} by default.
+     * @see #isIncrementalMergeEnabled()
+     */
+    public static final String INCREMENTAL_MERGE_ENABLED_PROPERTY = "tamaya.core.incrementalMerge.enabled";
+
+    private static final TypeLiteral<Integer> INTEGER_TYPE = TypeLiteral.of(Integer.class);
+    private static final TypeLiteral<Long> LONG_TYPE = TypeLiteral.of(Long.class);
+    private static final TypeLiteral<Double> DOUBLE_TYPE = TypeLiteral.of(Double.class);
+    private static final TypeLiteral<Boolean> BOOLEAN_TYPE = TypeLiteral.of(Boolean.class);
+
     /**
      * The current {@link ConfigurationContext} of the current instance.
      */
     private final ConfigurationContext configurationContext;
 
+    /**
+     * Flag, if values are served from a precomputed {@link ConfigurationSnapshot}.
+     */
+    private final boolean snapshotEnabled;
 
     /**
-     * Constructor.
+     * The current snapshot, or null, if not yet built or not available.
+     */
+    private volatile ConfigurationSnapshot snapshot;
+
+    /**
+     * Lock used for building snapshots.
+     */
+    private final Object snapshotLock = new Object();
+
+    /**
+     * The cache of converted values, or null, if conversion results are not cached.
+     */
+    private final ConversionCache conversionCache;
+
+    /**
+     * The merger maintaining the result of {@link #getProperties()}, or null, if evaluated on each call.
+     */
+    private final IncrementalPropertyMerger propertyMerger;
+
+    /**
+     * The values parsed by the primitive accessors, bounded by {@value #PRIMITIVE_CACHE_SIZE_PROPERTY}.
+     */
+    private final PrimitiveValueCache primitiveValueCache = new PrimitiveValueCache(
+            Math.max(1, Integer.getInteger(PRIMITIVE_CACHE_SIZE_PROPERTY, DEFAULT_PRIMITIVE_CACHE_SIZE)));
+
+    /**
+     * The number of lookups skipped per property source name.
+     */
+    private final ConcurrentHashMap<String, AtomicLong> skippedLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. The snapshot evaluation mode is enabled, if the system property
+     * {@value #SNAPSHOT_ENABLED_PROPERTY} is set to {@code true}, the conversion cache is enabled,
+     * if the system property {@value #CONVERSION_CACHE_SIZE_PROPERTY} is set to a positive value.
      * @param configurationContext The configuration Context to be used.
      */
     public DefaultConfiguration(ConfigurationContext configurationContext){
+        this(configurationContext, Boolean.getBoolean(SNAPSHOT_ENABLED_PROPERTY));
+    }
+
+    /**
+     * Constructor. The conversion cache is enabled, if the system property
+     * {@value #CONVERSION_CACHE_SIZE_PROPERTY} is set to a positive value.
+     * @param configurationContext The configuration Context to be used.
+     * @param snapshotEnabled if true, the final values are precomputed into an immutable index, which is
+     *                        used for serving subsequent lookups.
+     */
+    public DefaultConfiguration(ConfigurationContext configurationContext, boolean snapshotEnabled){
+        this(configurationContext, snapshotEnabled, Integer.getInteger(CONVERSION_CACHE_SIZE_PROPERTY, 0));
+    }
+
+    /**
+     * Constructor. The incremental evaluation of {@link #getProperties()} is enabled, if the system property
+     * {@value #INCREMENTAL_MERGE_ENABLED_PROPERTY} is set to {@code true}.
+     * @param configurationContext The configuration Context to be used.
+     * @param snapshotEnabled if true, the final values are precomputed into an immutable index, which is
+     *                        used for serving subsequent lookups.
+     * @param conversionCacheSize the maximal number of converted values cached, use 0 for disabling
+     *                            the conversion cache.
+     */
+    public DefaultConfiguration(ConfigurationContext configurationContext, boolean snapshotEnabled,
+                                int conversionCacheSize){
+        this(configurationContext, snapshotEnabled, conversionCacheSize,
+                Boolean.getBoolean(INCREMENTAL_MERGE_ENABLED_PROPERTY));
+    }
+
+    /**
+     * Constructor.
+     * @param configurationContext The configuration Context to be used.
+     * @param snapshotEnabled if true, the final values are precomputed into an immutable index, which is
+     *                        used for serving subsequent lookups.
+     * @param conversionCacheSize the maximal number of converted values cached, use 0 for disabling
+     *                            the conversion cache.
+     * @param incrementalMergeEnabled if true, the result of {@link #getProperties()} is maintained across
+     *                                calls and only changed keys are merged and filtered again.
+     */
+    public DefaultConfiguration(ConfigurationContext configurationContext, boolean snapshotEnabled,
+                                int conversionCacheSize, boolean incrementalMergeEnabled){
         this.configurationContext = Objects.requireNonNull(configurationContext);
+        this.snapshotEnabled = snapshotEnabled;
+        this.conversionCache = conversionCacheSize>0?new ConversionCache(conversionCacheSize):null;
+        this.propertyMerger = incrementalMergeEnabled?new IncrementalPropertyMerger():null;
     }
 
 
     public String get(String key) {
+        if(snapshotEnabled){
+            ConfigurationSnapshot current = getSnapshot();
+            if(current!=null && current.isAvailable()){
+                String value = current.get(key);
+                if(value!=null || current.containsKey(key)){
+                    return value;
+                }
+                // no source contains the key, but filters still may provide a value.
+                return PropertyFiltering.applyFilter(key, null, configurationContext);
+            }
+        }
         return PropertyFiltering.applyFilter(key, evaluteRawValue(key), configurationContext);
     }
 
+    /**
+     * Checks if the snapshot evaluation mode is enabled. In snapshot mode the final (combined and filtered)
+     * values are evaluated once per {@link ConfigurationContext} state and subsequent lookups are served
+     * from this precomputed index. Changes in the values of property sources are not visible until
+     * {@link #refreshSnapshot()} is called, whereas changes of the property sources or filters registered
+     * with the context are detected automatically.
+     * @return true, if snapshot evaluation is enabled.
+     */
+    public boolean isSnapshotEnabled(){
+        return snapshotEnabled;
+    }
+
+    /**
+     * Access the generation of the snapshot currently used. The generation is increased each time a new
+     * snapshot is built, so it can be used for detecting if values may have changed.
+     * @return the generation, or 0, if snapshot evaluation is not enabled or not available (e.g. because
+     * the context contains non scannable property sources).
+     */
+    @Override
+    public long getGeneration(){
+        if(snapshotEnabled){
+            ConfigurationSnapshot current = getSnapshot();
+            if(current!=null && current.isAvailable()){
+                return current.getGeneration();
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Rebuilds the snapshot, so changes in the values of the underlying property sources become visible.
+     * This method has no effect, if snapshot evaluation is not enabled.
+     */
+    public void refreshSnapshot(){
+        refresh();
+    }
+
+    /**
+     * Rebuilds the snapshot, if snapshot evaluation is enabled.
+     * @see #refreshSnapshot()
+     */
+    @Override
+    public void refresh(){
+        if(snapshotEnabled){
+            synchronized (snapshotLock){
+                this.snapshot = ConfigurationSnapshot.of(this, configurationContext);
+            }
+        }
+    }
+
+    /**
+     * Get the current snapshot, building it if not yet available or if the context has changed.
+     * @return the current snapshot, or null, if no snapshot is available.
+     */
+    private ConfigurationSnapshot getSnapshot(){
+        ConfigurationSnapshot current = this.snapshot;
+        if(current!=null && current.isValidFor(configurationContext)){
+            return current;
+        }
+        if(Thread.holdsLock(snapshotLock)){
+            // reentrant access, e.g. by a filter, whilst building the snapshot.
+            return null;
+        }
+        synchronized (snapshotLock){
+            current = this.snapshot;
+            if(current==null || !current.isValidFor(configurationContext)){
+                // only the property sources replaced are evaluated again, if possible.
+                current = ConfigurationSnapshot.of(this, configurationContext, current);
+                this.snapshot = current;
+            }
+            return current;
+        }
+    }
+
     protected String evaluteRawValue(String key) {
         List<PropertySource> propertySources = configurationContext.getPropertySources();
         String unfilteredValue = null;
         PropertyValueCombinationPolicy combinationPolicy = this.configurationContext
                 .getPropertyValueCombinationPolicy();
+        // custom policies are called for all property sources, since they may act on keys not present.
+        boolean indexesUsed = combinationPolicy == PropertyValueCombinationPolicy.DEFAULT_OVERRIDING_COLLECTOR;
         for (PropertySource propertySource : propertySources) {
+            if(indexesUsed && propertySource instanceof KeyIndexedPropertySource
+                    && isSkipped(key, (KeyIndexedPropertySource)propertySource)){
+                continue;
+            }
             unfilteredValue = combinationPolicy.collect(unfilteredValue, key, propertySource);
         }
         return unfilteredValue;
     }
 
+    /**
+     * Checks if the given property source can be skipped, because its key index does not contain the key.
+     * @param key the key, not null.
+     * @param propertySource the property source, not null.
+     * @return true, if the property source does not contain the key.
+     */
+    private boolean isSkipped(String key, KeyIndexedPropertySource propertySource){
+        KeyPresenceIndex index = propertySource.getKeyIndex();
+        if(index==null || index.mightContain(key)){
+            return false;
+        }
+        AtomicLong count = skippedLookups.get(propertySource.getName());
+        if(count==null){
+            AtomicLong newCount = new AtomicLong();
+            count = skippedLookups.putIfAbsent(propertySource.getName(), newCount);
+            if(count==null){
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Access the number of lookups skipped per property source, because the key was not contained in the
+     * {@link KeyIndexedPropertySource#getKeyIndex() key index} published by the property source. Property
+     * sources with the same name share their count.
+     * @return the skipped lookup counts keyed by property source name, never null.
+     */
+    public Map<String, Long> getSkippedLookupCounts(){
+        Map<String, Long> counts = new HashMap<>();
+        for(Map.Entry<String, AtomicLong> en:skippedLookups.entrySet()){
+            counts.put(en.getKey(), en.getValue().get());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
 
     @Override
     public String getOrDefault(String key, String defaultValue) {
@@ -102,9 +349,23 @@ public class DefaultConfiguration implements Configuration {
      */
     @Override
     public Map<String, String> getProperties() {
+        if(propertyMerger!=null){
+            return propertyMerger.getProperties(configurationContext);
+        }
         return PropertyFiltering.applyFilters(evaluateUnfilteredMap(), configurationContext);
     }
 
+    /**
+     * Checks if {@link #getProperties()} is evaluated incrementally. If enabled, the merged and filtered
+     * properties are kept across calls, and only the keys of property sources, whose content has changed,
+     * are merged and filtered again. The map returned is unmodifiable in this mode and
+     * {@link #evaluateUnfilteredMap()} is not called.
+     * @return true, if incremental evaluation is enabled.
+     */
+    public boolean isIncrementalMergeEnabled(){
+        return propertyMerger!=null;
+    }
+
     protected Map<String, String> evaluateUnfilteredMap() {
         List<PropertySource> propertySources = new ArrayList<>(configurationContext.getPropertySources());
         Collections.reverse(propertySources);
@@ -156,14 +417,56 @@ public class DefaultConfiguration implements Configuration {
         return convertValue(key, get(key), type);
     }
 
+    /**
+     * Access the cache of converted values. Cached values are returned as long as the raw value of a key
+     * and the converters registered do not change. Note that cached instances are shared between callers.
+     * @return the conversion cache, or null, if conversion results are not cached.
+     * @see #CONVERSION_CACHE_SIZE_PROPERTY
+     */
+    public ConversionCache getConversionCache(){
+        return conversionCache;
+    }
+
+    /**
+     * Get the number of values cached by the primitive accessors, such as {@link #getInt(String, int)}.
+     * @return the number of cached primitive values.
+     */
+    int getPrimitiveValueCacheSize(){
+        return primitiveValueCache.size();
+    }
+
+    /**
+     * Get the revision of the converters registered, used for detecting outdated entries in the
+     * conversion cache. Converters added to {@link ConfigurationContext} implementations other than
+     * {@link DefaultConfigurationContext} are not detected, so the cache must be cleared explicitly in that case.
+     * @return the converter revision.
+     */
+    private long getConverterRevision(){
+        if(configurationContext instanceof DefaultConfigurationContext){
+            return ((DefaultConfigurationContext)configurationContext).getConverterRevision();
+        }
+        return 0L;
+    }
+
     protected <T> T convertValue(String key, String value, TypeLiteral<T> type) {
         if (value != null) {
+            long converterRevision = 0L;
+            if(conversionCache!=null){
+                converterRevision = getConverterRevision();
+                T cached = conversionCache.get(key, type, value, converterRevision);
+                if(cached!=null){
+                    return cached;
+                }
+            }
             List<PropertyConverter<T>> converters = configurationContext.getPropertyConverters(type);
             ConversionContext context = new ConversionContext.Builder(this, key, type).build();
             for (PropertyConverter<T> converter : converters) {
                 try {
                     T t = converter.convert(value, context);
                     if (t != null) {
+                        if(conversionCache!=null){
+                            conversionCache.put(key, type, value, converterRevision, t);
+                        }
                         return t;
                     }
                 } catch (Exception e) {
@@ -176,6 +479,107 @@ public class DefaultConfiguration implements Configuration {
         return null;
     }
 
+    /**
+     * Accesses the current value as {@code int}. Values are converted using the registered converters and cached
+     * per key, so reading an unchanged value does not allocate. The number of values cached is bounded by
+     * {@value #PRIMITIVE_CACHE_SIZE_PROPERTY}, and the value of a key not present anymore is removed.
+     *
+     * @param key the property's key, not null.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     */
+    @Override
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if(value==null){
+            primitiveValueCache.remove(key);
+            return defaultValue;
+        }
+        long converterRevision = getConverterRevision();
+        PrimitiveValueCache.Entry entry = primitiveValueCache.get(key, value, PrimitiveValueCache.Kind.INT,
+                converterRevision);
+        if(entry==null){
+            entry = primitiveValueCache.put(key, value, PrimitiveValueCache.Kind.INT, converterRevision,
+                    convertValue(key, value, INTEGER_TYPE));
+        }
+        return (int)entry.getBits();
+    }
+
+    /**
+     * Accesses the current value as {@code long}. Values are converted using the registered converters and cached
+     * per key, so reading an unchanged value does not allocate.
+     *
+     * @param key the property's key, not null.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     */
+    @Override
+    public long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if(value==null){
+            primitiveValueCache.remove(key);
+            return defaultValue;
+        }
+        long converterRevision = getConverterRevision();
+        PrimitiveValueCache.Entry entry = primitiveValueCache.get(key, value, PrimitiveValueCache.Kind.LONG,
+                converterRevision);
+        if(entry==null){
+            entry = primitiveValueCache.put(key, value, PrimitiveValueCache.Kind.LONG, converterRevision,
+                    convertValue(key, value, LONG_TYPE));
+        }
+        return entry.getBits();
+    }
+
+    /**
+     * Accesses the current value as {@code double}. Values are converted using the registered converters and
+     * cached per key, so reading an unchanged value does not allocate.
+     *
+     * @param key the property's key, not null.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     */
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        if(value==null){
+            primitiveValueCache.remove(key);
+            return defaultValue;
+        }
+        long converterRevision = getConverterRevision();
+        PrimitiveValueCache.Entry entry = primitiveValueCache.get(key, value, PrimitiveValueCache.Kind.DOUBLE,
+                converterRevision);
+        if(entry==null){
+            entry = primitiveValueCache.put(key, value, PrimitiveValueCache.Kind.DOUBLE, converterRevision,
+                    Double.doubleToRawLongBits(convertValue(key, value, DOUBLE_TYPE)));
+        }
+        return Double.longBitsToDouble(entry.getBits());
+    }
+
+    /**
+     * Accesses the current value as {@code boolean}. Values are converted using the registered converters and
+     * cached per key, so reading an unchanged value does not allocate.
+     *
+     * @param key the property's key, not null.
+     * @param defaultValue value to be returned, if no value is present.
+     * @return the property value, or {@code defaultValue}, if no value is present.
+     */
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        if(value==null){
+            primitiveValueCache.remove(key);
+            return defaultValue;
+        }
+        long converterRevision = getConverterRevision();
+        PrimitiveValueCache.Entry entry = primitiveValueCache.get(key, value, PrimitiveValueCache.Kind.BOOLEAN,
+                converterRevision);
+        if(entry==null){
+            entry = primitiveValueCache.put(key, value, PrimitiveValueCache.Kind.BOOLEAN, converterRevision,
+                    convertValue(key, value, BOOLEAN_TYPE) ? 1L : 0L);
+        }
+        return entry.getBits()!=0L;
+    }
+
     @Override
     public <T> T getOrDefault(String key, TypeLiteral<T> type, T defaultValue) {
         T val = get(key, type);
@@ -28,6 +28,7 @@ import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertySourceProvider;
 import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
 import org.apache.tamaya.spi.ServiceContextManager;
+import org.apache.tamaya.spi.VersionedConfigurationContext;
 
 import javax.annotation.Priority;
 import java.io.Serializable;
@@ -36,8 +37,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
@@ -45,7 +48,7 @@ import java.util.logging.Logger;
 /**
  * Default Implementation of a simple ConfigurationContext.
  */
-public class DefaultConfigurationContext implements ConfigurationContext {
+public class DefaultConfigurationContext implements VersionedConfigurationContext {
     /** The logger used. */
     private final static Logger LOG = Logger.getLogger(DefaultConfigurationContext.class.getName());
     /**
@@ -56,13 +59,23 @@ public class DefaultConfigurationContext implements ConfigurationContext {
     /**
      * The current unmodifiable list of loaded {@link org.apache.tamaya.spi.PropertySource} instances.
      */
-    private List<PropertySource> immutablePropertySources;
+    private volatile List<PropertySource> immutablePropertySources;
+
+    /**
+     * The generation of {@link #immutablePropertySources}, increased on each change.
+     */
+    private volatile long generation = 1L;
 
     /**
      * The current unmodifiable list of loaded {@link org.apache.tamaya.spi.PropertyFilter} instances.
      */
     private List<PropertyFilter> immutablePropertyFilters;
 
+    /**
+     * The pipeline evaluating {@link #immutablePropertyFilters}, created lazily.
+     */
+    private volatile FilterPipeline filterPipeline;
+
     /**
      * The overriding policy used when combining PropertySources registered to evalute the final configuration
      * values.
@@ -175,11 +188,67 @@ public class DefaultConfigurationContext implements ConfigurationContext {
             Collections.sort(newPropertySources, new PropertySourceComparator());
 
             this.immutablePropertySources = Collections.unmodifiableList(newPropertySources);
+            this.generation++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long replacePropertySources(Collection<? extends PropertySource> removed,
+                                       Collection<? extends PropertySource> added) {
+        Set<String> removedNames = new HashSet<>();
+        for (PropertySource propertySource : removed) {
+            removedNames.add(propertySource.getName());
+        }
+        Lock writeLock = propertySourceLock.writeLock();
+        try {
+            writeLock.lock();
+            List<PropertySource> newPropertySources = new ArrayList<>(this.immutablePropertySources.size()
+                    + added.size());
+            for (PropertySource propertySource : this.immutablePropertySources) {
+                if (!removedNames.contains(propertySource.getName())) {
+                    newPropertySources.add(propertySource);
+                }
+            }
+            // the list is sorted already, so each property source is inserted after all equally ordered ones,
+            // which results in the same order as a (stable) sort.
+            for (PropertySource propertySource : added) {
+                newPropertySources.add(insertionPoint(newPropertySources, propertySource), propertySource);
+            }
+            this.immutablePropertySources = Collections.unmodifiableList(newPropertySources);
+            return ++this.generation;
         } finally {
             writeLock.unlock();
         }
     }
 
+    /**
+     * Evaluates the position after all property sources ordered before or equal to the given property source.
+     *
+     * @param propertySources the sorted property sources, not null.
+     * @param propertySource the property source to insert, not null.
+     * @return the insertion index.
+     */
+    private int insertionPoint(List<PropertySource> propertySources, PropertySource propertySource) {
+        int low = 0;
+        int high = propertySources.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (propertySourceComparator.compare(propertySources.get(mid), propertySource) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
     private static class PropertySourceComparator implements Comparator<PropertySource>, Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -260,6 +329,28 @@ public class DefaultConfigurationContext implements ConfigurationContext {
         return propertyConverterManager.getPropertyConverters(targetType);
     }
 
+    /**
+     * Get the revision of the converters registered with this context.
+     * @return the current converter revision.
+     * @see PropertyConverterManager#getRevision()
+     */
+    long getConverterRevision() {
+        return propertyConverterManager.getRevision();
+    }
+
+    /**
+     * Get the pipeline evaluating the property filters of this context.
+     * @return the filter pipeline, never null.
+     */
+    FilterPipeline getFilterPipeline() {
+        FilterPipeline pipeline = this.filterPipeline;
+        if(pipeline==null || !pipeline.isBuiltFrom(immutablePropertyFilters)){
+            pipeline = new FilterPipeline(immutablePropertyFilters);
+            this.filterPipeline = pipeline;
+        }
+        return pipeline;
+    }
+
     @Override
     public List<PropertyFilter> getPropertyFilters() {
         return immutablePropertyFilters;
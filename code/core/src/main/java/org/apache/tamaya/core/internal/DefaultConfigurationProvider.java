@@ -31,8 +31,8 @@ import org.apache.tamaya.spi.ServiceContextManager;
  */
 public class DefaultConfigurationProvider implements ConfigurationProviderSpi {
 
-    private ConfigurationContext context = new DefaultConfigurationContext();
-    private Configuration config = new DefaultConfiguration(context);
+    private volatile ConfigurationContext context = new DefaultConfigurationContext();
+    private volatile Configuration config = new DefaultConfiguration(context);
 
     @Override
     public Configuration getConfiguration() {
@@ -52,8 +52,12 @@ public class DefaultConfigurationProvider implements ConfigurationProviderSpi {
     @Override
     public void setConfigurationContext(ConfigurationContext context){
         // TODO think on a SPI or move event part into API...
-        this.config = new DefaultConfiguration(context);
+        DefaultConfiguration newConfig = new DefaultConfiguration(context);
         this.context = context;
+        this.config = newConfig;
+        // build the snapshot eagerly, so the new configuration does not pay for it on first access. The
+        // configuration must be installed before, since filters may look up other keys from the current one.
+        newConfig.refreshSnapshot();
     }
 
 
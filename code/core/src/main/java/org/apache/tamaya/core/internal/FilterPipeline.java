@@ -0,0 +1,453 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.KeyLocalPropertyFilter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.ScopedPropertyFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Precompiled evaluation of an ordered list of {@link PropertyFilter}s. In the first cycle all filters are applied
+ * in order. As long as the value changes, further cycles are performed, hereby only applying the filters not
+ * declared as {@link ScopedPropertyFilter#isSinglePass() single pass}, so the repeated evaluation is limited to
+ * the filters that really require it. {@link ScopedPropertyFilter}s are not applied to keys outside of their scope.
+ * If enabled by the system property {@value #STATISTICS_ENABLED_PROPERTY}, invocation counts and times are
+ * collected per filter.
+ * Maps with at least {@value #PARALLEL_THRESHOLD_PROPERTY} entries are filtered in parallel using a
+ * {@link ForkJoinPool}, hereby each entry is filtered exactly as done sequentially, so the result is the same.
+ * This class is thread-safe.
+ */
+public final class FilterPipeline {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(FilterPipeline.class.getName());
+
+    /**
+     * System property to enable collecting {@link FilterStatistics}.
+     */
+    public static final String STATISTICS_ENABLED_PROPERTY = "tamaya.core.filterStatistics.enabled";
+
+    /**
+     * System property to define the minimal number of entries of a map to be filtered in parallel. Parallel
+     * filtering is disabled, if not set or set to a value &lt;= 0.
+     */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "tamaya.core.parallelFiltering.threshold";
+
+    /**
+     * System property to define the parallelism of the default pool used for parallel filtering. If not set,
+     * the number of available processors is used.
+     */
+    public static final String PARALLELISM_PROPERTY = "tamaya.core.parallelFiltering.parallelism";
+
+    /**
+     * The minimal number of entries filtered by a single parallel task.
+     */
+    private static final int MIN_PARTITION_SIZE = 64;
+
+    /**
+     * The maximal number of filter cycles performed before aborting.
+     */
+    private static final int MAX_FILTER_LOOPS = 10;
+
+    /** The filter list this pipeline was built from. */
+    private final List<PropertyFilter> filterList;
+    /** The filters, in evaluation order. */
+    private final PropertyFilter[] filters;
+    /** The scoped filters, with null entries for filters applying to all keys. */
+    private final ScopedPropertyFilter[] scopedFilters;
+    /** The indexes of the filters applied in subsequent cycles. */
+    private final int[] loopFilters;
+    /** Flag, if all filters are {@link KeyLocalPropertyFilter key local}. */
+    private final boolean keyLocal;
+    /** The statistics per filter, or null, if not collected. */
+    private final FilterStatistics[] statistics;
+    /** The minimal map size for filtering in parallel, or 0, if parallel filtering is disabled. */
+    private final int parallelThreshold;
+    /** The pool used for parallel filtering, or null, if the default pool is used. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new pipeline, collecting statistics if the system property {@value #STATISTICS_ENABLED_PROPERTY}
+     * is set to {@code true} and filtering in parallel as configured by {@value #PARALLEL_THRESHOLD_PROPERTY}.
+     *
+     * @param filterList the filters in evaluation order, not null.
+     */
+    public FilterPipeline(List<PropertyFilter> filterList) {
+        this(filterList, Boolean.getBoolean(STATISTICS_ENABLED_PROPERTY));
+    }
+
+    /**
+     * Creates a new pipeline, filtering in parallel as configured by {@value #PARALLEL_THRESHOLD_PROPERTY}.
+     *
+     * @param filterList the filters in evaluation order, not null.
+     * @param statisticsEnabled if true, invocation counts and times are collected per filter.
+     */
+    public FilterPipeline(List<PropertyFilter> filterList, boolean statisticsEnabled) {
+        this(filterList, statisticsEnabled, Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, 0), null);
+    }
+
+    /**
+     * Creates a new pipeline.
+     *
+     * @param filterList the filters in evaluation order, not null.
+     * @param statisticsEnabled if true, invocation counts and times are collected per filter.
+     * @param parallelThreshold the minimal number of entries of a map to be filtered in parallel, use 0 for
+     *                          disabling parallel filtering.
+     * @param pool the pool used for parallel filtering, or null, for using a shared default pool.
+     */
+    public FilterPipeline(List<PropertyFilter> filterList, boolean statisticsEnabled, int parallelThreshold,
+                          ForkJoinPool pool) {
+        this.filterList = filterList;
+        this.parallelThreshold = Math.max(0, parallelThreshold);
+        this.pool = pool;
+        this.filters = filterList.toArray(new PropertyFilter[filterList.size()]);
+        this.scopedFilters = new ScopedPropertyFilter[filters.length];
+        List<Integer> loopIndexes = new ArrayList<>(filters.length);
+        boolean allKeyLocal = true;
+        for (int i = 0; i < filters.length; i++) {
+            allKeyLocal &= filters[i] instanceof KeyLocalPropertyFilter;
+            if (filters[i] instanceof ScopedPropertyFilter) {
+                scopedFilters[i] = (ScopedPropertyFilter) filters[i];
+                if (scopedFilters[i].isSinglePass()) {
+                    continue;
+                }
+            }
+            loopIndexes.add(i);
+        }
+        this.keyLocal = allKeyLocal;
+        this.loopFilters = new int[loopIndexes.size()];
+        for (int i = 0; i < loopFilters.length; i++) {
+            loopFilters[i] = loopIndexes.get(i);
+        }
+        if (statisticsEnabled) {
+            this.statistics = new FilterStatistics[filters.length];
+            for (int i = 0; i < filters.length; i++) {
+                statistics[i] = new FilterStatistics(filters[i]);
+            }
+        } else {
+            this.statistics = null;
+        }
+    }
+
+    /**
+     * Checks if this pipeline was built from the given filter list instance.
+     *
+     * @param filterList the filter list, not null.
+     * @return true, if this pipeline can be used for the given filters.
+     */
+    boolean isBuiltFrom(List<PropertyFilter> filterList) {
+        return this.filterList == filterList;
+    }
+
+    /**
+     * Checks if all filters of this pipeline are {@link KeyLocalPropertyFilter key local}. If so, the filtered
+     * value of a key only changes, if its unfiltered value changes.
+     *
+     * @return true, if all filters are key local, or no filters are registered.
+     */
+    public boolean isKeyLocal() {
+        return keyLocal;
+    }
+
+    /**
+     * Filters a single value.
+     *
+     * @param key the key, not null.
+     * @param value the unfiltered value, may be null.
+     * @return the filtered value, or null, if removed by the filters.
+     */
+    public String filter(String key, String value) {
+        boolean changed = false;
+        for (int i = 0; i < filters.length; i++) {
+            String newValue = apply(i, key, value);
+            if (isChanged(value, newValue)) {
+                log(key, value, newValue, i);
+                changed = true;
+                value = newValue;
+            }
+        }
+        for (int loop = 1; changed && loopFilters.length > 0; loop++) {
+            if (loop == MAX_FILTER_LOOPS) {
+                if (LOG.isLoggable(Level.WARNING)) {
+                    LOG.warning("Maximal filter loop count reached, aborting filter evaluation after cycles: "
+                            + (loop - 1));
+                }
+                break;
+            }
+            LOG.finest("Repeating filter loop, changes detected.");
+            changed = false;
+            for (int i : loopFilters) {
+                String newValue = apply(i, key, value);
+                if (isChanged(value, newValue)) {
+                    log(key, value, newValue, i);
+                    changed = true;
+                    value = newValue;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Filters all entries of the given map. Each entry is filtered independently, exactly as done by
+     * {@link #filter(String, String)}. If the map has at least as many entries as configured as parallel
+     * threshold, the entries are filtered in parallel.
+     *
+     * @param inputMap the unfiltered entries, not null.
+     * @return a new map with the filtered entries, not containing entries removed by the filters.
+     */
+    public Map<String, String> filter(Map<String, String> inputMap) {
+        if (filters.length > 0 && parallelThreshold > 0 && inputMap.size() >= parallelThreshold) {
+            return filterParallel(inputMap);
+        }
+        Map<String, String> resultMap = new HashMap<>(inputMap.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : inputMap.entrySet()) {
+            String value = filter(entry.getKey(), entry.getValue());
+            if (value != null) {
+                resultMap.put(entry.getKey(), value);
+            }
+        }
+        return resultMap;
+    }
+
+    /**
+     * Filters all entries of the given map in parallel. The key space is split into partitions, which are
+     * filtered by fork/join tasks, writing the results into an array. The result map is finally assembled
+     * sequentially.
+     *
+     * @param inputMap the unfiltered entries, not null.
+     * @return a new map with the filtered entries.
+     */
+    private Map<String, String> filterParallel(Map<String, String> inputMap) {
+        int size = inputMap.size();
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        int index = 0;
+        for (Map.Entry<String, String> entry : inputMap.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+            index++;
+        }
+        ForkJoinPool targetPool = this.pool != null ? this.pool : DefaultPoolHolder.POOL;
+        int partitionSize = Math.max(MIN_PARTITION_SIZE, size / (targetPool.getParallelism() * 4));
+        FilterTask task = new FilterTask(keys, values, 0, size, partitionSize);
+        if (ForkJoinTask.inForkJoinPool()) {
+            // already running within a pool, e.g. when called by a filter, so fork within this pool.
+            task.invoke();
+        } else {
+            targetPool.invoke(task);
+        }
+        Map<String, String> resultMap = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                resultMap.put(keys[i], values[i]);
+            }
+        }
+        return resultMap;
+    }
+
+    /**
+     * Applies the filter with the given index, if it applies to the given key.
+     *
+     * @param index the filter index.
+     * @param key the key, not null.
+     * @param value the current value.
+     * @return the filtered value.
+     */
+    private String apply(int index, String key, String value) {
+        ScopedPropertyFilter scopedFilter = scopedFilters[index];
+        if (scopedFilter != null && !scopedFilter.appliesTo(key)) {
+            if (statistics != null) {
+                statistics[index].skipCount.incrementAndGet();
+            }
+            return value;
+        }
+        if (statistics == null) {
+            return filters[index].filterProperty(key, value);
+        }
+        long start = System.nanoTime();
+        try {
+            return filters[index].filterProperty(key, value);
+        } finally {
+            statistics[index].record(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isChanged(String value, String newValue) {
+        return value == null ? newValue != null : !value.equals(newValue);
+    }
+
+    private void log(String key, String value, String newValue, int index) {
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.finest("Filter - " + key + ": " + value + " -> " + newValue + " by " + filters[index]);
+        }
+    }
+
+    /**
+     * Access the statistics collected per filter.
+     *
+     * @return the statistics in filter evaluation order, or an empty list, if statistics are not enabled.
+     */
+    public List<FilterStatistics> getStatistics() {
+        if (statistics == null) {
+            return Collections.emptyList();
+        }
+        List<FilterStatistics> result = new ArrayList<>(statistics.length);
+        Collections.addAll(result, statistics);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Get the minimal number of entries of a map to be filtered in parallel.
+     *
+     * @return the parallel threshold, or 0, if parallel filtering is disabled.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterPipeline{" +
+                "filters=" + filters.length +
+                ", loopFilters=" + loopFilters.length +
+                ", statistics=" + (statistics != null) +
+                ", parallelThreshold=" + parallelThreshold +
+                '}';
+    }
+
+    /**
+     * Task filtering a range of entries in place.
+     */
+    private final class FilterTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String[] keys;
+        private final String[] values;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+
+        FilterTask(String[] keys, String[] values, int from, int to, int partitionSize) {
+            this.keys = keys;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= partitionSize) {
+                for (int i = from; i < to; i++) {
+                    values[i] = filter(keys[i], values[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new FilterTask(keys, values, from, middle, partitionSize),
+                        new FilterTask(keys, values, middle, to, partitionSize));
+            }
+        }
+    }
+
+    /**
+     * Holder of the default pool used for parallel filtering, created on first use.
+     */
+    private static final class DefaultPoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Invocation statistics of a single filter.
+     */
+    public static final class FilterStatistics {
+        private final PropertyFilter filter;
+        private final AtomicLong invocationCount = new AtomicLong();
+        private final AtomicLong skipCount = new AtomicLong();
+        private final AtomicLong totalTimeNanos = new AtomicLong();
+
+        FilterStatistics(PropertyFilter filter) {
+            this.filter = filter;
+        }
+
+        void record(long nanos) {
+            invocationCount.incrementAndGet();
+            totalTimeNanos.addAndGet(nanos);
+        }
+
+        /**
+         * Get the filter.
+         *
+         * @return the filter, never null.
+         */
+        public PropertyFilter getFilter() {
+            return filter;
+        }
+
+        /**
+         * Get the number of times the filter has been called.
+         *
+         * @return the invocation count.
+         */
+        public long getInvocationCount() {
+            return invocationCount.get();
+        }
+
+        /**
+         * Get the number of times the filter has not been called, because the key was out of its scope.
+         *
+         * @return the skip count.
+         */
+        public long getSkipCount() {
+            return skipCount.get();
+        }
+
+        /**
+         * Get the total time spent in the filter.
+         *
+         * @return the total time in nanoseconds.
+         */
+        public long getTotalTimeNanos() {
+            return totalTimeNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "FilterStatistics{" +
+                    "filter=" + filter +
+                    ", invocations=" + invocationCount +
+                    ", skipped=" + skipCount +
+                    ", totalTimeNanos=" + totalTimeNanos +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the merged and filtered view of all properties of a {@link ConfigurationContext} across calls. On
+ * each access the current content of every property source is compared with the content seen before, and only
+ * the keys of property sources that have changed are merged and filtered again. The content of a
+ * {@link VersionedPropertySource} is only compared, if its version has changed. If property sources are added to or
+ * removed from the context, only their keys are merged again. Only the keys changed are filtered again, if all
+ * filters are {@link org.apache.tamaya.spi.KeyLocalPropertyFilter key local}, otherwise all keys are filtered again.
+ * If the filters registered with the context change, the view is rebuilt completely.
+ * The values evaluated equal the ones of {@link DefaultConfiguration#evaluateUnfilteredMap()}, with
+ * {@link PropertyFiltering#applyFilters(Map, ConfigurationContext)} applied.
+ */
+final class IncrementalPropertyMerger {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = Logger.getLogger(IncrementalPropertyMerger.class.getName());
+
+    /** The property sources the current view was built from. */
+    private List<PropertySource> propertySources;
+    /** The property filters the current view was built from. */
+    private List<PropertyFilter> propertyFilters;
+    /** The content last seen for each property source, ordered as {@link #propertySources}. */
+    private Map<String, String>[] sourceProperties;
+    /** The version last seen for each property source, or 0 for property sources not versioned. */
+    private long[] sourceVersions;
+    /** The merged, unfiltered properties. */
+    private Map<String, String> unfiltered;
+    /** The current merged and filtered properties, unmodifiable. */
+    private Map<String, String> filtered;
+    /** The number of complete rebuilds. */
+    private long rebuildCount;
+    /** The number of keys merged and filtered again due to changes. */
+    private long updatedKeyCount;
+    /** The number of times all keys were filtered again due to changes, since filters were not key local. */
+    private long refilterCount;
+
+    /**
+     * Access the current merged and filtered properties, updating the view as needed.
+     *
+     * @param context the context, not null.
+     * @return the current properties, unmodifiable.
+     */
+    synchronized Map<String, String> getProperties(ConfigurationContext context) {
+        if (filtered == null || propertyFilters != context.getPropertyFilters()) {
+            rebuild(context);
+            return filtered;
+        }
+        Set<String> changedKeys = new HashSet<>();
+        if (propertySources != context.getPropertySources()) {
+            realign(context.getPropertySources(), changedKeys);
+        }
+        for (int i = 0; i < sourceProperties.length; i++) {
+            PropertySource propertySource = propertySources.get(i);
+            long version = readVersion(propertySource);
+            if (propertySource instanceof VersionedPropertySource && version == sourceVersions[i]) {
+                continue;
+            }
+            // the content seen is compared and updated in a single pass, without copying it as a whole.
+            updateProperties(sourceProperties[i], readProperties(propertySource), changedKeys);
+            sourceVersions[i] = version;
+        }
+        if (!changedKeys.isEmpty()) {
+            update(changedKeys, context);
+        }
+        return filtered;
+    }
+
+    /**
+     * Rebuilds the complete view.
+     *
+     * @param context the context, not null.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild(ConfigurationContext context) {
+        this.propertySources = context.getPropertySources();
+        this.propertyFilters = context.getPropertyFilters();
+        this.sourceProperties = new Map[propertySources.size()];
+        this.sourceVersions = new long[propertySources.size()];
+        for (int i = 0; i < sourceProperties.length; i++) {
+            // read the version first, so concurrent changes are detected on the next call.
+            sourceVersions[i] = readVersion(propertySources.get(i));
+            sourceProperties[i] = new HashMap<>(readProperties(propertySources.get(i)));
+        }
+        Map<String, String> result = new HashMap<>();
+        // same precedence as DefaultConfiguration.evaluateUnfilteredMap(): sources are applied in reverse order.
+        for (int i = sourceProperties.length - 1; i >= 0; i--) {
+            result.putAll(sourceProperties[i]);
+        }
+        this.unfiltered = result;
+        this.filtered = Collections.unmodifiableMap(PropertyFiltering.applyFilters(result, context));
+        this.rebuildCount++;
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Rebuilt merged properties, entries: " + filtered.size());
+        }
+    }
+
+    /**
+     * Aligns the content seen with a new list of property sources. The content of property sources still
+     * registered is kept, whereas the keys of property sources added or removed are collected for being merged
+     * again.
+     *
+     * @param newPropertySources the property sources now registered, not null.
+     * @param changedKeys the target set, not null.
+     */
+    @SuppressWarnings("unchecked")
+    private void realign(List<PropertySource> newPropertySources, Set<String> changedKeys) {
+        Map<PropertySource, Integer> previousIndex = new IdentityHashMap<>();
+        for (int i = 0; i < propertySources.size(); i++) {
+            previousIndex.put(propertySources.get(i), i);
+        }
+        Map<String, String>[] newSourceProperties = new Map[newPropertySources.size()];
+        long[] newSourceVersions = new long[newPropertySources.size()];
+        for (int i = 0; i < newSourceProperties.length; i++) {
+            PropertySource propertySource = newPropertySources.get(i);
+            Integer index = previousIndex.remove(propertySource);
+            if (index != null) {
+                newSourceProperties[i] = sourceProperties[index];
+                newSourceVersions[i] = sourceVersions[index];
+            } else {
+                newSourceVersions[i] = readVersion(propertySource);
+                newSourceProperties[i] = new HashMap<>(readProperties(propertySource));
+                changedKeys.addAll(newSourceProperties[i].keySet());
+            }
+        }
+        for (Integer removed : previousIndex.values()) {
+            changedKeys.addAll(sourceProperties[removed].keySet());
+        }
+        this.propertySources = newPropertySources;
+        this.sourceProperties = newSourceProperties;
+        this.sourceVersions = newSourceVersions;
+    }
+
+    /**
+     * Merges the given keys again, based on the current content of all property sources, and filters them. If not
+     * all filters are {@link org.apache.tamaya.spi.KeyLocalPropertyFilter key local}, the filtered value of any
+     * other key may depend on the keys changed, so all keys are filtered again.
+     *
+     * @param changedKeys the keys changed, not null.
+     * @param context the context, not null.
+     */
+    private void update(Set<String> changedKeys, ConfigurationContext context) {
+        Map<String, String> changedValues = new HashMap<>(changedKeys.size() * 4 / 3 + 1);
+        for (String key : changedKeys) {
+            boolean found = false;
+            for (Map<String, String> properties : sourceProperties) {
+                if (properties.containsKey(key)) {
+                    String value = properties.get(key);
+                    unfiltered.put(key, value);
+                    changedValues.put(key, value);
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                unfiltered.remove(key);
+            }
+        }
+        this.updatedKeyCount += changedKeys.size();
+        if (!PropertyFiltering.getFilterPipeline(context).isKeyLocal()) {
+            this.filtered = Collections.unmodifiableMap(PropertyFiltering.applyFilters(unfiltered, context));
+            this.refilterCount++;
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Filtered merged properties again, changed keys: " + changedKeys.size());
+            }
+            return;
+        }
+        // each entry is filtered independently, so filtering the changed entries only yields the same values.
+        Map<String, String> filteredValues = PropertyFiltering.applyFilters(changedValues, context);
+        Map<String, String> result = new HashMap<>(filtered);
+        for (String key : changedKeys) {
+            String value = filteredValues.get(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                result.remove(key);
+            }
+        }
+        this.filtered = Collections.unmodifiableMap(result);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Updated merged properties, changed keys: " + changedKeys.size());
+        }
+    }
+
+    /**
+     * Reads the current properties of a property source. Property sources failing are ignored, as done
+     * by {@link DefaultConfiguration#evaluateUnfilteredMap()}.
+     *
+     * @param propertySource the property source, not null.
+     * @return the properties, never null.
+     */
+    private static Map<String, String> readProperties(PropertySource propertySource) {
+        try {
+            Map<String, String> properties = propertySource.getProperties();
+            return properties != null ? properties : Collections.<String, String>emptyMap();
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "Error adding properties from PropertySource: " + propertySource
+                    + ", ignoring PropertySource.", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Reads the current version of a property source.
+     *
+     * @param propertySource the property source, not null.
+     * @return the version, or 0, if the property source is not a {@link VersionedPropertySource}.
+     */
+    private static long readVersion(PropertySource propertySource) {
+        if (propertySource instanceof VersionedPropertySource) {
+            return ((VersionedPropertySource) propertySource).getVersion();
+        }
+        return 0L;
+    }
+
+    /**
+     * Updates the content seen of a property source to its current content, collecting all keys, which are added,
+     * removed or have a different value. The content seen is only iterated, if keys may have been removed.
+     *
+     * @param seen the content seen before, updated in place, not null.
+     * @param current the current properties, not null.
+     * @param changedKeys the target set, not null.
+     */
+    private static void updateProperties(Map<String, String> seen, Map<String, String> current,
+                                         Set<String> changedKeys) {
+        int retained = 0;
+        List<String> addedKeys = null;
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            String seenValue = seen.get(key);
+            if (seenValue == null && !seen.containsKey(key)) {
+                if (addedKeys == null) {
+                    addedKeys = new ArrayList<>();
+                }
+                addedKeys.add(key);
+                continue;
+            }
+            retained++;
+            if (!Objects.equals(value, seenValue)) {
+                seen.put(key, value);
+                changedKeys.add(key);
+            }
+        }
+        if (retained < seen.size()) {
+            for (Iterator<String> keys = seen.keySet().iterator(); keys.hasNext(); ) {
+                String key = keys.next();
+                if (!current.containsKey(key)) {
+                    keys.remove();
+                    changedKeys.add(key);
+                }
+            }
+        }
+        if (addedKeys != null) {
+            for (String key : addedKeys) {
+                seen.put(key, current.get(key));
+                changedKeys.add(key);
+            }
+        }
+    }
+
+    /**
+     * Get the number of complete rebuilds performed.
+     *
+     * @return the rebuild count.
+     */
+    synchronized long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Get the total number of keys merged and filtered again due to changes of property sources.
+     *
+     * @return the updated key count.
+     */
+    synchronized long getUpdatedKeyCount() {
+        return updatedKeyCount;
+    }
+
+    /**
+     * Get the number of times all keys were filtered again, since the filters registered are not
+     * {@link org.apache.tamaya.spi.KeyLocalPropertyFilter key local}.
+     *
+     * @return the refilter count.
+     */
+    synchronized long getRefilterCount() {
+        return refilterCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "IncrementalPropertyMerger{" +
+                "entries=" + (filtered != null ? filtered.size() : 0) +
+                ", rebuilds=" + rebuildCount +
+                ", updatedKeys=" + updatedKeyCount +
+                ", refilters=" + refilterCount +
+                '}';
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of values parsed by the primitive accessors of {@link DefaultConfiguration}, such as
+ * {@link DefaultConfiguration#getInt(String, int)}. Values are stored as raw {@code long} bits together with the
+ * String value they were parsed from, so reading a cached value does not allocate. An entry is only used as long
+ * as the String value and the converter revision are unchanged. Each key holds the entry of the primitive type
+ * read last. When the capacity is exceeded entries not accessed since the last eviction run are evicted (second
+ * chance strategy), as done by {@link ConversionCache}. This class is thread-safe.
+ */
+final class PrimitiveValueCache {
+
+    /**
+     * The primitive types supported.
+     */
+    enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN
+    }
+
+    /** The maximal number of entries. */
+    private final int maxSize;
+    /** The cached entries, keyed by property key. */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximal number of entries, &gt; 0.
+     */
+    PrimitiveValueCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up a parsed value.
+     *
+     * @param key the property key, not null.
+     * @param rawValue the current raw value, not null.
+     * @param kind the primitive type, not null.
+     * @param converterRevision the current converter revision.
+     * @return the matching entry, or null.
+     */
+    Entry get(String key, String rawValue, Kind kind, long converterRevision) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.kind == kind && entry.converterRevision == converterRevision
+                && entry.rawValue.equals(rawValue)) {
+            if (!entry.accessed) {
+                entry.accessed = true;
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * Stores a parsed value, replacing any existing entry for the key.
+     *
+     * @param key the property key, not null.
+     * @param rawValue the raw value parsed, not null.
+     * @param kind the primitive type, not null.
+     * @param converterRevision the converter revision used for parsing.
+     * @param bits the value, as returned by {@link Entry#getBits()}.
+     * @return the new entry.
+     */
+    Entry put(String key, String rawValue, Kind kind, long converterRevision, long bits) {
+        Entry entry = new Entry(rawValue, kind, converterRevision, bits);
+        entries.put(key, entry);
+        if (entries.size() > maxSize) {
+            evict(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes the entry of a key, e.g. because the key is not present anymore.
+     *
+     * @param key the property key, not null.
+     */
+    void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Evicts entries until the cache is within its bounds again.
+     *
+     * @param added the key just added, which is never evicted.
+     */
+    private void evict(String added) {
+        int toRemove = entries.size() - maxSize;
+        // first pass: remove entries not accessed since the last run, giving all others a second chance.
+        Iterator<Map.Entry<String, Entry>> iter = entries.entrySet().iterator();
+        while (toRemove > 0 && iter.hasNext()) {
+            Map.Entry<String, Entry> next = iter.next();
+            if (next.getKey().equals(added)) {
+                continue;
+            }
+            if (next.getValue().accessed) {
+                next.getValue().accessed = false;
+            } else {
+                iter.remove();
+                toRemove--;
+            }
+        }
+        // second pass: all entries were accessed recently, so remove any of them.
+        iter = entries.entrySet().iterator();
+        while (toRemove > 0 && iter.hasNext()) {
+            if (iter.next().getKey().equals(added)) {
+                continue;
+            }
+            iter.remove();
+            toRemove--;
+        }
+    }
+
+    /**
+     * Get the maximal number of entries.
+     *
+     * @return the maximal size.
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the current number of entries.
+     *
+     * @return the number of entries.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * A parsed value.
+     */
+    static final class Entry {
+        private final String rawValue;
+        private final Kind kind;
+        private final long converterRevision;
+        private final long bits;
+        /** Flag, if accessed since the last eviction run. */
+        private volatile boolean accessed;
+
+        Entry(String rawValue, Kind kind, long converterRevision, long bits) {
+            this.rawValue = rawValue;
+            this.kind = kind;
+            this.converterRevision = converterRevision;
+            this.bits = bits;
+        }
+
+        /**
+         * Get the value bits: the value itself for {@code int} and {@code long}, the result of
+         * {@link Double#doubleToRawLongBits(double)} for {@code double} and 1 or 0 for {@code boolean} values.
+         *
+         * @return the value bits.
+         */
+        long getBits() {
+            return bits;
+        }
+    }
+}
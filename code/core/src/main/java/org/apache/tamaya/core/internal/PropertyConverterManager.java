@@ -38,16 +38,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manager that deals with {@link org.apache.tamaya.spi.PropertyConverter} instances.
- * This class is thread-safe.
+ * This class is thread-safe. All converter tables are immutable and replaced on modification (copy-on-write),
+ * so looking up the converters of an already resolved type neither locks nor allocates.
  */
 public class PropertyConverterManager {
     /**
@@ -55,17 +52,27 @@ public class PropertyConverterManager {
      */
     private static final Logger LOG = Logger.getLogger(PropertyConverterManager.class.getName());
     /**
-     * The registered converters.
+     * The registered converters, replaced as a whole on each registration (copy-on-write).
      */
-    private final Map<TypeLiteral<?>, List<PropertyConverter<?>>> converters = new ConcurrentHashMap<>();
+    private volatile Map<TypeLiteral<?>, List<PropertyConverter<?>>> converters = Collections.emptyMap();
     /**
-     * The transitive converters.
+     * The transitive converters, replaced as a whole on each registration (copy-on-write).
      */
-    private final Map<TypeLiteral<?>, List<PropertyConverter<?>>> transitiveConverters = new ConcurrentHashMap<>();
+    private volatile Map<TypeLiteral<?>, List<PropertyConverter<?>>> transitiveConverters = Collections.emptyMap();
     /**
-     * The lock used.
+     * The resolved converter chains per target type, including transitive and boxed type mappings and default
+     * converters created on the fly. The table is extended copy-on-write on first access of a type and reset on
+     * each registration.
      */
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<TypeLiteral<?>, List<PropertyConverter<?>>> resolvedConverters = Collections.emptyMap();
+    /**
+     * The lock used for modifying the tables.
+     */
+    private final Object writeLock = new Object();
+    /**
+     * The revision, incremented on each converter registered.
+     */
+    private volatile long revision;
 
     private static final Comparator<Object> PRIORITY_COMPARATOR = new Comparator<Object>() {
 
@@ -114,56 +121,61 @@ public class PropertyConverterManager {
      */
     public <T> void register(TypeLiteral<T> targetType, PropertyConverter<T> converter) {
         Objects.requireNonNull(converter);
-        Lock writeLock = lock.writeLock();
-        try {
-            writeLock.lock();
-            List converters = List.class.cast(this.converters.get(targetType));
-            List<PropertyConverter<?>> newConverters = new ArrayList<>();
-            if (converters != null) {
-                newConverters.addAll(converters);
-            }
-            newConverters.add(converter);
-            Collections.sort(newConverters, PRIORITY_COMPARATOR);
-            this.converters.put(targetType, Collections.unmodifiableList(newConverters));
+        synchronized (writeLock) {
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> newConverters = new HashMap<>(this.converters);
+            addConverter(newConverters, targetType, converter);
             // evaluate transitive closure for all inherited supertypes and implemented interfaces
             // direct implemented interfaces
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> newTransitiveConverters =
+                    new HashMap<>(this.transitiveConverters);
             for (Class<?> ifaceType : targetType.getRawType().getInterfaces()) {
-                converters = List.class.cast(this.transitiveConverters.get(TypeLiteral.of(ifaceType)));
-                newConverters = new ArrayList<>();
-                if (converters != null) {
-                    newConverters.addAll(converters);
-                }
-                newConverters.add(converter);
-                Collections.sort(newConverters, PRIORITY_COMPARATOR);
-                this.transitiveConverters.put(TypeLiteral.of(ifaceType), Collections.unmodifiableList(newConverters));
+                addConverter(newTransitiveConverters, TypeLiteral.of(ifaceType), converter);
             }
             Class<?> superClass = targetType.getRawType().getSuperclass();
             while (superClass != null && !superClass.equals(Object.class)) {
-                converters = List.class.cast(this.transitiveConverters.get(TypeLiteral.of(superClass)));
-                newConverters = new ArrayList<>();
-                if (converters != null) {
-                    newConverters.addAll(converters);
-                }
-                newConverters.add(converter);
-                Collections.sort(newConverters, PRIORITY_COMPARATOR);
-                this.transitiveConverters.put(TypeLiteral.of(superClass), Collections.unmodifiableList(newConverters));
+                addConverter(newTransitiveConverters, TypeLiteral.of(superClass), converter);
                 for (Class<?> ifaceType : superClass.getInterfaces()) {
-                    converters = List.class.cast(this.transitiveConverters.get(TypeLiteral.of(ifaceType)));
-                    newConverters = new ArrayList<>();
-                    if (converters != null) {
-                        newConverters.addAll(converters);
-                    }
-                    newConverters.add(converter);
-                    Collections.sort(newConverters, PRIORITY_COMPARATOR);
-                    this.transitiveConverters.put(TypeLiteral.of(ifaceType), Collections.unmodifiableList(newConverters));
+                    addConverter(newTransitiveConverters, TypeLiteral.of(ifaceType), converter);
                 }
                 superClass = superClass.getSuperclass();
             }
-        } finally {
-            writeLock.unlock();
+            this.converters = Collections.unmodifiableMap(newConverters);
+            this.transitiveConverters = Collections.unmodifiableMap(newTransitiveConverters);
+            this.resolvedConverters = Collections.emptyMap();
+            this.revision++;
         }
     }
 
+    /**
+     * Adds a converter to the converter list of the given type, hereby replacing the list with a new sorted
+     * and unmodifiable one.
+     *
+     * @param converterMap the map to be modified, not null.
+     * @param type the target type, not null.
+     * @param converter the converter, not null.
+     */
+    private static void addConverter(Map<TypeLiteral<?>, List<PropertyConverter<?>>> converterMap,
+                                     TypeLiteral<?> type, PropertyConverter<?> converter) {
+        List<PropertyConverter<?>> existing = converterMap.get(type);
+        List<PropertyConverter<?>> newConverters = new ArrayList<>();
+        if (existing != null) {
+            newConverters.addAll(existing);
+        }
+        newConverters.add(converter);
+        Collections.sort(newConverters, PRIORITY_COMPARATOR);
+        converterMap.put(type, Collections.unmodifiableList(newConverters));
+    }
+
+    /**
+     * Get the current revision of the registered converters. The revision changes each time a converter
+     * is registered, so it can be used to detect outdated conversion results.
+     *
+     * @return the current revision.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
     /**
      * Allows to evaluate if a given target type is supported.
      *
@@ -183,13 +195,7 @@ public class PropertyConverterManager {
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
     public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
-        Lock readLock = lock.readLock();
-        try {
-            readLock.lock();
-            return new HashMap<>(this.converters);
-        } finally {
-            readLock.unlock();
-        }
+        return new HashMap<>(this.converters);
     }
 
     /**
@@ -217,60 +223,71 @@ public class PropertyConverterManager {
      *
      * @param targetType the target type, not null.
      * @param <T>        the type class
-     * @return the ordered list of converters (may be empty for not convertible types).
+     * @return the unmodifiable, ordered list of converters (may be empty for not convertible types).
      * @see #createDefaultPropertyConverter(org.apache.tamaya.TypeLiteral)
      */
     public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> targetType) {
-        Lock readLock = lock.readLock();
-        List<PropertyConverter<T>> converterList = new ArrayList<>();
-        List<PropertyConverter<T>> converters;
-        // direct mapped converters
-        try {
-            readLock.lock();
-            converters = List.class.cast(this.converters.get(targetType));
-        } finally {
-            readLock.unlock();
+        List<PropertyConverter<?>> resolved = this.resolvedConverters.get(targetType);
+        if (resolved == null) {
+            resolved = resolveConverters(targetType);
         }
-        if (converters != null) {
-            converterList.addAll(converters);
+        return List.class.cast(resolved);
+    }
+
+    /**
+     * Evaluates the converter chain for the given type and adds it to the table of resolved converters.
+     *
+     * @param targetType the target type, not null.
+     * @param <T>        the type class
+     * @return the unmodifiable, ordered list of converters (may be empty for not convertible types).
+     */
+    private <T> List<PropertyConverter<?>> resolveConverters(TypeLiteral<T> targetType) {
+        synchronized (writeLock) {
+            List<PropertyConverter<?>> resolved = this.resolvedConverters.get(targetType);
+            if (resolved != null) {
+                return resolved;
+            }
+            List<PropertyConverter<?>> converterList = collectConverters(targetType);
+            if (converterList.isEmpty()) {
+                // adding any converters created on the fly, e.g. for enum types. They are only kept with the
+                // resolved converters, so the registered ones and the revision remain unchanged.
+                PropertyConverter<T> defaultConverter = createDefaultPropertyConverter(targetType);
+                if (defaultConverter != null) {
+                    converterList.add(defaultConverter);
+                }
+            }
+            resolved = Collections.unmodifiableList(converterList);
+            Map<TypeLiteral<?>, List<PropertyConverter<?>>> newResolved = new HashMap<>(this.resolvedConverters);
+            newResolved.put(targetType, resolved);
+            this.resolvedConverters = Collections.unmodifiableMap(newResolved);
+            return resolved;
         }
-        // transitive converter
-        try {
-            readLock.lock();
-            converters = List.class.cast(this.transitiveConverters.get(targetType));
-        } finally {
-            readLock.unlock();
+    }
+
+    /**
+     * Collects the direct, transitive and boxed type converters registered for the given type.
+     *
+     * @param targetType the target type, not null.
+     * @return the list of converters, never null.
+     */
+    private List<PropertyConverter<?>> collectConverters(TypeLiteral<?> targetType) {
+        List<PropertyConverter<?>> converterList = new ArrayList<>();
+        // direct mapped converters
+        List<PropertyConverter<?>> found = this.converters.get(targetType);
+        if (found != null) {
+            converterList.addAll(found);
         }
-        if (converters != null) {
-            converterList.addAll(converters);
+        // transitive converter
+        found = this.transitiveConverters.get(targetType);
+        if (found != null) {
+            converterList.addAll(found);
         }
         // handling of java.lang wrapper classes
-        TypeLiteral<T> boxedType = mapBoxedType(targetType);
+        TypeLiteral<?> boxedType = mapBoxedType(targetType);
         if (boxedType != null) {
-            try {
-                readLock.lock();
-                converters = List.class.cast(this.converters.get(boxedType));
-            } finally {
-                readLock.unlock();
-            }
-            if (converters != null) {
-                converterList.addAll(converters);
-            }
-        }
-        if (converterList.isEmpty()) {
-            // adding any converters created on the fly, e.g. for enum types.
-            PropertyConverter<T> defaultConverter = createDefaultPropertyConverter(targetType);
-            if (defaultConverter != null) {
-                register(targetType, defaultConverter);
-                try {
-                    readLock.lock();
-                    converters = List.class.cast(this.converters.get(targetType));
-                } finally {
-                    readLock.unlock();
-                }
-            }
-            if (converters != null) {
-                converterList.addAll(converters);
+            found = this.converters.get(boxedType);
+            if (found != null) {
+                converterList.addAll(found);
             }
         }
         return converterList;
@@ -283,7 +300,7 @@ public class PropertyConverterManager {
      * @param <T>        the type
      * @return the boxed type, or null.
      */
-    private <T> TypeLiteral<T> mapBoxedType(TypeLiteral<T> targetType) {
+    private static <T> TypeLiteral<T> mapBoxedType(TypeLiteral<T> targetType) {
         Type parameterType = targetType.getType();
         if (parameterType == int.class) {
             return TypeLiteral.class.cast(TypeLiteral.of(Integer.class));
@@ -22,11 +22,9 @@ import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.PropertyFilter;
 import org.apache.tamaya.spi.PropertySource;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.WeakHashMap;
 
 /**
  * Implementation of the Configuration API. This class uses the current {@link ConfigurationContext} to evaluate the
@@ -35,13 +33,15 @@ import java.util.logging.Logger;
  */
 public final class PropertyFiltering{
     /**
-     * The logger.
+     * Pipelines used for contexts other than {@link DefaultConfigurationContext}, per context. Entries are removed,
+     * once their context is not referenced anymore.
      */
-    private static final Logger LOG = Logger.getLogger(PropertyFiltering.class.getName());
+    private static final Map<ConfigurationContext, FilterPipeline> PIPELINES = new WeakHashMap<>();
+
     /**
-     * The maximal number of filter cycles performed before aborting.
+     * The pipeline returned last, checked first, so subsequent calls for the same context do not need to lock.
      */
-    private static final int MAX_FILTER_LOOPS = 10;
+    private static volatile FilterPipeline lastPipeline;
 
     /**
      * Private singleton constructor.
@@ -49,83 +49,36 @@ public final class PropertyFiltering{
     private PropertyFiltering(){}
 
     public static String applyFilter(String key, String unfilteredValue, ConfigurationContext configurationContext) {
-        // Apply filters to values, prevent values filtered to null!
-        for (int i = 0; i < MAX_FILTER_LOOPS; i++) {
-            boolean changed = false;
-            // Apply filters to values, prevent values filtered to null!
-            for (PropertyFilter filter : configurationContext.getPropertyFilters()) {
-                String newValue = filter.filterProperty(key, unfilteredValue);
-                if (newValue != null && !newValue.equals(unfilteredValue)) {
-                    changed = true;
-                    if (LOG.isLoggable(Level.FINEST)) {
-                        LOG.finest("Filter - " + key + ": " + unfilteredValue + " -> " + newValue + " by " + filter);
-                    }
-                } else if (unfilteredValue != null && !unfilteredValue.equals(newValue)) {
-                    changed = true;
-                    if (LOG.isLoggable(Level.FINEST)) {
-                        LOG.finest("Filter - " + key + ": " + unfilteredValue + " -> " + newValue + " by " + filter);
-                    }
-                }
-                unfilteredValue = newValue;
-            }
-            if (!changed) {
-                LOG.finest("Finishing filter loop, no changes detected.");
-                break;
-            } else {
-                if (i == (MAX_FILTER_LOOPS - 1)) {
-                    if (LOG.isLoggable(Level.WARNING)) {
-                        LOG.warning("Maximal filter loop count reached, aborting filter evaluation after cycles: " + i);
-                    }
-                } else {
-                    LOG.finest("Repeating filter loop, changes detected.");
-                }
-            }
-        }
-        return unfilteredValue;
+        return getFilterPipeline(configurationContext).filter(key, unfilteredValue);
     }
 
     public static Map<String, String> applyFilters(Map<String, String> inputMap, ConfigurationContext configurationContext) {
-        Map<String, String> resultMap = new HashMap<>(inputMap);
-        // Apply filters to values, prevent values filtered to null!
-        for (int i = 0; i < MAX_FILTER_LOOPS; i++) {
-            AtomicInteger changes = new AtomicInteger();
-            for (PropertyFilter filter : configurationContext.getPropertyFilters()) {
-                for (Map.Entry<String, String> entry : inputMap.entrySet()) {
-                    final String k = entry.getKey();
-                    final String v = entry.getValue();
+        return getFilterPipeline(configurationContext).filter(inputMap);
+    }
 
-                    String newValue = filter.filterProperty(k, v);
-                    if (newValue != null && !newValue.equals(v)) {
-                        changes.incrementAndGet();
-                        LOG.finest("Filter - " + k + ": " + v + " -> " + newValue + " by " + filter);
-                    } else if (v != null && !v.equals(newValue)) {
-                        changes.incrementAndGet();
-                        LOG.finest("Filter - " + k + ": " + v + " -> " + newValue + " by " + filter);
-                    }
-                    // Remove null values
-                    if (null != newValue) {
-                        resultMap.put(k, newValue);
-                    }
-                    else{
-                        resultMap.remove(k);
-                    }
-                }
-            }
-            if (changes.get() == 0) {
-                LOG.finest("Finishing filter loop, no changes detected.");
-                break;
-            } else {
-                if (i == (MAX_FILTER_LOOPS - 1)) {
-                    if (LOG.isLoggable(Level.WARNING)) {
-                        LOG.warning("Maximal filter loop count reached, aborting filter evaluation after cycles: " + i);
-                    }
-                } else {
-                    LOG.finest("Repeating filter loop, changes detected: " + changes.get());
-                }
-                changes.set(0);
+    /**
+     * Access the {@link FilterPipeline} evaluating the filters of the given context.
+     * @param configurationContext the context, not null.
+     * @return the pipeline, never null.
+     */
+    public static FilterPipeline getFilterPipeline(ConfigurationContext configurationContext) {
+        if(configurationContext instanceof DefaultConfigurationContext){
+            return ((DefaultConfigurationContext)configurationContext).getFilterPipeline();
+        }
+        List<PropertyFilter> filters = configurationContext.getPropertyFilters();
+        FilterPipeline pipeline = lastPipeline;
+        if(pipeline!=null && pipeline.isBuiltFrom(filters)){
+            return pipeline;
+        }
+        synchronized (PIPELINES){
+            pipeline = PIPELINES.get(configurationContext);
+            if(pipeline==null || !pipeline.isBuiltFrom(filters)){
+                pipeline = new FilterPipeline(filters);
+                PIPELINES.put(configurationContext, pipeline);
             }
         }
-        return resultMap;
+        lastPipeline = pipeline;
+        return pipeline;
     }
 
 }
@@ -18,7 +18,7 @@
  */
 package org.apache.tamaya.core.propertysource;
 
-import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.util.Map;
 
@@ -26,9 +26,10 @@ import java.util.Map;
  * This {@link org.apache.tamaya.spi.PropertySource} provides all Properties which are set
  * via
  * {@code export myprop=myval} on UNIX Systems or
- * {@code set myprop=myval} on Windows
+ * {@code set myprop=myval} on Windows.
+ * The environment cannot change whilst the VM is running, so the {@link #getVersion() version} is constant.
  */
-public class EnvironmentPropertySource implements PropertySource {
+public class EnvironmentPropertySource implements VersionedPropertySource {
 
     /**
      * default ordinal for {@link org.apache.tamaya.core.propertysource.EnvironmentPropertySource}
@@ -56,6 +57,11 @@ public class EnvironmentPropertySource implements PropertySource {
 
     }
 
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     @Override
     public boolean isScannable() {
         return true;
@@ -19,20 +19,23 @@
 package org.apache.tamaya.core.propertysource;
 
 import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 
 /**
- * Simple implementation of a {@link org.apache.tamaya.spi.PropertySource} for properties-files.
+ * Simple implementation of a {@link org.apache.tamaya.spi.PropertySource} for properties-files. The properties
+ * are read once on creation and never change, so the {@link #getVersion() version} is constant.
  */
-public class SimplePropertySource extends BasePropertySource {
+public class SimplePropertySource extends BasePropertySource implements VersionedPropertySource {
     /**
      * The property source name.
      */
@@ -50,7 +53,7 @@ public class SimplePropertySource extends BasePropertySource {
     public SimplePropertySource(File propertiesLocation) {
         super(0);
         try {
-            this.properties = load(propertiesLocation.toURI().toURL());
+            this.properties = Collections.unmodifiableMap(load(propertiesLocation.toURI().toURL()));
             this.name = propertiesLocation.toString();
         } catch (IOException e) {
             throw new ConfigException("Failed to load properties from " + propertiesLocation, e);
@@ -64,7 +67,7 @@ public class SimplePropertySource extends BasePropertySource {
      */
     public SimplePropertySource(URL propertiesLocation) {
         super(0);
-        this.properties = load(propertiesLocation);
+        this.properties = Collections.unmodifiableMap(load(propertiesLocation));
         this.name = propertiesLocation.toExternalForm();
     }
 
@@ -76,7 +79,7 @@ public class SimplePropertySource extends BasePropertySource {
      */
     public SimplePropertySource(String name, Map<String, String> properties) {
         super(0);
-        this.properties = new HashMap<>(properties);
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
         this.name = Objects.requireNonNull(name);
     }
 
@@ -88,7 +91,7 @@ public class SimplePropertySource extends BasePropertySource {
      */
     public SimplePropertySource(String name, URL propertiesLocation) {
         super(0);
-        this.properties = load(propertiesLocation);
+        this.properties = Collections.unmodifiableMap(load(propertiesLocation));
         this.name = Objects.requireNonNull(name);
     }
 
@@ -102,6 +105,11 @@ public class SimplePropertySource extends BasePropertySource {
         return this.properties;
     }
 
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     /**
      * loads the Properties from the given URL
      *
@@ -18,17 +18,19 @@
  */
 package org.apache.tamaya.core.propertysource;
 
-import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This {@link org.apache.tamaya.spi.PropertySource} manages the system properties.
+ * This {@link org.apache.tamaya.spi.PropertySource} manages the system properties. The {@link #getVersion() version}
+ * is incremented each time the system properties are reloaded due to a change.
  */
-public class SystemPropertySource implements PropertySource {
+public class SystemPropertySource implements VersionedPropertySource {
 
     /**
      * default ordinal for {@link org.apache.tamaya.core.propertysource.SystemPropertySource}
@@ -43,9 +45,14 @@ public class SystemPropertySource implements PropertySource {
      */
     private int previousHash;
 
+    /**
+     * The current version, incremented on each reload.
+     */
+    private final AtomicLong version = new AtomicLong();
+
 
     public SystemPropertySource() {
-        cachedProperties = loadProperties();
+        cachedProperties = Collections.unmodifiableMap(loadProperties());
         previousHash = System.getProperties().hashCode();
     }
 
@@ -82,10 +89,22 @@ public class SystemPropertySource implements PropertySource {
             Map<String, String> properties = loadProperties();
             this.cachedProperties = Collections.unmodifiableMap(properties);
             previousHash = System.getProperties().hashCode();
+            version.incrementAndGet();
         }
         return this.cachedProperties;
     }
 
+    /**
+     * Access the current version. Evaluating the version checks the system properties for changes, but does
+     * not copy them, unless they have changed.
+     * @return the current version.
+     */
+    @Override
+    public long getVersion() {
+        getProperties();
+        return version.get();
+    }
+
     @Override
     public boolean isScannable() {
         return true;
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConversionCache}.
+ */
+public class ConversionCacheTest {
+
+    private static final TypeLiteral<Integer> INT_TYPE = TypeLiteral.of(Integer.class);
+
+    @Test
+    public void testHitAndMiss() {
+        ConversionCache cache = new ConversionCache(10);
+        assertNull(cache.get("a", INT_TYPE, "1", 0L));
+        cache.put("a", INT_TYPE, "1", 0L, 1);
+        assertEquals(Integer.valueOf(1), cache.get("a", INT_TYPE, "1", 0L));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+    }
+
+    @Test
+    public void testOutdatedEntriesAreNotReturned() {
+        ConversionCache cache = new ConversionCache(10);
+        cache.put("a", INT_TYPE, "1", 0L, 1);
+        assertNull(cache.get("a", INT_TYPE, "2", 0L));
+        assertNull(cache.get("a", INT_TYPE, "1", 1L));
+        assertNull(cache.get("a", TypeLiteral.of(Long.class), "1", 0L));
+        assertEquals(0L, cache.getHitCount());
+    }
+
+    @Test
+    public void testEviction() {
+        ConversionCache cache = new ConversionCache(2);
+        cache.put("a", INT_TYPE, "1", 0L, 1);
+        cache.put("b", INT_TYPE, "2", 0L, 2);
+        assertNotNull(cache.get("a", INT_TYPE, "1", 0L));
+        cache.put("c", INT_TYPE, "3", 0L, 3);
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        // the recently accessed entry got a second chance.
+        assertNotNull(cache.get("a", INT_TYPE, "1", 0L));
+        assertNull(cache.get("b", INT_TYPE, "2", 0L));
+    }
+
+    @Test
+    public void testConfigurationReturnsCachedValues() {
+        Map<String, String> values = new HashMap<>();
+        values.put("pool.size", "42");
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("cache-test", values)).build();
+        DefaultConfiguration config = new DefaultConfiguration(context, false, 100);
+        Integer first = config.get("pool.size", Integer.class);
+        assertEquals(Integer.valueOf(42), first);
+        assertSame(first, config.get("pool.size", Integer.class));
+        ConversionCache cache = config.getConversionCache();
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertNull(new DefaultConfiguration(context, false, 0).getConversionCache());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfigurationContext}.
+ */
+public class DefaultConfigurationContextTest {
+
+    private static PropertySource create(String name, int ordinal) {
+        Map<String, String> values = new HashMap<>();
+        values.put(PropertySource.TAMAYA_ORDINAL, String.valueOf(ordinal));
+        values.put(name, name);
+        return new SimplePropertySource(name, values);
+    }
+
+    @Test
+    public void testReplacePropertySources() {
+        PropertySource low = create("context-test-low", 100);
+        PropertySource high = create("context-test-high", 300);
+        DefaultConfigurationContext context = (DefaultConfigurationContext) new DefaultConfigurationContextBuilder()
+                .addPropertySources(low, high).build();
+        List<PropertySource> propertySources = context.getPropertySources();
+        long generation = context.getGeneration();
+
+        PropertySource middle = create("context-test-middle", 200);
+        PropertySource newLow = create("context-test-low", 100);
+        long newGeneration = context.replacePropertySources(Collections.singletonList(low),
+                Arrays.asList(middle, newLow));
+        assertTrue(newGeneration > generation);
+        assertEquals(newGeneration, context.getGeneration());
+        assertEquals(Arrays.asList(newLow, middle, high), context.getPropertySources());
+        // the previous list is not affected.
+        assertEquals(Arrays.asList(low, high), propertySources);
+
+        context.replacePropertySources(Collections.singletonList(create("context-test-high", 0)),
+                Collections.<PropertySource>emptyList());
+        assertEquals(Arrays.asList(newLow, middle), context.getPropertySources());
+    }
+
+    @Test
+    public void testReplaceOrderEqualsSortedOrder() {
+        PropertySource first = create("context-test-first", 100);
+        PropertySource second = create("context-test-second", 100);
+        DefaultConfigurationContext context = (DefaultConfigurationContext) new DefaultConfigurationContextBuilder()
+                .addPropertySources(first).build();
+        context.replacePropertySources(Collections.<PropertySource>emptyList(), Collections.singletonList(second));
+        DefaultConfigurationContext sorted = (DefaultConfigurationContext) new DefaultConfigurationContextBuilder()
+                .addPropertySources(first, second).build();
+        assertEquals(sorted.getPropertySources(), context.getPropertySources());
+    }
+
+    @Test
+    public void testAddPropertySourcesIncreasesGeneration() {
+        DefaultConfigurationContext context = (DefaultConfigurationContext) new DefaultConfigurationContextBuilder()
+                .build();
+        long generation = context.getGeneration();
+        context.addPropertySources(create("context-test-added", 100));
+        assertTrue(context.getGeneration() > generation);
+    }
+}
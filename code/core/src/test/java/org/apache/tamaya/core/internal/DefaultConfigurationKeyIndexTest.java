@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.KeyIndexedPropertySource;
+import org.apache.tamaya.spi.KeyPresenceIndex;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfiguration} consulting the key indexes of {@link KeyIndexedPropertySource}s.
+ */
+public class DefaultConfigurationKeyIndexTest {
+
+    @Test
+    public void testMissingKeysSkipIndexedSources() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "indexed");
+        values.put("b", "indexed");
+        IndexedPropertySource indexed = new IndexedPropertySource(values);
+        Map<String, String> otherValues = new HashMap<>();
+        otherValues.put("c", "other");
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(indexed, new SimplePropertySource("other", otherValues)).build();
+        DefaultConfiguration config = new DefaultConfiguration(context, false, 0);
+        // the ordinal evaluation also accesses the property source.
+        indexed.lookups = 0;
+        assertEquals("indexed", config.get("a"));
+        assertEquals("other", config.get("c"));
+        assertNull(config.get("d"));
+        assertEquals(1, indexed.lookups);
+        assertEquals(Long.valueOf(2L), config.getSkippedLookupCounts().get("indexed"));
+        assertNull(config.getSkippedLookupCounts().get("other"));
+    }
+
+    @Test
+    public void testSourcesWithoutIndexAreAsked() {
+        IndexedPropertySource indexed = new IndexedPropertySource(new HashMap<String, String>());
+        indexed.index = null;
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(indexed).build();
+        DefaultConfiguration config = new DefaultConfiguration(context, false, 0);
+        indexed.lookups = 0;
+        assertNull(config.get("a"));
+        assertEquals(1, indexed.lookups);
+        assertTrue(config.getSkippedLookupCounts().isEmpty());
+    }
+
+    private static final class IndexedPropertySource extends SimplePropertySource
+            implements KeyIndexedPropertySource {
+        private volatile KeyPresenceIndex index;
+        private int lookups;
+
+        IndexedPropertySource(Map<String, String> values) {
+            super("indexed", values);
+            this.index = KeyPresenceIndex.of(values.keySet());
+        }
+
+        @Override
+        public String get(String key) {
+            lookups++;
+            return super.get(key);
+        }
+
+        @Override
+        public KeyPresenceIndex getKeyIndex() {
+            return index;
+        }
+    }
+}
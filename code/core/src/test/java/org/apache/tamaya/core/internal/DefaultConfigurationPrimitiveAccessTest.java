@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the primitive accessors of {@link DefaultConfiguration}.
+ */
+public class DefaultConfigurationPrimitiveAccessTest {
+
+    private DefaultConfiguration createConfiguration(Map<String, String> values) {
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("primitive-test", values)).build();
+        return new DefaultConfiguration(context, false, 0);
+    }
+
+    @Test
+    public void testPrimitiveValuesEqualConvertedValues() {
+        Map<String, String> values = new HashMap<>();
+        values.put("int", "42");
+        values.put("long", "12345678901");
+        values.put("double", "1.5");
+        values.put("boolean", "true");
+        DefaultConfiguration config = createConfiguration(values);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(config.get("int", Integer.class).intValue(), config.getInt("int", -1));
+            assertEquals(config.get("long", Long.class).longValue(), config.getLong("long", -1L));
+            assertEquals(config.get("double", Double.class), config.getDouble("double", -1.0), 0.0);
+            assertEquals(config.get("boolean", Boolean.class), config.getBoolean("boolean", false));
+        }
+        assertEquals(4, config.getPrimitiveValueCacheSize());
+    }
+
+    @Test
+    public void testDefaultValues() {
+        DefaultConfiguration config = createConfiguration(new HashMap<String, String>());
+        assertEquals(7, config.getInt("foo", 7));
+        assertEquals(7L, config.getLong("foo", 7L));
+        assertEquals(7.5, config.getDouble("foo", 7.5), 0.0);
+        assertTrue(config.getBoolean("foo", true));
+        assertEquals(0, config.getPrimitiveValueCacheSize());
+    }
+
+    @Test
+    public void testTypeChangesAreDetected() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "3");
+        DefaultConfiguration config = createConfiguration(values);
+        assertEquals(3, config.getInt("a", 0));
+        assertEquals(3.0, config.getDouble("a", 0.0), 0.0);
+        assertEquals(3L, config.getLong("a", 0L));
+        assertEquals(3, config.getInt("a", 0));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            values.put("key" + i, String.valueOf(i));
+        }
+        String oldSize = System.getProperty(DefaultConfiguration.PRIMITIVE_CACHE_SIZE_PROPERTY);
+        System.setProperty(DefaultConfiguration.PRIMITIVE_CACHE_SIZE_PROPERTY, "4");
+        try {
+            DefaultConfiguration config = createConfiguration(values);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, config.getInt("key" + i, -1));
+                assertTrue(config.getPrimitiveValueCacheSize() <= 4);
+            }
+            // the value of the key read last is always kept.
+            assertEquals(9, config.getInt("key9", -1));
+        } finally {
+            if (oldSize == null) {
+                System.clearProperty(DefaultConfiguration.PRIMITIVE_CACHE_SIZE_PROPERTY);
+            } else {
+                System.setProperty(DefaultConfiguration.PRIMITIVE_CACHE_SIZE_PROPERTY, oldSize);
+            }
+        }
+    }
+
+    @Test
+    public void testValuesOfRemovedKeysAreDropped() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "3");
+        SimplePropertySource propertySource = new SimplePropertySource("primitive-test", values);
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(propertySource).build();
+        DefaultConfiguration config = new DefaultConfiguration(context, false, 0);
+        assertEquals(3, config.getInt("a", 0));
+        assertEquals(1, config.getPrimitiveValueCacheSize());
+        ((DefaultConfigurationContext) context).replacePropertySources(Collections.singletonList(propertySource),
+                Collections.singletonList(new SimplePropertySource("primitive-test",
+                        new HashMap<String, String>())));
+        assertEquals(7, config.getInt("a", 7));
+        assertEquals(0, config.getPrimitiveValueCacheSize());
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testInvalidValue() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "notANumber");
+        createConfiguration(values).getInt("a", 0);
+    }
+
+    @Test
+    public void testConverterRegistrationInvalidatesCachedValues() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "5");
+        ConfigurationContext context = new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("primitive-test", values)).build();
+        DefaultConfiguration config = new DefaultConfiguration(context, false, 0);
+        assertEquals(5, config.getInt("a", 0));
+        context.addPropertyConverter(TypeLiteral.<Integer>of(Integer.class), new PropertyConverter<Integer>() {
+            @Override
+            public Integer convert(String value, ConversionContext context) {
+                return 2 * Integer.parseInt(value);
+            }
+        });
+        assertEquals(config.get("a", Integer.class).intValue(), config.getInt("a", 0));
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationContextBuilder;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfiguration} running in snapshot evaluation mode.
+ */
+public class DefaultConfigurationSnapshotTest {
+
+    private ConfigurationContext createContext(Map<String, String> values) {
+        return new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("snapshot-test", values))
+                .build();
+    }
+
+    @Test
+    public void testSnapshotValuesEqualDirectEvaluation() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        values.put("name4", "Sereina");
+        values.put("name5", "removed");
+        ConfigurationContext context = createContext(values);
+        DefaultConfiguration direct = new DefaultConfiguration(context, false);
+        DefaultConfiguration snapshot = new DefaultConfiguration(context, true);
+        assertTrue(snapshot.isSnapshotEnabled());
+        for (String key : new String[]{"a", "name4", "name5", "foo"}) {
+            assertEquals(direct.get(key), snapshot.get(key));
+        }
+        assertNull(snapshot.get("name5"));
+        assertEquals(direct.get("a", String.class), snapshot.get("a", String.class));
+    }
+
+    @Test
+    public void testGeneration() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        ConfigurationContext context = createContext(values);
+        assertEquals(0L, new DefaultConfiguration(context, false).getGeneration());
+        DefaultConfiguration config = new DefaultConfiguration(context, true);
+        long generation = config.getGeneration();
+        assertTrue(generation > 0);
+        assertEquals(generation, config.getGeneration());
+        config.refreshSnapshot();
+        assertTrue(config.getGeneration() > generation);
+    }
+
+    @Test
+    public void testContextChangesAreDetected() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        ConfigurationContext context = createContext(values);
+        DefaultConfiguration config = new DefaultConfiguration(context, true);
+        assertNull(config.get("b"));
+        long generation = config.getGeneration();
+        Map<String, String> otherValues = new HashMap<>();
+        otherValues.put("b", "bValue");
+        context.addPropertySources(new SimplePropertySource("snapshot-test2", otherValues));
+        assertEquals("bValue", config.get("b"));
+        assertTrue(config.getGeneration() > generation);
+    }
+
+    @Test
+    public void testReplacedPropertySourcesArePatched() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        values.put("name4", "Sereina");
+        ConfigurationContext context = createContext(values);
+        Map<String, String> otherValues = new HashMap<>();
+        otherValues.put("b", "bValue");
+        otherValues.put("c", "cValue");
+        SimplePropertySource other = new SimplePropertySource("snapshot-test2", otherValues);
+        context.addPropertySources(other);
+        DefaultConfiguration config = new DefaultConfiguration(context, true);
+        assertEquals("cValue", config.get("c"));
+        long generation = config.getGeneration();
+
+        Map<String, String> replacedValues = new HashMap<>();
+        replacedValues.put("b", "bChanged");
+        replacedValues.put("a", "aChanged");
+        ((DefaultConfigurationContext) context).replacePropertySources(Collections.singletonList(other),
+                Collections.singletonList(new SimplePropertySource("snapshot-test2", replacedValues)));
+        DefaultConfiguration direct = new DefaultConfiguration(context, false);
+        for (String key : new String[]{"a", "b", "c", "name4", "name5"}) {
+            assertEquals(direct.get(key), config.get(key));
+        }
+        assertNull(config.get("c"));
+        assertTrue(config.getGeneration() > generation);
+    }
+
+    @Test
+    public void testDependentKeysAreEvaluatedAgain() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        values.put("ref", "${b}");
+        ConfigurationContext delegate = createContext(values);
+        Map<String, String> otherValues = new HashMap<>();
+        otherValues.put("b", "bValue");
+        SimplePropertySource other = new SimplePropertySource("snapshot-test2", otherValues);
+        delegate.addPropertySources(other);
+        ReferenceResolvingFilter filter = new ReferenceResolvingFilter();
+        ConfigurationContext context = new FilterReplacingConfigurationContext(delegate, filter);
+        filter.context = context;
+        DefaultConfiguration config = new DefaultConfiguration(context, true);
+        assertEquals("bValue", config.get("ref"));
+
+        Map<String, String> replacedValues = new HashMap<>();
+        replacedValues.put("b", "bChanged");
+        ((DefaultConfigurationContext) delegate).replacePropertySources(Collections.singletonList(other),
+                Collections.singletonList(new SimplePropertySource("snapshot-test2", replacedValues)));
+        assertEquals("bChanged", config.get("ref"));
+    }
+
+    @Test
+    public void testSnapshotOfInstalledContextUsesNewConfiguration() {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        values.put("ref", "${a}");
+        final ConfigurationContext delegate = new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("snapshot-test", values)).build();
+        final List<PropertyFilter> filters = Collections.<PropertyFilter>singletonList(new PropertyFilter() {
+            @Override
+            public String filterProperty(String key, String valueToBeFiltered) {
+                // resolves references against the current configuration, like the resolver module.
+                if ("${a}".equals(valueToBeFiltered)) {
+                    return ConfigurationProvider.getConfiguration().get("a");
+                }
+                return valueToBeFiltered;
+            }
+        });
+        ConfigurationContext context = new ConfigurationContext() {
+            @Override
+            public void addPropertySources(PropertySource... propertySourcesToAdd) {
+                delegate.addPropertySources(propertySourcesToAdd);
+            }
+            @Override
+            public List<PropertySource> getPropertySources() {
+                return delegate.getPropertySources();
+            }
+            @Override
+            public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
+                delegate.addPropertyConverter(typeToConvert, propertyConverter);
+            }
+            @Override
+            public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
+                return delegate.getPropertyConverters();
+            }
+            @Override
+            public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> type) {
+                return delegate.getPropertyConverters(type);
+            }
+            @Override
+            public List<PropertyFilter> getPropertyFilters() {
+                return filters;
+            }
+            @Override
+            public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy() {
+                return delegate.getPropertyValueCombinationPolicy();
+            }
+            @Override
+            public ConfigurationContextBuilder toBuilder() {
+                return delegate.toBuilder();
+            }
+        };
+        ConfigurationContext oldContext = ConfigurationProvider.getConfigurationContext();
+        String oldEnabled = System.getProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY);
+        System.setProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY, "true");
+        try {
+            ConfigurationProvider.setConfigurationContext(context);
+            assertTrue(((DefaultConfiguration) ConfigurationProvider.getConfiguration()).isSnapshotEnabled());
+            assertEquals("aValue", ConfigurationProvider.getConfiguration().get("ref"));
+        } finally {
+            if (oldEnabled == null) {
+                System.clearProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY);
+            } else {
+                System.setProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY, oldEnabled);
+            }
+            ConfigurationProvider.setConfigurationContext(oldContext);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.ScopedPropertyFilter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FilterPipeline}.
+ */
+public class FilterPipelineTest {
+
+    @Test
+    public void testLoopingFiltersRepeatUntilMaxCycles() {
+        FilterPipeline pipeline = new FilterPipeline(
+                Collections.<PropertyFilter>singletonList(new AppendingFilter("a", false)));
+        assertEquals("v!!!!!!!!!!", pipeline.filter("a", "v"));
+        assertEquals("v", pipeline.filter("b", "v"));
+    }
+
+    @Test
+    public void testSinglePassFiltersAreAppliedOnce() {
+        AppendingFilter singlePass = new AppendingFilter("a", true);
+        FilterPipeline pipeline = new FilterPipeline(Arrays.<PropertyFilter>asList(singlePass, new ReplacingFilter()));
+        assertEquals("v!", pipeline.filter("a", "v"));
+        // the replacing filter changes the value, so the chain is evaluated again, excluding the single pass filter.
+        assertEquals("replaced!", pipeline.filter("a", "toReplace"));
+    }
+
+    @Test
+    public void testStatistics() {
+        AppendingFilter scoped = new AppendingFilter("a", true);
+        FilterPipeline pipeline = new FilterPipeline(Collections.<PropertyFilter>singletonList(scoped), true);
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aValue");
+        values.put("b", "bValue");
+        values.put("c", "cValue");
+        Map<String, String> result = pipeline.filter(values);
+        assertEquals("aValue!", result.get("a"));
+        assertEquals("bValue", result.get("b"));
+        List<FilterPipeline.FilterStatistics> statistics = pipeline.getStatistics();
+        assertEquals(1, statistics.size());
+        assertSame(scoped, statistics.get(0).getFilter());
+        assertEquals(1L, statistics.get(0).getInvocationCount());
+        assertEquals(2L, statistics.get(0).getSkipCount());
+        assertTrue(new FilterPipeline(Collections.<PropertyFilter>emptyList(), false).getStatistics().isEmpty());
+    }
+
+    @Test
+    public void testRemovedEntries() {
+        FilterPipeline pipeline = new FilterPipeline(Collections.<PropertyFilter>singletonList(new ReplacingFilter()));
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "remove");
+        values.put("b", "bValue");
+        Map<String, String> result = pipeline.filter(values);
+        assertFalse(result.containsKey("a"));
+        assertEquals("bValue", result.get("b"));
+    }
+
+    @Test
+    public void testParallelFilteringEqualsSequentialFiltering() {
+        List<PropertyFilter> filters = Arrays.<PropertyFilter>asList(new AppendingFilter("a", true),
+                new ReplacingFilter());
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            values.put("key" + i, i % 7 == 0 ? "remove" : "toReplace!");
+        }
+        values.put("a", "toReplace");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FilterPipeline parallel = new FilterPipeline(filters, true, 100, pool);
+            assertEquals(100, parallel.getParallelThreshold());
+            Map<String, String> result = parallel.filter(values);
+            assertEquals(new FilterPipeline(filters, false, 0, null).filter(values), result);
+            assertEquals("replaced!", result.get("a"));
+            assertFalse(result.containsKey("key0"));
+            assertEquals(1L, parallel.getStatistics().get(0).getInvocationCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Appends '!' to the values of a single key.
+     */
+    private static final class AppendingFilter implements ScopedPropertyFilter {
+        private final String key;
+        private final boolean singlePass;
+
+        AppendingFilter(String key, boolean singlePass) {
+            this.key = key;
+            this.singlePass = singlePass;
+        }
+
+        @Override
+        public boolean appliesTo(String key) {
+            return this.key.equals(key);
+        }
+
+        @Override
+        public boolean isSinglePass() {
+            return singlePass;
+        }
+
+        @Override
+        public String filterProperty(String key, String valueToBeFiltered) {
+            return valueToBeFiltered + '!';
+        }
+    }
+
+    /**
+     * Replaces and removes values.
+     */
+    private static final class ReplacingFilter implements PropertyFilter {
+        @Override
+        public String filterProperty(String key, String valueToBeFiltered) {
+            if ("toReplace!".equals(valueToBeFiltered)) {
+                return "replaced!";
+            }
+            if ("remove".equals(valueToBeFiltered)) {
+                return null;
+            }
+            return valueToBeFiltered;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationContextBuilder;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Context delegating to another context, but using the given filters instead of the ones loaded by the
+ * {@link org.apache.tamaya.spi.ServiceContext}.
+ */
+class FilterReplacingConfigurationContext implements ConfigurationContext {
+
+    private final ConfigurationContext delegate;
+    private final List<PropertyFilter> filters;
+
+    FilterReplacingConfigurationContext(ConfigurationContext delegate, PropertyFilter... filters) {
+        this.delegate = delegate;
+        this.filters = Collections.unmodifiableList(Arrays.asList(filters));
+    }
+
+    @Override
+    public void addPropertySources(PropertySource... propertySourcesToAdd) {
+        delegate.addPropertySources(propertySourcesToAdd);
+    }
+
+    @Override
+    public List<PropertySource> getPropertySources() {
+        return delegate.getPropertySources();
+    }
+
+    @Override
+    public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
+        delegate.addPropertyConverter(typeToConvert, propertyConverter);
+    }
+
+    @Override
+    public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
+        return delegate.getPropertyConverters();
+    }
+
+    @Override
+    public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> type) {
+        return delegate.getPropertyConverters(type);
+    }
+
+    @Override
+    public List<PropertyFilter> getPropertyFilters() {
+        return filters;
+    }
+
+    @Override
+    public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy() {
+        return delegate.getPropertyValueCombinationPolicy();
+    }
+
+    @Override
+    public ConfigurationContextBuilder toBuilder() {
+        return delegate.toBuilder();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.BasePropertySource;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.KeyLocalPropertyFilter;
+import org.apache.tamaya.spi.VersionedPropertySource;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link IncrementalPropertyMerger}.
+ */
+public class IncrementalPropertyMergerTest {
+
+    private ConfigurationContext createContext(MutablePropertySource propertySource) {
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "aDefault");
+        values.put("name4", "Sereina");
+        values.put("name5", "removed");
+        return new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("merger-test", values), propertySource)
+                .build();
+    }
+
+    @Test
+    public void testPropertiesEqualDirectEvaluation() {
+        MutablePropertySource propertySource = new MutablePropertySource();
+        propertySource.properties.put("a", "aValue");
+        propertySource.properties.put("b", "bValue");
+        ConfigurationContext context = createContext(propertySource);
+        DefaultConfiguration direct = new DefaultConfiguration(context, false, 0, false);
+        DefaultConfiguration incremental = new DefaultConfiguration(context, false, 0, true);
+        assertTrue(incremental.isIncrementalMergeEnabled());
+        assertEquals(direct.getProperties(), incremental.getProperties());
+        assertFalse(incremental.getProperties().containsKey("name5"));
+    }
+
+    @Test
+    public void testOnlyChangedKeysAreUpdated() {
+        MutablePropertySource propertySource = new MutablePropertySource();
+        propertySource.properties.put("b", "bValue");
+        propertySource.properties.put("c", "cValue");
+        ConfigurationContext context = createContext(propertySource);
+        DefaultConfiguration direct = new DefaultConfiguration(context, false, 0, false);
+        IncrementalPropertyMerger merger = new IncrementalPropertyMerger();
+        Map<String, String> properties = merger.getProperties(context);
+        assertSame(properties, merger.getProperties(context));
+        assertEquals(1L, merger.getRebuildCount());
+        assertEquals(0L, merger.getUpdatedKeyCount());
+
+        propertySource.properties.put("b", "bChanged");
+        propertySource.properties.remove("c");
+        propertySource.properties.put("name4", "Anatole");
+        Map<String, String> updated = merger.getProperties(context);
+        assertEquals(1L, merger.getRebuildCount());
+        assertEquals(3L, merger.getUpdatedKeyCount());
+        assertEquals(direct.getProperties(), updated);
+        assertEquals("bChanged", updated.get("b"));
+        assertFalse(updated.containsKey("c"));
+        // previously returned maps are not affected.
+        assertEquals("bValue", properties.get("b"));
+    }
+
+    @Test
+    public void testContextChangesAreMergedIncrementally() {
+        MutablePropertySource propertySource = new MutablePropertySource();
+        propertySource.properties.put("b", "bValue");
+        ConfigurationContext context = createContext(propertySource);
+        DefaultConfiguration direct = new DefaultConfiguration(context, false, 0, false);
+        IncrementalPropertyMerger merger = new IncrementalPropertyMerger();
+        assertNull(merger.getProperties(context).get("d"));
+        Map<String, String> otherValues = new HashMap<>();
+        otherValues.put("d", "dValue");
+        context.addPropertySources(new SimplePropertySource("merger-test2", otherValues));
+        assertEquals("dValue", merger.getProperties(context).get("d"));
+        assertEquals(1L, merger.getRebuildCount());
+        assertEquals(1L, merger.getUpdatedKeyCount());
+
+        MutablePropertySource replacement = new MutablePropertySource();
+        replacement.properties.put("e", "eValue");
+        ((DefaultConfigurationContext) context).replacePropertySources(
+                Collections.singletonList(propertySource), Collections.singletonList(replacement));
+        Map<String, String> updated = merger.getProperties(context);
+        assertEquals(direct.getProperties(), updated);
+        assertFalse(updated.containsKey("b"));
+        assertEquals("eValue", updated.get("e"));
+        assertEquals(1L, merger.getRebuildCount());
+    }
+
+    @Test
+    public void testUnchangedVersionsAreSkipped() {
+        VersionedMutablePropertySource propertySource = new VersionedMutablePropertySource();
+        propertySource.properties.put("b", "bValue");
+        ConfigurationContext context = createContext(propertySource);
+        IncrementalPropertyMerger merger = new IncrementalPropertyMerger();
+        assertEquals("bValue", merger.getProperties(context).get("b"));
+        // content changes are not detected as long as the version is unchanged.
+        propertySource.properties.put("b", "bChanged");
+        assertEquals("bValue", merger.getProperties(context).get("b"));
+        propertySource.version++;
+        assertEquals("bChanged", merger.getProperties(context).get("b"));
+        assertEquals(1L, merger.getUpdatedKeyCount());
+    }
+
+    @Test
+    public void testDependentKeysAreFilteredAgain() {
+        MutablePropertySource propertySource = new MutablePropertySource();
+        propertySource.properties.put("b", "bValue");
+        propertySource.properties.put("ref", "${b}");
+        ReferenceResolvingFilter filter = new ReferenceResolvingFilter();
+        ConfigurationContext context = new FilterReplacingConfigurationContext(createContext(propertySource), filter);
+        filter.context = context;
+        IncrementalPropertyMerger merger = new IncrementalPropertyMerger();
+        assertEquals("bValue", merger.getProperties(context).get("ref"));
+
+        propertySource.properties.put("b", "bChanged");
+        Map<String, String> updated = merger.getProperties(context);
+        assertEquals("bChanged", updated.get("ref"));
+        assertEquals(new DefaultConfiguration(context, false, 0, false).getProperties(), updated);
+        assertEquals(1L, merger.getRebuildCount());
+        assertEquals(1L, merger.getRefilterCount());
+        assertEquals(1L, merger.getUpdatedKeyCount());
+    }
+
+    @Test
+    public void testKeyLocalFiltersOnlyFilterChangedKeys() {
+        MutablePropertySource propertySource = new MutablePropertySource();
+        propertySource.properties.put("b", "bValue");
+        final Map<String, Integer> filtered = new HashMap<>();
+        ConfigurationContext context = new FilterReplacingConfigurationContext(createContext(propertySource),
+                new KeyLocalPropertyFilter() {
+                    @Override
+                    public String filterProperty(String key, String valueToBeFiltered) {
+                        Integer count = filtered.get(key);
+                        filtered.put(key, count == null ? 1 : count + 1);
+                        return valueToBeFiltered;
+                    }
+                });
+        IncrementalPropertyMerger merger = new IncrementalPropertyMerger();
+        assertEquals("bValue", merger.getProperties(context).get("b"));
+
+        propertySource.properties.put("b", "bChanged");
+        assertEquals("bChanged", merger.getProperties(context).get("b"));
+        assertEquals(0L, merger.getRefilterCount());
+        assertEquals(Integer.valueOf(2), filtered.get("b"));
+        assertEquals(Integer.valueOf(1), filtered.get("a"));
+    }
+
+    private static class MutablePropertySource extends BasePropertySource {
+        final Map<String, String> properties = new HashMap<>();
+
+        MutablePropertySource() {
+            super(500);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+    }
+
+    private static final class VersionedMutablePropertySource extends MutablePropertySource
+            implements VersionedPropertySource {
+        private long version;
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -159,6 +159,39 @@ public class PropertyConverterManagerTest {
         assertThat(((C)result).getInValue(), equalTo("testTransitiveInterfaceMapping2"));
     }
 
+    @Test
+    public void testResolvedConvertersAreReused(){
+        PropertyConverterManager manager = new PropertyConverterManager();
+        List<PropertyConverter<Object>> converters = manager.getPropertyConverters(TypeLiteral.of(int.class));
+        assertThat(converters.isEmpty(), is(false));
+        assertThat(manager.getPropertyConverters(TypeLiteral.of(int.class)), sameInstance(converters));
+    }
+
+    @Test
+    public void testRegistrationUpdatesResolvedConverters(){
+        PropertyConverterManager manager = new PropertyConverterManager();
+        List<PropertyConverter<C>> converters = List.class.cast(manager.getPropertyConverters(TypeLiteral.of(C.class)));
+        assertThat(converters, hasSize(1));
+        long revision = manager.getRevision();
+        manager.register(TypeLiteral.<C>of(C.class), new CTestConverter());
+        assertThat(manager.getRevision(), not(equalTo(revision)));
+        converters = List.class.cast(manager.getPropertyConverters(TypeLiteral.of(C.class)));
+        assertThat(converters, hasSize(2));
+    }
+
+    @Test
+    public void testDefaultConvertersDoNotChangeRevision(){
+        PropertyConverterManager manager = new PropertyConverterManager();
+        List<PropertyConverter<Object>> resolved = manager.getPropertyConverters(TypeLiteral.of(int.class));
+        long revision = manager.getRevision();
+        List<PropertyConverter<Object>> converters = manager.getPropertyConverters(TypeLiteral.of(MyType.class));
+        assertThat(converters, hasSize(1));
+        assertThat(manager.getRevision(), equalTo(revision));
+        assertThat(manager.getPropertyConverters().containsKey(TypeLiteral.of(MyType.class)), is(false));
+        assertThat(manager.getPropertyConverters(TypeLiteral.of(MyType.class)), sameInstance(converters));
+        assertThat(manager.getPropertyConverters(TypeLiteral.of(int.class)), sameInstance(resolved));
+    }
+
     public static class MyType {
         private final String typeValue;
 
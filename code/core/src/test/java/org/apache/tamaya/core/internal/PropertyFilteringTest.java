@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PropertyFiltering}.
+ */
+public class PropertyFilteringTest {
+
+    private ConfigurationContext createContext() {
+        return new FilterReplacingConfigurationContext(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new SimplePropertySource("filtering-test",
+                        Collections.singletonMap("a", "aValue"))).build(), new PropertyFilter() {
+            @Override
+            public String filterProperty(String key, String valueToBeFiltered) {
+                return valueToBeFiltered;
+            }
+        });
+    }
+
+    @Test
+    public void testPipelinesAreKeptPerContext() {
+        ConfigurationContext context1 = createContext();
+        ConfigurationContext context2 = createContext();
+        FilterPipeline pipeline1 = PropertyFiltering.getFilterPipeline(context1);
+        FilterPipeline pipeline2 = PropertyFiltering.getFilterPipeline(context2);
+        assertNotSame(pipeline1, pipeline2);
+        assertTrue(pipeline1.isBuiltFrom(context1.getPropertyFilters()));
+        assertTrue(pipeline2.isBuiltFrom(context2.getPropertyFilters()));
+        // alternating between contexts does not rebuild the pipelines.
+        for (int i = 0; i < 3; i++) {
+            assertSame(pipeline1, PropertyFiltering.getFilterPipeline(context1));
+            assertSame(pipeline2, PropertyFiltering.getFilterPipeline(context2));
+        }
+    }
+
+    @Test
+    public void testDefaultContextUsesItsOwnPipeline() {
+        DefaultConfigurationContext context = (DefaultConfigurationContext) new DefaultConfigurationContextBuilder()
+                .build();
+        assertSame(context.getFilterPipeline(), PropertyFiltering.getFilterPipeline(context));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal;
+
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+
+/**
+ * Filter resolving values of the form {@code ${key}} to the value of the referenced key, taken from the
+ * property sources of a context. The filtered value hence depends on another key.
+ */
+class ReferenceResolvingFilter implements PropertyFilter {
+
+    ConfigurationContext context;
+
+    @Override
+    public String filterProperty(String key, String valueToBeFiltered) {
+        if (valueToBeFiltered == null || !valueToBeFiltered.startsWith("${") || !valueToBeFiltered.endsWith("}")) {
+            return valueToBeFiltered;
+        }
+        String reference = valueToBeFiltered.substring(2, valueToBeFiltered.length() - 1);
+        for (PropertySource propertySource : context.getPropertySources()) {
+            String value = propertySource.get(reference);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
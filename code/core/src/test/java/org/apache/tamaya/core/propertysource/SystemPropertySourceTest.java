@@ -83,6 +83,22 @@ public class SystemPropertySourceTest {
         }
     }
 
+    @Test
+    public void testGetVersion() throws Exception {
+        long version = testPropertySource.getVersion();
+        Assert.assertEquals(version, testPropertySource.getVersion());
+
+        System.setProperty("test.version", "myTestVal");
+        try {
+            long changedVersion = testPropertySource.getVersion();
+            Assert.assertNotEquals(version, changedVersion);
+            Assert.assertEquals("myTestVal", testPropertySource.get("test.version"));
+            Assert.assertEquals(changedVersion, testPropertySource.getVersion());
+        } finally {
+            System.clearProperty("test.version");
+        }
+    }
+
     private void checkWithSystemProperties(Map<String, String> toCheck) {
         Properties systemEntries = System.getProperties();
 
@@ -23,6 +23,7 @@ import org.apache.tamaya.events.spi.ConfigEventManagerSpi;
 import org.apache.tamaya.spi.ServiceContextManager;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Singleton accessor for accessing the event support component that distributes change events of
@@ -35,6 +36,16 @@ public final class ConfigEventManager {
     private static final ConfigEventManagerSpi SPI = ServiceContextManager.getServiceContext()
             .getService(ConfigEventManagerSpi.class);
 
+    /**
+     * The router of key subscriptions, registered with the SPI on the first subscription.
+     */
+    private static final KeyChangeRouter ROUTER = new KeyChangeRouter();
+
+    /**
+     * Flag, if {@link #ROUTER} is registered.
+     */
+    private static boolean routerRegistered;
+
     /**
      * Private singleton constructor.
      */
@@ -54,7 +65,7 @@ public final class ConfigEventManager {
     }
 
     /**
-     * Adds a Config listener that listens to all kind of {@link ConfigEvent}.
+     * Adds a Config listener that listens to events of the given type, including any subtypes.
      * @param <T> the type of the event.
      * @param l the listener not null.
      * @param eventType the event type to which this listener listens to.
@@ -64,7 +75,7 @@ public final class ConfigEventManager {
             throw new ConfigException("No SPI registered for " +
                     ConfigEventManager.class.getName());
         }
-        SPI.addListener(l);
+        SPI.addListener(l, eventType);
     }
 
     /**
@@ -92,7 +103,41 @@ public final class ConfigEventManager {
             throw new ConfigException("No SPI registered for " +
                     ConfigEventManager.class.getName());
         }
-        SPI.removeListener(l);
+        SPI.removeListener(l, eventType);
+    }
+
+    /**
+     * Subscribes a listener to changes of the selected keys only. Instead of receiving every
+     * {@link ConfigurationChange}, the listener receives a change containing only the changes of the selected keys,
+     * and is not called at all, if none of them changed. Calling this method again for the same listener adds
+     * further selectors.
+     *
+     * @param l the listener, not null.
+     * @param selectors the keys, prefixes or patterns selected, not null.
+     */
+    public static void subscribe(ConfigEventListener l, KeySelector... selectors) {
+        if (SPI == null) {
+            throw new ConfigException("No SPI registered for " +
+                    ConfigEventManager.class.getName());
+        }
+        synchronized (ROUTER) {
+            if (!routerRegistered) {
+                SPI.addListener(ROUTER, ConfigurationChange.class);
+                routerRegistered = true;
+            }
+        }
+        ROUTER.subscribe(l, selectors);
+    }
+
+    /**
+     * Removes all subscriptions of a listener.
+     *
+     * @param l the listener, not null.
+     * @return true, if the listener was subscribed.
+     * @see #subscribe(ConfigEventListener, KeySelector...)
+     */
+    public static boolean unsubscribe(ConfigEventListener l) {
+        return ROUTER.unsubscribe(l);
     }
 
     /**
@@ -106,6 +151,18 @@ public final class ConfigEventManager {
         return SPI.getListeners(type);
     }
 
+    /**
+     * Access all ConfigEventListeners an event of the given type is delivered to, including the listeners
+     * registered for any of its super types, e.g. the global listeners.
+     * @param type the event type
+     * @param <T> type param
+     * @return a list with the listeners found, in delivery order, never null.
+     */
+    public static <T extends ConfigEvent>
+        Collection<? extends ConfigEventListener> getDispatchListeners(Class<T> type) {
+        return SPI.getDispatchListeners(type);
+    }
+
     /**
      * Access all registered ConfigEventListeners listening to a all kind of event types globally.
      * 
@@ -118,8 +175,9 @@ public final class ConfigEventManager {
     }
 
     /**
-     * Publishes a {@link ConfigurationChange} synchronously to all interested listeners.
-     * 
+     * Publishes a {@link ConfigurationChange} synchronously to all interested listeners. If batching of
+     * configuration changes is enabled, changes are delivered asynchronously, after this method has returned.
+     *
      * @param <T> the type of the event.
      * @param event the event, not null.
      */
@@ -183,4 +241,23 @@ public final class ConfigEventManager {
         SPI.setChangeMonitoringPeriod(millis);
     }
 
+    /**
+     * Stops all background work of the events module: the change monitoring is stopped and all executors used,
+     * e.g. for asynchronous event delivery, are released, waiting for running tasks to complete. Events fired
+     * asynchronously afterwards are rejected.
+     *
+     * @param timeout the maximal time to wait.
+     * @param unit the unit of the timeout, not null.
+     * @return true, if all background tasks have terminated.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws ConfigException if no SPI is registered.
+     * @see ConfigEventManagerSpi#shutdown(long, TimeUnit)
+     */
+    public static boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        if (SPI == null) {
+            throw new ConfigException("No SPI registered for " +
+                    ConfigEventManager.class.getName());
+        }
+        return SPI.shutdown(timeout, unit);
+    }
 }
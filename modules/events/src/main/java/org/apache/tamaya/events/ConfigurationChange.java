@@ -41,9 +41,9 @@ public final class ConfigurationChange implements ConfigEvent<Configuration>, Se
     /** The base property provider/configuration. */
     private final FrozenConfiguration configuration;
     /** The base version, usable for optimistic locking. */
-    private String version = UUID.randomUUID().toString();
+    private final String version;
     /** The timestamp of the change set in millis from the epoch. */
-    private long timestamp = System.currentTimeMillis();
+    private final long timestamp;
     /** The recorded changes. */
     private final Map<String,PropertyChangeEvent> changes = new HashMap<>();
 
@@ -65,12 +65,23 @@ public final class ConfigurationChange implements ConfigEvent<Configuration>, Se
         for(PropertyChangeEvent ev:builder.delta.values()){
             this.changes.put(ev.getPropertyName(), ev);
         }
-        if(builder.version!=null){
-            this.version = builder.version;
-        }
-        if(builder.timestamp!=null){
-            this.timestamp = builder.timestamp;
+        this.version = builder.version!=null?builder.version:UUID.randomUUID().toString();
+        this.timestamp = builder.timestamp!=null?builder.timestamp:System.currentTimeMillis();
+    }
+
+    /**
+     * Constructor creating a change set containing a subset of the changes of another change set, with the same
+     * configuration, version and timestamp.
+     * @param change the change set, not null.
+     * @param changes the changes contained, not null.
+     */
+    ConfigurationChange(ConfigurationChange change, Collection<PropertyChangeEvent> changes) {
+        this.configuration = change.configuration;
+        for(PropertyChangeEvent ev:changes){
+            this.changes.put(ev.getPropertyName(), ev);
         }
+        this.version = change.version;
+        this.timestamp = change.timestamp;
     }
 
     @Override
@@ -90,14 +90,21 @@ public final class ConfigurationChangeBuilder {
 
     /**
      * Compares the two property config/configurations and creates a collection current all changes
-     * that must be appied to render {@code map1} into {@code map2}.
+     * that must be appied to render {@code map2} into {@code map1}. If both instances are frozen and share
+     * structure, e.g. created by {@link FrozenConfiguration#of(Configuration, FrozenConfiguration)}, only the changed
+     * entries are visited.
      *
-     * @param map1 the source map, not null.
-     * @param map2 the target map, not null.
-     * @return a collection current change events, never null.
+     * @param map1 the target map, not null.
+     * @param map2 the source map, not null.
+     * @return a collection current change events, with the values of {@code map2} as old values, never null.
      */
     public static Collection<PropertyChangeEvent> compare(Configuration map1, Configuration map2) {
         List<PropertyChangeEvent> changes = new ArrayList<>();
+        if (map1 instanceof FrozenConfiguration && map2 instanceof FrozenConfiguration) {
+            ((FrozenConfiguration) map2).getPropertyMap().diff(((FrozenConfiguration) map1).getPropertyMap(),
+                    map1, changes);
+            return changes;
+        }
         for (Map.Entry<String, String> en : map1.getProperties().entrySet()) {
             String val = map2.get(en.getKey());
             if (val == null) {
@@ -107,11 +114,8 @@ public final class ConfigurationChangeBuilder {
             }
         }
         for (Map.Entry<String, String> en : map2.getProperties().entrySet()) {
-            String val = map1.get(en.getKey());
-            if (val == null) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), null, en.getValue()));
-            } else if (!val.equals(en.getValue())) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), val, en.getValue()));
+            if (map1.get(en.getKey()) == null) {
+                changes.add(new PropertyChangeEvent(map1, en.getKey(), en.getValue(), null));
             }
         }
         return changes;
@@ -151,6 +155,29 @@ public final class ConfigurationChangeBuilder {
         return this;
     }
 
+    /**
+     * Records the changes of a subsequent change set, so the change set built covers both. For keys changed in
+     * both, the resulting change covers the old value of the change recorded first and the new value of the
+     * change given. Keys changed back to their original value are removed from the change set.
+     *
+     * @param change the subsequent change set, not null.
+     * @return the builder for chaining.
+     */
+    public ConfigurationChangeBuilder merge(ConfigurationChange change) {
+        for (PropertyChangeEvent c : change.getChanges()) {
+            PropertyChangeEvent recorded = this.delta.get(c.getPropertyName());
+            if (recorded == null) {
+                this.delta.put(c.getPropertyName(), c);
+            } else if (Objects.equals(recorded.getOldValue(), c.getNewValue())) {
+                this.delta.remove(c.getPropertyName());
+            } else {
+                this.delta.put(c.getPropertyName(), new PropertyChangeEvent(this.source, c.getPropertyName(),
+                        recorded.getOldValue(), c.getNewValue()));
+            }
+        }
+        return this;
+    }
+
     /**
      * Applies a single key/value change.
      *
@@ -163,6 +190,19 @@ public final class ConfigurationChangeBuilder {
         return this;
     }
 
+    /**
+     * Applies a single key/value change with a known old value, e.g. when restoring recorded changes.
+     *
+     * @param key      the changed key
+     * @param oldValue the old value, or null, if the key was added.
+     * @param newValue the new value, or null, if the key was removed.
+     * @return this instance for chining.
+     */
+    public ConfigurationChangeBuilder addChange(String key, String oldValue, String newValue) {
+        this.delta.put(key, new PropertyChangeEvent(this.source, key, oldValue, newValue));
+        return this;
+    }
+
     /**
      * Get the current values, also considering any changes recorded within this change set.
      *
@@ -27,9 +27,8 @@ import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.spi.ConversionContext;
 import org.apache.tamaya.spi.PropertyConverter;
 
+import java.beans.PropertyChangeEvent;
 import java.io.Serializable;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -42,20 +41,22 @@ import java.util.logging.Logger;
  */
 public final class FrozenConfiguration implements Configuration, Serializable {
     private static final long serialVersionUID = -6373137316556444171L;
+    /**
+     * The key of the entry containing the time the configuration was frozen.
+     */
+    private static final String FROZEN_AT_KEY = "[meta]frozenAt";
     /**
      * The properties frozen.
      */
-    private Map<String, String> properties = new HashMap<>();
+    private final PersistentPropertyMap properties;
 
     /**
      * Constructor.
      *
-     * @param config The base configuration.
+     * @param properties The properties frozen.
      */
-    private FrozenConfiguration(Configuration config) {
-        this.properties.putAll(config.getProperties());
-        this.properties.put("[meta]frozenAt", String.valueOf(System.currentTimeMillis()));
-        this.properties = Collections.unmodifiableMap(this.properties);
+    private FrozenConfiguration(PersistentPropertyMap properties) {
+        this.properties = properties.plus(FROZEN_AT_KEY, String.valueOf(System.currentTimeMillis()));
     }
 
     /**
@@ -68,7 +69,51 @@ public final class FrozenConfiguration implements Configuration, Serializable {
         if (config instanceof FrozenConfiguration) {
             return (FrozenConfiguration) config;
         }
-        return new FrozenConfiguration(config);
+        return new FrozenConfiguration(PersistentPropertyMap.of(config.getProperties()));
+    }
+
+    /**
+     * Creates a new FrozenConfiguration instance based on a Configuration given, sharing all unchanged entries
+     * with a previous frozen state. Comparing both instances, e.g. using
+     * {@link ConfigurationChangeBuilder#addChanges(Configuration)}, only visits the entries changed.
+     *
+     * @param config the configuration to be frozen, not null.
+     * @param previous the previously frozen state of the configuration, or null.
+     * @return the frozen Configuration.
+     */
+    public static FrozenConfiguration of(Configuration config, FrozenConfiguration previous) {
+        if (previous == null || config instanceof FrozenConfiguration) {
+            return of(config);
+        }
+        return new FrozenConfiguration(previous.properties.update(config.getProperties()));
+    }
+
+    /**
+     * Creates a new FrozenConfiguration instance with the changes given applied, sharing all unchanged entries
+     * with this instance.
+     *
+     * @param change the changes to apply, not null. Changes with a new value of null remove the corresponding key.
+     * @return the frozen Configuration.
+     */
+    public FrozenConfiguration apply(ConfigurationChange change) {
+        PersistentPropertyMap newProperties = this.properties;
+        for (PropertyChangeEvent ev : change.getChanges()) {
+            if (ev.getNewValue() == null) {
+                newProperties = newProperties.minus(ev.getPropertyName());
+            } else {
+                newProperties = newProperties.plus(ev.getPropertyName(), (String) ev.getNewValue());
+            }
+        }
+        return new FrozenConfiguration(newProperties);
+    }
+
+    /**
+     * Access the properties frozen.
+     *
+     * @return the properties, never null.
+     */
+    PersistentPropertyMap getPropertyMap() {
+        return properties;
     }
 
     @Override
@@ -145,6 +190,26 @@ public final class FrozenConfiguration implements Configuration, Serializable {
         return val;
     }
 
+    @Override
+    public int getInt(String key, int defaultValue) {
+        return getOrDefault(key, Integer.class, defaultValue);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        return getOrDefault(key, Long.class, defaultValue);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        return getOrDefault(key, Double.class, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getOrDefault(key, Boolean.class, defaultValue);
+    }
+
     @Override
     public Map<String, String> getProperties() {
         return properties;
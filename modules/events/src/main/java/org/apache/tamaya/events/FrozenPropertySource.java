@@ -19,18 +19,21 @@
 package org.apache.tamaya.events;
 
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.io.Serializable;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * PropertySource implementation that stores all current values of a given (possibly dynamic, contextual and non server
  * capable instance) and is fully serializable. Note that hereby only the scannable key/value pairs are considered.
  */
-public final class FrozenPropertySource implements PropertySource, Serializable {
+public final class FrozenPropertySource implements VersionedPropertySource, Serializable {
     private static final long serialVersionUID = -6373137316556444171L;
+    /**
+     * The key of the entry containing the time the property source was frozen.
+     */
+    private static final String FROZEN_AT_KEY = "[meta]frozenAt";
     /**
      * The ordinal.
      */
@@ -38,7 +41,7 @@ public final class FrozenPropertySource implements PropertySource, Serializable
     /**
      * The properties read.
      */
-    private Map<String, String> properties = new HashMap<>();
+    private final PersistentPropertyMap properties;
     /**
      * The PropertySource's name.
      */
@@ -48,11 +51,10 @@ public final class FrozenPropertySource implements PropertySource, Serializable
      * Constructor.
      *
      * @param propertySource The base PropertySource.
+     * @param properties The properties frozen.
      */
-    private FrozenPropertySource(PropertySource propertySource) {
-        this.properties.putAll(propertySource.getProperties());
-        this.properties.put("[meta]frozenAt", String.valueOf(System.currentTimeMillis()));
-        this.properties = Collections.unmodifiableMap(this.properties);
+    private FrozenPropertySource(PropertySource propertySource, PersistentPropertyMap properties) {
+        this.properties = properties.plus(FROZEN_AT_KEY, String.valueOf(System.currentTimeMillis()));
         this.ordinal = propertySource.getOrdinal();
         this.name = propertySource.getName();
     }
@@ -67,7 +69,32 @@ public final class FrozenPropertySource implements PropertySource, Serializable
         if (propertySource instanceof FrozenPropertySource) {
             return (FrozenPropertySource) propertySource;
         }
-        return new FrozenPropertySource(propertySource);
+        return new FrozenPropertySource(propertySource, PersistentPropertyMap.of(propertySource.getProperties()));
+    }
+
+    /**
+     * Creates a new FrozenPropertySource instance based on a PropertySource given, sharing all unchanged entries
+     * with a previous frozen state. Comparing both instances, e.g. using
+     * {@link PropertySourceChangeBuilder#addChanges(PropertySource)}, only visits the entries changed.
+     *
+     * @param propertySource the property source to be frozen, not null.
+     * @param previous the previously frozen state of the property source, or null.
+     * @return the frozen property source.
+     */
+    public static FrozenPropertySource of(PropertySource propertySource, FrozenPropertySource previous) {
+        if (previous == null || propertySource instanceof FrozenPropertySource) {
+            return of(propertySource);
+        }
+        return new FrozenPropertySource(propertySource, previous.properties.update(propertySource.getProperties()));
+    }
+
+    /**
+     * Access the properties frozen.
+     *
+     * @return the properties, never null.
+     */
+    PersistentPropertyMap getPropertyMap() {
+        return properties;
     }
 
     @Override
@@ -90,6 +117,15 @@ public final class FrozenPropertySource implements PropertySource, Serializable
         return properties;
     }
 
+    /**
+     * The properties are frozen, so the version never changes.
+     * @return always 0.
+     */
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     @Override
     public boolean isScannable() {
         return true;
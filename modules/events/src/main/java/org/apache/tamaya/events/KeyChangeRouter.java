@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Routes the changed keys of each {@link ConfigurationChange} to the listeners subscribed to them, see
+ * {@link ConfigEventManager#subscribe(ConfigEventListener, KeySelector...)}. Each listener receives a single
+ * change, containing only the changes of the keys it selected. Key and prefix subscriptions are stored in a
+ * character trie, so routing a key takes time proportional to the key's length, independent of the number of
+ * subscriptions. Pattern subscriptions are evaluated for each key.
+ * Subscriptions are changed under the router's lock, whereas routing is lock free.
+ */
+final class KeyChangeRouter implements ConfigEventListener {
+
+    private static final Logger LOG = Logger.getLogger(KeyChangeRouter.class.getName());
+
+    private static final ConfigEventListener[] NO_LISTENERS = new ConfigEventListener[0];
+
+    /** The root of the trie, representing the empty key prefix. */
+    private final Node root = new Node();
+    /** The pattern subscriptions. */
+    private volatile PatternSubscription[] patterns = new PatternSubscription[0];
+    /** The selectors of each listener, guarded by this router's lock. */
+    private final Map<ConfigEventListener, List<KeySelector>> subscriptions = new HashMap<>();
+
+    /**
+     * Subscribes a listener to the keys selected.
+     *
+     * @param listener the listener, not null.
+     * @param selectors the selectors, not null.
+     */
+    synchronized void subscribe(ConfigEventListener listener, KeySelector... selectors) {
+        Objects.requireNonNull(listener);
+        List<KeySelector> selected = subscriptions.get(listener);
+        if (selected == null) {
+            selected = new ArrayList<>();
+            subscriptions.put(listener, selected);
+        }
+        for (KeySelector selector : selectors) {
+            switch (selector.getType()) {
+                case KEY:
+                    Node keyNode = root.getOrCreate(selector.getExpression());
+                    keyNode.exact = add(keyNode.exact, listener);
+                    break;
+                case PREFIX:
+                    Node prefixNode = root.getOrCreate(selector.getExpression());
+                    prefixNode.prefix = add(prefixNode.prefix, listener);
+                    break;
+                case PATTERN:
+                default:
+                    PatternSubscription[] newPatterns = Arrays.copyOf(patterns, patterns.length + 1);
+                    newPatterns[patterns.length] = new PatternSubscription(selector, listener);
+                    patterns = newPatterns;
+            }
+            selected.add(selector);
+        }
+    }
+
+    /**
+     * Removes all subscriptions of a listener.
+     *
+     * @param listener the listener, not null.
+     * @return true, if the listener was subscribed.
+     */
+    synchronized boolean unsubscribe(ConfigEventListener listener) {
+        List<KeySelector> selected = subscriptions.remove(listener);
+        if (selected == null) {
+            return false;
+        }
+        for (KeySelector selector : selected) {
+            switch (selector.getType()) {
+                case KEY:
+                    Node keyNode = root.get(selector.getExpression());
+                    keyNode.exact = remove(keyNode.exact, listener);
+                    break;
+                case PREFIX:
+                    Node prefixNode = root.get(selector.getExpression());
+                    prefixNode.prefix = remove(prefixNode.prefix, listener);
+                    break;
+                case PATTERN:
+                default:
+                    List<PatternSubscription> newPatterns = new ArrayList<>(patterns.length);
+                    for (PatternSubscription subscription : patterns) {
+                        if (subscription.listener != listener) {
+                            newPatterns.add(subscription);
+                        }
+                    }
+                    patterns = newPatterns.toArray(new PatternSubscription[newPatterns.size()]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of subscribed listeners.
+     *
+     * @return the listener count.
+     */
+    synchronized int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onConfigEvent(ConfigEvent<?> event) {
+        if (event instanceof ConfigurationChange) {
+            ConfigurationChange change = (ConfigurationChange) event;
+            for (Map.Entry<ConfigEventListener, List<PropertyChangeEvent>> en : route(change).entrySet()) {
+                try {
+                    en.getKey().onConfigEvent(new ConfigurationChange(change, en.getValue()));
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, "Subscriber " + en.getKey() + " failed to handle change: " + change, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the changes each subscribed listener is interested in.
+     *
+     * @param change the change, not null.
+     * @return the changes selected, keyed by listener, never null.
+     */
+    Map<ConfigEventListener, List<PropertyChangeEvent>> route(ConfigurationChange change) {
+        Map<ConfigEventListener, List<PropertyChangeEvent>> result = new LinkedHashMap<>();
+        PatternSubscription[] patterns = this.patterns;
+        for (PropertyChangeEvent event : change.getChanges()) {
+            String key = event.getPropertyName();
+            Node node = root;
+            collect(node.prefix, event, result);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+                if (node != null) {
+                    collect(node.prefix, event, result);
+                }
+            }
+            if (node != null) {
+                collect(node.exact, event, result);
+            }
+            for (PatternSubscription subscription : patterns) {
+                if (subscription.selector.matches(key)) {
+                    collect(subscription.listener, event, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collect(ConfigEventListener[] listeners, PropertyChangeEvent event,
+                                Map<ConfigEventListener, List<PropertyChangeEvent>> result) {
+        for (ConfigEventListener listener : listeners) {
+            collect(listener, event, result);
+        }
+    }
+
+    private static void collect(ConfigEventListener listener, PropertyChangeEvent event,
+                                Map<ConfigEventListener, List<PropertyChangeEvent>> result) {
+        List<PropertyChangeEvent> events = result.get(listener);
+        if (events == null) {
+            events = new ArrayList<>();
+            result.put(listener, events);
+        } else if (events.get(events.size() - 1) == event) {
+            // the key was selected by several selectors of the same listener.
+            return;
+        }
+        events.add(event);
+    }
+
+    private static ConfigEventListener[] add(ConfigEventListener[] listeners, ConfigEventListener listener) {
+        ConfigEventListener[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    private static ConfigEventListener[] remove(ConfigEventListener[] listeners, ConfigEventListener listener) {
+        List<ConfigEventListener> result = new ArrayList<>(Arrays.asList(listeners));
+        result.remove(listener);
+        return result.isEmpty() ? NO_LISTENERS : result.toArray(new ConfigEventListener[result.size()]);
+    }
+
+    @Override
+    public String toString() {
+        return "KeyChangeRouter{subscribers=" + getSubscriberCount() + '}';
+    }
+
+    /**
+     * A node of the trie, representing a key prefix. The arrays are replaced as a whole on changes, so readers
+     * always see a consistent state.
+     */
+    private static final class Node {
+        private volatile Children children = Children.EMPTY;
+        private volatile ConfigEventListener[] exact = NO_LISTENERS;
+        private volatile ConfigEventListener[] prefix = NO_LISTENERS;
+
+        Node child(char c) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.labels, c);
+            return index >= 0 ? current.nodes[index] : null;
+        }
+
+        Node get(String path) {
+            Node node = this;
+            for (int i = 0; i < path.length() && node != null; i++) {
+                node = node.child(path.charAt(i));
+            }
+            return node;
+        }
+
+        Node getOrCreate(String path) {
+            Node node = this;
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                Node next = node.child(c);
+                if (next == null) {
+                    next = new Node();
+                    node.children = node.children.plus(c, next);
+                }
+                node = next;
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The immutable, sorted children of a node.
+     */
+    private static final class Children {
+        static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        private final char[] labels;
+        private final Node[] nodes;
+
+        Children(char[] labels, Node[] nodes) {
+            this.labels = labels;
+            this.nodes = nodes;
+        }
+
+        Children plus(char c, Node node) {
+            int index = -Arrays.binarySearch(labels, c) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newLabels[index] = c;
+            newNodes[index] = node;
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(nodes, index, newNodes, index + 1, nodes.length - index);
+            return new Children(newLabels, newNodes);
+        }
+    }
+
+    /**
+     * A pattern subscription.
+     */
+    private static final class PatternSubscription {
+        private final KeySelector selector;
+        private final ConfigEventListener listener;
+
+        PatternSubscription(KeySelector selector, ConfigEventListener listener) {
+            this.selector = selector;
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the configuration keys a subscriber is interested in, see
+ * {@link ConfigEventManager#subscribe(ConfigEventListener, KeySelector...)}. Keys can be selected
+ * <ul>
+ * <li>exactly,</li>
+ * <li>by prefix, e.g. all keys of a section, with the same semantics as
+ * {@code ConfigurationFunctions.section(String)}, or</li>
+ * <li>by a regular expression matching the whole key.</li>
+ * </ul>
+ * This class is immutable and thread-safe.
+ */
+public final class KeySelector {
+
+    /**
+     * The kinds of selectors.
+     */
+    public enum Type {
+        /** Selects a single key. */
+        KEY,
+        /** Selects all keys starting with the selector's expression. */
+        PREFIX,
+        /** Selects all keys matching the selector's regular expression. */
+        PATTERN
+    }
+
+    private final Type type;
+    private final String expression;
+    private final Pattern pattern;
+
+    private KeySelector(Type type, String expression) {
+        this.type = type;
+        this.expression = Objects.requireNonNull(expression);
+        this.pattern = type == Type.PATTERN ? Pattern.compile(expression) : null;
+    }
+
+    /**
+     * Creates a selector for a single key.
+     *
+     * @param key the key, not null.
+     * @return the new selector, never null.
+     */
+    public static KeySelector key(String key) {
+        return new KeySelector(Type.KEY, key);
+    }
+
+    /**
+     * Creates a selector for all keys starting with the given prefix, e.g. a section key such as {@code "db."}.
+     *
+     * @param prefix the prefix, not null.
+     * @return the new selector, never null.
+     */
+    public static KeySelector prefix(String prefix) {
+        return new KeySelector(Type.PREFIX, prefix);
+    }
+
+    /**
+     * Creates a selector for all keys matching the given regular expression.
+     *
+     * @param regex the regular expression, not null.
+     * @return the new selector, never null.
+     */
+    public static KeySelector pattern(String regex) {
+        return new KeySelector(Type.PATTERN, regex);
+    }
+
+    /**
+     * Get the type of this selector.
+     *
+     * @return the type, never null.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the key, prefix or regular expression of this selector.
+     *
+     * @return the expression, never null.
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Checks if the given key is selected.
+     *
+     * @param key the key, not null.
+     * @return true, if the key is selected.
+     */
+    public boolean matches(String key) {
+        switch (type) {
+            case KEY:
+                return expression.equals(key);
+            case PREFIX:
+                return key.startsWith(expression);
+            case PATTERN:
+            default:
+                return pattern.matcher(key).matches();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeySelector)) {
+            return false;
+        }
+        KeySelector other = (KeySelector) o;
+        return type == other.type && expression.equals(other.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "KeySelector{" + type + "='" + expression + "'}";
+    }
+}
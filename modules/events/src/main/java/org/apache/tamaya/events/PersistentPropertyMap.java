@@ -0,0 +1,591 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events;
+
+import java.beans.PropertyChangeEvent;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map of property keys to values implemented as hash array mapped trie. Updates copy only the path to
+ * the changed entry, so a map derived from another one shares all unchanged sub trees with it. Comparing two maps
+ * sharing structure only visits the sub trees that differ, so its costs are proportional to the number of changed
+ * entries and not to the size of the maps.
+ */
+final class PersistentPropertyMap extends AbstractMap<String, String> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Number of hash bits consumed per trie level. */
+    private static final int BITS = 5;
+    /** Mask selecting the hash bits of a level. */
+    private static final int MASK = (1 << BITS) - 1;
+    /** Maximal depth of the trie, including a collision node at the bottom. */
+    private static final int MAX_DEPTH = 32 / BITS + 2;
+
+    /** The empty map. */
+    static final PersistentPropertyMap EMPTY = new PersistentPropertyMap(new BitmapNode(0, new Object[0]), 0);
+
+    /** The root node, never null. */
+    private final BitmapNode root;
+    /** The number of entries. */
+    private final int size;
+
+    private PersistentPropertyMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new map containing the given properties.
+     *
+     * @param properties the properties, not null. Entries with null values are ignored.
+     * @return the new map, never null.
+     */
+    static PersistentPropertyMap of(Map<String, String> properties) {
+        if (properties instanceof PersistentPropertyMap) {
+            return (PersistentPropertyMap) properties;
+        }
+        return EMPTY.update(properties);
+    }
+
+    /**
+     * Creates a map containing exactly the given properties, sharing all unchanged entries with this map.
+     *
+     * @param properties the properties, not null. Entries with null values are ignored.
+     * @return the new map, or this instance, if the properties equal the entries of this map.
+     */
+    PersistentPropertyMap update(Map<String, String> properties) {
+        BitmapNode newRoot = root;
+        int newSize = size;
+        int retained = 0;
+        for (Map.Entry<String, String> en : properties.entrySet()) {
+            String key = en.getKey();
+            String value = en.getValue();
+            if (key == null || value == null) {
+                continue;
+            }
+            int hash = hash(key);
+            String oldValue = root.get(key, hash, 0);
+            if (oldValue != null) {
+                retained++;
+                if (oldValue.equals(value)) {
+                    continue;
+                }
+            } else {
+                newSize++;
+            }
+            newRoot = newRoot.put(new Leaf(key, value, hash), 0);
+        }
+        if (retained < size) {
+            // some keys were removed
+            Iterator<Map.Entry<String, String>> iter = new EntryIterator(root);
+            while (iter.hasNext()) {
+                String key = iter.next().getKey();
+                String value = properties.get(key);
+                if (value == null) {
+                    newRoot = removeFromRoot(newRoot, key);
+                    newSize--;
+                }
+            }
+        }
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentPropertyMap(newRoot, newSize);
+    }
+
+    /**
+     * Get a map with the given entry added or replaced.
+     *
+     * @param key the key, not null.
+     * @param value the value, not null.
+     * @return the new map, or this instance, if the entry is already present.
+     */
+    PersistentPropertyMap plus(String key, String value) {
+        int hash = hash(key);
+        String oldValue = root.get(key, hash, 0);
+        if (Objects.requireNonNull(value).equals(oldValue)) {
+            return this;
+        }
+        return new PersistentPropertyMap(root.put(new Leaf(key, value, hash), 0),
+                oldValue == null ? size + 1 : size);
+    }
+
+    /**
+     * Get a map with the given key removed.
+     *
+     * @param key the key, not null.
+     * @return the new map, or this instance, if the key is not present.
+     */
+    PersistentPropertyMap minus(String key) {
+        if (root.get(key, hash(key), 0) == null) {
+            return this;
+        }
+        return new PersistentPropertyMap(removeFromRoot(root, key), size - 1);
+    }
+
+    /**
+     * Evaluates the changes to be applied to this map to render it into the given map. Sub trees shared by both
+     * maps are not visited.
+     *
+     * @param newer the target map, not null.
+     * @param eventSource the source of the change events created, not null.
+     * @param changes the collection the change events are added to, with the value of this map as old value
+     *                and the value of the target map as new value.
+     */
+    void diff(PersistentPropertyMap newer, Object eventSource, Collection<PropertyChangeEvent> changes) {
+        diff(root, newer.root, 0, eventSource, changes);
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        return root.get((String) key, hash((String) key), 0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new EntryIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PersistentPropertyMap && ((PersistentPropertyMap) o).root == root) {
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static BitmapNode removeFromRoot(BitmapNode root, String key) {
+        Object newRoot = root.remove(key, hash(key), 0);
+        if (newRoot == null) {
+            return EMPTY.root;
+        }
+        return (BitmapNode) newRoot;
+    }
+
+    /**
+     * Compares two slots at the same trie position.
+     */
+    private static void diff(Object oldSlot, Object newSlot, int shift, Object eventSource,
+                             Collection<PropertyChangeEvent> changes) {
+        if (oldSlot == newSlot) {
+            return;
+        }
+        if (oldSlot == null) {
+            addAll(newSlot, eventSource, changes, false);
+        } else if (newSlot == null) {
+            addAll(oldSlot, eventSource, changes, true);
+        } else if (oldSlot instanceof Leaf && newSlot instanceof Leaf) {
+            Leaf oldLeaf = (Leaf) oldSlot;
+            Leaf newLeaf = (Leaf) newSlot;
+            if (oldLeaf.getKey().equals(newLeaf.getKey())) {
+                if (!oldLeaf.getValue().equals(newLeaf.getValue())) {
+                    changes.add(new PropertyChangeEvent(eventSource, oldLeaf.getKey(), oldLeaf.getValue(),
+                            newLeaf.getValue()));
+                }
+            } else {
+                changes.add(new PropertyChangeEvent(eventSource, oldLeaf.getKey(), oldLeaf.getValue(), null));
+                changes.add(new PropertyChangeEvent(eventSource, newLeaf.getKey(), null, newLeaf.getValue()));
+            }
+        } else if (oldSlot instanceof BitmapNode && newSlot instanceof BitmapNode) {
+            BitmapNode oldNode = (BitmapNode) oldSlot;
+            BitmapNode newNode = (BitmapNode) newSlot;
+            int bits = oldNode.bitmap | newNode.bitmap;
+            while (bits != 0) {
+                int bit = Integer.lowestOneBit(bits);
+                bits &= ~bit;
+                diff(oldNode.slot(bit), newNode.slot(bit), shift + BITS, eventSource, changes);
+            }
+        } else {
+            // differently shaped sub trees, compare by lookup
+            Iterator<Map.Entry<String, String>> iter = new EntryIterator(oldSlot);
+            while (iter.hasNext()) {
+                Leaf leaf = (Leaf) iter.next();
+                String newValue = lookup(newSlot, leaf.getKey(), leaf.hash, shift);
+                if (!leaf.getValue().equals(newValue)) {
+                    changes.add(new PropertyChangeEvent(eventSource, leaf.getKey(), leaf.getValue(), newValue));
+                }
+            }
+            iter = new EntryIterator(newSlot);
+            while (iter.hasNext()) {
+                Leaf leaf = (Leaf) iter.next();
+                if (lookup(oldSlot, leaf.getKey(), leaf.hash, shift) == null) {
+                    changes.add(new PropertyChangeEvent(eventSource, leaf.getKey(), null, leaf.getValue()));
+                }
+            }
+        }
+    }
+
+    private static void addAll(Object slot, Object eventSource, Collection<PropertyChangeEvent> changes,
+                               boolean removed) {
+        Iterator<Map.Entry<String, String>> iter = new EntryIterator(slot);
+        while (iter.hasNext()) {
+            Map.Entry<String, String> en = iter.next();
+            if (removed) {
+                changes.add(new PropertyChangeEvent(eventSource, en.getKey(), en.getValue(), null));
+            } else {
+                changes.add(new PropertyChangeEvent(eventSource, en.getKey(), null, en.getValue()));
+            }
+        }
+    }
+
+    private static String lookup(Object slot, String key, int hash, int shift) {
+        if (slot instanceof Leaf) {
+            Leaf leaf = (Leaf) slot;
+            return leaf.getKey().equals(key) ? leaf.getValue() : null;
+        }
+        return ((Node) slot).get(key, hash, shift);
+    }
+
+    /**
+     * Creates the node containing the given slot content and the given leaf, which have different keys.
+     */
+    private static Node merge(Object existing, int existingHash, Leaf leaf, int shift) {
+        if (existingHash == leaf.hash) {
+            if (existing instanceof CollisionNode) {
+                return ((CollisionNode) existing).put(leaf, shift);
+            }
+            return new CollisionNode(leaf.hash, new Leaf[]{(Leaf) existing, leaf});
+        }
+        int existingIndex = (existingHash >>> shift) & MASK;
+        int index = (leaf.hash >>> shift) & MASK;
+        if (existingIndex == index) {
+            return new BitmapNode(1 << index, new Object[]{merge(existing, existingHash, leaf, shift + BITS)});
+        }
+        Object[] slots = existingIndex < index ? new Object[]{existing, leaf} : new Object[]{leaf, existing};
+        return new BitmapNode((1 << existingIndex) | (1 << index), slots);
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private abstract static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        abstract String get(String key, int hash, int shift);
+
+        /**
+         * Adds or replaces a leaf.
+         * @return the new node, or this instance, if nothing changed.
+         */
+        abstract Node put(Leaf leaf, int shift);
+
+        /**
+         * Removes a key.
+         * @return the new content of the slot: this instance, if nothing changed, a node, a single leaf, or null.
+         */
+        abstract Object remove(String key, int hash, int shift);
+
+        /** The slots, containing leaves or nodes. The array must not be modified. */
+        abstract Object[] slots();
+    }
+
+    /**
+     * Node with up to 32 slots, only the used ones are allocated.
+     */
+    private static final class BitmapNode extends Node {
+        private static final long serialVersionUID = 1L;
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        Object slot(int bit) {
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            return slots[Integer.bitCount(bitmap & (bit - 1))];
+        }
+
+        @Override
+        String get(String key, int hash, int shift) {
+            Object slot = slot(1 << ((hash >>> shift) & MASK));
+            if (slot == null) {
+                return null;
+            }
+            return lookup(slot, key, hash, shift + BITS);
+        }
+
+        @Override
+        BitmapNode put(Leaf leaf, int shift) {
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = leaf;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                if (existing.getKey().equals(leaf.getKey())) {
+                    if (existing.getValue().equals(leaf.getValue())) {
+                        return this;
+                    }
+                    newSlot = leaf;
+                } else {
+                    newSlot = merge(existing, existing.hash, leaf, shift + BITS);
+                }
+            } else {
+                newSlot = ((Node) slot).put(leaf, shift + BITS);
+                if (newSlot == slot) {
+                    return this;
+                }
+            }
+            return withSlot(index, newSlot);
+        }
+
+        @Override
+        Object remove(String key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            Object newSlot;
+            if (slot instanceof Leaf) {
+                if (!((Leaf) slot).getKey().equals(key)) {
+                    return this;
+                }
+                newSlot = null;
+            } else {
+                newSlot = ((Node) slot).remove(key, hash, shift + BITS);
+                if (newSlot == slot) {
+                    return this;
+                }
+            }
+            if (newSlot != null) {
+                if (shift > 0 && slots.length == 1 && newSlot instanceof Leaf) {
+                    return newSlot;
+                }
+                return withSlot(index, newSlot);
+            }
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, newSlots.length - index);
+            if (shift > 0 && newSlots.length == 1 && newSlots[0] instanceof Leaf) {
+                return newSlots[0];
+            }
+            return new BitmapNode(bitmap & ~bit, newSlots);
+        }
+
+        private BitmapNode withSlot(int index, Object slot) {
+            Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        Object[] slots() {
+            return slots;
+        }
+    }
+
+    /**
+     * Node containing leaves with equal hashes.
+     */
+    private static final class CollisionNode extends Node {
+        private static final long serialVersionUID = 1L;
+
+        private final int hash;
+        private final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        String get(String key, int hash, int shift) {
+            for (Leaf leaf : leaves) {
+                if (leaf.getKey().equals(key)) {
+                    return leaf.getValue();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift) {
+            if (leaf.hash != hash) {
+                return merge(this, hash, leaf, shift);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(leaf.getKey())) {
+                    if (leaves[i].getValue().equals(leaf.getValue())) {
+                        return this;
+                    }
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            Leaf[] newLeaves = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+            newLeaves[leaves.length] = leaf;
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        Object remove(String key, int hash, int shift) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, newLeaves, 0, i);
+                    System.arraycopy(leaves, i + 1, newLeaves, i, newLeaves.length - i);
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Object[] slots() {
+            return leaves;
+        }
+    }
+
+    /**
+     * An entry of the map.
+     */
+    private static final class Leaf extends AbstractMap.SimpleImmutableEntry<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        private final int hash;
+
+        Leaf(String key, String value, int hash) {
+            super(key, value);
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Iterates the leaves of a slot in trie order.
+     */
+    private static final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private final Object[][] stack = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Leaf next;
+
+        EntryIterator(Object slot) {
+            if (slot instanceof Leaf) {
+                next = (Leaf) slot;
+                depth = -1;
+            } else {
+                stack[0] = ((Node) slot).slots();
+                advance();
+            }
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] slots = stack[depth];
+                if (positions[depth] >= slots.length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = slots[positions[depth]++];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                    return;
+                }
+                depth++;
+                stack[depth] = ((Node) slot).slots();
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf result = next;
+            advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Map is immutable.");
+        }
+    }
+}
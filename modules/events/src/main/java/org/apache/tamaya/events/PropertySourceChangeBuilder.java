@@ -86,14 +86,21 @@ public final class PropertySourceChangeBuilder {
 
     /**
      * Compares the two property config/configurations and creates a collection current all changes
-     * that must be appied to render {@code map1} into {@code map2}.
+     * that must be appied to render {@code map2} into {@code map1}. If both instances are frozen and share
+     * structure, e.g. created by {@link FrozenPropertySource#of(PropertySource, FrozenPropertySource)}, only the
+     * changed entries are visited.
      *
-     * @param map1 the source map, not null.
-     * @param map2 the target map, not null.
-     * @return a collection current change events, never null.
+     * @param map1 the target map, not null.
+     * @param map2 the source map, not null.
+     * @return a collection current change events, with the values of {@code map2} as old values, never null.
      */
     public static Collection<PropertyChangeEvent> compare(PropertySource map1, PropertySource map2) {
         List<PropertyChangeEvent> changes = new ArrayList<>();
+        if (map1 instanceof FrozenPropertySource && map2 instanceof FrozenPropertySource) {
+            ((FrozenPropertySource) map2).getPropertyMap().diff(((FrozenPropertySource) map1).getPropertyMap(),
+                    map1, changes);
+            return changes;
+        }
         for (Map.Entry<String, String> en : map1.getProperties().entrySet()) {
             String val = map2.get(en.getKey());
             if (val == null) {
@@ -103,11 +110,8 @@ public final class PropertySourceChangeBuilder {
             }
         }
         for (Map.Entry<String, String> en : map2.getProperties().entrySet()) {
-            String val = map1.get(en.getKey());
-            if (val == null) {
+            if (map1.get(en.getKey()) == null) {
                 changes.add(new PropertyChangeEvent(map1, en.getKey(), en.getValue(), null));
-            } else if (!val.equals(en.getValue())) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), en.getValue(), val));
             }
         }
         return changes;
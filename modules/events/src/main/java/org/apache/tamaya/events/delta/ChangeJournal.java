@@ -0,0 +1,603 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.delta;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.events.internal.EventExecutors;
+
+import java.beans.PropertyChangeEvent;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only journal of {@link ConfigurationChange}s, backed by a memory mapped file. Each change recorded
+ * gets a sequence number, so listeners registered late, or nodes restarting, can catch up by replaying the changes
+ * since the last sequence they have seen, instead of reading the full configuration. Register the journal as
+ * {@link ConfigEventListener} for recording all changes published.
+ * <p>Records are checksummed, so records partially written, e.g. when the process is killed, are detected and
+ * discarded when the journal is opened again. Writes reach the operating system immediately, use {@link #flush()}
+ * to force them to the storage device.</p>
+ * <p>When the number of records exceeds the configured maximum, the older half of the records is compacted into a
+ * single record containing their net changes. Compaction runs in the background, so recording a change does not
+ * wait for it. Replaying from a sequence within a compacted range therefore delivers the net changes of the whole
+ * range, with the final values of all keys changed.</p>
+ * <p>The changes replayed refer to the configuration of the last change recorded, so catching up does not take
+ * a snapshot of the whole configuration.</p>
+ * This class is thread-safe.
+ */
+public final class ChangeJournal implements ConfigEventListener, Closeable {
+
+    private static final Logger LOG = Logger.getLogger(ChangeJournal.class.getName());
+
+    /** The magic number starting a journal file. */
+    private static final int MAGIC = 0x54434A31;
+    /** The format version. */
+    private static final int FORMAT_VERSION = 1;
+    /** The size of the file header. */
+    private static final int HEADER_SIZE = 8;
+    /** The default initial capacity of the file. */
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    /** The default maximal number of records before compaction. */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final Path file;
+    private final int maxEntries;
+    /** The executor running the compactions, or null, if obtained from {@link EventExecutors} on first use. */
+    private Executor executor;
+    /** Flag, if the executor was obtained from {@link EventExecutors} and must be released on close. */
+    private boolean ownsExecutor;
+    /** Flag, if a compaction has been submitted and not run yet. */
+    private boolean compactionPending;
+    /** The configuration of the last change recorded, or null. */
+    private FrozenConfiguration resource;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    /** The offsets of the records, ordered by sequence. */
+    private long[] offsets = new long[16];
+    /** The sequences of the records. */
+    private long[] sequences = new long[16];
+    /** The number of records. */
+    private int size;
+    /** The last sequence assigned. */
+    private long lastSequence;
+    private boolean closed;
+
+    private ChangeJournal(Path file, int initialCapacity, int maxEntries, Executor executor) throws IOException {
+        if (initialCapacity <= HEADER_SIZE || maxEntries < 2) {
+            throw new IllegalArgumentException("Invalid journal parameters: capacity=" + initialCapacity
+                    + ", maxEntries=" + maxEntries);
+        }
+        this.file = Objects.requireNonNull(file);
+        this.maxEntries = maxEntries;
+        this.executor = executor;
+        map(Math.max(initialCapacity, Files.exists(file) ? Files.size(file) : 0L));
+        recover();
+    }
+
+    /**
+     * Opens a journal with the default capacity and compaction threshold, creating the file, if not existing.
+     *
+     * @param file the journal file, not null.
+     * @return the journal, never null.
+     * @throws IOException if the file cannot be read or created.
+     */
+    public static ChangeJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_CAPACITY, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Opens a journal, creating the file, if not existing.
+     *
+     * @param file the journal file, not null.
+     * @param initialCapacity the initial size of the file in bytes, the file is enlarged as needed.
+     * @param maxEntries the number of records, which triggers a compaction, &gt;= 2.
+     * @return the journal, never null.
+     * @throws IOException if the file cannot be read or created.
+     */
+    public static ChangeJournal open(Path file, int initialCapacity, int maxEntries) throws IOException {
+        return new ChangeJournal(file, initialCapacity, maxEntries, null);
+    }
+
+    /**
+     * Opens a journal, creating the file, if not existing.
+     *
+     * @param file the journal file, not null.
+     * @param initialCapacity the initial size of the file in bytes, the file is enlarged as needed.
+     * @param maxEntries the number of records, which triggers a compaction, &gt;= 2.
+     * @param executor the executor running the compactions, not null.
+     * @return the journal, never null.
+     * @throws IOException if the file cannot be read or created.
+     */
+    public static ChangeJournal open(Path file, int initialCapacity, int maxEntries, Executor executor)
+            throws IOException {
+        return new ChangeJournal(file, initialCapacity, maxEntries, Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Maps the file with the given capacity.
+     *
+     * @param capacity the capacity in bytes.
+     * @throws IOException if mapping fails.
+     */
+    private void map(long capacity) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Journal exceeds maximal size: " + file);
+        }
+        // mapping beyond the end of the file enlarges the file, filled with zeros.
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Reads the header and the index of all valid records, hereby discarding incomplete records at the end.
+     *
+     * @throws IOException if the file is not a journal.
+     */
+    private void recover() throws IOException {
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+        } else if (magic != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a change journal: " + file);
+        }
+        int position = HEADER_SIZE;
+        while (position + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 8L + length > buffer.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer read = buffer.duplicate();
+            read.position(position + 4);
+            read.get(payload);
+            if (read.getInt() != checksum(payload)) {
+                LOG.warning("Discarding incomplete journal records at offset " + position + ": " + file);
+                break;
+            }
+            long sequence = ByteBuffer.wrap(payload).getLong();
+            index(position, sequence);
+            position += 8 + length;
+        }
+        // clears a partially written record, so it is not mistaken for a record later.
+        if (position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        buffer.position(position);
+    }
+
+    private void index(long offset, long sequence) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            sequences = Arrays.copyOf(sequences, size * 2);
+        }
+        offsets[size] = offset;
+        sequences[size] = sequence;
+        size++;
+        lastSequence = sequence;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Records a change. If the number of records exceeds the maximum afterwards, a compaction is submitted.
+     *
+     * @param change the change, not null.
+     * @return the sequence assigned to the change.
+     * @throws ConfigException if the change cannot be written.
+     */
+    public synchronized long append(ConfigurationChange change) {
+        checkOpen();
+        long sequence = lastSequence + 1;
+        try {
+            write(sequence, change.getTimestamp(), change.getVersion(), change.getChanges());
+        } catch (IOException e) {
+            throw new ConfigException("Failed to write change journal: " + file, e);
+        }
+        if (change.getResource() instanceof FrozenConfiguration) {
+            resource = (FrozenConfiguration) change.getResource();
+        }
+        if (size > maxEntries && !compactionPending) {
+            submitCompaction();
+        }
+        return sequence;
+    }
+
+    /**
+     * Submits a compaction to the executor. If the executor rejects it, the journal is compacted in the calling
+     * thread.
+     */
+    private void submitCompaction() {
+        if (executor == null) {
+            executor = EventExecutors.getScheduler("ChangeJournal");
+            ownsExecutor = true;
+        }
+        compactionPending = true;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    compactPending();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.log(Level.FINEST, "Compaction rejected, compacting in the calling thread: " + file, e);
+            compactPending();
+        }
+    }
+
+    /**
+     * Runs a compaction submitted, if the journal still exceeds the maximal number of records.
+     */
+    private synchronized void compactPending() {
+        compactionPending = false;
+        if (closed || size <= maxEntries) {
+            return;
+        }
+        try {
+            compact(maxEntries / 2);
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to compact change journal, retrying with the next change: " + file, e);
+        }
+    }
+
+    /**
+     * Get the configuration the changes replayed refer to: the configuration of the last change recorded, or, if
+     * no change has been recorded yet, a snapshot of the current configuration, taken once.
+     *
+     * @return the configuration, never null.
+     */
+    private FrozenConfiguration resource() {
+        if (resource == null) {
+            resource = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+        }
+        return resource;
+    }
+
+    private void write(long sequence, long timestamp, String version, Collection<PropertyChangeEvent> changes)
+            throws IOException {
+        byte[] payload = encode(sequence, timestamp, version, changes);
+        int position = buffer.position();
+        long required = position + 8L + payload.length + 4;
+        if (required > buffer.capacity()) {
+            long capacity = buffer.capacity();
+            while (capacity < required) {
+                capacity *= 2;
+            }
+            map(capacity);
+            buffer.position(position);
+        }
+        // the length is written last, so readers never see a record partially written.
+        buffer.position(position + 4);
+        buffer.put(payload);
+        buffer.putInt(checksum(payload));
+        buffer.putInt(0);
+        buffer.putInt(position, payload.length);
+        buffer.position(position + 8 + payload.length);
+        index(position, sequence);
+    }
+
+    private static byte[] encode(long sequence, long timestamp, String version,
+                                 Collection<PropertyChangeEvent> changes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + changes.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(sequence);
+        out.writeLong(timestamp);
+        writeString(out, version);
+        out.writeInt(changes.size());
+        for (PropertyChangeEvent change : changes) {
+            writeString(out, change.getPropertyName());
+            writeString(out, (String) change.getOldValue());
+            writeString(out, (String) change.getNewValue());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Records the {@link ConfigurationChange}s published, other events are ignored.
+     *
+     * @param event the event, not null.
+     */
+    @Override
+    public void onConfigEvent(ConfigEvent<?> event) {
+        if (event instanceof ConfigurationChange) {
+            append((ConfigurationChange) event);
+        }
+    }
+
+    /**
+     * Reads all changes recorded after the given sequence. The changes refer to the configuration of the last
+     * change recorded.
+     *
+     * @param sinceSequence the last sequence seen, or 0, for reading all changes.
+     * @return the entries, ordered by sequence, never null.
+     */
+    public synchronized List<Entry> replay(long sinceSequence) {
+        checkOpen();
+        return replay(sinceSequence, resource());
+    }
+
+    /**
+     * Reads all changes recorded after the given sequence. A configuration given, which is not a
+     * {@link FrozenConfiguration}, is frozen first.
+     *
+     * @param sinceSequence the last sequence seen, or 0, for reading all changes.
+     * @param configuration the configuration the changes refer to, not null.
+     * @return the entries, ordered by sequence, never null.
+     */
+    public synchronized List<Entry> replay(long sinceSequence, Configuration configuration) {
+        checkOpen();
+        int index = Arrays.binarySearch(sequences, 0, size, sinceSequence);
+        index = index >= 0 ? index + 1 : -index - 1;
+        if (index >= size) {
+            return Collections.emptyList();
+        }
+        FrozenConfiguration frozen = FrozenConfiguration.of(configuration);
+        List<Entry> result = new ArrayList<>(size - index);
+        for (int i = index; i < size; i++) {
+            result.add(read(offsets[i], frozen));
+        }
+        return result;
+    }
+
+    /**
+     * Delivers all changes recorded after the given sequence to a listener, e.g. a listener registered late.
+     *
+     * @param sinceSequence the last sequence seen by the listener, or 0, for delivering all changes.
+     * @param listener the listener, not null.
+     * @return the sequence of the last change delivered, or {@code sinceSequence}, if no change was delivered.
+     */
+    public long replay(long sinceSequence, ConfigEventListener listener) {
+        long last = sinceSequence;
+        for (Entry entry : replay(sinceSequence)) {
+            listener.onConfigEvent(entry.getChange());
+            last = entry.getSequence();
+        }
+        return last;
+    }
+
+    private Entry read(long offset, FrozenConfiguration configuration) {
+        ByteBuffer in = buffer.duplicate();
+        in.position((int) offset + 4);
+        long sequence = in.getLong();
+        long timestamp = in.getLong();
+        String version = readString(in);
+        int count = in.getInt();
+        ConfigurationChangeBuilder builder = ConfigurationChangeBuilder.of(configuration)
+                .setVersion(version).setTimestamp(timestamp);
+        for (int i = 0; i < count; i++) {
+            builder.addChange(readString(in), readString(in), readString(in));
+        }
+        return new Entry(sequence, builder.build());
+    }
+
+    /**
+     * Compacts the journal, so it contains at most {@code retainedEntries + 1} records: all older records are
+     * merged into a single record containing their net changes, with the sequence, version and timestamp of the
+     * last record merged. The journal file is replaced atomically.
+     *
+     * @param retainedEntries the number of most recent records kept unchanged, &gt;= 0.
+     * @throws IOException if the compacted journal cannot be written.
+     */
+    public synchronized void compact(int retainedEntries) throws IOException {
+        checkOpen();
+        int merged = size - retainedEntries;
+        if (merged <= 1) {
+            return;
+        }
+        FrozenConfiguration configuration = resource();
+        ConfigurationChangeBuilder builder = ConfigurationChangeBuilder.of(configuration);
+        Entry last = null;
+        for (int i = 0; i < merged; i++) {
+            last = read(offsets[i], configuration);
+            builder.merge(last.getChange());
+        }
+        ConfigurationChange net = builder.build();
+        List<Entry> retained = new ArrayList<>(retainedEntries);
+        for (int i = merged; i < size; i++) {
+            retained.add(read(offsets[i], configuration));
+        }
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        ChangeJournal target = new ChangeJournal(compacted, buffer.capacity(), Integer.MAX_VALUE, null);
+        try {
+            target.write(last.getSequence(), last.getChange().getTimestamp(), last.getChange().getVersion(),
+                    net.getChanges());
+            for (Entry entry : retained) {
+                ConfigurationChange change = entry.getChange();
+                target.write(entry.getSequence(), change.getTimestamp(), change.getVersion(), change.getChanges());
+            }
+            target.buffer.force();
+        } finally {
+            target.closeChannel();
+        }
+        closeChannel();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long sequence = lastSequence;
+        this.size = 0;
+        map(Files.size(file));
+        recover();
+        this.lastSequence = Math.max(sequence, lastSequence);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Compacted change journal " + file + ", merged records: " + merged + ", records: " + size);
+        }
+    }
+
+    /**
+     * Get the number of records.
+     *
+     * @return the record count.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the sequence of the last change recorded.
+     *
+     * @return the last sequence, or 0, if no change has been recorded.
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Get the journal file.
+     *
+     * @return the file, never null.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Forces all changes recorded to the storage device.
+     */
+    public synchronized void flush() {
+        checkOpen();
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (ownsExecutor) {
+                EventExecutors.release((ExecutorService) executor);
+            }
+            buffer.force();
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new ConfigException("Change journal is closed: " + file);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeJournal{" +
+                "file=" + file +
+                ", records=" + size +
+                ", lastSequence=" + lastSequence +
+                '}';
+    }
+
+    /**
+     * A change read from the journal.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final ConfigurationChange change;
+
+        Entry(long sequence, ConfigurationChange change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+
+        /**
+         * Get the sequence of the change.
+         *
+         * @return the sequence, &gt; 0.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Get the change, with the version and timestamp recorded.
+         *
+         * @return the change, never null.
+         */
+        public ConfigurationChange getChange() {
+            return change;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{sequence=" + sequence + ", change=" + change + '}';
+        }
+    }
+}
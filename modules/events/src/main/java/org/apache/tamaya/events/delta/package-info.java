@@ -18,6 +18,7 @@
  */
 /**
  * This package contains artifacts to describe the changes (delta) of a
- * Configuration or a PropertySource.
+ * Configuration or a PropertySource, and the {@link org.apache.tamaya.events.delta.ChangeJournal} recording
+ * configuration changes durably.
  */
 package org.apache.tamaya.events.delta;
\ No newline at end of file
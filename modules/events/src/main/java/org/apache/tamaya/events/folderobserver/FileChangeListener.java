@@ -21,28 +21,52 @@ package org.apache.tamaya.events.folderobserver;
 import org.apache.tamaya.ConfigException;
 
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 /**
- * Class that has the responsibility to watch the folder and then publish the changes to a
- * {@link org.apache.tamaya.events.PropertySourceChange}.
+ * Class that has the responsibility to watch the folder and its sub folders and then publish the changes to a
+ * {@link FileChangeObserver}.
  * @see ObservingPropertySourceProvider
- * This listener will wait to events and wait to one second to watch again.
- * <p>If new file was created or modified will commit from this file.</p>
- * <p>If a file was removed then the listener will load using all files left.</p>
+ * <p>Bursts of events, e.g. caused by editors or copy tools writing a file in several steps, are collected
+ * until no further event arrives within the debounce period (see {@value #DEBOUNCE_PROPERTY}), but at most for
+ * ten debounce periods. The observer is then called once with all files changed.</p>
+ * <p>If events were lost the observer is asked to reload the whole folder.</p>
  * @author otaviojava
  */
 class FileChangeListener implements Runnable {
 
+    /**
+     * System property to configure the debounce period in ms.
+     */
+    static final String DEBOUNCE_PROPERTY = "tamaya.events.folderobserver.debounce";
+
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500L;
+
+    /**
+     * Maximal time events are collected, in debounce periods.
+     */
+    private static final int MAX_DEBOUNCE_PERIODS = 10;
+
     private static final Logger LOGGER = Logger.getLogger(FileChangeListener.class.getName());
 
     private final WatchService watchService;
@@ -51,19 +75,34 @@ class FileChangeListener implements Runnable {
 
     private final Path directory;
 
+    private final long debounceMillis;
+
+    /**
+     * The directories watched.
+     */
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
     private volatile boolean running = true;
 
     public FileChangeListener(Path directory, FileChangeObserver observer) {
+        this(directory, observer, Long.getLong(DEBOUNCE_PROPERTY, DEFAULT_DEBOUNCE_MILLIS));
+    }
+
+    /**
+     * Constructor.
+     * @param directory the directory to observe, including its sub directories.
+     * @param observer the observer to be informed, not null.
+     * @param debounceMillis the debounce period in ms.
+     */
+    FileChangeListener(Path directory, FileChangeObserver observer, long debounceMillis) {
         this.observer = observer;
         this.directory = directory;
+        this.debounceMillis = Math.max(0L, debounceMillis);
         this.watchService = getWatchService();
 
         if (watchService!=null && directory!=null) {
             try {
-                directory.register(watchService,
-                        StandardWatchEventKinds.ENTRY_DELETE,
-                        StandardWatchEventKinds.ENTRY_MODIFY,
-                        StandardWatchEventKinds.ENTRY_CREATE);
+                registerAll(directory);
             } catch (IOException e) {
                 throw new FileChangeListenerException("An error happened when does try to registry to watch the folder", e);
             }
@@ -75,38 +114,119 @@ class FileChangeListener implements Runnable {
      */
     public void stopListener(){
         running = false;
+        if(watchService!=null){
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINEST, "Failed to close watch service.", e);
+            }
+        }
     }
 
     @Override
     public void run() {
-        if (watchService!=null || directory!=null) {
+        if (watchService==null || directory==null) {
             return;
         }
-        while (running) {
-            watchFolder();
+        try {
+            while (running) {
+                watchFolder();
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.finest("Stopped watching folder: " + directory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Start watching the current folder.
+     * Waits for changes in the current folder and publishes them to the observer.
+     * @throws InterruptedException if interrupted while waiting.
      */
-    private void watchFolder() {
+    private void watchFolder() throws InterruptedException {
+        WatchKey watchKey = watchService.take();
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        boolean overflow = processEvents(watchKey, changedFiles);
+        long maxWait = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis * MAX_DEBOUNCE_PERIODS);
+        while (System.nanoTime() < maxWait
+                && (watchKey = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+            overflow = processEvents(watchKey, changedFiles) || overflow;
+        }
         try {
-            WatchKey watckKey = watchService.take();
-            for (WatchEvent<?> event : watckKey.pollEvents()) {
-                Path filePath = (Path) watckKey.watchable();
-                if(event.kind().equals(StandardWatchEventKinds.ENTRY_CREATE)||
-                        event.kind().equals(StandardWatchEventKinds.ENTRY_MODIFY) ||
-                        event.kind().equals(StandardWatchEventKinds.ENTRY_DELETE)){
-                    LOGGER.info("File change detected in: " + filePath.getFileName());
-                    observer.directoryChanged(filePath);
+            if (overflow) {
+                LOGGER.info("File changes lost, reloading: " + directory);
+                observer.directoryChanged(directory);
+            } else if (!changedFiles.isEmpty()) {
+                LOGGER.info("File changes detected: " + changedFiles);
+                observer.filesChanged(changedFiles);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to process file changes in: " + directory, e);
+        }
+    }
+
+    /**
+     * Collects the files affected by the events of a watch key and resets the key.
+     * @param watchKey the key, not null.
+     * @param changedFiles the collection to add the files to, not null.
+     * @return true, if events were lost.
+     */
+    private boolean processEvents(WatchKey watchKey, Set<Path> changedFiles) {
+        boolean overflow = false;
+        Path dir = watchedDirectories.get(watchKey);
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                overflow = true;
+                continue;
+            }
+            Path filePath = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(filePath, LinkOption.NOFOLLOW_LINKS)) {
+                try {
+                    // files may have been created before the new directory is watched.
+                    changedFiles.addAll(registerAll(filePath));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to watch directory: " + filePath, e);
                 }
+            } else {
+                changedFiles.add(filePath);
             }
-            watckKey.reset();
-            Thread.sleep(1_000L);
-        } catch (Exception e) {
-            throw new FileChangeListenerException("An error happened when does try to watch the folder", e);
         }
+        if (!watchKey.reset()) {
+            // directory deleted
+            watchedDirectories.remove(watchKey);
+        }
+        return overflow;
+    }
+
+    /**
+     * Registers a directory and all its sub directories with the watch service.
+     * @param start the directory, not null.
+     * @return the regular files found.
+     * @throws IOException if the directory cannot be registered.
+     */
+    private Set<Path> registerAll(Path start) throws IOException {
+        final Set<Path> files = new LinkedHashSet<>();
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_CREATE);
+                watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
     }
 
     /**
@@ -141,4 +261,4 @@ class FileChangeListener implements Runnable {
         }
 
     }
-}
\ No newline at end of file
+}
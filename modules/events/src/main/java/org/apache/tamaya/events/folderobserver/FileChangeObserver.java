@@ -19,15 +19,25 @@
 package org.apache.tamaya.events.folderobserver;
 
 import java.nio.file.Path;
+import java.util.Collection;
 
 /**
  * Observer to be used in {@link FileChangeListener} to commit all configurations and provider.
  */
 interface FileChangeObserver {
     /**
-     * Called when a file has been modified.
-     * @param path the file path, not null.
+     * Called when the changes within the observed directory are not known, so the whole directory must be
+     * read again, e.g. because change events were lost.
+     * @param path the directory path, not null.
      */
     void directoryChanged(Path path);
 
+    /**
+     * Called when files within the observed directory or its sub directories have been created, modified or
+     * deleted.
+     * @param files the paths of the files changed, not null. Paths of deleted files or directories do not exist
+     *              anymore.
+     */
+    void filesChanged(Collection<Path> files);
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.folderobserver;
+
+import org.apache.tamaya.format.ConfigurationData;
+import org.apache.tamaya.format.ConfigurationFormat;
+import org.apache.tamaya.format.ConfigurationFormats;
+import org.apache.tamaya.format.FlattenedDefaultPropertySource;
+import org.apache.tamaya.spi.PropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads files using the {@link ConfigurationFormat}s registered. This class must only be loaded, if the
+ * tamaya-formats module is available.
+ */
+final class FormatPropertySourceReader {
+
+    private static final Logger LOG = Logger.getLogger(FormatPropertySourceReader.class.getName());
+
+    private FormatPropertySourceReader() {
+    }
+
+    /**
+     * Reads a file using the formats accepting it.
+     *
+     * @param file the file, not null.
+     * @return the property sources read, empty if no format accepts or can read the file.
+     */
+    static Collection<PropertySource> readPropertySources(Path file) {
+        try {
+            URL url = file.toUri().toURL();
+            List<ConfigurationFormat> formats = ConfigurationFormats.getFormats(url);
+            if (formats.isEmpty()) {
+                LOG.finest("No format found for file: " + file);
+                return Collections.emptyList();
+            }
+            try (InputStream is = url.openStream()) {
+                ConfigurationData data = ConfigurationFormats.readConfigurationData(file.toString(), is,
+                        formats.toArray(new ConfigurationFormat[formats.size()]));
+                if (data == null) {
+                    return Collections.emptyList();
+                }
+                return Collections.<PropertySource>singletonList(new FlattenedDefaultPropertySource(data));
+            }
+        } catch (IOException e) {
+            LOG.log(Level.INFO, "Error reading file: " + file, e);
+            return Collections.emptyList();
+        }
+    }
+}
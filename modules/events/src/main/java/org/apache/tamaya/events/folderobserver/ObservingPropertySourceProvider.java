@@ -22,36 +22,45 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.core.propertysource.BasePropertySource;
+import org.apache.tamaya.events.ChangeType;
 import org.apache.tamaya.events.ConfigEventManager;
 import org.apache.tamaya.events.ConfigurationContextChange;
 import org.apache.tamaya.events.ConfigurationContextChangeBuilder;
+import org.apache.tamaya.events.PropertySourceChange;
+import org.apache.tamaya.events.PropertySourceChangeBuilder;
+import org.apache.tamaya.events.internal.EventExecutors;
 import org.apache.tamaya.spi.PropertySource;
 import org.apache.tamaya.spi.PropertySourceProvider;
 
 /**
- * This implementation runs in a folder taking up all files compatible with the given
- * ConfigurationFormats. When a file is added, deleted or modified the PropertySourceProvider
- * will adapt the changes automatically and trigger according
- * {@link org.apache.tamaya.events.PropertySourceChange} events.
+ * This implementation runs in a folder and its sub folders taking up all files compatible with the
+ * ConfigurationFormats registered. When a file is added, deleted or modified the PropertySourceProvider
+ * will reload only the files affected and trigger according
+ * {@link org.apache.tamaya.events.PropertySourceChange} events for the property sources changed, followed by
+ * a {@link ConfigurationContextChange} replacing them.
+ * If the tamaya-formats module is not available, all files are read as properties files.
  * The default folder is META-INF/config, but you can change it via an absolute path in the
  * "-Dtamaya.configdir" parameter.
  */
@@ -61,13 +70,17 @@ public class ObservingPropertySourceProvider implements PropertySourceProvider,
      */
     private static final Logger LOG = Logger.getLogger(ObservingPropertySourceProvider.class.getName());
     /**
-     * The current active property sources of this provider.
+     * Flag if the tamaya-formats module is available.
      */
-    private final List<PropertySource> propertySources = Collections.synchronizedList(new LinkedList<PropertySource>());
+    private static final boolean FORMATS_AVAILABLE = checkForFormats();
+    /**
+     * The current active property sources of this provider, by the file they were read from.
+     */
+    private final Map<Path, Collection<PropertySource>> propertySources = new LinkedHashMap<>();
     /**
      * The thread pool used.
      */
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = EventExecutors.getExecutor("ObservingPropertySourceProvider", 1);
 
     /**
      * Constructorm using an explicit directory, ignoring all kind of configuration, if set.
@@ -80,29 +93,43 @@ public class ObservingPropertySourceProvider implements PropertySourceProvider,
         }
         if (directory!=null){
             synchronized (this.propertySources) {
-                this.propertySources.addAll(readConfiguration(directory));
+                this.propertySources.putAll(readConfiguration(directory));
             }
             final Runnable runnable = new FileChangeListener(directory, this);
             executor.execute(runnable);
         } else {
-            executor.shutdown();
+            EventExecutors.release(executor);
+        }
+    }
+
+    private static boolean checkForFormats() {
+        try {
+            Class.forName("org.apache.tamaya.format.ConfigurationFormats");
+            return true;
+        } catch (ClassNotFoundException e) {
+            LOG.info("tamaya-formats not found, observed files are read as properties files.");
+            return false;
         }
     }
 
     /**
-     * Read the initial configuration.
+     * Read the configuration of all files within the directory and its sub directories.
      *
      * @param directory the target directory, not null.
+     * @return the property sources read, by file.
      */
-    private List<PropertySource> readConfiguration(Path directory) {
-        final List<PropertySource> result = new ArrayList<>();
+    private Map<Path, Collection<PropertySource>> readConfiguration(Path directory) {
+        final Map<Path, Collection<PropertySource>> result = new LinkedHashMap<>();
         try {
-            synchronized (propertySources) {
-                for (final Path path : Files.newDirectoryStream(directory, "*")) {
-                    result.addAll(getPropertySources(path));
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        result.put(file, getPropertySources(file));
+                    }
+                    return FileVisitResult.CONTINUE;
                 }
-                return result;
-            }
+            });
         } catch (final IOException e) {
             LOG.log(Level.WARNING, "Failed to read configuration from dir: " + directory, e);
         }
@@ -116,13 +143,10 @@ public class ObservingPropertySourceProvider implements PropertySourceProvider,
      * @return property sources from the given file.
      */
     protected Collection<PropertySource> getPropertySources(final Path file) {
-        return Arrays.asList(new PropertySource[]{new BasePropertySource() {
-            private final Map<String,String> props = readProperties(file);
-            @Override
-            public Map<String, String> getProperties() {
-                return props;
-            }
-        }});
+        if (FORMATS_AVAILABLE) {
+            return FormatPropertySourceReader.readPropertySources(file);
+        }
+        return Collections.<PropertySource>singletonList(new FilePropertySource(file, readProperties(file)));
     }
 
     /**
@@ -176,25 +200,84 @@ public class ObservingPropertySourceProvider implements PropertySourceProvider,
     @Override
     public void directoryChanged(Path directory) {
         synchronized (this.propertySources) {
-            final List<PropertySource> existingPropertySources = new ArrayList<>(propertySources);
-            propertySources.clear();
-            final Collection<PropertySource> sourcesRead = readConfiguration(directory);
-            this.propertySources.addAll(sourcesRead);
-            triggerConfigChange(existingPropertySources, propertySources);
+            final Map<Path, Collection<PropertySource>> sourcesRead = readConfiguration(directory);
+            final Set<Path> files = new LinkedHashSet<>(propertySources.keySet());
+            files.addAll(sourcesRead.keySet());
+            updatePropertySources(files, sourcesRead);
         }
     }
 
+    @Override
+    public void filesChanged(Collection<Path> files) {
+        synchronized (this.propertySources) {
+            final Map<Path, Collection<PropertySource>> sourcesRead = new HashMap<>();
+            final Set<Path> affectedFiles = new LinkedHashSet<>();
+            for (final Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    affectedFiles.add(file);
+                    sourcesRead.put(file, getPropertySources(file));
+                } else {
+                    // deleted file or directory
+                    for (final Path knownFile : propertySources.keySet()) {
+                        if (knownFile.startsWith(file)) {
+                            affectedFiles.add(knownFile);
+                        }
+                    }
+                }
+            }
+            updatePropertySources(affectedFiles, sourcesRead);
+        }
+    }
 
-    private void triggerConfigChange(List<PropertySource> originalPropertySources,
-                                     List<PropertySource> newPropertySources) {
-        final ConfigurationContextChangeBuilder b = ConfigurationContextChangeBuilder.of();
-        for (final PropertySource ps : originalPropertySources) {
-            b.removedPropertySource(ps);
+    /**
+     * Replaces the property sources of the given files and triggers the change events for the property sources
+     * added, deleted or changed.
+     *
+     * @param files the files affected, not null.
+     * @param sourcesRead the property sources read from the files still existing, not null.
+     */
+    private void updatePropertySources(Collection<Path> files, Map<Path, Collection<PropertySource>> sourcesRead) {
+        final ConfigurationContextChangeBuilder contextChange = ConfigurationContextChangeBuilder.of();
+        final List<PropertySourceChange> changes = new ArrayList<>();
+        for (final Path file : files) {
+            final Collection<PropertySource> oldSources = propertySources.remove(file);
+            final Map<String, PropertySource> oldSourcesByName = new HashMap<>();
+            if (oldSources != null) {
+                for (final PropertySource ps : oldSources) {
+                    oldSourcesByName.put(ps.getName(), ps);
+                }
+            }
+            final Collection<PropertySource> newSources = sourcesRead.get(file);
+            if (newSources != null && !newSources.isEmpty()) {
+                propertySources.put(file, newSources);
+                for (final PropertySource ps : newSources) {
+                    final PropertySource oldSource = oldSourcesByName.remove(ps.getName());
+                    if (oldSource == null) {
+                        changes.add(PropertySourceChange.ofAdded(ps));
+                        contextChange.newPropertySource(ps);
+                    } else {
+                        final PropertySourceChange change = PropertySourceChangeBuilder.of(oldSource, ChangeType.UPDATED)
+                                .addChanges(ps).build();
+                        if (!change.isEmpty()) {
+                            changes.add(change);
+                            contextChange.removedPropertySource(oldSource).newPropertySource(ps);
+                        }
+                    }
+                }
+            }
+            for (final PropertySource ps : oldSourcesByName.values()) {
+                changes.add(PropertySourceChange.ofDeleted(ps));
+                contextChange.removedPropertySource(ps);
+            }
         }
-        for (final PropertySource ps : newPropertySources) {
-            b.newPropertySource(ps);
+        if (contextChange.isEmpty()) {
+            LOG.finest("No property source changed.");
+            return;
         }
-        final ConfigurationContextChange changeEvent = b.build();
+        for (final PropertySourceChange change : changes) {
+            ConfigEventManager.fireEvent(change);
+        }
+        final ConfigurationContextChange changeEvent = contextChange.build();
         LOG.fine("Trigger Config Context Change: " + changeEvent);
         ConfigEventManager.fireEvent(changeEvent);
     }
@@ -202,7 +285,34 @@ public class ObservingPropertySourceProvider implements PropertySourceProvider,
     @Override
     public Collection<PropertySource> getPropertySources() {
         synchronized (propertySources) {
-            return new ArrayList<>(this.propertySources);
+            final List<PropertySource> result = new ArrayList<>();
+            for (final Collection<PropertySource> sources : propertySources.values()) {
+                result.addAll(sources);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Property source containing the properties read from a file.
+     */
+    private static final class FilePropertySource extends BasePropertySource {
+        private final String name;
+        private final Map<String, String> properties;
+
+        FilePropertySource(Path file, Map<String, String> properties) {
+            this.name = file.toString();
+            this.properties = properties;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
         }
     }
 }
@@ -0,0 +1,446 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous event dispatcher with a bounded queue (ring buffer) per listener. Events are delivered to each
+ * listener in the order they were dispatched, by at most one thread at a time, so a slow listener does neither
+ * block the publisher nor other listeners. If a {@link ConfigurationChange} is dispatched while the last event
+ * queued for a listener is also a {@link ConfigurationChange}, both are coalesced into a single change, so slow
+ * listeners catch up with the latest state. If a queue is full, the configured {@link OverflowPolicy} applies.
+ */
+public class BoundedEventDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(BoundedEventDispatcher.class.getName());
+
+    /**
+     * System property to define the queue capacity per listener. The bounded dispatcher is used for asynchronous
+     * events, if set to a value &gt; 0.
+     */
+    public static final String QUEUE_CAPACITY_PROPERTY = "tamaya.events.dispatcher.queueCapacity";
+
+    /**
+     * System property to define the {@link OverflowPolicy}, by default {@link OverflowPolicy#DROP_OLDEST}.
+     */
+    public static final String OVERFLOW_POLICY_PROPERTY = "tamaya.events.dispatcher.overflowPolicy";
+
+    /**
+     * System property to define the number of delivery threads, by default the number of processors.
+     */
+    public static final String THREADS_PROPERTY = "tamaya.events.dispatcher.threads";
+
+    /**
+     * Policy applied, when an event is dispatched to a listener, whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /** The oldest event queued is dropped. */
+        DROP_OLDEST,
+        /** The event dispatched is dropped. */
+        DROP_NEWEST,
+        /** A {@link ConfigException} is thrown to the publisher. */
+        FAIL
+    }
+
+    /**
+     * The maximal number of events delivered by a single run of a listener's delivery task. Listeners with
+     * more events queued are resubmitted, so a busy listener does not hold a delivery thread indefinitely.
+     */
+    static final int MAX_EVENTS_PER_RUN = 16;
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final ConcurrentHashMap<ConfigEventListener, ListenerQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param queueCapacity the maximal number of events queued per listener, &gt; 0.
+     * @param overflowPolicy the policy applied, when a queue is full, not null.
+     * @param executor the executor delivering the events, not null.
+     */
+    public BoundedEventDispatcher(int queueCapacity, OverflowPolicy overflowPolicy, Executor executor) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be > 0: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Queues an event for delivery to the given listener. This method does not wait for the listener.
+     *
+     * @param listener the listener, not null.
+     * @param event the event, not null.
+     * @throws ConfigException if the listener's queue is full and the overflow policy is
+     *                         {@link OverflowPolicy#FAIL}.
+     */
+    public void dispatch(ConfigEventListener listener, ConfigEvent<?> event) {
+        Objects.requireNonNull(event);
+        ListenerQueue queue = queues.get(listener);
+        if (queue == null) {
+            ListenerQueue newQueue = new ListenerQueue(listener, queueCapacity, executor);
+            queue = queues.putIfAbsent(listener, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        if (queue.offer(event, overflowPolicy)) {
+            try {
+                executor.execute(queue);
+            } catch (RuntimeException e) {
+                queue.unschedule();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Removes the queue of a listener, hereby discarding all events not yet delivered.
+     *
+     * @param listener the listener, not null.
+     */
+    public void remove(ConfigEventListener listener) {
+        ListenerQueue queue = queues.remove(listener);
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    /**
+     * Get the capacity of the queue per listener.
+     *
+     * @return the queue capacity.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return the overflow policy, never null.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Get the statistics of the given listener's queue.
+     *
+     * @param listener the listener, not null.
+     * @return the statistics, or null, if no events have been dispatched to the listener.
+     */
+    public QueueStatistics getStatistics(ConfigEventListener listener) {
+        ListenerQueue queue = queues.get(listener);
+        return queue != null ? queue.getStatistics() : null;
+    }
+
+    /**
+     * Get the statistics of all listener queues.
+     *
+     * @return the statistics, never null.
+     */
+    public Collection<QueueStatistics> getStatistics() {
+        List<QueueStatistics> result = new ArrayList<>();
+        for (ListenerQueue queue : queues.values()) {
+            result.add(queue.getStatistics());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedEventDispatcher{" +
+                "queueCapacity=" + queueCapacity +
+                ", overflowPolicy=" + overflowPolicy +
+                ", listeners=" + queues.size() +
+                '}';
+    }
+
+    /**
+     * Merges two consecutive changes into one.
+     *
+     * @param older the change dispatched first, not null.
+     * @param newer the change dispatched later, not null.
+     * @return the merged change.
+     */
+    static ConfigurationChange coalesce(ConfigurationChange older, ConfigurationChange newer) {
+        return ConfigurationChangeBuilder.of(older.getResource())
+                .merge(older).merge(newer)
+                .setVersion(newer.getVersion())
+                .setTimestamp(newer.getTimestamp())
+                .build();
+    }
+
+    /**
+     * Point in time statistics of a listener's queue.
+     */
+    public static final class QueueStatistics {
+        private final ConfigEventListener listener;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long deliveredCount;
+        private final long droppedCount;
+        private final long coalescedCount;
+        private final long totalLatencyNanos;
+        private final long maxLatencyNanos;
+
+        QueueStatistics(ListenerQueue queue) {
+            this.listener = queue.listener;
+            this.queueDepth = queue.size;
+            this.maxQueueDepth = queue.maxSize;
+            this.deliveredCount = queue.delivered;
+            this.droppedCount = queue.dropped;
+            this.coalescedCount = queue.coalesced;
+            this.totalLatencyNanos = queue.totalLatencyNanos;
+            this.maxLatencyNanos = queue.maxLatencyNanos;
+        }
+
+        /**
+         * Get the listener.
+         *
+         * @return the listener, never null.
+         */
+        public ConfigEventListener getListener() {
+            return listener;
+        }
+
+        /**
+         * Get the number of events currently queued.
+         *
+         * @return the queue depth.
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Get the maximal number of events queued at the same time.
+         *
+         * @return the maximal queue depth.
+         */
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        /**
+         * Get the number of events delivered to the listener, including events that failed.
+         *
+         * @return the delivered event count.
+         */
+        public long getDeliveredCount() {
+            return deliveredCount;
+        }
+
+        /**
+         * Get the number of events dropped, because the queue was full.
+         *
+         * @return the dropped event count.
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        /**
+         * Get the number of changes coalesced with a change queued before.
+         *
+         * @return the coalesced event count.
+         */
+        public long getCoalescedCount() {
+            return coalescedCount;
+        }
+
+        /**
+         * Get the average time between dispatching an event and starting its delivery. For coalesced changes the
+         * time the first change was dispatched is used.
+         *
+         * @return the average latency in nanoseconds.
+         */
+        public long getAverageLatencyNanos() {
+            return deliveredCount > 0 ? totalLatencyNanos / deliveredCount : 0L;
+        }
+
+        /**
+         * Get the maximal time between dispatching an event and starting its delivery.
+         *
+         * @return the maximal latency in nanoseconds.
+         */
+        public long getMaxLatencyNanos() {
+            return maxLatencyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "QueueStatistics{" +
+                    "listener=" + listener +
+                    ", queueDepth=" + queueDepth +
+                    ", maxQueueDepth=" + maxQueueDepth +
+                    ", delivered=" + deliveredCount +
+                    ", dropped=" + droppedCount +
+                    ", coalesced=" + coalescedCount +
+                    ", averageLatencyNanos=" + getAverageLatencyNanos() +
+                    ", maxLatencyNanos=" + maxLatencyNanos +
+                    '}';
+        }
+    }
+
+    /**
+     * Ring buffer of the events queued for a listener, which is also the task delivering them. The task is
+     * submitted only when events are queued and no task is running, so events are delivered by at most one
+     * thread at a time. A run delivers at most {@link #MAX_EVENTS_PER_RUN} events and resubmits the task, if
+     * events are left. All fields are guarded by the queue's monitor.
+     */
+    private static final class ListenerQueue implements Runnable {
+        private final ConfigEventListener listener;
+        private final Executor executor;
+        private final ConfigEvent<?>[] events;
+        private final long[] dispatchTimes;
+        private int head;
+        private int size;
+        private boolean scheduled;
+        private int maxSize;
+        private long delivered;
+        private long dropped;
+        private long coalesced;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+
+        ListenerQueue(ConfigEventListener listener, int capacity, Executor executor) {
+            this.listener = Objects.requireNonNull(listener);
+            this.executor = executor;
+            this.events = new ConfigEvent<?>[capacity];
+            this.dispatchTimes = new long[capacity];
+        }
+
+        /**
+         * Queues an event.
+         *
+         * @param event the event, not null.
+         * @param overflowPolicy the policy applied, if the queue is full.
+         * @return true, if the delivery task must be submitted.
+         */
+        synchronized boolean offer(ConfigEvent<?> event, OverflowPolicy overflowPolicy) {
+            if (size > 0 && event instanceof ConfigurationChange) {
+                int tail = (head + size - 1) % events.length;
+                if (events[tail] instanceof ConfigurationChange) {
+                    events[tail] = coalesce((ConfigurationChange) events[tail], (ConfigurationChange) event);
+                    coalesced++;
+                    return false;
+                }
+            }
+            if (size == events.length) {
+                switch (overflowPolicy) {
+                    case DROP_NEWEST:
+                        dropped++;
+                        return false;
+                    case FAIL:
+                        throw new ConfigException("Event queue of listener " + listener + " is full, capacity: "
+                                + events.length);
+                    case DROP_OLDEST:
+                    default:
+                        events[head] = null;
+                        head = (head + 1) % events.length;
+                        size--;
+                        dropped++;
+                }
+            }
+            int index = (head + size) % events.length;
+            events[index] = event;
+            dispatchTimes[index] = System.nanoTime();
+            size++;
+            maxSize = Math.max(maxSize, size);
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+                ConfigEvent<?> event;
+                synchronized (this) {
+                    if (size == 0) {
+                        scheduled = false;
+                        return;
+                    }
+                    event = events[head];
+                    long latency = System.nanoTime() - dispatchTimes[head];
+                    events[head] = null;
+                    head = (head + 1) % events.length;
+                    size--;
+                    delivered++;
+                    totalLatencyNanos += latency;
+                    maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+                }
+                try {
+                    listener.onConfigEvent(event);
+                } catch (Exception e) {
+                    LOG.log(Level.WARNING, "Listener " + listener + " failed to handle event: " + event, e);
+                }
+            }
+            synchronized (this) {
+                if (size == 0) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                unschedule();
+                LOG.log(Level.WARNING, "Failed to resubmit the delivery of events to listener " + listener
+                        + ", events are delivered with the next event dispatched.", e);
+            }
+        }
+
+        synchronized void unschedule() {
+            scheduled = false;
+        }
+
+        synchronized void clear() {
+            for (int i = 0; i < size; i++) {
+                events[(head + i) % events.length] = null;
+            }
+            size = 0;
+        }
+
+        synchronized QueueStatistics getStatistics() {
+            return new QueueStatistics(this);
+        }
+    }
+}
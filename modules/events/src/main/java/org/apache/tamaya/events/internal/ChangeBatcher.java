@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects the {@link ConfigurationChange}s published to a listener within a batching window and delivers them
+ * as a single merged change, so listeners performing expensive updates, e.g. rebuilding connection pools, run once
+ * per batch instead of once per change. A batch is delivered, when
+ * <ul>
+ * <li>no further change arrived within the batching window,</li>
+ * <li>the maximal number of changes per batch has been reached, or</li>
+ * <li>the maximal latency since the first change of the batch has elapsed, even if changes keep arriving.</li>
+ * </ul>
+ * Changes cancelling each other out are dropped, so empty batches are not delivered.
+ */
+public class ChangeBatcher {
+
+    private static final Logger LOG = Logger.getLogger(ChangeBatcher.class.getName());
+
+    /**
+     * System property to define the batching window in milliseconds. Changes are batched, if set to a value &gt; 0.
+     */
+    public static final String WINDOW_PROPERTY = "tamaya.events.batch.window";
+
+    /**
+     * System property to define the maximal number of changes per batch, by default 1000.
+     */
+    public static final String MAX_SIZE_PROPERTY = "tamaya.events.batch.maxSize";
+
+    /**
+     * System property to define the maximal latency of a batch in milliseconds, by default ten times the window.
+     */
+    public static final String MAX_LATENCY_PROPERTY = "tamaya.events.batch.maxLatency";
+
+    /**
+     * Target of the merged changes.
+     */
+    public interface Delivery {
+        /**
+         * Delivers a merged change to a listener.
+         *
+         * @param listener the listener, not null.
+         * @param change the merged change, not null.
+         */
+        void deliver(ConfigEventListener listener, ConfigurationChange change);
+    }
+
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long maxLatencyMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Delivery delivery;
+    private final ConcurrentHashMap<ConfigEventListener, Batch> batches = new ConcurrentHashMap<>();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /**
+     * Creates a new batcher.
+     *
+     * @param windowMillis the batching window in milliseconds, &gt; 0.
+     * @param maxBatchSize the maximal number of changes per batch, &gt; 0.
+     * @param maxLatencyMillis the maximal time between the first change of a batch and its delivery, &gt;= windowMillis.
+     * @param scheduler the scheduler delivering the batches, not null. Batches of a listener are delivered in
+     *                  order, if the scheduler uses a single thread.
+     * @param delivery the target of the merged changes, not null.
+     */
+    public ChangeBatcher(long windowMillis, int maxBatchSize, long maxLatencyMillis,
+                         ScheduledExecutorService scheduler, Delivery delivery) {
+        if (windowMillis <= 0 || maxBatchSize <= 0 || maxLatencyMillis < windowMillis) {
+            throw new IllegalArgumentException("Invalid batch parameters: window=" + windowMillis
+                    + ", maxSize=" + maxBatchSize + ", maxLatency=" + maxLatencyMillis);
+        }
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.delivery = Objects.requireNonNull(delivery);
+    }
+
+    /**
+     * Adds a change to the batch of the given listener. This method does not wait for the listener.
+     *
+     * @param listener the listener, not null.
+     * @param change the change, not null.
+     */
+    public void add(ConfigEventListener listener, ConfigurationChange change) {
+        Objects.requireNonNull(change);
+        changeCount.incrementAndGet();
+        while (true) {
+            Batch batch = batches.get(listener);
+            if (batch == null) {
+                Batch newBatch = new Batch(listener);
+                batch = batches.putIfAbsent(listener, newBatch);
+                if (batch == null) {
+                    batch = newBatch;
+                }
+            }
+            if (batch.add(change)) {
+                return;
+            }
+            // the batch has been delivered meanwhile, retry with a new one.
+        }
+    }
+
+    /**
+     * Delivers all pending batches immediately in the calling thread, e.g. before shutting down.
+     */
+    public void flush() {
+        for (Batch batch : new ArrayList<>(batches.values())) {
+            batch.deliver();
+        }
+    }
+
+    /**
+     * Removes the pending batch of a listener, hereby discarding all changes not yet delivered.
+     *
+     * @param listener the listener, not null.
+     */
+    public void remove(ConfigEventListener listener) {
+        Batch batch = batches.get(listener);
+        if (batch != null) {
+            batch.discard();
+        }
+    }
+
+    /**
+     * Get the batching window.
+     *
+     * @return the window in milliseconds.
+     */
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Get the maximal number of changes per batch.
+     *
+     * @return the maximal batch size.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Get the maximal latency of a batch.
+     *
+     * @return the maximal latency in milliseconds.
+     */
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    /**
+     * Get the number of changes added.
+     *
+     * @return the change count.
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Get the number of merged changes delivered.
+     *
+     * @return the batch count.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeBatcher{" +
+                "window=" + windowMillis +
+                ", maxBatchSize=" + maxBatchSize +
+                ", maxLatency=" + maxLatencyMillis +
+                ", changes=" + changeCount +
+                ", batches=" + batchCount +
+                '}';
+    }
+
+    /**
+     * Delivers a merged change, if not empty.
+     *
+     * @param listener the listener, not null.
+     * @param change the merged change, or null.
+     */
+    private void deliver(ConfigEventListener listener, ConfigurationChange change) {
+        if (change == null || change.isEmpty()) {
+            return;
+        }
+        batchCount.incrementAndGet();
+        try {
+            delivery.deliver(listener, change);
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to deliver batched change to listener " + listener + ": " + change, e);
+        }
+    }
+
+    /**
+     * The changes pending for a listener, which is also the task delivering them. The changes are merged into a
+     * builder keyed by property name, so adding a change takes time proportional to its own size, and the merged
+     * change is built once on delivery. All fields are guarded by the batch's monitor. Once closed, a batch is
+     * removed, so subsequent changes start a new batch.
+     */
+    private final class Batch implements Runnable {
+        private final ConfigEventListener listener;
+        /** The only change added, delivered as is, or null. */
+        private ConfigurationChange first;
+        /** The changes merged, if more than one change was added, or null. */
+        private ConfigurationChangeBuilder merged;
+        private int size;
+        private long firstNanos;
+        private ScheduledFuture<?> pending;
+        private boolean closed;
+
+        Batch(ConfigEventListener listener) {
+            this.listener = Objects.requireNonNull(listener);
+        }
+
+        /**
+         * Adds a change. If the batch is full afterwards, it is closed and delivered by the scheduler.
+         *
+         * @param change the change, not null.
+         * @return false, if this batch is closed already.
+         */
+        synchronized boolean add(ConfigurationChange change) {
+            if (closed) {
+                return false;
+            }
+            long now = System.nanoTime();
+            if (size == 0) {
+                first = change;
+                firstNanos = now;
+            } else {
+                if (merged == null) {
+                    merged = ConfigurationChangeBuilder.of(first.getResource()).merge(first);
+                    first = null;
+                }
+                merged.merge(change).setVersion(change.getVersion()).setTimestamp(change.getTimestamp());
+            }
+            size++;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            long remainingMillis = maxLatencyMillis - TimeUnit.NANOSECONDS.toMillis(now - firstNanos);
+            if (size < maxBatchSize && remainingMillis > 0) {
+                pending = scheduler.schedule(this, Math.min(windowMillis, remainingMillis), TimeUnit.MILLISECONDS);
+            } else {
+                // delivered by the scheduler as well, so batches of a listener are delivered in order.
+                pending = scheduler.schedule(this, 0L, TimeUnit.MILLISECONDS);
+                close();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            ConfigurationChange change;
+            synchronized (this) {
+                change = takeChange();
+                if (!closed) {
+                    close();
+                }
+            }
+            ChangeBatcher.this.deliver(listener, change);
+        }
+
+        /**
+         * Closes this batch and delivers the pending change in the calling thread.
+         */
+        void deliver() {
+            ConfigurationChange change;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                change = takeChange();
+                if (pending != null) {
+                    pending.cancel(false);
+                }
+                close();
+            }
+            ChangeBatcher.this.deliver(listener, change);
+        }
+
+        /**
+         * Closes this batch without delivering the changes.
+         */
+        synchronized void discard() {
+            first = null;
+            merged = null;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            close();
+        }
+
+        /**
+         * Removes the pending change, building the merged change, if more than one change was added.
+         *
+         * @return the pending change, or null.
+         */
+        private ConfigurationChange takeChange() {
+            ConfigurationChange change = merged != null ? merged.build() : first;
+            first = null;
+            merged = null;
+            return change;
+        }
+
+        private void close() {
+            closed = true;
+            batches.remove(listener, this);
+        }
+    }
+}
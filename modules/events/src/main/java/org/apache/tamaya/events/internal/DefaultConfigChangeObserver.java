@@ -18,30 +18,90 @@
  */
 package org.apache.tamaya.events.internal;
 
+import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.events.ConfigEventManager;
 import org.apache.tamaya.events.ConfigurationChange;
 import org.apache.tamaya.events.ConfigurationChangeBuilder;
 import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.events.spi.ObservablePropertySource;
+import org.apache.tamaya.events.spi.PropertySourceChangeListener;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.KeyLocalPropertyFilter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedConfiguration;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Timer task that regularly checks the configuration for changes.
+ * Observer that checks the configuration for changes. Instead of evaluating and comparing the whole configuration
+ * on each check, each property source is checked separately, and only the keys of property sources that have
+ * changed are evaluated again:
+ * <ul>
+ * <li>{@link ObservablePropertySource}s are only checked after they have signalled a change. Signals trigger a
+ * check immediately.</li>
+ * <li>{@link VersionedPropertySource}s are checked in each check period, but their content is only compared, if
+ * their version has changed.</li>
+ * <li>All other property sources are polled with an adaptive interval, starting with the check period. Each
+ * time no change is found, the interval is doubled, up to {@value #MAX_BACKOFF_FACTOR} times the check period.</li>
+ * </ul>
+ * Changes of the property sources or filters registered with the context are detected in each check period and
+ * cause the whole configuration to be compared. Also, if not all filters registered are
+ * {@link KeyLocalPropertyFilter key local}, any other key may depend on the keys changed, so the whole configuration
+ * is compared, whenever a property source has changed. Configurations precomputing their values, i.e.
+ * {@link VersionedConfiguration}s, are refreshed before evaluating the changes.
  */
 public class DefaultConfigChangeObserver {
 
     private static final long START_DELAY = 5000L;
 
+    /**
+     * Maximal factor, by which the poll interval of property sources not signalling changes is increased.
+     */
+    public static final int MAX_BACKOFF_FACTOR = 16;
+
     private static final Logger LOG = Logger.getLogger(DefaultConfigChangeObserver.class.getName());
 
-    private final Timer timer = new Timer("DefaultConfigChangeObserver", true);
+    private final ScheduledExecutorService executor = EventExecutors.getScheduler("DefaultConfigChangeObserver");
+
+    /** The periodic check, guarded by this observer's monitor. */
+    private ScheduledFuture<?> periodicCheck;
 
-    private long checkPeriod = 2000L;
+    private volatile long checkPeriod = 2000L;
 
     private volatile FrozenConfiguration lastConfig;
 
+    /** The property sources at the last check. */
+    private List<PropertySource> lastPropertySources;
+
+    /** The property filters at the last check. */
+    private List<PropertyFilter> lastPropertyFilters;
+
+    /** Flag, if all property filters at the last check are key local. */
+    private boolean keyLocalFilters;
+
+    /** The check state of the property sources at the last check. */
+    private volatile SourceState[] sourceStates = new SourceState[0];
+
+    /** Flag, if a check triggered by a signal is pending. */
+    private final AtomicBoolean signalledCheckPending = new AtomicBoolean();
+
+    /** Listener registered with all {@link ObservablePropertySource}s. */
+    private final PropertySourceChangeListener signalListener = new PropertySourceChangeListener() {
+        @Override
+        public void propertySourceChanged(PropertySource propertySource) {
+            signalChange(propertySource);
+        }
+    };
+
     private volatile boolean running;
 
     /**
@@ -49,20 +109,170 @@ public class DefaultConfigChangeObserver {
      */
     public DefaultConfigChangeObserver() {
         LOG.info("Registering config change observer, rechecking config changes every " + checkPeriod + " ms.");
-        timer.scheduleAtFixedRate(new TimerTask() {
+        schedulePeriodicCheck(START_DELAY);
+    }
+
+    private synchronized void schedulePeriodicCheck(long startDelay) {
+        if(periodicCheck!=null){
+            periodicCheck.cancel(false);
+        }
+        periodicCheck = executor.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
                 if(running) {
-                    checkConfigurationUpdate();
+                    runCheck();
                 }
             }
-        }, START_DELAY, checkPeriod);
+        }, startDelay, checkPeriod, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Runs a check, hereby logging any exception, so the periodic check is not cancelled.
+     */
+    private void runCheck() {
+        try {
+            checkConfigurationUpdate();
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to check configuration for changes.", e);
+        }
+    }
+
+    /**
+     * Signals that the content of the given property source has changed. Property sources implementing
+     * {@link ObservablePropertySource} are signalled automatically, other property sources can be signalled
+     * explicitly, e.g. after having been changed programmatically. If monitoring is active, the changes are
+     * checked immediately.
+     * @param propertySource the property source changed, not null.
+     */
+    public void signalChange(PropertySource propertySource) {
+        Objects.requireNonNull(propertySource);
+        for(SourceState state:sourceStates){
+            if(state.propertySource == propertySource){
+                state.signalled = true;
+            }
+        }
+        if(running && signalledCheckPending.compareAndSet(false, true)){
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    signalledCheckPending.set(false);
+                    runCheck();
+                }
+            });
+        }
+    }
 
-    public void checkConfigurationUpdate() {
+    /**
+     * Checks the configuration for changes and publishes a {@link ConfigurationChange} event, if changes were
+     * found.
+     */
+    public synchronized void checkConfigurationUpdate() {
         LOG.finest("Checking configuration for changes...");
-        FrozenConfiguration newConfig = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+        ConfigurationContext context = ConfigurationProvider.getConfigurationContext();
+        List<PropertySource> propertySources = context.getPropertySources();
+        List<PropertyFilter> propertyFilters = context.getPropertyFilters();
+        if(lastConfig==null || !isSameInstances(propertySources, lastPropertySources)
+                || !isSameInstances(propertyFilters, lastPropertyFilters)){
+            checkConfiguration(propertySources, propertyFilters);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<String> changedKeys = new HashSet<>();
+        List<SourceState> checkedStates = new ArrayList<>();
+        for(SourceState state:sourceStates){
+            if(state.isCheckDue(now)){
+                state.check(now, checkPeriod, changedKeys);
+                checkedStates.add(state);
+            }
+        }
+        // the content seen is only committed after the changes were published, so they are found again otherwise.
+        boolean published = false;
+        try {
+            publishChangedKeys(changedKeys);
+            published = true;
+        } finally {
+            for(SourceState state:checkedStates){
+                if(published){
+                    state.commit();
+                }else{
+                    state.reject();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the values of the keys changed, and publishes the differences to the configuration of the last
+     * check.
+     * @param changedKeys the keys changed in any property source, not null.
+     */
+    private void publishChangedKeys(Set<String> changedKeys) {
+        if(changedKeys.isEmpty()){
+            LOG.finest("No property source changed.");
+            return;
+        }
+        Configuration config = ConfigurationProvider.getConfiguration();
+        if(config instanceof VersionedConfiguration){
+            // values may be precomputed, e.g. in snapshot mode, and would not reflect the changes otherwise.
+            ((VersionedConfiguration)config).refresh();
+        }
+        if(!keyLocalFilters){
+            // filtered values of other keys may depend on the keys changed.
+            publishChanges(FrozenConfiguration.of(config, lastConfig));
+            return;
+        }
+        ConfigurationChangeBuilder changeBuilder = ConfigurationChangeBuilder.of(lastConfig);
+        for(String key:changedKeys){
+            String newValue = config.get(key);
+            if(!Objects.equals(newValue, lastConfig.get(key))){
+                if(newValue==null){
+                    changeBuilder.removeKey(key);
+                }else{
+                    changeBuilder.addChange(key, newValue);
+                }
+            }
+        }
+        if(!changeBuilder.isEmpty()) {
+            ConfigurationChange changes = changeBuilder.build();
+            LOG.info("Identified configuration changes, publishing change event...");
+            ConfigEventManager.fireEvent(changes);
+            lastConfig = lastConfig.apply(changes);
+        }
+    }
+
+    /**
+     * Compares the whole configuration with the configuration of the last check, and resets the check state of
+     * all property sources.
+     * @param propertySources the current property sources, not null.
+     * @param propertyFilters the current property filters, not null.
+     */
+    private void checkConfiguration(List<PropertySource> propertySources, List<PropertyFilter> propertyFilters) {
+        long now = System.currentTimeMillis();
+        for(SourceState state:sourceStates){
+            if(state.propertySource instanceof ObservablePropertySource){
+                ((ObservablePropertySource)state.propertySource).removeChangeListener(signalListener);
+            }
+        }
+        SourceState[] states = new SourceState[propertySources.size()];
+        for(int i=0;i<states.length;i++){
+            PropertySource propertySource = propertySources.get(i);
+            if(propertySource instanceof ObservablePropertySource){
+                ((ObservablePropertySource)propertySource).addChangeListener(signalListener);
+            }
+            states[i] = new SourceState(propertySource, now, checkPeriod);
+        }
+        this.sourceStates = states;
+        this.lastPropertySources = propertySources;
+        this.lastPropertyFilters = propertyFilters;
+        this.keyLocalFilters = isKeyLocal(propertyFilters);
+        publishChanges(FrozenConfiguration.of(ConfigurationProvider.getConfiguration(), lastConfig));
+    }
+
+    /**
+     * Compares the given configuration with the configuration of the last check, and publishes the differences.
+     * @param newConfig the current configuration, not null.
+     */
+    private void publishChanges(FrozenConfiguration newConfig) {
         ConfigurationChange changes;
         if(lastConfig==null){
             changes = ConfigurationChangeBuilder.of(newConfig).putAll(newConfig.getProperties())
@@ -75,6 +285,57 @@ public class DefaultConfigChangeObserver {
             LOG.info("Identified configuration changes, publishing change event...");
             ConfigEventManager.fireEvent(changes);
         }
+        lastConfig = newConfig;
+    }
+
+    /**
+     * Checks if both lists contain the same instances in the same order. Elements are not compared using
+     * {@code equals}, since e.g. property sources replaced by an instance with equal content must be detected.
+     * @param list the current list, not null.
+     * @param lastList the list of the last check, or null.
+     * @return true, if both lists contain the same instances.
+     */
+    private static boolean isSameInstances(List<?> list, List<?> lastList) {
+        if(list==lastList){
+            return true;
+        }
+        if(lastList==null || list.size()!=lastList.size()){
+            return false;
+        }
+        for(int i=0;i<list.size();i++){
+            if(list.get(i)!=lastList.get(i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the filtered value of each key only depends on its unfiltered value.
+     * @param propertyFilters the property filters, not null.
+     * @return true, if all filters are {@link KeyLocalPropertyFilter}s.
+     */
+    private static boolean isKeyLocal(List<PropertyFilter> propertyFilters) {
+        for(PropertyFilter filter:propertyFilters){
+            if(!(filter instanceof KeyLocalPropertyFilter)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the current poll interval of a property source, which does not signal its changes.
+     * @param propertySource the property source, not null.
+     * @return the poll interval in ms, or -1, if the property source is not polled or not known.
+     */
+    long getPollInterval(PropertySource propertySource) {
+        for(SourceState state:sourceStates){
+            if(state.propertySource == propertySource && state.isPolled()){
+                return state.pollInterval;
+            }
+        }
+        return -1L;
     }
 
     public long getCheckPeriod() {
@@ -86,25 +347,152 @@ public class DefaultConfigChangeObserver {
     }
 
     public void enableMonitoring(boolean enable){
-        this.running = true;
+        this.running = enable;
     }
 
     /**
-     * Sets the new check period, cancels the currently running timer and schedules a new task with the new checkperiod
-     * and a startup delay of 500ms.
+     * Sets the new check period, cancels the currently running check and schedules a new one with the new
+     * check period and a startup delay of 500ms. The poll intervals of all polled property sources are reset
+     * to the new check period.
      * @param checkPeriod the period in ms, for checking on changes.
      */
     public void setCheckPeriod(long checkPeriod) {
-        LOG.finest("Resetting check period to " + checkPeriod + " ms, reregistering timer.");
+        LOG.finest("Resetting check period to " + checkPeriod + " ms, rescheduling check.");
         this.checkPeriod = checkPeriod;
-        timer.cancel();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if(running) {
-                    checkConfigurationUpdate();
+        resetPollIntervals();
+        schedulePeriodicCheck(500L);
+    }
+
+    private synchronized void resetPollIntervals() {
+        long now = System.currentTimeMillis();
+        for(SourceState state:sourceStates){
+            state.pollInterval = checkPeriod;
+            state.nextPoll = now + checkPeriod;
+        }
+    }
+
+    /**
+     * Check state of a single property source.
+     */
+    private static final class SourceState {
+        private final PropertySource propertySource;
+        /** The content at the last check. */
+        private Map<String, String> properties;
+        /** The version at the last check, if versioned. */
+        private long version;
+        /** The content read by the current check, if changed, until committed. */
+        private Map<String, String> pendingProperties;
+        /** The version read by the current check, if versioned, until committed. */
+        private long pendingVersion;
+        /** The current poll interval, if polled. */
+        private long pollInterval;
+        /** The time of the next poll, if polled. */
+        private long nextPoll;
+        /** Flag, if the property source signalled a change since the last check. */
+        private volatile boolean signalled;
+
+        SourceState(PropertySource propertySource, long now, long checkPeriod) {
+            this.propertySource = propertySource;
+            if(propertySource instanceof VersionedPropertySource){
+                this.version = ((VersionedPropertySource)propertySource).getVersion();
+            }
+            this.properties = readProperties(propertySource);
+            this.pollInterval = checkPeriod;
+            this.nextPoll = now + checkPeriod;
+        }
+
+        boolean isPolled() {
+            return !(propertySource instanceof ObservablePropertySource)
+                    && !(propertySource instanceof VersionedPropertySource);
+        }
+
+        /**
+         * Checks if the property source's content must be compared.
+         * @param now the current time in ms.
+         * @return true, if the property source signalled a change, its version changed or it is due to be polled.
+         */
+        boolean isCheckDue(long now) {
+            if(propertySource instanceof ObservablePropertySource){
+                if(signalled){
+                    signalled = false;
+                    return true;
+                }
+                return false;
+            }
+            if(propertySource instanceof VersionedPropertySource){
+                long currentVersion = ((VersionedPropertySource)propertySource).getVersion();
+                if(currentVersion!=version){
+                    // read before the content, so later changes are detected by the next check.
+                    pendingVersion = currentVersion;
+                    return true;
+                }
+                return false;
+            }
+            return now >= nextPoll;
+        }
+
+        /**
+         * Compares the property source's content with the content of the last check.
+         * @param now the current time in ms.
+         * @param checkPeriod the check period in ms.
+         * @param changedKeys the keys added, removed or changed are added to this set.
+         */
+        void check(long now, long checkPeriod, Set<String> changedKeys) {
+            Map<String, String> current = readProperties(propertySource);
+            boolean changed = false;
+            for(Map.Entry<String, String> en:current.entrySet()){
+                if(!Objects.equals(en.getValue(), properties.get(en.getKey()))){
+                    changedKeys.add(en.getKey());
+                    changed = true;
                 }
             }
-        }, 500L, checkPeriod);
+            for(String key:properties.keySet()){
+                if(!current.containsKey(key)){
+                    changedKeys.add(key);
+                    changed = true;
+                }
+            }
+            if(changed){
+                pendingProperties = current;
+                pollInterval = checkPeriod;
+            }else{
+                pollInterval = Math.min(pollInterval * 2, checkPeriod * MAX_BACKOFF_FACTOR);
+            }
+            nextPoll = now + pollInterval;
+        }
+
+        /**
+         * Takes over the content and version read by the last check, after its changes were published.
+         */
+        void commit() {
+            if(pendingProperties!=null){
+                properties = pendingProperties;
+                pendingProperties = null;
+            }
+            if(propertySource instanceof VersionedPropertySource){
+                version = pendingVersion;
+            }
+        }
+
+        /**
+         * Discards the content and version read by the last check, since its changes were not published, so
+         * they are found again by the next check.
+         */
+        void reject() {
+            pendingProperties = null;
+            if(propertySource instanceof ObservablePropertySource){
+                signalled = true;
+            }else if(!(propertySource instanceof VersionedPropertySource)){
+                nextPoll = 0L;
+            }
+        }
+
+        private static Map<String, String> readProperties(PropertySource propertySource) {
+            Map<String, String> properties = propertySource.getProperties();
+            if(properties==null){
+                return Collections.emptyMap();
+            }
+            return new HashMap<>(properties);
+        }
     }
 }
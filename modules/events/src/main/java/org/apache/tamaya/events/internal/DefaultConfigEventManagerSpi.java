@@ -20,27 +20,45 @@ package org.apache.tamaya.events.internal;
 
 import org.apache.tamaya.events.ConfigEvent;
 import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
 import org.apache.tamaya.events.spi.ConfigEventManagerSpi;
 import org.apache.tamaya.spi.ServiceContextManager;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Default implementation of {@link DefaultConfigEventManagerSpi} just forwarding all
- * events synchronously to the listeners.
+ * events synchronously to the listeners. Events are delivered to all listeners registered for the event's
+ * class or any of its super classes and interfaces. If enabled by setting the system property
+ * {@value ChangeBatcher#WINDOW_PROPERTY}, {@link ConfigurationChange}s are batched per listener. Batched changes
+ * are always delivered asynchronously, once their batch is complete, also when published by
+ * {@link #fireEvent(ConfigEvent)}.
  */
 public class DefaultConfigEventManagerSpi implements ConfigEventManagerSpi {
 
     private static final Logger LOG = Logger.getLogger(DefaultConfigEventManagerSpi.class.getName());
 
-    private final Map<Class,List<ConfigEventListener>> listeners = new ConcurrentHashMap<>();
+    /**
+     * The registered listeners, never locked when events are fired.
+     */
+    private final ListenerRegistry listeners = new ListenerRegistry();
+
+    private final ExecutorService publisher = EventExecutors.getExecutor("ConfigEventPublisher", 0);
+
+    /**
+     * The dispatcher used for asynchronous events, or null, if each event is published by a separate task.
+     */
+    private final BoundedEventDispatcher dispatcher = createDispatcher();
 
-    private final ExecutorService publisher = Executors.newCachedThreadPool();
+    /**
+     * The batcher used for configuration changes, or null, if each change is published separately.
+     */
+    private final ChangeBatcher batcher = createBatcher();
 
     private final DefaultConfigChangeObserver changeObserver = new DefaultConfigChangeObserver();
 
@@ -61,6 +79,78 @@ public class DefaultConfigEventManagerSpi implements ConfigEventManagerSpi {
         }
     }
 
+    /**
+     * Creates the bounded dispatcher, if enabled by setting the system property
+     * {@value BoundedEventDispatcher#QUEUE_CAPACITY_PROPERTY}.
+     * @return the dispatcher, or null.
+     */
+    private static BoundedEventDispatcher createDispatcher() {
+        int queueCapacity = Integer.getInteger(BoundedEventDispatcher.QUEUE_CAPACITY_PROPERTY, 0);
+        if(queueCapacity<=0){
+            return null;
+        }
+        BoundedEventDispatcher.OverflowPolicy overflowPolicy = BoundedEventDispatcher.OverflowPolicy.DROP_OLDEST;
+        String policyName = System.getProperty(BoundedEventDispatcher.OVERFLOW_POLICY_PROPERTY);
+        if(policyName!=null){
+            try {
+                overflowPolicy = BoundedEventDispatcher.OverflowPolicy.valueOf(policyName.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                LOG.warning("Invalid overflow policy: " + policyName + ", using " + overflowPolicy);
+            }
+        }
+        int threads = Integer.getInteger(BoundedEventDispatcher.THREADS_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = EventExecutors.getExecutor("BoundedEventDispatcher", Math.max(1, threads));
+        LOG.info("Using bounded event dispatcher, queue capacity: " + queueCapacity + ", overflow policy: "
+                + overflowPolicy + ", threads: " + threads);
+        return new BoundedEventDispatcher(queueCapacity, overflowPolicy, executor);
+    }
+
+    /**
+     * Creates the change batcher, if enabled by setting the system property {@value ChangeBatcher#WINDOW_PROPERTY}.
+     * Merged changes are delivered by the bounded dispatcher, if enabled, or by the batcher's thread otherwise.
+     * @return the batcher, or null.
+     */
+    private ChangeBatcher createBatcher() {
+        long window = Long.getLong(ChangeBatcher.WINDOW_PROPERTY, 0L);
+        if(window<=0){
+            return null;
+        }
+        int maxSize = Integer.getInteger(ChangeBatcher.MAX_SIZE_PROPERTY, 1000);
+        long maxLatency = Math.max(window, Long.getLong(ChangeBatcher.MAX_LATENCY_PROPERTY, window * 10));
+        ScheduledExecutorService scheduler = EventExecutors.getScheduler("ChangeBatcher");
+        LOG.info("Batching configuration changes, window: " + window + "ms, max batch size: " + maxSize
+                + ", max latency: " + maxLatency + "ms");
+        return new ChangeBatcher(window, Math.max(1, maxSize), maxLatency, scheduler, new ChangeBatcher.Delivery() {
+            @Override
+            public void deliver(ConfigEventListener listener, ConfigurationChange change) {
+                if(dispatcher!=null){
+                    dispatcher.dispatch(listener, change);
+                }else{
+                    listener.onConfigEvent(change);
+                }
+            }
+        });
+    }
+
+    /**
+     * Access the batcher used for configuration changes, e.g. for flushing pending changes.
+     * @return the batcher, or null, if batching is not enabled.
+     * @see ChangeBatcher#WINDOW_PROPERTY
+     */
+    public ChangeBatcher getBatcher() {
+        return batcher;
+    }
+
+    /**
+     * Access the dispatcher used for asynchronous events, e.g. for reading its statistics.
+     * @return the dispatcher, or null, if the bounded dispatcher is not enabled.
+     * @see BoundedEventDispatcher#QUEUE_CAPACITY_PROPERTY
+     */
+    public BoundedEventDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     @Override
     public void addListener(ConfigEventListener l){
         addListener(l, ConfigEvent.class);
@@ -68,16 +158,7 @@ public class DefaultConfigEventManagerSpi implements ConfigEventManagerSpi {
 
     @Override
     public <T extends ConfigEvent> void addListener(ConfigEventListener l, Class<T> eventType){
-        List<ConfigEventListener> ls = listeners.get(eventType);
-        if(ls==null){
-            ls = Collections.synchronizedList(new ArrayList<ConfigEventListener>());
-            listeners.put(eventType, ls);
-        }
-        synchronized (ls){
-            if(!ls.contains(l)){
-                ls.add(l);
-            }
-        }
+        listeners.add(l, eventType);
     }
 
     @Override
@@ -87,76 +168,77 @@ public class DefaultConfigEventManagerSpi implements ConfigEventManagerSpi {
 
     @Override
     public <T extends ConfigEvent> void removeListener(ConfigEventListener l, Class<T> eventType) {
-        List<ConfigEventListener> targets = this.listeners.get(eventType);
-        if(targets!=null) {
-            // forward to explicit listeners
-            synchronized (targets) {
-                targets.remove(l);
+        listeners.remove(l, eventType);
+        if(!listeners.getListeners().contains(l)){
+            if(dispatcher!=null){
+                dispatcher.remove(l);
+            }
+            if(batcher!=null){
+                batcher.remove(l);
             }
         }
     }
 
     @Override
     public Collection<? extends ConfigEventListener> getListeners(Class<? extends ConfigEvent> eventType) {
-        List<ConfigEventListener> targets = this.listeners.get(eventType);
-        if(targets!=null){
-            synchronized(targets){
-                return new ArrayList<>(targets);
-            }
-        }
-        return Collections.emptyList();
+        return listeners.getListeners(eventType);
+    }
+
+    /**
+     * Access all listeners an event of the given type is delivered to, including listeners registered for any
+     * of its super types, e.g. the global listeners registered for {@link ConfigEvent}.
+     * @param eventType the event type, not null.
+     * @return the listeners found, never null.
+     */
+    @Override
+    public Collection<? extends ConfigEventListener> getDispatchListeners(Class<? extends ConfigEvent> eventType) {
+        return Collections.unmodifiableList(Arrays.asList(listeners.getDispatchListeners(eventType)));
     }
 
     @Override
     public Collection<? extends ConfigEventListener> getListeners() {
-        Set<ConfigEventListener> targets = new HashSet<>();
-        for(List<ConfigEventListener> l:this.listeners.values()){
-            targets.addAll(l);
-        }
-        return targets;
+        return listeners.getListeners();
     }
 
+    /**
+     * Publishes an event synchronously to all interested listeners. If batching is enabled, a
+     * {@link ConfigurationChange} is only added to the pending batches of its listeners, which are delivered
+     * asynchronously, see {@link ChangeBatcher}.
+     * @param event the event, not null.
+     */
     @Override
     public void fireEvent(ConfigEvent<?> event) {
-        List<ConfigEventListener> targets = this.listeners.get(event.getClass());
-        if(targets!=null) {
-            // forward to explicit listeners
-            synchronized (targets) {
-                for (ConfigEventListener l : targets) {
-                    l.onConfigEvent(event);
-                }
-            }
+        if(batcher!=null && event instanceof ConfigurationChange){
+            batch((ConfigurationChange) event);
+            return;
         }
-        // forward to global listeners
-        targets = this.listeners.get(ConfigEvent.class);
-        if(targets!=null) {
-            synchronized (targets) {
-                for (ConfigEventListener l : targets) {
-                    l.onConfigEvent(event);
-                }
-            }
+        for (ConfigEventListener l : listeners.getDispatchListeners(event.getClass())) {
+            l.onConfigEvent(event);
         }
     }
 
     @Override
     public void fireEventAsynch(ConfigEvent<?> event) {
-        List<ConfigEventListener> targets = this.listeners.get(event.getClass());
-        if(targets!=null) {
-            // forward to explicit listeners
-            synchronized (targets) {
-                for (ConfigEventListener l : targets) {
-                    publisher.execute(new PublishConfigChangeTask(l, event));
-                }
-            }
+        if(batcher!=null && event instanceof ConfigurationChange){
+            batch((ConfigurationChange) event);
+            return;
         }
-        // forward to global listeners
-        targets = this.listeners.get(ConfigEvent.class);
-        if(targets!=null) {
-            synchronized (targets) {
-                for (ConfigEventListener l : targets) {
-                    publisher.execute(new PublishConfigChangeTask(l, event));
-                }
-            }
+        for (ConfigEventListener l : listeners.getDispatchListeners(event.getClass())) {
+            publishAsynch(l, event);
+        }
+    }
+
+    private void batch(ConfigurationChange change) {
+        for (ConfigEventListener l : listeners.getDispatchListeners(change.getClass())) {
+            batcher.add(l, change);
+        }
+    }
+
+    private void publishAsynch(ConfigEventListener l, ConfigEvent<?> event) {
+        if(dispatcher!=null){
+            dispatcher.dispatch(l, event);
+        }else{
+            publisher.execute(new PublishConfigChangeTask(l, event));
         }
     }
 
@@ -180,6 +262,12 @@ public class DefaultConfigEventManagerSpi implements ConfigEventManagerSpi {
         changeObserver.enableMonitoring(enable);
     }
 
+    @Override
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        changeObserver.enableMonitoring(false);
+        return EventExecutors.shutdown(timeout, unit);
+    }
+
 
     /**
      * Tasks to inform observers on detected configuration changes.
@@ -25,6 +25,7 @@ import org.apache.tamaya.events.ConfigurationContextChange;
 import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.ConfigurationContextBuilder;
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedConfigurationContext;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -35,7 +36,9 @@ import java.util.logging.Logger;
 
 /**
  * Default ConfigEventListener for ConfigurationContextChange events that updates the current context, if resources were
- * affected.
+ * affected. If the current context is a {@link VersionedConfigurationContext}, the affected property sources are
+ * replaced in place, so configurations only have to reevaluate the keys of these property sources. Otherwise a new
+ * context is built and installed.
  */
 public class DefaultConfigurationContextChangeListener implements ConfigEventListener {
 
@@ -46,6 +49,10 @@ public class DefaultConfigurationContextChangeListener implements ConfigEventLis
         if(event.getClass() == ConfigurationContextChange.class) {
             ConfigurationContextChange contextChange = (ConfigurationContextChange) event;
             ConfigurationContext context = ConfigurationProvider.getConfigurationContext();
+            if (context instanceof VersionedConfigurationContext) {
+                replacePropertySources((VersionedConfigurationContext) context, contextChange);
+                return;
+            }
             List<PropertySource> affectedPropertySources = new ArrayList<>();
             for (PropertySource ps : context.getPropertySources()) {
                 if (contextChange.isAffected(ps)) {
@@ -71,4 +78,25 @@ public class DefaultConfigurationContextChangeListener implements ConfigEventLis
             }
         }
     }
+
+    /**
+     * Replaces the property sources affected by the given change in place.
+     *
+     * @param context the current context, not null.
+     * @param contextChange the change, not null.
+     */
+    private void replacePropertySources(VersionedConfigurationContext context,
+                                        ConfigurationContextChange contextChange) {
+        List<PropertySource> removed = new ArrayList<>(contextChange.getRemovedPropertySources());
+        // updated property sources replace the property sources registered with the same name.
+        removed.addAll(contextChange.getUpdatedPropertySources());
+        List<PropertySource> added = new ArrayList<>(contextChange.getAddedPropertySources());
+        added.addAll(contextChange.getUpdatedPropertySources());
+        try {
+            long generation = context.replacePropertySources(removed, added);
+            LOG.fine("Replaced property sources of the current ConfigurationContext, generation: " + generation);
+        } catch (Exception e) {
+            LOG.log(Level.INFO, "Failed to update the current ConfigurationContext due to config model changes", e);
+        }
+    }
 }
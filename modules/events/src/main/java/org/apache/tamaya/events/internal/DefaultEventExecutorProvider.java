@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.events.spi.EventExecutorProvider;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Default {@link EventExecutorProvider}. If the runtime supports virtual threads (Java 21 and later), all tasks are
+ * run by virtual threads, otherwise by daemon platform threads. Executors not limited by the caller are bounded to
+ * {@value #MAX_THREADS_PROPERTY} platform threads, whereas with virtual threads each task gets its own thread.
+ * Idle threads are released after a minute.
+ */
+public class DefaultEventExecutorProvider implements EventExecutorProvider {
+
+    private static final Logger LOG = Logger.getLogger(DefaultEventExecutorProvider.class.getName());
+
+    /**
+     * System property to define the maximal number of platform threads of executors not limited by the caller,
+     * by default twice the number of processors, at least 4.
+     */
+    public static final String MAX_THREADS_PROPERTY = "tamaya.events.executor.maxThreads";
+
+    /**
+     * System property to disable virtual threads, if set to {@code false}.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "tamaya.events.executor.virtualThreads";
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /** The builder of virtual threads, or null, if not supported or disabled. */
+    private final Object virtualThreadBuilder;
+    /** Method {@code Thread.Builder.name(String, long)}. */
+    private final Method nameMethod;
+    /** Method {@code Thread.Builder.factory()}. */
+    private final Method factoryMethod;
+
+    /**
+     * Constructor, detecting virtual thread support.
+     */
+    public DefaultEventExecutorProvider() {
+        Object builder = null;
+        Method name = null;
+        Method factory = null;
+        if (Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))) {
+            try {
+                builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                name = builderType.getMethod("name", String.class, long.class);
+                factory = builderType.getMethod("factory");
+            } catch (Exception e) {
+                LOG.finest("Virtual threads not supported: " + e);
+                builder = null;
+            }
+        }
+        this.virtualThreadBuilder = builder;
+        this.nameMethod = name;
+        this.factoryMethod = factory;
+        LOG.info("Running background tasks with " + (isVirtual() ? "virtual threads." : "platform threads."));
+    }
+
+    /**
+     * Checks if virtual threads are used.
+     *
+     * @return true, if virtual threads are used.
+     */
+    public boolean isVirtual() {
+        return virtualThreadBuilder != null;
+    }
+
+    @Override
+    public ExecutorService getExecutor(String name, int parallelism) {
+        int maxThreads = parallelism;
+        if (maxThreads <= 0) {
+            maxThreads = isVirtual() ? Integer.MAX_VALUE : Integer.getInteger(MAX_THREADS_PROPERTY,
+                    Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+        }
+        if (maxThreads == Integer.MAX_VALUE) {
+            // a new thread per task, queueing is not needed.
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), createThreadFactory(name));
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), createThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public ScheduledExecutorService getScheduler(String name) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, createThreadFactory(name));
+        // cancelled tasks are removed, since batching reschedules its tasks frequently.
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    @Override
+    public void release(ExecutorService executor) {
+        executor.shutdown();
+    }
+
+    /**
+     * Creates the factory of the threads used by an executor. Synchronized, since the virtual thread builder is
+     * shared.
+     *
+     * @param name the name of the executor, not null.
+     * @return the thread factory, never null.
+     */
+    private synchronized ThreadFactory createThreadFactory(final String name) {
+        if (virtualThreadBuilder != null) {
+            try {
+                return (ThreadFactory) factoryMethod.invoke(nameMethod.invoke(virtualThreadBuilder, name + "-", 1L));
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "Failed to create virtual thread factory, using platform threads.", e);
+            }
+        }
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultEventExecutorProvider{virtual=" + isVirtual() + '}';
+    }
+}
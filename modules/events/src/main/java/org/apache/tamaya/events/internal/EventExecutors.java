@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.events.spi.EventExecutorProvider;
+import org.apache.tamaya.spi.ServiceContextManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Singleton accessor for the executors used by the events module. The executors are provided by the registered
+ * {@link EventExecutorProvider}, or by the {@link DefaultEventExecutorProvider}, if none is registered. All
+ * executors obtained are tracked, so they can be released on {@link #shutdown(long, TimeUnit)}.
+ */
+public final class EventExecutors {
+
+    private static final Logger LOG = Logger.getLogger(EventExecutors.class.getName());
+
+    /** The provider used. */
+    private static final EventExecutorProvider PROVIDER = loadProvider();
+
+    /** The executors obtained, guarded by the list's monitor. */
+    private static final List<ExecutorService> EXECUTORS = new ArrayList<>();
+
+    /**
+     * Private singleton constructor.
+     */
+    private EventExecutors() {
+    }
+
+    private static EventExecutorProvider loadProvider() {
+        try {
+            EventExecutorProvider provider = ServiceContextManager.getServiceContext()
+                    .getService(EventExecutorProvider.class);
+            if (provider != null) {
+                LOG.info("Using EventExecutorProvider: " + provider);
+                return provider;
+            }
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to load EventExecutorProvider, using default.", e);
+        }
+        return new DefaultEventExecutorProvider();
+    }
+
+    /**
+     * Get the provider used.
+     *
+     * @return the provider, never null.
+     */
+    public static EventExecutorProvider getProvider() {
+        return PROVIDER;
+    }
+
+    /**
+     * Obtains an executor for running tasks in the background.
+     *
+     * @param name the name of the requesting component, not null.
+     * @param parallelism the maximal number of tasks run concurrently, or 0, if not limited.
+     * @return the executor, never null.
+     * @see EventExecutorProvider#getExecutor(String, int)
+     */
+    public static ExecutorService getExecutor(String name, int parallelism) {
+        return track(PROVIDER.getExecutor(name, parallelism));
+    }
+
+    /**
+     * Obtains a scheduler for delayed and periodic tasks.
+     *
+     * @param name the name of the requesting component, not null.
+     * @return the scheduler, never null.
+     * @see EventExecutorProvider#getScheduler(String)
+     */
+    public static ScheduledExecutorService getScheduler(String name) {
+        return track(PROVIDER.getScheduler(name));
+    }
+
+    private static <T extends ExecutorService> T track(T executor) {
+        synchronized (EXECUTORS) {
+            EXECUTORS.add(executor);
+        }
+        return executor;
+    }
+
+    /**
+     * Releases an executor obtained, e.g. when the component using it is closed.
+     *
+     * @param executor the executor, not null.
+     */
+    public static void release(ExecutorService executor) {
+        synchronized (EXECUTORS) {
+            if (!EXECUTORS.remove(executor)) {
+                return;
+            }
+        }
+        PROVIDER.release(executor);
+    }
+
+    /**
+     * Releases all executors obtained and waits for running tasks to complete. Executors shut down by the provider,
+     * which do not terminate within the timeout, are forced to stop by interrupting their tasks. Components
+     * submitting tasks after shutdown, fail with a {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @param timeout the maximal time to wait.
+     * @param unit the unit of the timeout, not null.
+     * @return true, if all executors shut down have terminated.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        List<ExecutorService> executors;
+        synchronized (EXECUTORS) {
+            executors = new ArrayList<>(EXECUTORS);
+            EXECUTORS.clear();
+        }
+        for (ExecutorService executor : executors) {
+            PROVIDER.release(executor);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for (ExecutorService executor : executors) {
+            if (!executor.isShutdown()) {
+                // shared with the application.
+                continue;
+            }
+            if (!executor.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                executor.shutdownNow();
+                terminated = false;
+            }
+        }
+        return terminated;
+    }
+}
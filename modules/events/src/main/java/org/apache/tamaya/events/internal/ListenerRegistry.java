@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.events.ConfigEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copy-on-write registry of {@link ConfigEventListener}s keyed by the event type they listen to. Registrations
+ * replace an immutable snapshot, so reading never locks. For each concrete event class the listeners to be
+ * called are evaluated once and kept in a dispatch table, which contains all listeners registered for the
+ * class itself or any of its super classes and interfaces. The dispatch table is discarded on each
+ * registration change.
+ */
+final class ListenerRegistry {
+
+    private static final ConfigEventListener[] NO_LISTENERS = new ConfigEventListener[0];
+
+    /** The current snapshot, replaced on each change. */
+    private volatile Snapshot snapshot = new Snapshot(Collections.<Class<?>, ConfigEventListener[]>emptyMap());
+
+    /**
+     * Registers a listener for the given event type. Registering the same listener again for the same type
+     * has no effect.
+     *
+     * @param listener the listener, not null.
+     * @param eventType the event type, not null.
+     */
+    synchronized void add(ConfigEventListener listener, Class<?> eventType) {
+        Objects.requireNonNull(listener);
+        Map<Class<?>, ConfigEventListener[]> registrations = snapshot.registrations;
+        ConfigEventListener[] current = registrations.get(Objects.requireNonNull(eventType));
+        if (current == null) {
+            current = NO_LISTENERS;
+        }
+        for (ConfigEventListener registered : current) {
+            if (registered.equals(listener)) {
+                return;
+            }
+        }
+        ConfigEventListener[] listeners = Arrays.copyOf(current, current.length + 1);
+        listeners[current.length] = listener;
+        Map<Class<?>, ConfigEventListener[]> newRegistrations = new HashMap<>(registrations);
+        newRegistrations.put(eventType, listeners);
+        snapshot = new Snapshot(newRegistrations);
+    }
+
+    /**
+     * Removes the registration of a listener for the given event type.
+     *
+     * @param listener the listener, not null.
+     * @param eventType the event type, not null.
+     */
+    synchronized void remove(ConfigEventListener listener, Class<?> eventType) {
+        Map<Class<?>, ConfigEventListener[]> registrations = snapshot.registrations;
+        ConfigEventListener[] current = registrations.get(eventType);
+        if (current == null) {
+            return;
+        }
+        List<ConfigEventListener> listeners = new ArrayList<>(Arrays.asList(current));
+        if (!listeners.remove(listener)) {
+            return;
+        }
+        Map<Class<?>, ConfigEventListener[]> newRegistrations = new HashMap<>(registrations);
+        if (listeners.isEmpty()) {
+            newRegistrations.remove(eventType);
+        } else {
+            newRegistrations.put(eventType, listeners.toArray(new ConfigEventListener[listeners.size()]));
+        }
+        snapshot = new Snapshot(newRegistrations);
+    }
+
+    /**
+     * Get the listeners to be called for an event of the given concrete class. Listeners registered for
+     * more than one matching type are contained only once.
+     *
+     * @param eventClass the concrete event class, not null.
+     * @return the listeners, ordered from the most specific to the most general registration type. The array
+     * returned must not be modified.
+     */
+    ConfigEventListener[] getDispatchListeners(Class<?> eventClass) {
+        Snapshot current = snapshot;
+        ConfigEventListener[] listeners = current.dispatchTable.get(eventClass);
+        if (listeners == null) {
+            listeners = current.evaluateDispatchListeners(eventClass);
+            current.dispatchTable.put(eventClass, listeners);
+        }
+        return listeners;
+    }
+
+    /**
+     * Get the listeners registered exactly for the given type.
+     *
+     * @param eventType the event type, not null.
+     * @return the listeners, never null.
+     */
+    List<ConfigEventListener> getListeners(Class<?> eventType) {
+        ConfigEventListener[] listeners = snapshot.registrations.get(eventType);
+        if (listeners == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(listeners));
+    }
+
+    /**
+     * Get all listeners registered for any type.
+     *
+     * @return the listeners, never null.
+     */
+    Set<ConfigEventListener> getListeners() {
+        Set<ConfigEventListener> listeners = new HashSet<>();
+        for (ConfigEventListener[] registered : snapshot.registrations.values()) {
+            listeners.addAll(Arrays.asList(registered));
+        }
+        return listeners;
+    }
+
+    /**
+     * Immutable registrations together with the dispatch table evaluated from them.
+     */
+    private static final class Snapshot {
+        private final Map<Class<?>, ConfigEventListener[]> registrations;
+        private final ConcurrentHashMap<Class<?>, ConfigEventListener[]> dispatchTable = new ConcurrentHashMap<>();
+
+        Snapshot(Map<Class<?>, ConfigEventListener[]> registrations) {
+            this.registrations = registrations;
+        }
+
+        ConfigEventListener[] evaluateDispatchListeners(Class<?> eventClass) {
+            Set<ConfigEventListener> listeners = new LinkedHashSet<>();
+            // breadth first, so more specific types come first.
+            Set<Class<?>> visited = new HashSet<>();
+            Deque<Class<?>> types = new ArrayDeque<>();
+            types.add(eventClass);
+            while (!types.isEmpty()) {
+                Class<?> type = types.poll();
+                if (!visited.add(type)) {
+                    continue;
+                }
+                ConfigEventListener[] registered = registrations.get(type);
+                if (registered != null) {
+                    listeners.addAll(Arrays.asList(registered));
+                }
+                if (type.getSuperclass() != null) {
+                    types.add(type.getSuperclass());
+                }
+                types.addAll(Arrays.asList(type.getInterfaces()));
+            }
+            return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(new ConfigEventListener[listeners.size()]);
+        }
+    }
+}
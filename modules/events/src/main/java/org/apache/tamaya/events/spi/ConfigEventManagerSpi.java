@@ -22,6 +22,7 @@ import org.apache.tamaya.events.ConfigEvent;
 import org.apache.tamaya.events.ConfigEventListener;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SPI interface to implement the {@link org.apache.tamaya.events.ConfigEventManager} singleton.
@@ -74,16 +75,26 @@ public interface ConfigEventManagerSpi {
     Collection<? extends ConfigEventListener> getListeners();
 
     /**
-     * Access all listeners listening for a certain event type, including any global listeners.
+     * Access all listeners registered for exactly the given event type, see
+     * {@link #addListener(ConfigEventListener, Class)}.
      * @param eventType the type of concrete configuration event this listeners should be informed about. All other
      *                  event types will never be delivered toe this listener instance.
      * @return the listeners found, never null.
      */
     Collection<? extends ConfigEventListener> getListeners(Class<? extends ConfigEvent> eventType);
 
+    /**
+     * Access all listeners an event of the given type is delivered to, including the listeners registered for
+     * any of its super types, e.g. the global listeners.
+     * @param eventType the type of concrete configuration event, not null.
+     * @return the listeners found, in delivery order, never null.
+     */
+    Collection<? extends ConfigEventListener> getDispatchListeners(Class<? extends ConfigEvent> eventType);
+
     /**
      * Publishes an event to all interested listeners, hereby executing all registered listeners sequentually and
-     * synchronously.,
+     * synchronously. Implementations batching {@link org.apache.tamaya.events.ConfigurationChange}s, if
+     * configured to do so, deliver them asynchronously, after this method has returned.
      *
      * @param event the event, not null.
      */
@@ -124,5 +135,18 @@ public interface ConfigEventManagerSpi {
      */
     void enableChangeMonitor(boolean enable);
 
+    /**
+     * Stops all background work: the change monitoring is stopped and all executors used, e.g. for asynchronous
+     * event delivery, are released, waiting for running tasks to complete. Events fired asynchronously afterwards
+     * are rejected.
+     *
+     * @param timeout the maximal time to wait.
+     * @param unit the unit of the timeout, not null.
+     * @return true, if all background tasks have terminated.
+     * @throws InterruptedException if interrupted while waiting.
+     * @see EventExecutorProvider
+     */
+    boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException;
+
 
 }
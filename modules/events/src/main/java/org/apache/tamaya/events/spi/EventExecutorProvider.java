@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.spi;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * SPI providing the executors used for all background work of the events module, such as asynchronous event
+ * delivery and periodic change checks. Register an implementation with the {@link java.util.ServiceLoader}, e.g. for
+ * sharing the application's executors. Executors are requested once per component.
+ */
+public interface EventExecutorProvider {
+
+    /**
+     * Provides an executor running tasks in the background.
+     *
+     * @param name the name of the requesting component, not null, e.g. usable for naming threads.
+     * @param parallelism the maximal number of tasks run concurrently, or 0, if not limited by the caller. If 1,
+     *                    tasks must be run one after the other, in the order submitted.
+     * @return the executor, not null.
+     */
+    ExecutorService getExecutor(String name, int parallelism);
+
+    /**
+     * Provides a scheduler for delayed and periodic tasks. Tasks must be run one after the other.
+     *
+     * @param name the name of the requesting component, not null, e.g. usable for naming threads.
+     * @return the scheduler, not null.
+     */
+    ScheduledExecutorService getScheduler(String name);
+
+    /**
+     * Called when an executor provided is not used anymore, e.g. when the events module is shut down.
+     * Implementations providing executors shared with the application should not shut them down.
+     *
+     * @param executor an executor provided by this instance, not null.
+     */
+    void release(ExecutorService executor);
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.spi;
+
+import org.apache.tamaya.spi.PropertySource;
+
+/**
+ * <p>Optional capability of a {@link PropertySource}, which signals changes of its content actively, e.g. when
+ * a watched file has been modified, a remote long-poll returned or the property source has been changed
+ * programmatically. The change observer does not poll property sources implementing this interface, but checks them
+ * for changes only after they have signalled a change.</p>
+ *
+ * <h3>Implementation Requirements</h3>
+ * <ul>
+ * <li>All registered listeners must be called after each change of the content returned by
+ * {@link #getProperties()}. Listeners may be called without the content having changed.</li>
+ * <li>Listeners must be called after the change has become visible, so listeners reading the content see the
+ * changed values.</li>
+ * </ul>
+ */
+public interface ObservablePropertySource extends PropertySource {
+
+    /**
+     * Adds a listener to be called when this property source's content has changed.
+     *
+     * @param listener the listener, not null.
+     */
+    void addChangeListener(PropertySourceChangeListener listener);
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener, not null.
+     */
+    void removeChangeListener(PropertySourceChangeListener listener);
+}
@@ -20,6 +20,8 @@ package org.apache.tamaya.events;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -63,4 +65,26 @@ public class ConfigEventManagerTest {
         assertEquals(testAddListenerValue, "Event1");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSubscribe() throws Exception {
+        final List<ConfigurationChange> received = new ArrayList<>();
+        ConfigEventListener testListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                received.add((ConfigurationChange) event);
+            }
+        };
+        ConfigEventManager.subscribe(testListener, KeySelector.prefix("subscribe.db."));
+        ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of().addChange("subscribe.other", "1").build());
+        assertTrue(received.isEmpty());
+        ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of().addChange("subscribe.other", "1")
+                .addChange("subscribe.db.url", "url").build());
+        assertEquals(1, received.size());
+        assertEquals(1, received.get(0).getChanges().size());
+        assertTrue(received.get(0).isAdded("subscribe.db.url"));
+        assertTrue(ConfigEventManager.unsubscribe(testListener));
+        assertFalse(ConfigEventManager.unsubscribe(testListener));
+        ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of().addChange("subscribe.db.url", "url").build());
+        assertEquals(1, received.size());
+    }
+}
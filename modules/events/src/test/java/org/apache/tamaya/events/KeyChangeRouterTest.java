@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeyChangeRouter}.
+ */
+public class KeyChangeRouterTest {
+
+    private final KeyChangeRouter router = new KeyChangeRouter();
+    private final FrozenConfiguration config = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+
+    private ConfigurationChange change(String... keys) {
+        ConfigurationChangeBuilder builder = ConfigurationChangeBuilder.of(config);
+        for (String key : keys) {
+            builder.addChange(key, "value");
+        }
+        return builder.build();
+    }
+
+    private static List<String> keys(List<PropertyChangeEvent> events) {
+        List<String> keys = new ArrayList<>();
+        if (events != null) {
+            for (PropertyChangeEvent event : events) {
+                keys.add(event.getPropertyName());
+            }
+        }
+        Collections.sort(keys);
+        return keys;
+    }
+
+    @Test
+    public void testRouting() {
+        RecordingListener exact = new RecordingListener();
+        RecordingListener prefix = new RecordingListener();
+        RecordingListener pattern = new RecordingListener();
+        RecordingListener all = new RecordingListener();
+        router.subscribe(exact, KeySelector.key("db.url"));
+        router.subscribe(prefix, KeySelector.prefix("db."));
+        router.subscribe(pattern, KeySelector.pattern(".*\\.timeout"));
+        router.subscribe(all, KeySelector.prefix(""));
+        Map<ConfigEventListener, List<PropertyChangeEvent>> routed = router.route(
+                change("db.url", "db.url2", "db.pool.timeout", "http.timeout", "db", "other"));
+        assertEquals(Arrays.asList("db.url"), keys(routed.get(exact)));
+        assertEquals(Arrays.asList("db.pool.timeout", "db.url", "db.url2"), keys(routed.get(prefix)));
+        assertEquals(Arrays.asList("db.pool.timeout", "http.timeout"), keys(routed.get(pattern)));
+        assertEquals(6, keys(routed.get(all)).size());
+    }
+
+    @Test
+    public void testKeysSelectedTwiceAreDeliveredOnce() {
+        RecordingListener listener = new RecordingListener();
+        router.subscribe(listener, KeySelector.key("db.url"), KeySelector.prefix("db"),
+                KeySelector.pattern("db\\..*"));
+        router.onConfigEvent(change("db.url", "other"));
+        assertEquals(1, listener.changes.size());
+        ConfigurationChange received = listener.changes.get(0);
+        assertEquals(1, received.getChanges().size());
+        assertTrue(received.isAdded("db.url"));
+    }
+
+    @Test
+    public void testOnlyInterestedListenersAreCalled() {
+        RecordingListener listener = new RecordingListener();
+        router.subscribe(listener, KeySelector.key("db.url"));
+        ConfigurationChange change = change("db.url2", "db");
+        router.onConfigEvent(change);
+        assertTrue(listener.changes.isEmpty());
+        change = change("db.url");
+        router.onConfigEvent(change);
+        assertEquals(1, listener.changes.size());
+        assertEquals(change.getVersion(), listener.changes.get(0).getVersion());
+        assertEquals(change.getTimestamp(), listener.changes.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        RecordingListener listener = new RecordingListener();
+        RecordingListener other = new RecordingListener();
+        router.subscribe(listener, KeySelector.key("db.url"), KeySelector.prefix("db."),
+                KeySelector.pattern("http.*"));
+        router.subscribe(other, KeySelector.key("db.url"));
+        assertEquals(2, router.getSubscriberCount());
+        assertTrue(router.unsubscribe(listener));
+        assertFalse(router.unsubscribe(listener));
+        router.onConfigEvent(change("db.url", "http.port"));
+        assertTrue(listener.changes.isEmpty());
+        assertEquals(1, other.changes.size());
+        assertEquals(1, router.getSubscriberCount());
+    }
+
+    private static final class RecordingListener implements ConfigEventListener {
+        private final List<ConfigurationChange> changes = new ArrayList<>();
+
+        @Override
+        public void onConfigEvent(ConfigEvent<?> event) {
+            changes.add((ConfigurationChange) event);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events;
+
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PersistentPropertyMap}.
+ */
+public class PersistentPropertyMapTest {
+
+    @Test
+    public void testOperationsMatchHashMap() throws Exception {
+        Random random = new Random(42);
+        Map<String, String> expected = new HashMap<>();
+        PersistentPropertyMap map = PersistentPropertyMap.EMPTY;
+        for (int i = 0; i < 20000; i++) {
+            String key = "key" + random.nextInt(5000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                String value = "value" + random.nextInt(3);
+                expected.put(key, value);
+                map = map.plus(key, value);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testCollidingKeys() throws Exception {
+        // "Aa" and "BB" have the same hash code.
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        PersistentPropertyMap map = PersistentPropertyMap.EMPTY.plus("Aa", "1").plus("BB", "2").plus("AaAa", "3")
+                .plus("BBBB", "4").plus("AaBB", "5");
+        assertEquals(5, map.size());
+        assertEquals("1", map.get("Aa"));
+        assertEquals("2", map.get("BB"));
+        assertEquals("5", map.get("AaBB"));
+        PersistentPropertyMap removed = map.minus("Aa").minus("BBBB");
+        assertEquals(3, removed.size());
+        assertNull(removed.get("Aa"));
+        assertEquals("2", removed.get("BB"));
+        List<PropertyChangeEvent> changes = new ArrayList<>();
+        map.diff(removed, this, changes);
+        assertEquals(2, changes.size());
+        for (PropertyChangeEvent change : changes) {
+            assertNull(change.getNewValue());
+        }
+    }
+
+    @Test
+    public void testUpdateSharesUnchangedEntries() throws Exception {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            properties.put("key" + i, "value" + i);
+        }
+        PersistentPropertyMap map = PersistentPropertyMap.of(properties);
+        assertSame(map, map.update(properties));
+        properties.put("key1", "changed");
+        properties.remove("key2");
+        properties.put("added", "value");
+        PersistentPropertyMap updated = map.update(properties);
+        assertEquals(properties, updated);
+        assertEquals("value1", map.get("key1"));
+
+        List<PropertyChangeEvent> changes = new ArrayList<>();
+        map.diff(updated, this, changes);
+        Map<String, PropertyChangeEvent> changesByKey = new HashMap<>();
+        for (PropertyChangeEvent change : changes) {
+            changesByKey.put(change.getPropertyName(), change);
+        }
+        assertEquals(3, changesByKey.size());
+        assertEquals("value1", changesByKey.get("key1").getOldValue());
+        assertEquals("changed", changesByKey.get("key1").getNewValue());
+        assertNull(changesByKey.get("key2").getNewValue());
+        assertNull(changesByKey.get("added").getOldValue());
+    }
+
+    @Test
+    public void testDiffOfUnrelatedMaps() throws Exception {
+        Map<String, String> properties1 = new HashMap<>();
+        Map<String, String> properties2 = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            properties1.put("key" + i, "value");
+            properties2.put("key" + (i + 500), i % 2 == 0 ? "value" : "other");
+        }
+        List<PropertyChangeEvent> changes = new ArrayList<>();
+        PersistentPropertyMap.of(properties1).diff(PersistentPropertyMap.of(properties2), this, changes);
+        // 500 removed, 500 added, 250 changed.
+        assertEquals(1250, changes.size());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        PersistentPropertyMap map = PersistentPropertyMap.EMPTY.plus("a", "1").plus("b", "2");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(map);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertEquals(map, ois.readObject());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() throws Exception {
+        PersistentPropertyMap.EMPTY.plus("a", "1").put("b", "2");
+    }
+}
@@ -145,6 +145,26 @@ public class TestConfigView implements ConfigOperator{
                 }
                 return val;
             }
+
+            @Override
+            public int getInt(String key, int defaultValue) {
+                return getOrDefault(key, Integer.class, defaultValue);
+            }
+
+            @Override
+            public long getLong(String key, long defaultValue) {
+                return getOrDefault(key, Long.class, defaultValue);
+            }
+
+            @Override
+            public double getDouble(String key, double defaultValue) {
+                return getOrDefault(key, Double.class, defaultValue);
+            }
+
+            @Override
+            public boolean getBoolean(String key, boolean defaultValue) {
+                return getOrDefault(key, Boolean.class, defaultValue);
+            }
         };
     }
 }
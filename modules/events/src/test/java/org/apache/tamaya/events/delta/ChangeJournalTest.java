@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.delta;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.events.SimpleEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ChangeJournal}.
+ */
+public class ChangeJournalTest {
+
+    private final FrozenConfiguration config = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal");
+        file = dir.resolve("changes.journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) {
+                Files.delete(f.toPath());
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private ConfigurationChange change(int i) {
+        return ConfigurationChangeBuilder.of(config).addChange("journal.key" + i, null, "value" + i)
+                .addChange("journal.shared", "old" + i, "new" + i)
+                .setVersion("v" + i).setTimestamp(1000L + i).build();
+    }
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            assertEquals(0L, journal.getLastSequence());
+            assertTrue(journal.replay(0L, config).isEmpty());
+            for (int i = 1; i <= 5; i++) {
+                assertEquals(i, journal.append(change(i)));
+            }
+            journal.append(ConfigurationChangeBuilder.of(config).addChange("journal.removed", "x", null)
+                    .setVersion("removal").build());
+            List<ChangeJournal.Entry> entries = journal.replay(3L, config);
+            assertEquals(3, entries.size());
+            ConfigurationChange change = entries.get(0).getChange();
+            assertEquals(4L, entries.get(0).getSequence());
+            assertEquals("v4", change.getVersion());
+            assertEquals(1004L, change.getTimestamp());
+            assertTrue(change.isAdded("journal.key4"));
+            for (PropertyChangeEvent event : change.getChanges()) {
+                if (event.getPropertyName().equals("journal.shared")) {
+                    assertEquals("old4", event.getOldValue());
+                    assertEquals("new4", event.getNewValue());
+                } else {
+                    assertEquals("value4", event.getNewValue());
+                }
+            }
+            assertTrue(change.isUpdated("journal.shared"));
+            assertTrue(entries.get(2).getChange().isRemoved("journal.removed"));
+            assertEquals(6, journal.replay(0L, config).size());
+            assertTrue(journal.replay(6L, config).isEmpty());
+        }
+    }
+
+    @Test
+    public void testReopenContinuesSequence() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            journal.append(change(1));
+            journal.append(change(2));
+        }
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            assertEquals(2, journal.size());
+            assertEquals(2L, journal.getLastSequence());
+            assertEquals(3L, journal.append(change(3)));
+            assertEquals("v2", journal.replay(1L, config).get(0).getChange().getVersion());
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordIsDiscarded() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            journal.append(change(1));
+            journal.append(change(2));
+        }
+        // corrupt the version of the second record, following the 8 bytes header and the first record.
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(8);
+            int length = raf.readInt();
+            raf.seek(8 + 4 + length + 4 + 4 + 20);
+            raf.writeByte(0x7f);
+        }
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            assertEquals(1, journal.size());
+            assertEquals(2L, journal.append(change(3)));
+            assertEquals("v3", journal.replay(1L, config).get(0).getChange().getVersion());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        final List<Runnable> tasks = new ArrayList<>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        try (ChangeJournal journal = ChangeJournal.open(file, 4096, 10, executor)) {
+            for (int i = 1; i <= 11; i++) {
+                journal.append(change(i));
+            }
+            // 11 records exceed the maximum, the compaction is run by the executor.
+            assertEquals(11, journal.size());
+            assertEquals(1, tasks.size());
+            tasks.remove(0).run();
+            // the oldest 6 are merged.
+            assertEquals(6, journal.size());
+            assertEquals(11L, journal.getLastSequence());
+            List<ChangeJournal.Entry> entries = journal.replay(0L, config);
+            ConfigurationChange merged = entries.get(0).getChange();
+            assertEquals(6L, entries.get(0).getSequence());
+            assertEquals("v6", merged.getVersion());
+            assertEquals(7, merged.getChanges().size());
+            for (int i = 1; i <= 6; i++) {
+                assertTrue(merged.isAdded("journal.key" + i));
+            }
+            assertTrue(merged.isUpdated("journal.shared"));
+            // replay from within the compacted range delivers the net changes.
+            assertEquals(6, journal.replay(3L, config).size());
+            assertEquals(5, journal.replay(6L, config).size());
+            assertEquals(12L, journal.append(change(12)));
+            assertTrue(tasks.isEmpty());
+        }
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            assertEquals(7, journal.size());
+            assertEquals(12L, journal.getLastSequence());
+        }
+        assertFalse(Files.exists(dir.resolve("changes.journal.compact")));
+    }
+
+    @Test
+    public void testCompactionInBackground() throws Exception {
+        try (ChangeJournal journal = ChangeJournal.open(file, 4096, 10)) {
+            for (int i = 1; i <= 11; i++) {
+                journal.append(change(i));
+            }
+            for (int i = 0; i < 100 && journal.size() > 6; i++) {
+                Thread.sleep(10L);
+            }
+            assertEquals(6, journal.size());
+            assertEquals(11L, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    public void testReplayRefersToLastChangeRecorded() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            journal.append(change(1));
+            journal.append(change(2));
+            for (ChangeJournal.Entry entry : journal.replay(0L)) {
+                assertSame(config, entry.getChange().getResource());
+            }
+        }
+    }
+
+    @Test
+    public void testJournalGrows() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file, 256, 1000)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.append(change(i));
+            }
+            assertTrue(Files.size(file) > 256);
+            assertEquals(100, journal.replay(0L, config).size());
+            assertEquals("v100", journal.replay(99L, config).get(0).getChange().getVersion());
+        }
+        try (ChangeJournal journal = ChangeJournal.open(file, 256, 1000)) {
+            assertEquals(100, journal.size());
+        }
+    }
+
+    @Test
+    public void testListener() throws IOException {
+        try (ChangeJournal journal = ChangeJournal.open(file)) {
+            journal.onConfigEvent(change(1));
+            journal.onConfigEvent(new SimpleEvent("ignored"));
+            journal.onConfigEvent(change(2));
+            assertEquals(2, journal.size());
+            final List<ConfigEvent<?>> received = new ArrayList<>();
+            long last = journal.replay(1L, new ConfigEventListener() {
+                @Override
+                public void onConfigEvent(ConfigEvent<?> event) {
+                    received.add(event);
+                }
+            });
+            assertEquals(2L, last);
+            assertEquals(1, received.size());
+            assertEquals("v2", ((ConfigurationChange) received.get(0)).getVersion());
+        }
+    }
+}
@@ -22,8 +22,10 @@ import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.events.ConfigurationChange;
 import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
 import org.junit.Test;
 
+import java.beans.PropertyChangeEvent;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -72,6 +74,56 @@ public class ConfigurationChangeTest {
         assertEquals(10L, change.getTimestamp());
     }
 
+    @Test
+    public void testMerge() throws Exception {
+        Configuration config = ConfigurationProvider.getConfiguration();
+        ConfigurationChange first = ConfigurationChangeBuilder.of(config).addChange("key1", "v1")
+                .addChange("key2", "v2").build();
+        ConfigurationChange second = ConfigurationChangeBuilder.of(config).addChange("key1", "v1b")
+                .addChange("key3", "v3").build();
+        ConfigurationChange merged = ConfigurationChangeBuilder.of(config).merge(first).merge(second).build();
+        assertEquals(3, merged.getChanges().size());
+        assertTrue(merged.isAdded("key1"));
+        assertTrue(merged.isAdded("key2"));
+        assertTrue(merged.isAdded("key3"));
+        for (PropertyChangeEvent ev : merged.getChanges()) {
+            if ("key1".equals(ev.getPropertyName())) {
+                assertEquals("v1b", ev.getNewValue());
+            }
+        }
+        ConfigurationChange reverted = ConfigurationChangeBuilder.of(config).removeKey("key1").build();
+        merged = ConfigurationChangeBuilder.of(config).merge(first).merge(reverted).build();
+        assertEquals(1, merged.getChanges().size());
+        assertFalse(merged.isKeyAffected("key1"));
+    }
+
+    @Test
+    public void testAddChangesOfFrozenConfigurations() throws Exception {
+        FrozenConfiguration config = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+        ConfigurationChange change = ConfigurationChangeBuilder.of(config).addChange("frozen.added", "v1").build();
+        FrozenConfiguration newConfig = config.apply(change);
+        assertEquals("v1", newConfig.get("frozen.added"));
+        assertNull(config.get("frozen.added"));
+        FrozenConfiguration removedConfig = newConfig.apply(
+                ConfigurationChangeBuilder.of(newConfig).removeKey("frozen.added").build());
+        assertNull(removedConfig.get("frozen.added"));
+
+        ConfigurationChange delta = ConfigurationChangeBuilder.of(config).addChanges(newConfig).build();
+        assertTrue(delta.isAdded("frozen.added"));
+        for (PropertyChangeEvent ev : delta.getChanges()) {
+            assertTrue(ev.getPropertyName().equals("frozen.added") || ev.getPropertyName().equals("[meta]frozenAt"));
+        }
+        delta = ConfigurationChangeBuilder.of(newConfig).addChanges(removedConfig).build();
+        assertTrue(delta.isRemoved("frozen.added"));
+        // same result when comparing with a configuration not frozen.
+        delta = ConfigurationChangeBuilder.of(newConfig).addChanges(ConfigurationProvider.getConfiguration()).build();
+        assertTrue(delta.isRemoved("frozen.added"));
+
+        FrozenConfiguration refrozen = FrozenConfiguration.of(ConfigurationProvider.getConfiguration(), config);
+        assertEquals(config.getProperties().size(), refrozen.getProperties().size());
+        assertNull(refrozen.get("frozen.added"));
+    }
+
     @Test
     public void testGetEvents() throws Exception {
         Configuration config = ConfigurationProvider.getConfiguration();
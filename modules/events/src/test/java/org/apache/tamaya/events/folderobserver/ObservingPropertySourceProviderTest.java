@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.folderobserver;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ChangeType;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.PropertySourceChange;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ObservingPropertySourceProvider} and {@link FileChangeListener}.
+ */
+public class ObservingPropertySourceProviderTest {
+
+    private final List<PropertySourceChange> changes = new CopyOnWriteArrayList<>();
+    private final ConfigEventListener listener = new ConfigEventListener() {
+        @Override
+        public void onConfigEvent(ConfigEvent<?> event) {
+            changes.add((PropertySourceChange) event);
+        }
+    };
+    private ConfigurationContext originalContext;
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        originalContext = ConfigurationProvider.getConfigurationContext();
+        directory = Files.createTempDirectory("observedFolder");
+        write("a.properties", "folder.a=1");
+        write("sub/b.properties", "folder.b=1\nfolder.c=1");
+        write("sub/c.ini", "[folder]\nd=1");
+        ConfigEventManager.addListener(listener, PropertySourceChange.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ConfigEventManager.removeListener(listener, PropertySourceChange.class);
+        ConfigurationProvider.setConfigurationContext(originalContext);
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void testReadsAllFormatsRecursively() {
+        ObservingPropertySourceProvider provider = new ObservingPropertySourceProvider(directory);
+        Collection<PropertySource> propertySources = provider.getPropertySources();
+        assertEquals(3, propertySources.size());
+        assertEquals("1", get(provider, "folder.a"));
+        assertEquals("1", get(provider, "folder.c"));
+        assertEquals("1", get(provider, "folder.d"));
+    }
+
+    @Test
+    public void testReloadsOnlyChangedFiles() throws IOException {
+        ObservingPropertySourceProvider provider = new ObservingPropertySourceProvider(directory);
+        PropertySource unchanged = find(provider, "folder.a");
+        Path changedFile = write("sub/b.properties", "folder.b=1\nfolder.c=2");
+        provider.filesChanged(Collections.singleton(changedFile));
+        assertEquals(1, changes.size());
+        PropertySourceChange change = changes.get(0);
+        assertEquals(ChangeType.UPDATED, change.getChangeType());
+        assertEquals(1, change.getChanges().size());
+        assertTrue(change.isUpdated("folder.c"));
+        assertEquals("2", get(provider, "folder.c"));
+        assertSame(unchanged, find(provider, "folder.a"));
+
+        changes.clear();
+        provider.filesChanged(Collections.singleton(write("new.properties", "folder.e=1")));
+        assertEquals(1, changes.size());
+        assertEquals(ChangeType.NEW, changes.get(0).getChangeType());
+        assertEquals(4, provider.getPropertySources().size());
+
+        changes.clear();
+        Path subDirectory = directory.resolve("sub");
+        FileUtils.deleteDirectory(subDirectory.toFile());
+        provider.filesChanged(Collections.singleton(subDirectory));
+        assertEquals(2, changes.size());
+        for (PropertySourceChange deleted : changes) {
+            assertEquals(ChangeType.DELETED, deleted.getChangeType());
+        }
+        assertEquals(2, provider.getPropertySources().size());
+        assertNull(get(provider, "folder.c"));
+
+        changes.clear();
+        provider.filesChanged(Collections.singleton(write("a.properties", "folder.a=1")));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testDebouncesFileEvents() throws Exception {
+        final Set<Path> changedFiles = new CopyOnWriteArraySet<>();
+        final List<Collection<Path>> calls = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        FileChangeListener fileChangeListener = new FileChangeListener(directory, new FileChangeObserver() {
+            @Override
+            public void directoryChanged(Path path) {
+                fail("No events should be lost.");
+            }
+
+            @Override
+            public void filesChanged(Collection<Path> files) {
+                calls.add(files);
+                changedFiles.addAll(files);
+                if (changedFiles.size() >= 3) {
+                    latch.countDown();
+                }
+            }
+        }, 500L);
+        Thread thread = new Thread(fileChangeListener);
+        thread.start();
+        try {
+            write("a.properties", "folder.a=2");
+            write("sub/b.properties", "folder.b=2");
+            write("sub/new/d.properties", "folder.f=1");
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertTrue(changedFiles.contains(directory.resolve("a.properties")));
+            assertTrue(changedFiles.contains(directory.resolve("sub/b.properties")));
+            assertTrue(changedFiles.contains(directory.resolve("sub/new/d.properties")));
+            assertEquals(1, calls.size());
+        } finally {
+            fileChangeListener.stopListener();
+            thread.join(5000L);
+        }
+        assertFalse(thread.isAlive());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        File file = directory.resolve(name).toFile();
+        FileUtils.writeStringToFile(file, content, "UTF-8");
+        return file.toPath();
+    }
+
+    private static PropertySource find(ObservingPropertySourceProvider provider, String key) {
+        for (PropertySource ps : provider.getPropertySources()) {
+            if (ps.get(key) != null) {
+                return ps;
+            }
+        }
+        return null;
+    }
+
+    private static String get(ObservingPropertySourceProvider provider, String key) {
+        PropertySource ps = find(provider, key);
+        return ps == null ? null : ps.get(key);
+    }
+}
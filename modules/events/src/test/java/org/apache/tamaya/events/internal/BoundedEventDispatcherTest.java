@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.events.SimpleEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedEventDispatcher}.
+ */
+public class BoundedEventDispatcherTest {
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void testEventsAreDeliveredInOrder() {
+        BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(10,
+                BoundedEventDispatcher.OverflowPolicy.DROP_OLDEST, executor);
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(listener, new SimpleEvent("event" + i));
+        }
+        // a single delivery task per listener.
+        assertEquals(1, executor.tasks.size());
+        assertEquals(5, dispatcher.getStatistics(listener).getQueueDepth());
+        executor.runAll();
+        assertEquals(5, listener.events.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("event" + i, listener.events.get(i).getResource());
+        }
+        BoundedEventDispatcher.QueueStatistics statistics = dispatcher.getStatistics(listener);
+        assertEquals(0, statistics.getQueueDepth());
+        assertEquals(5, statistics.getMaxQueueDepth());
+        assertEquals(5L, statistics.getDeliveredCount());
+        assertTrue(statistics.getMaxLatencyNanos() >= statistics.getAverageLatencyNanos());
+    }
+
+    @Test
+    public void testOverflowPolicies() {
+        BoundedEventDispatcher dropOldest = new BoundedEventDispatcher(2,
+                BoundedEventDispatcher.OverflowPolicy.DROP_OLDEST, executor);
+        for (int i = 0; i < 4; i++) {
+            dropOldest.dispatch(listener, new SimpleEvent("event" + i));
+        }
+        executor.runAll();
+        assertEquals(2, listener.events.size());
+        assertEquals("event2", listener.events.get(0).getResource());
+        assertEquals(2L, dropOldest.getStatistics(listener).getDroppedCount());
+        listener.events.clear();
+
+        BoundedEventDispatcher dropNewest = new BoundedEventDispatcher(2,
+                BoundedEventDispatcher.OverflowPolicy.DROP_NEWEST, executor);
+        for (int i = 0; i < 4; i++) {
+            dropNewest.dispatch(listener, new SimpleEvent("event" + i));
+        }
+        executor.runAll();
+        assertEquals(2, listener.events.size());
+        assertEquals("event0", listener.events.get(0).getResource());
+
+        BoundedEventDispatcher fail = new BoundedEventDispatcher(1,
+                BoundedEventDispatcher.OverflowPolicy.FAIL, executor);
+        fail.dispatch(listener, new SimpleEvent("event0"));
+        try {
+            fail.dispatch(listener, new SimpleEvent("event1"));
+            fail("ConfigException expected.");
+        } catch (ConfigException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testChangesAreCoalesced() {
+        BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(10,
+                BoundedEventDispatcher.OverflowPolicy.DROP_OLDEST, executor);
+        FrozenConfiguration config = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+        dispatcher.dispatch(listener, ConfigurationChangeBuilder.of(config).addChange("dispatcher.a", "1").build());
+        dispatcher.dispatch(listener, ConfigurationChangeBuilder.of(config).addChange("dispatcher.a", "2")
+                .addChange("dispatcher.b", "1").setVersion("last").build());
+        dispatcher.dispatch(listener, new SimpleEvent("event"));
+        dispatcher.dispatch(listener, ConfigurationChangeBuilder.of(config).addChange("dispatcher.c", "1").build());
+        executor.runAll();
+        assertEquals(3, listener.events.size());
+        ConfigurationChange merged = (ConfigurationChange) listener.events.get(0);
+        assertEquals("last", merged.getVersion());
+        assertEquals(2, merged.getChanges().size());
+        assertTrue(merged.isAdded("dispatcher.a"));
+        assertTrue(merged.isAdded("dispatcher.b"));
+        assertEquals("event", listener.events.get(1).getResource());
+        assertTrue(((ConfigurationChange) listener.events.get(2)).isAdded("dispatcher.c"));
+        assertEquals(1L, dispatcher.getStatistics(listener).getCoalescedCount());
+    }
+
+    @Test
+    public void testBusyListenerDoesNotStarveOthers() {
+        BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(1000,
+                BoundedEventDispatcher.OverflowPolicy.FAIL, executor);
+        RecordingListener busyListener = new RecordingListener();
+        int eventCount = BoundedEventDispatcher.MAX_EVENTS_PER_RUN * 3;
+        for (int i = 0; i < eventCount; i++) {
+            dispatcher.dispatch(busyListener, new SimpleEvent("event" + i));
+        }
+        dispatcher.dispatch(listener, new SimpleEvent("other"));
+        assertEquals(2, executor.tasks.size());
+        executor.tasks.remove(0).run();
+        assertEquals(BoundedEventDispatcher.MAX_EVENTS_PER_RUN, busyListener.events.size());
+        // the busy listener's task is resubmitted behind the other listener's task.
+        assertEquals(2, executor.tasks.size());
+        executor.tasks.remove(0).run();
+        assertEquals(1, listener.events.size());
+        executor.runAll();
+        assertEquals(eventCount, busyListener.events.size());
+        for (int i = 0; i < eventCount; i++) {
+            assertEquals("event" + i, busyListener.events.get(i).getResource());
+        }
+    }
+
+    @Test
+    public void testOrderingWithThreadPool() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            BoundedEventDispatcher dispatcher = new BoundedEventDispatcher(1000,
+                    BoundedEventDispatcher.OverflowPolicy.FAIL, pool);
+            final CountDownLatch done = new CountDownLatch(1);
+            final List<Object> received = new ArrayList<>();
+            ConfigEventListener countingListener = new ConfigEventListener() {
+                @Override
+                public void onConfigEvent(ConfigEvent<?> event) {
+                    synchronized (received) {
+                        received.add(event.getResource());
+                        if (received.size() == 500) {
+                            done.countDown();
+                        }
+                    }
+                }
+            };
+            for (int i = 0; i < 500; i++) {
+                dispatcher.dispatch(countingListener, new SimpleEvent(String.valueOf(i)));
+                dispatcher.dispatch(listener, new SimpleEvent(String.valueOf(i)));
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            synchronized (received) {
+                for (int i = 0; i < 500; i++) {
+                    assertEquals(String.valueOf(i), received.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    private static final class RecordingListener implements ConfigEventListener {
+        private final List<ConfigEvent<?>> events = new ArrayList<>();
+
+        @Override
+        public synchronized void onConfigEvent(ConfigEvent<?> event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.junit.After;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ChangeBatcher}.
+ */
+public class ChangeBatcherTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final FrozenConfiguration config = FrozenConfiguration.of(ConfigurationProvider.getConfiguration());
+    private final RecordingDelivery delivery = new RecordingDelivery();
+    private final ConfigEventListener listener = new ConfigEventListener() {
+        @Override
+        public void onConfigEvent(ConfigEvent<?> event) {
+        }
+    };
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private ConfigurationChange change(String key, String value) {
+        return ConfigurationChangeBuilder.of(config).addChange(key, value).build();
+    }
+
+    @Test
+    public void testChangesWithinWindowAreMerged() throws InterruptedException {
+        ChangeBatcher batcher = new ChangeBatcher(100L, 1000, 10000L, scheduler, delivery);
+        for (int i = 0; i < 500; i++) {
+            batcher.add(listener, change("batcher.key" + i, "value" + i));
+        }
+        batcher.add(listener, change("batcher.key0", "changed"));
+        ConfigurationChange merged = delivery.await(1);
+        assertEquals(500, merged.getChanges().size());
+        assertTrue(merged.isAdded("batcher.key0"));
+        assertEquals(501L, batcher.getChangeCount());
+        assertEquals(1L, batcher.getBatchCount());
+        for (PropertyChangeEvent change : merged.getChanges()) {
+            if (change.getPropertyName().equals("batcher.key0")) {
+                assertEquals("changed", change.getNewValue());
+            }
+        }
+    }
+
+    @Test
+    public void testSingleChangeIsDeliveredAsIs() {
+        ChangeBatcher batcher = new ChangeBatcher(10000L, 1000, 100000L, scheduler, delivery);
+        ConfigurationChange change = change("batcher.key", "value");
+        batcher.add(listener, change);
+        batcher.flush();
+        assertSame(change, delivery.changes.get(0));
+        batcher.add(listener, change("batcher.key", "value"));
+        ConfigurationChange last = ConfigurationChangeBuilder.of(config).addChange("batcher.other", "value")
+                .setVersion("last").build();
+        batcher.add(listener, last);
+        batcher.flush();
+        ConfigurationChange merged = delivery.changes.get(1);
+        assertEquals(2, merged.getChanges().size());
+        assertEquals("last", merged.getVersion());
+        assertEquals(last.getTimestamp(), merged.getTimestamp());
+    }
+
+    @Test
+    public void testMaxBatchSize() throws InterruptedException {
+        ChangeBatcher batcher = new ChangeBatcher(10000L, 10, 100000L, scheduler, delivery);
+        for (int i = 0; i < 25; i++) {
+            batcher.add(listener, change("batcher.key" + i, "value"));
+        }
+        delivery.await(2);
+        assertEquals(10, delivery.changes.get(0).getChanges().size());
+        assertEquals(10, delivery.changes.get(1).getChanges().size());
+        assertTrue(delivery.changes.get(0).isAdded("batcher.key0"));
+        assertTrue(delivery.changes.get(1).isAdded("batcher.key10"));
+        // the remaining changes are pending until flushed.
+        batcher.flush();
+        assertEquals(3, delivery.changes.size());
+        assertEquals(5, delivery.changes.get(2).getChanges().size());
+    }
+
+    @Test
+    public void testMaxLatency() throws InterruptedException {
+        ChangeBatcher batcher = new ChangeBatcher(200L, 1000, 300L, scheduler, delivery);
+        long start = System.nanoTime();
+        // changes keep arriving within the window, so only the maximal latency ends the batch.
+        for (int i = 0; i < 100 && delivery.size() == 0; i++) {
+            batcher.add(listener, change("batcher.key" + i, "value"));
+            Thread.sleep(20L);
+        }
+        delivery.await(1);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000L);
+    }
+
+    @Test
+    public void testEmptyAndRemovedBatchesAreNotDelivered() throws InterruptedException {
+        ChangeBatcher batcher = new ChangeBatcher(10000L, 1000, 100000L, scheduler, delivery);
+        batcher.add(listener, change("batcher.key", "value"));
+        batcher.add(listener, ConfigurationChangeBuilder.of(config).removeKey("batcher.key").build());
+        batcher.flush();
+        batcher.add(listener, change("batcher.key", "value"));
+        batcher.remove(listener);
+        batcher.flush();
+        assertTrue(delivery.changes.isEmpty());
+        assertEquals(0L, batcher.getBatchCount());
+    }
+
+    private static final class RecordingDelivery implements ChangeBatcher.Delivery {
+        private final List<ConfigurationChange> changes = new ArrayList<>();
+
+        @Override
+        public synchronized void deliver(ConfigEventListener listener, ConfigurationChange change) {
+            changes.add(change);
+            notifyAll();
+        }
+
+        synchronized int size() {
+            return changes.size();
+        }
+
+        synchronized ConfigurationChange await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (changes.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100L);
+            }
+            assertTrue("Expected " + count + " deliveries, but got " + changes.size(), changes.size() >= count);
+            return changes.get(count - 1);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.spi.ObservablePropertySource;
+import org.apache.tamaya.events.spi.PropertySourceChangeListener;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.ConfigurationContextBuilder;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertyFilter;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.PropertyValueCombinationPolicy;
+import org.apache.tamaya.spi.VersionedConfigurationContext;
+import org.apache.tamaya.spi.VersionedPropertySource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfigChangeObserver}.
+ */
+public class DefaultConfigChangeObserverTest {
+
+    private final TestPropertySource polled = new TestPropertySource("polled", 100);
+    private final TestVersionedPropertySource versioned = new TestVersionedPropertySource("versioned", 200);
+    private final TestObservablePropertySource observable = new TestObservablePropertySource("observable", 300);
+    private final List<ConfigurationChange> changes = new CopyOnWriteArrayList<>();
+    private final ConfigEventListener listener = new ConfigEventListener() {
+        @Override
+        public void onConfigEvent(ConfigEvent<?> event) {
+            changes.add((ConfigurationChange) event);
+        }
+    };
+    private ConfigurationContext originalContext;
+    private DefaultConfigChangeObserver observer;
+
+    @Before
+    public void setUp() {
+        polled.properties.put("polled.a", "1");
+        versioned.properties.put("versioned.a", "1");
+        observable.properties.put("observable.a", "1");
+        originalContext = ConfigurationProvider.getConfigurationContext();
+        ConfigurationProvider.setConfigurationContext(new DefaultConfigurationContextBuilder()
+                .addPropertySources(polled, versioned, observable).build());
+        ConfigEventManager.addListener(listener, ConfigurationChange.class);
+        observer = new DefaultConfigChangeObserver();
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isAdded("observable.a"));
+        changes.clear();
+    }
+
+    @After
+    public void tearDown() {
+        observer.enableMonitoring(false);
+        ConfigEventManager.removeListener(listener, ConfigurationChange.class);
+        ConfigurationProvider.setConfigurationContext(originalContext);
+    }
+
+    @Test
+    public void testSignalledChangesArePublished() {
+        observable.put("observable.a", "2");
+        observable.put("observable.b", "3");
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+        ConfigurationChange change = changes.get(0);
+        assertEquals(2, change.getChanges().size());
+        assertTrue(change.isUpdated("observable.a"));
+        assertTrue(change.isAdded("observable.b"));
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void testSignalsTriggerImmediateChecks() throws InterruptedException {
+        final CountDownLatch published = new CountDownLatch(1);
+        ConfigEventListener latchListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                published.countDown();
+            }
+        };
+        ConfigEventManager.addListener(latchListener, ConfigurationChange.class);
+        try {
+            observer.enableMonitoring(true);
+            observable.put("observable.a", "2");
+            assertTrue(published.await(2, TimeUnit.SECONDS));
+            assertTrue(changes.get(0).isUpdated("observable.a"));
+        } finally {
+            ConfigEventManager.removeListener(latchListener, ConfigurationChange.class);
+        }
+    }
+
+    @Test
+    public void testUnchangedVersionsAreNotCompared() {
+        int reads = versioned.reads;
+        observer.checkConfigurationUpdate();
+        assertEquals(reads, versioned.reads);
+        versioned.properties.remove("versioned.a");
+        versioned.version++;
+        observer.checkConfigurationUpdate();
+        assertTrue(versioned.reads > reads);
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isRemoved("versioned.a"));
+    }
+
+    @Test
+    public void testPollIntervalBacksOff() throws InterruptedException {
+        observer.setCheckPeriod(10L);
+        assertEquals(10L, observer.getPollInterval(polled));
+        assertEquals(-1L, observer.getPollInterval(versioned));
+        long expected = 10L;
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(expected + 5L);
+            observer.checkConfigurationUpdate();
+            expected = Math.min(expected * 2, 10L * DefaultConfigChangeObserver.MAX_BACKOFF_FACTOR);
+            assertEquals(expected, observer.getPollInterval(polled));
+        }
+        polled.properties.put("polled.a", "2");
+        Thread.sleep(expected + 5L);
+        observer.checkConfigurationUpdate();
+        assertEquals(10L, observer.getPollInterval(polled));
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isUpdated("polled.a"));
+    }
+
+    @Test
+    public void testChangesArePublishedInSnapshotMode() {
+        String oldEnabled = System.getProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY);
+        System.setProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY, "true");
+        try {
+            ConfigurationProvider.setConfigurationContext(new DefaultConfigurationContextBuilder()
+                    .addPropertySources(polled, versioned, observable).build());
+            assertTrue(((DefaultConfiguration) ConfigurationProvider.getConfiguration()).isSnapshotEnabled());
+            observer.checkConfigurationUpdate();
+            changes.clear();
+            versioned.properties.put("versioned.a", "2");
+            versioned.version++;
+            observer.checkConfigurationUpdate();
+            assertEquals(1, changes.size());
+            assertTrue(changes.get(0).isUpdated("versioned.a"));
+            assertEquals("2", ConfigurationProvider.getConfiguration().get("versioned.a"));
+            observer.checkConfigurationUpdate();
+            assertEquals(1, changes.size());
+        } finally {
+            if (oldEnabled == null) {
+                System.clearProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY);
+            } else {
+                System.setProperty(DefaultConfiguration.SNAPSHOT_ENABLED_PROPERTY, oldEnabled);
+            }
+        }
+    }
+
+    @Test
+    public void testChangesAreFoundAgainIfPublishingFailed() {
+        ConfigEventListener failing = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                throw new IllegalStateException("test");
+            }
+        };
+        ConfigEventManager.addListener(failing, ConfigurationChange.class);
+        try {
+            observable.put("observable.a", "2");
+            try {
+                observer.checkConfigurationUpdate();
+                fail("Listener exception expected.");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        } finally {
+            ConfigEventManager.removeListener(failing, ConfigurationChange.class);
+        }
+        changes.clear();
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isUpdated("observable.a"));
+    }
+
+    @Test
+    public void testEqualReplacementsAreDetected() {
+        ConfigurationContext context = ConfigurationProvider.getConfigurationContext();
+        TestObservablePropertySource replacement = new EqualByNameObservablePropertySource("observable", 300);
+        replacement.properties.putAll(observable.properties);
+        assertTrue(replacement.equals(observable));
+        ((VersionedConfigurationContext) context).replacePropertySources(Collections.singletonList(observable),
+                Collections.<PropertySource>singletonList(replacement));
+        observer.checkConfigurationUpdate();
+        changes.clear();
+        replacement.put("observable.a", "2");
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+        assertTrue(changes.get(0).isUpdated("observable.a"));
+    }
+
+    @Test
+    public void testDependentKeysArePublished() {
+        polled.properties.put("polled.ref", "${observable.a}");
+        ConfigurationProvider.setConfigurationContext(new ReferenceResolvingContext(
+                ConfigurationProvider.getConfigurationContext()));
+        observer.checkConfigurationUpdate();
+        changes.clear();
+        observable.put("observable.a", "2");
+        observer.checkConfigurationUpdate();
+        assertEquals(1, changes.size());
+        ConfigurationChange change = changes.get(0);
+        assertTrue(change.isUpdated("observable.a"));
+        assertTrue(change.isUpdated("polled.ref"));
+        assertEquals("2", ConfigurationProvider.getConfiguration().get("polled.ref"));
+    }
+
+    private static class TestPropertySource implements PropertySource {
+        final Map<String, String> properties = new ConcurrentHashMap<>();
+        private final String name;
+        private final int ordinal;
+        volatile int reads;
+
+        TestPropertySource(String name, int ordinal) {
+            this.name = name;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            reads++;
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return true;
+        }
+    }
+
+    private static final class TestVersionedPropertySource extends TestPropertySource
+            implements VersionedPropertySource {
+        volatile long version;
+
+        TestVersionedPropertySource(String name, int ordinal) {
+            super(name, ordinal);
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private static class TestObservablePropertySource extends TestPropertySource
+            implements ObservablePropertySource {
+        private final List<PropertySourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+        TestObservablePropertySource(String name, int ordinal) {
+            super(name, ordinal);
+        }
+
+        void put(String key, String value) {
+            properties.put(key, value);
+            for (PropertySourceChangeListener l : listeners) {
+                l.propertySourceChanged(this);
+            }
+        }
+
+        @Override
+        public void addChangeListener(PropertySourceChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeChangeListener(PropertySourceChangeListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Observable property source equal to any other instance with the same name, as done e.g. by
+     * {@link org.apache.tamaya.events.FrozenPropertySource} for its content.
+     */
+    private static final class EqualByNameObservablePropertySource extends TestObservablePropertySource {
+
+        EqualByNameObservablePropertySource(String name, int ordinal) {
+            super(name, ordinal);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PropertySource && getName().equals(((PropertySource) o).getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return getName().hashCode();
+        }
+    }
+
+    /**
+     * Context resolving values of the form {@code ${key}} to the value of the referenced key, so the filtered
+     * value depends on another key.
+     */
+    private static final class ReferenceResolvingContext implements ConfigurationContext {
+        private final ConfigurationContext delegate;
+        private final List<PropertyFilter> filters = Collections.<PropertyFilter>singletonList(new PropertyFilter() {
+            @Override
+            public String filterProperty(String key, String valueToBeFiltered) {
+                if (valueToBeFiltered != null && valueToBeFiltered.startsWith("${")
+                        && valueToBeFiltered.endsWith("}")) {
+                    return ConfigurationProvider.getConfiguration().get(
+                            valueToBeFiltered.substring(2, valueToBeFiltered.length() - 1));
+                }
+                return valueToBeFiltered;
+            }
+        });
+
+        ReferenceResolvingContext(ConfigurationContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void addPropertySources(PropertySource... propertySourcesToAdd) {
+            delegate.addPropertySources(propertySourcesToAdd);
+        }
+
+        @Override
+        public List<PropertySource> getPropertySources() {
+            return delegate.getPropertySources();
+        }
+
+        @Override
+        public <T> void addPropertyConverter(TypeLiteral<T> typeToConvert, PropertyConverter<T> propertyConverter) {
+            delegate.addPropertyConverter(typeToConvert, propertyConverter);
+        }
+
+        @Override
+        public Map<TypeLiteral<?>, List<PropertyConverter<?>>> getPropertyConverters() {
+            return delegate.getPropertyConverters();
+        }
+
+        @Override
+        public <T> List<PropertyConverter<T>> getPropertyConverters(TypeLiteral<T> type) {
+            return delegate.getPropertyConverters(type);
+        }
+
+        @Override
+        public List<PropertyFilter> getPropertyFilters() {
+            return filters;
+        }
+
+        @Override
+        public PropertyValueCombinationPolicy getPropertyValueCombinationPolicy() {
+            return delegate.getPropertyValueCombinationPolicy();
+        }
+
+        @Override
+        public ConfigurationContextBuilder toBuilder() {
+            return delegate.toBuilder();
+        }
+    }
+}
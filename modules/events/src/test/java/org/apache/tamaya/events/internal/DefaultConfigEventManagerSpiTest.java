@@ -21,9 +21,14 @@ package org.apache.tamaya.events.internal;
 import org.apache.tamaya.events.ConfigEvent;
 import org.apache.tamaya.events.ConfigEventListener;
 import org.apache.tamaya.events.SimpleEvent;
+import org.apache.tamaya.events.spi.BaseConfigEvent;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 /**
  * Tests for {@link DefaultConfigEventManagerSpi}.
@@ -63,4 +68,79 @@ public class DefaultConfigEventManagerSpiTest {
         spi.removeListener(testListener);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSuperTypeListeners() throws Exception {
+        final List<String> calls = new ArrayList<>();
+        ConfigEventListener exactListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                calls.add("exact");
+            }
+        };
+        ConfigEventListener superListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                calls.add("super");
+            }
+        };
+        ConfigEventListener globalListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                calls.add("global");
+            }
+        };
+        int loadedListeners = spi.getDispatchListeners(SimpleEvent.class).size();
+        spi.addListener(globalListener);
+        spi.addListener(superListener, BaseConfigEvent.class);
+        spi.addListener(exactListener, SimpleEvent.class);
+        // registered for several matching types, but called only once.
+        spi.addListener(exactListener, BaseConfigEvent.class);
+        spi.fireEvent(new SimpleEvent("Event1"));
+        assertEquals(3, calls.size());
+        assertEquals("exact", calls.get(0));
+        assertEquals("super", calls.get(1));
+        assertEquals("global", calls.get(2));
+        assertEquals(loadedListeners + 3, spi.getDispatchListeners(SimpleEvent.class).size());
+        // only the listeners registered for exactly the type given.
+        assertEquals(Collections.singletonList(exactListener), spi.getListeners(SimpleEvent.class));
+        assertEquals(2, spi.getListeners(BaseConfigEvent.class).size());
+        assertTrue(spi.getListeners().contains(superListener));
+
+        spi.removeListener(superListener, BaseConfigEvent.class);
+        calls.clear();
+        spi.fireEvent(new SimpleEvent("Event2"));
+        assertEquals(2, calls.size());
+        assertFalse(calls.contains("super"));
+        spi.removeListener(exactListener, SimpleEvent.class);
+        spi.removeListener(exactListener, BaseConfigEvent.class);
+        spi.removeListener(globalListener);
+    }
+
+    @Test
+    public void testRegistrationWhileFiring() throws Exception {
+        final List<String> calls = new ArrayList<>();
+        final ConfigEventListener addedListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                calls.add("added");
+            }
+        };
+        ConfigEventListener registeringListener = new ConfigEventListener() {
+            @Override
+            public void onConfigEvent(ConfigEvent<?> event) {
+                calls.add("registering");
+                spi.addListener(addedListener, SimpleEvent.class);
+            }
+        };
+        spi.addListener(registeringListener, SimpleEvent.class);
+        // listeners added while firing are called for subsequent events only.
+        spi.fireEvent(new SimpleEvent("Event1"));
+        assertEquals(1, calls.size());
+        spi.fireEvent(new SimpleEvent("Event2"));
+        assertEquals(3, calls.size());
+        assertEquals("added", calls.get(2));
+        spi.removeListener(registeringListener, SimpleEvent.class);
+        spi.removeListener(addedListener, SimpleEvent.class);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.events.internal;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.events.ChangeType;
+import org.apache.tamaya.events.ConfigurationContextChangeBuilder;
+import org.apache.tamaya.events.PropertySourceChangeBuilder;
+import org.apache.tamaya.spi.ConfigurationContext;
+import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedConfigurationContext;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfigurationContextChangeListener}.
+ */
+public class DefaultConfigurationContextChangeListenerTest {
+
+    private static PropertySource create(String value) {
+        Map<String, String> values = new HashMap<>();
+        values.put("contextChangeListener.key", value);
+        return new SimplePropertySource("contextChangeListener", values);
+    }
+
+    @Test
+    public void testPropertySourcesAreReplacedInPlace() {
+        DefaultConfigurationContextChangeListener listener = new DefaultConfigurationContextChangeListener();
+        ConfigurationContext context = ConfigurationProvider.getConfigurationContext();
+        int sourceCount = context.getPropertySources().size();
+        PropertySource added = create("added");
+        PropertySource updated = create("updated");
+        try {
+            listener.onConfigEvent(ConfigurationContextChangeBuilder.of(context).newPropertySource(added).build());
+            assertSame(context, ConfigurationProvider.getConfigurationContext());
+            assertEquals(sourceCount + 1, context.getPropertySources().size());
+            assertEquals("added", ConfigurationProvider.getConfiguration().get("contextChangeListener.key"));
+
+            listener.onConfigEvent(ConfigurationContextChangeBuilder.of(context).changedPropertySource(
+                    PropertySourceChangeBuilder.of(updated, ChangeType.UPDATED).build()).build());
+            assertEquals(sourceCount + 1, context.getPropertySources().size());
+            assertEquals("updated", ConfigurationProvider.getConfiguration().get("contextChangeListener.key"));
+
+            listener.onConfigEvent(ConfigurationContextChangeBuilder.of(context).removedPropertySource(updated)
+                    .build());
+            assertEquals(sourceCount, context.getPropertySources().size());
+            assertNull(ConfigurationProvider.getConfiguration().get("contextChangeListener.key"));
+        } finally {
+            ((VersionedConfigurationContext) context).replacePropertySources(
+                    Collections.singletonList(added), Collections.<PropertySource>emptyList());
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.tamaya.format;
 
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,9 +29,10 @@ import java.util.logging.Logger;
 
 /**
  * Flattened default PropertySource that uses the flattened config data read from an URL by a
- * ${@link org.apache.tamaya.format.ConfigurationFormat}.
+ * ${@link org.apache.tamaya.format.ConfigurationFormat}. The data is flattened once on creation, so the
+ * version of this property source never changes.
  */
-public class FlattenedDefaultPropertySource implements PropertySource {
+public class FlattenedDefaultPropertySource implements VersionedPropertySource {
     private static final Logger LOG = Logger.getLogger(FlattenedDefaultPropertySource.class.getName());
     private final Map<String, String> properties;
     private final ConfigurationData data;
@@ -110,6 +112,11 @@ public class FlattenedDefaultPropertySource implements PropertySource {
         return properties;
     }
 
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     @Override
     public boolean isScannable() {
         return true;
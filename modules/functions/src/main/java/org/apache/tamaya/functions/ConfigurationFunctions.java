@@ -80,6 +80,26 @@ public final class ConfigurationFunctions {
             return defaultValue;
         }
 
+        @Override
+        public int getInt(String key, int defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public long getLong(String key, long defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public double getDouble(String key, double defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defaultValue) {
+            return defaultValue;
+        }
+
         @Override
         public Map<String, String> getProperties() {
             return Collections.emptyMap();
@@ -88,6 +88,26 @@ class FilteredConfiguration implements Configuration {
         return val;
     }
 
+    @Override
+    public int getInt(String key, int defaultValue) {
+        return getOrDefault(key, Integer.class, defaultValue);
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        return getOrDefault(key, Long.class, defaultValue);
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        return getOrDefault(key, Double.class, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getOrDefault(key, Boolean.class, defaultValue);
+    }
+
     @Override
     public Map<String, String> getProperties() {
         Map<String, String> result = new HashMap<>();
@@ -36,7 +36,8 @@ public enum LoadPolicy {
      */
     LAZY,
     /**
-     * The configuration value is evaluated evertime it is accessed.
+     * The configuration value is evaluated evertime it is accessed. If configuration changes are published, e.g. by
+     * the change monitoring of tamaya-events, the value is only evaluated again after one of its keys has changed.
      */
     ALWAYS
 }
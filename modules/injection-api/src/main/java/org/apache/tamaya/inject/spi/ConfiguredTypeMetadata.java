@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.spi;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Metadata of a configured type, generated at build time by the {@code tamaya-injection-processor} annotation
+ * processor. When present, the injector uses the members listed instead of scanning all declared fields and
+ * methods of the type. Implementations are named as the type's binary name followed by {@link #CLASS_SUFFIX}
+ * and reside in the same package.
+ */
+public interface ConfiguredTypeMetadata {
+
+    /**
+     * The suffix appended to the binary name of the configured type for naming its metadata class.
+     */
+    String CLASS_SUFFIX = "$$ConfigMetadata";
+
+    /**
+     * Get the type described.
+     * @return the configured type, never null.
+     */
+    Class<?> getType();
+
+    /**
+     * Get the fields to be configured, i.e. the non final fields annotated with
+     * {@link org.apache.tamaya.inject.api.Config}, or all non final fields not annotated with
+     * {@link org.apache.tamaya.inject.api.NoConfig}, if auto injection is enabled for the type.
+     * @return the configured fields, never null.
+     * @throws NoSuchFieldException if the type has changed since the metadata has been generated.
+     */
+    List<Field> getConfiguredFields() throws NoSuchFieldException;
+
+    /**
+     * Get the setter methods to be configured, i.e. the single argument methods returning void and annotated
+     * with {@link org.apache.tamaya.inject.api.Config}.
+     * @return the configured methods, never null.
+     * @throws NoSuchMethodException if the type has changed since the metadata has been generated.
+     */
+    List<Method> getConfiguredMethods() throws NoSuchMethodException;
+}
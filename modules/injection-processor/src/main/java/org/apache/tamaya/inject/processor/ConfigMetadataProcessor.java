@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor generating an implementation of {@code org.apache.tamaya.inject.spi.ConfiguredTypeMetadata}
+ * for each class declaring fields or methods annotated with {@code Config} or {@code NoConfig}. The members are
+ * selected as done by the injector at runtime, so the injector only looks up the members listed instead of
+ * scanning the type. Types not accessible from their package, e.g. private nested classes, are skipped and
+ * scanned at runtime as before.
+ */
+@SupportedAnnotationTypes({ConfigMetadataProcessor.CONFIG, ConfigMetadataProcessor.NO_CONFIG})
+public final class ConfigMetadataProcessor extends AbstractProcessor {
+
+    static final String CONFIG = "org.apache.tamaya.inject.api.Config";
+    static final String NO_CONFIG = "org.apache.tamaya.inject.api.NoConfig";
+    private static final String DEFAULT_SECTIONS = "org.apache.tamaya.inject.api.ConfigDefaultSections";
+    private static final String AUTO_INJECT = "org.apache.tamaya.inject.api.ConfigAutoInject";
+    /** Must match {@code ConfiguredTypeMetadata.CLASS_SUFFIX}. */
+    private static final String CLASS_SUFFIX = "$$ConfigMetadata";
+    private static final String METADATA_INTERFACE = "org.apache.tamaya.inject.spi.ConfiguredTypeMetadata";
+
+    /** The types processed in previous rounds. */
+    private final Set<String> processedTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if ((element.getKind() == ElementKind.FIELD || element.getKind() == ElementKind.METHOD)
+                        && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement type : types) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (!processedTypes.add(binaryName)) {
+                continue;
+            }
+            if (!isAccessible(type)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "Configured type not accessible from its package, scanned at runtime: " + binaryName, type);
+                continue;
+            }
+            try {
+                writeMetadata(type, binaryName);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write configuration metadata: " + e, type);
+            }
+        }
+        // other processors may handle the annotations as well.
+        return false;
+    }
+
+    /**
+     * Checks if the class literal of the given type can be used within its package.
+     * @param type the type, not null.
+     * @return true, if neither the type nor one of its enclosing types is private or local.
+     */
+    private static boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current.getKind().isClass() || current.getKind().isInterface()) {
+            NestingKind nesting = ((TypeElement) current).getNestingKind();
+            if (current.getModifiers().contains(Modifier.PRIVATE)
+                    || nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void writeMetadata(TypeElement type, String binaryName) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + CLASS_SUFFIX;
+        String typeLiteral = processingEnv.getTypeUtils().erasure(type.asType()).toString() + ".class";
+        boolean autoConfigure = hasAnnotation(type, DEFAULT_SECTIONS) && hasAnnotation(type, AUTO_INJECT);
+
+        List<String> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(field, NO_CONFIG) || field.getModifiers().contains(Modifier.FINAL)) {
+                continue;
+            }
+            if (autoConfigure || hasAnnotation(field, CONFIG)) {
+                fields.add(typeLiteral + ".getDeclaredField(\"" + field.getSimpleName() + "\")");
+            }
+        }
+        List<String> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(method, NO_CONFIG) || !hasAnnotation(method, CONFIG)
+                    || method.getParameters().size() != 1 || method.getReturnType().getKind() != TypeKind.VOID) {
+                continue;
+            }
+            String parameterType = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType())
+                    .toString();
+            methods.add(typeLiteral + ".getDeclaredMethod(\"" + method.getSimpleName() + "\", "
+                    + parameterType + ".class)");
+        }
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ';');
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Configuration metadata of {@link " + type.getQualifiedName() + "}, generated by "
+                    + getClass().getName() + '.');
+            out.println(" */");
+            out.println("public final class " + simpleName + " implements " + METADATA_INTERFACE + " {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<?> getType() {");
+            out.println("        return " + typeLiteral + ';');
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<java.lang.reflect.Field> getConfiguredFields()"
+                    + " throws NoSuchFieldException {");
+            writeList(out, "java.lang.reflect.Field", fields);
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<java.lang.reflect.Method> getConfiguredMethods()"
+                    + " throws NoSuchMethodException {");
+            writeList(out, "java.lang.reflect.Method", methods);
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private static void writeList(PrintWriter out, String elementType, List<String> elements) {
+        out.print("        return java.util.Arrays.<" + elementType + ">asList(");
+        for (int i = 0; i < elements.size(); i++) {
+            out.println(i == 0 ? "" : ",");
+            out.print("                " + elements.get(i));
+        }
+        out.println(");");
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
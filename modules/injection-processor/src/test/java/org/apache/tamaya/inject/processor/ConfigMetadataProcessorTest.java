@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.processor;
+
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.spi.ConfiguredTypeMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigMetadataProcessor}.
+ */
+public class ConfigMetadataProcessorTest {
+
+    private Path dir;
+    private URLClassLoader classLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("processor");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (classLoader != null) {
+            classLoader.close();
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void compile(String... sources) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            Path file = dir.resolve("src").resolve(sources[i]);
+            Files.createDirectories(file.getParent());
+            Files.write(file, sources[i + 1].getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            String classpath = new File(Config.class.getProtectionDomain().getCodeSource().getLocation().getPath())
+                    .getPath();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-classpath", classpath, "-d", classes.toString(), "-s", classes.toString()),
+                    null, units);
+            task.setProcessors(Collections.singletonList(new ConfigMetadataProcessor()));
+            assertTrue("Compilation failed.", task.call());
+        }
+        classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private ConfiguredTypeMetadata metadata(String type) throws Exception {
+        return (ConfiguredTypeMetadata) classLoader.loadClass(type + ConfiguredTypeMetadata.CLASS_SUFFIX)
+                .newInstance();
+    }
+
+    private static List<String> names(List<?> members) {
+        List<String> names = new ArrayList<>();
+        for (Object member : members) {
+            names.add(member instanceof Field ? ((Field) member).getName() : ((Method) member).getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testMetadataIsGenerated() throws Exception {
+        compile("sample/Bean.java", "package sample;\n"
+                + "import org.apache.tamaya.inject.api.*;\n"
+                + "public class Bean {\n"
+                + "  @Config(\"a\") private String a;\n"
+                + "  @Config(\"b\") int b;\n"
+                + "  @Config(\"c\") private final String c = null;\n"
+                + "  @NoConfig String ignored;\n"
+                + "  String plain;\n"
+                + "  @Config(\"d\") void setD(java.util.List<String> d) {}\n"
+                + "  @Config(\"e\") String getE() { return null; }\n"
+                + "  public static class Nested { @Config(\"f\") long f; }\n"
+                + "  private static class Hidden { @Config(\"g\") long g; }\n"
+                + "}\n");
+        ConfiguredTypeMetadata metadata = metadata("sample.Bean");
+        assertEquals("sample.Bean", metadata.getType().getName());
+        assertEquals(Arrays.asList("a", "b"), names(metadata.getConfiguredFields()));
+        assertEquals(Arrays.asList("setD"), names(metadata.getConfiguredMethods()));
+        assertEquals(List.class, metadata.getConfiguredMethods().get(0).getParameterTypes()[0]);
+        ConfiguredTypeMetadata nested = metadata("sample.Bean$Nested");
+        assertEquals(Arrays.asList("f"), names(nested.getConfiguredFields()));
+        assertTrue(nested.getConfiguredMethods().isEmpty());
+        try {
+            metadata("sample.Bean$Hidden");
+            fail("No metadata expected for private types.");
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAutoInjectedFields() throws Exception {
+        compile("sample/AutoBean.java", "package sample;\n"
+                + "import org.apache.tamaya.inject.api.*;\n"
+                + "@ConfigDefaultSections(\"auto\") @ConfigAutoInject\n"
+                + "public class AutoBean {\n"
+                + "  String a;\n"
+                + "  @NoConfig String ignored;\n"
+                + "  static final String CONSTANT = \"\";\n"
+                + "  @Config(\"b\") String b;\n"
+                + "}\n");
+        assertEquals(Arrays.asList("a", "b"), names(metadata("sample.AutoBean").getConfiguredFields()));
+    }
+}
@@ -18,8 +18,11 @@
  */
 package org.apache.tamaya.inject;
 
+import org.apache.tamaya.inject.internal.RefreshScheduler;
 import org.apache.tamaya.spi.ServiceContextManager;
 
+import java.util.concurrent.Executor;
+
 /**
  * Singleton accessor class for accessing {@link ConfigurationInjector} instances.
  */
@@ -39,4 +42,23 @@ public final class ConfigurationInjection {
     public static ConfigurationInjector getConfigurationInjector() {
         return ServiceContextManager.getServiceContext().getService(ConfigurationInjector.class);
     }
+
+    /**
+     * Sets the executor used for refreshing the injected {@link org.apache.tamaya.inject.api.DynamicValue}s
+     * affected by a configuration change in parallel.
+     *
+     * @param executor the executor, or null, for refreshing the values in the thread publishing the change.
+     */
+    public static void setRefreshExecutor(Executor executor) {
+        RefreshScheduler.getDefault().setExecutor(executor);
+    }
+
+    /**
+     * Get the statistics of the refreshes of the injected {@link org.apache.tamaya.inject.api.DynamicValue}s.
+     *
+     * @return the statistics, never null.
+     */
+    public static RefreshStatistics getRefreshStatistics() {
+        return RefreshScheduler.getDefault().getStatistics();
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject;
+
+/**
+ * Statistics of the refreshes of the injected {@link org.apache.tamaya.inject.api.DynamicValue}s, which are
+ * refreshed in batches on configuration changes.
+ *
+ * @see ConfigurationInjection#getRefreshStatistics()
+ */
+public final class RefreshStatistics {
+    private final int valueCount;
+    private final int keyCount;
+    private final long batchCount;
+    private final long refreshCount;
+    private final long changeCount;
+    private final long failureCount;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param valueCount the number of values registered.
+     * @param keyCount the number of keys the values registered depend on.
+     * @param batchCount the number of batches run.
+     * @param refreshCount the number of values refreshed.
+     * @param changeCount the number of values refreshed, whose listeners were informed about a change.
+     * @param failureCount the number of values failed to be refreshed.
+     * @param totalLatencyNanos the total time spent in batches.
+     * @param maxLatencyNanos the maximal time spent in a batch.
+     */
+    public RefreshStatistics(int valueCount, int keyCount, long batchCount, long refreshCount, long changeCount,
+                             long failureCount, long totalLatencyNanos, long maxLatencyNanos) {
+        this.valueCount = valueCount;
+        this.keyCount = keyCount;
+        this.batchCount = batchCount;
+        this.refreshCount = refreshCount;
+        this.changeCount = changeCount;
+        this.failureCount = failureCount;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    /**
+     * Get the number of values currently registered for being refreshed.
+     *
+     * @return the value count.
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Get the number of keys the registered values depend on.
+     *
+     * @return the key count.
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Get the number of batches run, i.e. the number of changes affecting at least one value.
+     *
+     * @return the batch count.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Get the number of values refreshed in all batches.
+     *
+     * @return the refresh count.
+     */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * Get the number of values refreshed, whose listeners were informed about a change.
+     *
+     * @return the change count.
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Get the number of values failed to be refreshed.
+     *
+     * @return the failure count.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Get the average time spent in a batch, including informing the listeners.
+     *
+     * @return the average latency in nanoseconds, or 0, if no batch was run.
+     */
+    public long getAverageLatencyNanos() {
+        return batchCount == 0 ? 0 : totalLatencyNanos / batchCount;
+    }
+
+    /**
+     * Get the maximal time spent in a batch, including informing the listeners.
+     *
+     * @return the maximal latency in nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshStatistics{" +
+                "valueCount=" + valueCount +
+                ", keyCount=" + keyCount +
+                ", batchCount=" + batchCount +
+                ", refreshCount=" + refreshCount +
+                ", changeCount=" + changeCount +
+                ", failureCount=" + failureCount +
+                ", averageLatencyNanos=" + getAverageLatencyNanos() +
+                ", maxLatencyNanos=" + maxLatencyNanos +
+                '}';
+    }
+}
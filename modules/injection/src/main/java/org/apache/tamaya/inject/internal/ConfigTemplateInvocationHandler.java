@@ -20,16 +20,18 @@ package org.apache.tamaya.inject.internal;
 
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationProvider;
-import org.apache.tamaya.TypeLiteral;
-import org.apache.tamaya.inject.api.DynamicValue;
 import org.apache.tamaya.inject.spi.ConfiguredType;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
- * Invocation handler that handles request against a configuration template.
+ * Invocation handler that handles request against a configuration template. The template methods are compiled
+ * when the handler is created, values are cached per method as long as the configuration's snapshot generation
+ * does not change, see {@link TemplateMethod}.
  */
 public final class ConfigTemplateInvocationHandler implements InvocationHandler {
 
@@ -37,23 +39,57 @@ public final class ConfigTemplateInvocationHandler implements InvocationHandler
      * The configured type.
      */
     private final ConfiguredType type;
+    /**
+     * The configuration used, or null, for using the current configuration.
+     */
+    private final Configuration configuration;
+    /**
+     * The compiled template methods, read only after construction.
+     */
+    private final Map<Method, TemplateMethod> templateMethods = new HashMap<>();
 
     /**
-     * Creates a new handler instance.
+     * Creates a new handler instance, using the current configuration.
      *
      * @param type          the target type, not null.
      */
     public ConfigTemplateInvocationHandler(Class<?> type) {
+        this(type, null);
+    }
+
+    /**
+     * Creates a new handler instance.
+     *
+     * @param type          the target type, not null.
+     * @param configuration the configuration used, or null, for using the current configuration.
+     */
+    public ConfigTemplateInvocationHandler(Class<?> type, Configuration configuration) {
         this.type = new ConfiguredTypeImpl(Objects.requireNonNull(type));
         if (!type.isInterface()) {
             throw new IllegalArgumentException("Can only proxy interfaces as configuration templates.");
         }
+        this.configuration = configuration;
+        for (Method method : type.getMethods()) {
+            if (method.getParameterTypes().length == 0 && method.getReturnType() != void.class
+                    && !isBuiltinMethod(method.getName())) {
+                templateMethods.put(method, new TemplateMethod(method));
+            }
+        }
         InjectionHelper.sendConfigurationEvent(this.type);
     }
 
+    private static boolean isBuiltinMethod(String name) {
+        return "toString".equals(name) || "hashCode".equals(name) || "get".equals(name);
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Configuration config = ConfigurationProvider.getConfiguration();
+        Configuration config = this.configuration != null ? this.configuration
+                : ConfigurationProvider.getConfiguration();
+        TemplateMethod templateMethod = templateMethods.get(method);
+        if (templateMethod != null) {
+            return templateMethod.getValue(config);
+        }
         if ("toString".equals(method.getName())) {
             return "Configured Proxy -> " + this.type.getType().getName();
         } else if ("hashCode".equals(method.getName())) {
@@ -63,11 +99,6 @@ public final class ConfigTemplateInvocationHandler implements InvocationHandler
         } else if ("get".equals(method.getName())) {
             return config;
         }
-        if (method.getReturnType() == DynamicValue.class) {
-            return DefaultDynamicValue.of(method, config);
-        }
-        String[] retKey = new String[1];
-        String configValue = InjectionHelper.getConfigValue(method, retKey, config);
-        return InjectionHelper.adaptValue(method, TypeLiteral.of(method.getReturnType()), retKey[0], configValue);
+        return new TemplateMethod(method).getValue(config);
     }
 }
@@ -23,34 +23,67 @@ import org.apache.tamaya.Configuration;
 import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.TypeLiteral;
 import org.apache.tamaya.inject.api.DynamicValue;
-import org.apache.tamaya.inject.api.InjectionUtils;
 import org.apache.tamaya.inject.spi.ConfiguredField;
+import org.apache.tamaya.spi.PropertyConverter;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
-import java.security.AccessController;
-import java.security.PrivilegedExceptionAction;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Small class that contains and manages all information anc access to a configured field and a concrete instance current
  * it (referenced by a weak reference). It also implements all aspects current keys filtering, converting any applying the
- * final keys by reflection.
+ * final keys by reflection. Keys, converter and setter are evaluated once, when the field is registered, so
+ * configuring instances does not access annotations or reflection anymore.
  */
+@SuppressWarnings({"rawtypes", "unchecked"})
 public class ConfiguredFieldImpl implements ConfiguredField{
     /**
      * The configured field instance.
      */
     protected final Field annotatedField;
+    /**
+     * The keys to be looked up, in lookup order.
+     */
+    private final List<String> keys;
+    /**
+     * The default value, or null.
+     */
+    private final String defaultValue;
+    /**
+     * The target type of conversion.
+     */
+    private final TypeLiteral targetType;
+    /**
+     * The explicit converter, or null.
+     */
+    private final PropertyConverter propertyConverter;
+    /**
+     * The setter, typed {@code (Object,Object)void}.
+     */
+    private final MethodHandle setter;
 
     /**
      * Models a configured field and provides mechanisms for injection.
      *
      * @param field the field instance.
+     * @throws ConfigException if the field cannot be accessed.
      */
     public ConfiguredFieldImpl(Field field) {
         Objects.requireNonNull(field);
         this.annotatedField = field;
+        this.keys = InjectionHelper.getKeys(field);
+        this.defaultValue = InjectionHelper.getDefaultValue(field);
+        this.targetType = TypeLiteral.of(field.getType());
+        this.propertyConverter = InjectionHelper.createPropertyConverter(field);
+        try {
+            this.setter = InjectionHelper.createSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new ConfigException("Failed to access configured field: " + field.getDeclaringClass()
+                    .getName() + '.' + field.getName(), e);
+        }
     }
 
 
@@ -78,16 +111,11 @@ public class ConfiguredFieldImpl implements ConfiguredField{
     private void applyDynamicValue(Object target) throws ConfigException {
         Objects.requireNonNull(target);
         try {
-            AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
-                @Override
-                public Object run() throws Exception {
-                    annotatedField.setAccessible(true);
-                    return annotatedField;
-                }
-            });
-            annotatedField.set(target,
-                    DefaultDynamicValue.of(annotatedField, ConfigurationProvider.getConfiguration()));
-        } catch (Exception e) {
+            setter.invokeExact(target,
+                    (Object) DefaultDynamicValue.of(annotatedField, ConfigurationProvider.getConfiguration()));
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ConfigException("Failed to annotation configured field: " + this.annotatedField.getDeclaringClass()
                     .getName() + '.' + annotatedField.getName(), e);
         }
@@ -104,24 +132,19 @@ public class ConfiguredFieldImpl implements ConfiguredField{
         Objects.requireNonNull(target);
         try {
             String[] retKey = new String[1];
-            String configValue = InjectionHelper.getConfigValue(this.annotatedField, retKey, config);
+            String configValue = InjectionHelper.getConfigValue(this.keys, this.defaultValue, retKey, config);
             // Next step perform expression resolution, if any
             String evaluatedValue = resolve && configValue != null
                     ? InjectionHelper.evaluateValue(configValue)
                     : configValue;
 
             // Check for adapter/filter
-            Object value = InjectionHelper.adaptValue(this.annotatedField,
-                    TypeLiteral.of(this.annotatedField.getType()), retKey[0], evaluatedValue);
-            AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
-                @Override
-                public Object run() throws Exception {
-                    annotatedField.setAccessible(true);
-                    return annotatedField;
-                }
-            });
-            annotatedField.set(target, value);
-        } catch (Exception e) {
+            Object value = InjectionHelper.adaptValue(this.annotatedField, this.targetType, retKey[0],
+                    evaluatedValue, this.propertyConverter);
+            setter.invokeExact(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ConfigException("Failed to evaluate annotated field: " + this.annotatedField.getDeclaringClass()
                     .getName() + '.' + annotatedField.getName(), e);
         }
@@ -142,7 +165,7 @@ public class ConfiguredFieldImpl implements ConfiguredField{
      */
     @Override
     public Collection<String> getConfiguredKeys(){
-        return InjectionUtils.getKeys(this.annotatedField);
+        return this.keys;
     }
 
     @Override
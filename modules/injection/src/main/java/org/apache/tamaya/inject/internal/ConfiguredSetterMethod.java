@@ -21,44 +21,77 @@ package org.apache.tamaya.inject.internal;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.TypeLiteral;
-import org.apache.tamaya.inject.api.InjectionUtils;
 import org.apache.tamaya.inject.spi.ConfiguredMethod;
+import org.apache.tamaya.spi.PropertyConverter;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
-import java.security.AccessController;
-import java.security.PrivilegedExceptionAction;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Small class that contains and manages all information and access to a configured field and a concrete instance current
  * it (referenced by a weak reference). It also implements all aspects current keys filtering, conversions any applying the
- * final keys by reflection.
+ * final keys by reflection. Keys, converter and method handle are evaluated once, when the method is registered.
  */
+@SuppressWarnings({"rawtypes", "unchecked"})
 public class ConfiguredSetterMethod implements ConfiguredMethod {
 
     /**
      * The configured field instance.
      */
-    private Method setterMethod;
-    private Collection<String> configuredKeys;
+    private final Method setterMethod;
+    /**
+     * The keys to be looked up, in lookup order.
+     */
+    private final List<String> configuredKeys;
+    /**
+     * The default value, or null.
+     */
+    private final String defaultValue;
+    /**
+     * The target type of conversion.
+     */
+    private final TypeLiteral targetType;
+    /**
+     * The explicit converter, or null.
+     */
+    private final PropertyConverter propertyConverter;
+    /**
+     * The method handle, typed {@code (Object,Object)void}.
+     */
+    private final MethodHandle setter;
 
     /**
      * Models a configured field and provides mechanisms for injection.
      *
      * @param method the method instance.
+     * @throws IllegalArgumentException if the method is not a single argument method returning void.
+     * @throws ConfigException if the method cannot be accessed.
      */
     public ConfiguredSetterMethod(Method method) {
-        if (void.class.equals(method.getReturnType()) &&
-                method.getParameterTypes().length == 1) {
-            this.setterMethod = method;
+        if (!void.class.equals(method.getReturnType()) ||
+                method.getParameterTypes().length != 1) {
+            throw new IllegalArgumentException("Not a setter method: " + method);
+        }
+        this.setterMethod = method;
+        this.configuredKeys = InjectionHelper.getKeys(method);
+        this.defaultValue = InjectionHelper.getDefaultValue(method);
+        this.targetType = TypeLiteral.of(method.getParameterTypes()[0]);
+        this.propertyConverter = InjectionHelper.createPropertyConverter(method);
+        try {
+            this.setter = InjectionHelper.createSetter(method);
+        } catch (IllegalAccessException e) {
+            throw new ConfigException("Failed to access configured method: " + method.getDeclaringClass()
+                    .getName() + '.' + method.getName(), e);
         }
     }
 
     @Override
     public void configure(Object target, Configuration config) throws ConfigException {
         String[] retKey = new String[1];
-        String configValue = InjectionHelper.getConfigValue(this.setterMethod, retKey, config);
+        String configValue = InjectionHelper.getConfigValue(this.configuredKeys, this.defaultValue, retKey, config);
         Objects.requireNonNull(target);
         try {
             String evaluatedString = configValue != null
@@ -66,20 +99,12 @@ public class ConfiguredSetterMethod implements ConfiguredMethod {
                     : configValue;
 
             // Check for adapter/filter
-            Object value = InjectionHelper.adaptValue(
-                    this.setterMethod, TypeLiteral.of(this.setterMethod.getParameterTypes()[0]),
-                    retKey[0], evaluatedString);
-
-            AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
-                @Override
-                public Object run() throws Exception {
-                    setterMethod.setAccessible(true);
-                    return setterMethod;
-                }
-            });
-
-            setterMethod.invoke(target, value);
-        } catch (Exception e) {
+            Object value = InjectionHelper.adaptValue(this.setterMethod, this.targetType, retKey[0],
+                    evaluatedString, this.propertyConverter);
+            setter.invokeExact(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new ConfigException("Failed to annotation configured method: " + this.setterMethod.getDeclaringClass()
                     .getName() + '.' + setterMethod.getName(), e);
         }
@@ -93,7 +118,7 @@ public class ConfiguredSetterMethod implements ConfiguredMethod {
      */
     @Override
     public Collection<String> getConfiguredKeys() {
-        return InjectionUtils.getKeys(this.setterMethod);
+        return this.configuredKeys;
     }
 
     /**
@@ -34,6 +34,7 @@ import org.apache.tamaya.inject.api.ConfigDefaultSections;
 import org.apache.tamaya.inject.spi.ConfiguredField;
 import org.apache.tamaya.inject.spi.ConfiguredMethod;
 import org.apache.tamaya.inject.spi.ConfiguredType;
+import org.apache.tamaya.inject.spi.ConfiguredTypeMetadata;
 
 /**
  * Structure that contains and manages configuration related things for a configured type registered.
@@ -77,6 +78,27 @@ public class ConfiguredTypeImpl implements ConfiguredType{
         }
     }
 
+    /**
+     * Creates an instance of this class from the metadata generated at build time, so the type is not scanned.
+     *
+     * @param metadata the metadata of the type, not null.
+     * @throws ConfigException if the metadata does not match the type.
+     */
+    public ConfiguredTypeImpl(ConfiguredTypeMetadata metadata) {
+        this.type = Objects.requireNonNull(metadata.getType());
+        try {
+            for (Field f : metadata.getConfiguredFields()) {
+                configuredFields.add(new ConfiguredFieldImpl(f));
+            }
+            for (Method m : metadata.getConfiguredMethods()) {
+                configuredSetterMethods.add(new ConfiguredSetterMethod(m));
+            }
+        } catch (NoSuchFieldException | NoSuchMethodException e) {
+            throw new ConfigException("Outdated configuration metadata of type: " + type.getName(), e);
+        }
+        LOG.finer("Registered configured type from metadata: " + type.getName());
+    }
+
     private void initFields(Class type, boolean autoConfigure) {
         for (Field f : type.getDeclaredFields()) {
             if (f.isAnnotationPresent(NoConfig.class)) {
@@ -26,16 +26,21 @@ import javax.annotation.Priority;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.tamaya.inject.api.ConfiguredItemSupplier;
 import org.apache.tamaya.inject.api.NoConfig;
 import org.apache.tamaya.inject.api.Config;
 import org.apache.tamaya.inject.api.ConfigDefaultSections;
+import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.inject.spi.ConfiguredType;
+import org.apache.tamaya.inject.spi.ConfiguredTypeMetadata;
 
 /**
  * Simple injector singleton that also registers instances configured using weak references.
@@ -44,26 +49,49 @@ import org.apache.tamaya.inject.spi.ConfiguredType;
 public final class DefaultConfigurationInjector implements ConfigurationInjector {
 
     private final Map<Class<?>, ConfiguredType> configuredTypes = new ConcurrentHashMap<>();
+    /**
+     * The types known not to be configured, so they are not scanned again.
+     */
+    private final Set<Class<?>> unconfiguredTypes =
+            Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
 
     private static final Logger LOG = Logger.getLogger(DefaultConfigurationInjector.class.getName());
 
     /**
-     * Extract the configuration annotation config and registers it per class, for later reuse.
+     * Extract the configuration annotation config and registers it per class, for later reuse. If the
+     * injection annotation processor has generated metadata for the type, the type is not scanned.
      *
      * @param type the type to be configured.
-     * @return the configured type registered.
+     * @return the configured type registered, or null, if the type is not configured.
      */
     public ConfiguredType registerType(Class<?> type) {
         ConfiguredType confType = configuredTypes.get(type);
-        if (confType == null && isConfigured(type)) {
-            confType = new ConfiguredTypeImpl(type);
-            configuredTypes.put(type, confType);
-            InjectionHelper.sendConfigurationEvent(confType);
+        if (confType == null && !unconfiguredTypes.contains(type)) {
+            confType = createConfiguredType(type);
+            if (confType == null) {
+                unconfiguredTypes.add(type);
+            } else {
+                configuredTypes.put(type, confType);
+                InjectionHelper.sendConfigurationEvent(confType);
+            }
         }
         return confType;
 //        return configuredTypes.computeIfAbsent(type, ConfigDefaultSections::new);
     }
 
+    private ConfiguredType createConfiguredType(Class<?> type) {
+        ConfiguredTypeMetadata metadata = InjectionHelper.loadMetadata(type);
+        if (metadata != null) {
+            try {
+                return new ConfiguredTypeImpl(metadata);
+            } catch (ConfigException e) {
+                LOG.log(Level.WARNING, "Scanning type, since its configuration metadata is outdated: "
+                        + type.getName(), e);
+            }
+        }
+        return isConfigured(type) ? new ConfiguredTypeImpl(type) : null;
+    }
+
     /**
      * CHecks if type is eligible for configuration injection.
      * @param type the target type, not null.
@@ -123,7 +151,7 @@ public final class DefaultConfigurationInjector implements ConfigurationInjector
      */
     @Override
     public <T> T createTemplate(Class<T> templateType) {
-        return createTemplate(templateType, ConfigurationProvider.getConfiguration());
+        return createProxy(templateType, new ConfigTemplateInvocationHandler(templateType));
     }
 
     /**
@@ -134,12 +162,17 @@ public final class DefaultConfigurationInjector implements ConfigurationInjector
      */
     @Override
     public <T> T createTemplate(Class<T> templateType, Configuration config) {
+        return createProxy(templateType, new ConfigTemplateInvocationHandler(templateType,
+                Objects.requireNonNull(config)));
+    }
+
+    private <T> T createProxy(Class<T> templateType, ConfigTemplateInvocationHandler handler) {
         ClassLoader cl = Thread.currentThread().getContextClassLoader();
         if(cl==null){
             cl = this.getClass().getClassLoader();
         }
         return templateType.cast(Proxy.newProxyInstance(cl, new Class[]{ConfiguredItemSupplier.class, Objects.requireNonNull(templateType)},
-                new ConfigTemplateInvocationHandler(templateType)));
+                handler));
     }
 
     @Override
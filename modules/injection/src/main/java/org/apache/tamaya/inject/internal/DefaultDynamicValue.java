@@ -20,7 +20,9 @@ package org.apache.tamaya.inject.internal;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.events.ConfigEventManager;
 import org.apache.tamaya.inject.api.BaseDynamicValue;
 import org.apache.tamaya.inject.api.DynamicValue;
 import org.apache.tamaya.inject.api.InjectionUtils;
@@ -53,6 +55,10 @@ import java.util.logging.Logger;
  * new value. Depending on the {@link UpdatePolicy} the new value is immedeately active or it requires an active commit
  * by client code. Similarly an instance also can ignore all later changes to the value.
  * <h3>Implementation Details</h3>
+ * Instances are registered with the {@link RefreshScheduler}, which refreshes them when changes of their keys are
+ * published by the {@link ConfigEventManager}. While change monitoring is active and the value is bound to the
+ * configuration monitored, the value is therefore not reevaluated on access, otherwise it is reevaluated on each
+ * access.
  * This class is
  * <ul>
  * <li>Serializable, when also the item stored is serializable</li>
@@ -100,7 +106,7 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
     /**
      * The current value, never null.
      */
-    private transient T value;
+    private transient volatile T value;
     /**
      * The new value, or null.
      */
@@ -109,6 +115,14 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
      * List of listeners that listen for changes.
      */
     private transient WeakList<PropertyChangeListener> listeners;
+    /**
+     * Flag, if the value was evaluated after the last change of its keys has been published.
+     */
+    private transient volatile boolean upToDate;
+    /**
+     * Flag, if this value is refreshed by the {@link RefreshScheduler} on changes of its keys.
+     */
+    private transient boolean registered;
 
     /**
      * Constructor.
@@ -131,6 +145,8 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
         this.updatePolicy = Objects.requireNonNull(updatePolicy);
         if(loadPolicy == LoadPolicy.INITIAL){
             this.value = evaluateValue();
+        }else{
+            this.registered = RefreshScheduler.getDefault().register(this, this.keys);
         }
     }
 
@@ -235,9 +251,16 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
     }
 
     private void informListeners(T value, T newValue) {
+        publish(new PropertyChangeEvent(this, propertyName, value, newValue));
+    }
+
+    /**
+     * Informs the registered listeners about a change.
+     *
+     * @param evt the change event, not null.
+     */
+    void publish(PropertyChangeEvent evt) {
         synchronized (this) {
-            PropertyChangeEvent evt = new PropertyChangeEvent(this, propertyName, value,
-                    newValue);
             if (listeners != null) {
                 for (PropertyChangeListener consumer : listeners.get()) {
                     consumer.propertyChange(evt);
@@ -304,36 +327,78 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
      * @see DefaultDynamicValue#isPresent()
      */
     public T get() {
-        T newLocalValue;
-        if(loadPolicy!=LoadPolicy.INITIAL) {
-            newLocalValue = evaluateValue();
-            if (this.value == null) {
-                this.value = newLocalValue;
-            }
-            if(!Objects.equals(this.value, newLocalValue)){
-                switch (updatePolicy){
-                    case IMMEDEATE:
-                        commit();
-                        break;
-                    case EXPLCIT:
-                        this.newValue = new Object[]{newLocalValue};
-                        break;
-                    case LOG_ONLY:
-                        informListeners(this.value, newLocalValue);
-                        this.newValue = null;
-                        break;
-                    case NEVER:
-                        this.newValue = null;
-                        break;
-                    default:
-                        this.newValue = null;
-                        break;
-                }
+        if(loadPolicy!=LoadPolicy.INITIAL && needsEvaluation()) {
+            PropertyChangeEvent evt = apply(reevaluate());
+            if (evt != null) {
+                publish(evt);
             }
         }
         return value;
     }
 
+    /**
+     * Marks the value to be evaluated again on its next access, e.g. because one of its keys has changed.
+     */
+    void invalidate() {
+        this.upToDate = false;
+    }
+
+    /**
+     * Evaluates the value again, marking it as up to date. The value evaluated is not applied.
+     *
+     * @return the current actual value, or null.
+     * @see #apply(Object)
+     */
+    T reevaluate() {
+        // reset before evaluating, so changes published during evaluation are not lost.
+        this.upToDate = true;
+        return evaluateValue();
+    }
+
+    /**
+     * Applies a value evaluated depending on the {@link UpdatePolicy}, without informing the listeners.
+     *
+     * @param newLocalValue the value evaluated, may be null.
+     * @return the event to be published to the listeners, or null, if the listeners must not be informed.
+     * @see #publish(PropertyChangeEvent)
+     */
+    PropertyChangeEvent apply(T newLocalValue) {
+        if (this.value == null) {
+            this.value = newLocalValue;
+        }
+        if (Objects.equals(this.value, newLocalValue)) {
+            return null;
+        }
+        T oldValue = this.value;
+        switch (updatePolicy){
+            case IMMEDEATE:
+                this.value = newLocalValue;
+                this.newValue = null;
+                return new PropertyChangeEvent(this, propertyName, oldValue, newLocalValue);
+            case EXPLCIT:
+                this.newValue = new Object[]{newLocalValue};
+                return null;
+            case LOG_ONLY:
+                this.newValue = null;
+                return new PropertyChangeEvent(this, propertyName, oldValue, newLocalValue);
+            case NEVER:
+            default:
+                this.newValue = null;
+                return null;
+        }
+    }
+
+    /**
+     * Checks if the value must be evaluated on access. Evaluation can be skipped, if the changes of the
+     * configuration of this value are published and none of its keys has changed since the last evaluation.
+     *
+     * @return true, if the value must be evaluated.
+     */
+    private boolean needsEvaluation() {
+        return !registered || !upToDate || !ConfigEventManager.isChangeMonitoring()
+                || configuration != ConfigurationProvider.getConfiguration();
+    }
+
     /**
      * Method to check for and apply a new value. Depending on the {@link  UpdatePolicy}
      * the value is immediately or deferred visible (or it may even be ignored completely).
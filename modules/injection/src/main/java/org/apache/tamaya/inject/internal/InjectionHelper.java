@@ -18,10 +18,18 @@
  */
 package org.apache.tamaya.inject.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +45,7 @@ import org.apache.tamaya.inject.api.ConfigDefaultSections;
 import org.apache.tamaya.inject.api.InjectionUtils;
 import org.apache.tamaya.inject.api.WithPropertyConverter;
 import org.apache.tamaya.inject.spi.ConfiguredType;
+import org.apache.tamaya.inject.spi.ConfiguredTypeMetadata;
 import org.apache.tamaya.resolver.spi.ExpressionEvaluator;
 import org.apache.tamaya.spi.ConversionContext;
 import org.apache.tamaya.spi.PropertyConverter;
@@ -131,12 +140,45 @@ final class InjectionHelper {
         } else {
             keys = InjectionUtils.evaluateKeys((Member) element, areasAnnot, prop);
         }
+        return getConfigValue(keys, getDefaultValue(element), retKey, config);
+    }
+
+    /**
+     * Evaluates the keys to be looked up for the given member, as defined by the annotations present.
+     * @param member the field or method, not null.
+     * @return the keys in lookup order, never null.
+     */
+    static <M extends AnnotatedElement & Member> List<String> getKeys(M member) {
+        ConfigDefaultSections areasAnnot = member.getDeclaringClass().getAnnotation(ConfigDefaultSections.class);
+        return Collections.unmodifiableList(
+                InjectionUtils.evaluateKeys(member, areasAnnot, member.getAnnotation(Config.class)));
+    }
+
+    /**
+     * Evaluates the default value declared for the given element.
+     * @param element the annotated element, not null.
+     * @return the default value, or null.
+     */
+    static String getDefaultValue(AnnotatedElement element) {
+        Config prop = element.getAnnotation(Config.class);
+        if (prop == null || prop.defaultValue().isEmpty()) {
+            return null;
+        }
+        return prop.defaultValue();
+    }
+
+    /**
+     * Evaluates the value of the first key present, using keys evaluated before.
+     * @param keys the keys in lookup order, not null.
+     * @param defaultValue the value returned, if no key is present, or null.
+     * @param retKey the array to return the key found, or null.
+     * @param config the configuration, not null.
+     * @return the value found, the default value, or null.
+     */
+    static String getConfigValue(List<String> keys, String defaultValue, String[] retKey, Configuration config) {
         String configValue = evaluteConfigValue(keys, retKey, config);
         if (configValue == null) {
-            if(prop.defaultValue().isEmpty()){
-                return null;
-            }
-            return prop.defaultValue();
+            return defaultValue;
         }
         return configValue;
     }
@@ -157,28 +199,57 @@ final class InjectionHelper {
     }
 
 
-    @SuppressWarnings("rawtypes")
     public static <T> T adaptValue(AnnotatedElement element, TypeLiteral<T> targetType, String key, String configValue) {
-        // Check for adapter/filter
-        T adaptedValue = null;
+        return adaptValue(element, targetType, key, configValue, InjectionHelper.<T>createPropertyConverter(element));
+    }
+
+    /**
+     * Creates the {@link PropertyConverter} declared by {@link WithPropertyConverter} on the given element.
+     * @param element the annotated element, not null.
+     * @return the converter, or null, if none is declared or it could not be created.
+     */
+    @SuppressWarnings("rawtypes")
+    static <T> PropertyConverter<T> createPropertyConverter(AnnotatedElement element) {
         WithPropertyConverter converterAnnot = element.getAnnotation(WithPropertyConverter.class);
-        Class<? extends PropertyConverter<T>> converterType;
         if (converterAnnot != null) {
-            converterType = (Class<? extends PropertyConverter<T>>) converterAnnot.value();
+            Class<? extends PropertyConverter<T>> converterType =
+                    (Class<? extends PropertyConverter<T>>) converterAnnot.value();
             if (!converterType.getName().equals(WithPropertyConverter.class.getName())) {
                 try {
-                    // TODO cache here...
-                    ConversionContext ctx = new ConversionContext.Builder(key,targetType)
-                            .setAnnotatedElement(element).build();
-
-                    PropertyConverter<T> converter = PropertyConverter.class.cast(converterType.newInstance());
-                    adaptedValue = converter.convert(configValue, ctx);
+                    return PropertyConverter.class.cast(converterType.newInstance());
                 } catch (Exception e) {
-                    LOG.log(Level.SEVERE, "Failed to convert using explicit PropertyConverter on " + element +
-                            ", trying default conversion.", e);
+                    LOG.log(Level.SEVERE, "Failed to create explicit PropertyConverter on " + element +
+                            ", using default conversion.", e);
                 }
             }
         }
+        return null;
+    }
+
+    /**
+     * Converts a value, using the converter given, or the converters registered for the target type.
+     * @param element the annotated element, not null.
+     * @param targetType the target type, not null.
+     * @param key the key found, or null.
+     * @param configValue the value to be converted.
+     * @param propertyConverter the explicit converter, or null.
+     * @return the converted value.
+     * @throws ConfigException if the value cannot be converted.
+     */
+    static <T> T adaptValue(AnnotatedElement element, TypeLiteral<T> targetType, String key, String configValue,
+                            PropertyConverter<T> propertyConverter) {
+        // Check for adapter/filter
+        T adaptedValue = null;
+        if (propertyConverter != null) {
+            try {
+                ConversionContext ctx = new ConversionContext.Builder(key,targetType)
+                        .setAnnotatedElement(element).build();
+                adaptedValue = propertyConverter.convert(configValue, ctx);
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Failed to convert using explicit PropertyConverter on " + element +
+                        ", trying default conversion.", e);
+            }
+        }
         if (adaptedValue != null) {
             return adaptedValue;
         }
@@ -199,6 +270,68 @@ final class InjectionHelper {
         }
     }
 
+    /**
+     * Creates a handle setting the given field, typed {@code (Object,Object)void}. The target passed is ignored
+     * for static fields.
+     * @param field the field, not null.
+     * @return the setter handle, never null.
+     * @throws IllegalAccessException if the field cannot be accessed.
+     */
+    static MethodHandle createSetter(Field field) throws IllegalAccessException {
+        MethodHandle setter = MethodHandles.lookup().unreflectSetter(makeAccessible(field));
+        if (Modifier.isStatic(field.getModifiers())) {
+            setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+        return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    /**
+     * Creates a handle invoking the given single argument method, typed {@code (Object,Object)void}. The target
+     * passed is ignored for static methods.
+     * @param method the method, not null.
+     * @return the method handle, never null.
+     * @throws IllegalAccessException if the method cannot be accessed.
+     */
+    static MethodHandle createSetter(Method method) throws IllegalAccessException {
+        MethodHandle setter = MethodHandles.lookup().unreflect(makeAccessible(method));
+        if (Modifier.isStatic(method.getModifiers())) {
+            setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+        return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    }
+
+    private static <A extends AccessibleObject> A makeAccessible(final A member) {
+        return AccessController.doPrivileged(new PrivilegedAction<A>() {
+            @Override
+            public A run() {
+                member.setAccessible(true);
+                return member;
+            }
+        });
+    }
+
+    /**
+     * Loads the metadata of the given type generated at build time by the injection annotation processor.
+     * @param type the configured type, not null.
+     * @return the metadata, or null, if not available.
+     */
+    static ConfiguredTypeMetadata loadMetadata(Class<?> type) {
+        try {
+            Class<?> metadataType = Class.forName(type.getName() + ConfiguredTypeMetadata.CLASS_SUFFIX, true,
+                    type.getClassLoader());
+            ConfiguredTypeMetadata metadata = (ConfiguredTypeMetadata) metadataType.newInstance();
+            if (metadata.getType() == type) {
+                return metadata;
+            }
+            LOG.warning("Ignoring configuration metadata describing another type: " + metadataType.getName());
+        } catch (ClassNotFoundException e) {
+            LOG.finest("No configuration metadata generated for type: " + type.getName());
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "Failed to load configuration metadata of type: " + type.getName(), e);
+        }
+        return null;
+    }
+
     /**
      * Method that allows to statically check, if the resolver module is loaded. If the module is loaded
      * value expressions are automatically forwarded to the resolver module for resolution.
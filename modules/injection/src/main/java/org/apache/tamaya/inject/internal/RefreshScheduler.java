@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.inject.RefreshStatistics;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Refreshes the {@link DefaultDynamicValue}s affected by a {@link ConfigurationChange}. The scheduler keeps a
+ * dependency index of the keys each value depends on, so a change only refreshes the values depending on one of
+ * the keys changed, whereas all of them are refreshed in one batch:
+ * <ol>
+ * <li>All values affected are invalidated, so they are not accessed with their outdated value anymore.</li>
+ * <li>The values are evaluated, in parallel, if an {@link Executor} is set.</li>
+ * <li>The values evaluated are applied according to their update policy.</li>
+ * <li>The listeners of the values changed are informed, after all values have been applied.</li>
+ * </ol>
+ * Batches are run one after the other. Values are only weakly referenced, values collected are removed from the
+ * index.
+ */
+public final class RefreshScheduler implements ConfigEventListener {
+
+    private static final Logger LOG = Logger.getLogger(RefreshScheduler.class.getName());
+
+    /** The scheduler used by the injected values. */
+    private static final RefreshScheduler DEFAULT = new RefreshScheduler();
+
+    /** The values depending on each key, guarded by the index's monitor. */
+    private final Map<String, List<ValueRef>> index = new HashMap<>();
+
+    /** Queue of the values collected. */
+    private final ReferenceQueue<DefaultDynamicValue<?>> collected = new ReferenceQueue<>();
+
+    /** Lock serializing the batches. */
+    private final Object batchLock = new Object();
+
+    /** The number of values registered, guarded by the index's monitor. */
+    private int valueCount;
+
+    /** Flag, if this scheduler is registered with the {@link ConfigEventManager}, guarded by the index's monitor. */
+    private boolean listening;
+
+    /** The executor used for evaluating the values in parallel, or null. */
+    private volatile Executor executor;
+
+    /** The maximal number of parts the values of a batch are split into for parallel evaluation. */
+    private volatile int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** The statistics, guarded by the batch lock. */
+    private long batchCount;
+    private long refreshCount;
+    private long changeCount;
+    private long failureCount;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    /**
+     * Constructor, used for the default scheduler and for testing.
+     */
+    RefreshScheduler() {
+    }
+
+    /**
+     * Get the scheduler used by the injected values.
+     *
+     * @return the scheduler, never null.
+     */
+    public static RefreshScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Sets the executor used for evaluating the values of a batch in parallel.
+     *
+     * @param executor the executor, or null, for evaluating the values in the thread publishing the change.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the maximal number of parts the values of a batch are split into, when evaluated in parallel.
+     * Defaults to the number of available processors.
+     *
+     * @param parallelism the number of parts, &gt; 0.
+     */
+    void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Registers a value to be refreshed on changes of the given keys. On the first registration, the scheduler
+     * is registered with the {@link ConfigEventManager}.
+     *
+     * @param value the value, not null.
+     * @param keys the keys the value depends on, not null.
+     * @return true, if the value will be refreshed on changes, false, if no changes are published.
+     */
+    boolean register(DefaultDynamicValue<?> value, String... keys) {
+        synchronized (index) {
+            if (!listening) {
+                try {
+                    ConfigEventManager.addListener(this, ConfigurationChange.class);
+                    listening = true;
+                } catch (ConfigException e) {
+                    LOG.log(Level.FINEST, "Config changes not published, dynamic values are not refreshed.", e);
+                    return false;
+                }
+            }
+            expungeCollected();
+            ValueRef ref = new ValueRef(value, keys, collected);
+            for (String key : ref.keys) {
+                List<ValueRef> refs = index.get(key);
+                if (refs == null) {
+                    refs = new ArrayList<>(1);
+                    index.put(key, refs);
+                }
+                refs.add(ref);
+            }
+            valueCount++;
+            return true;
+        }
+    }
+
+    /**
+     * Removes the values collected from the index.
+     */
+    private void expungeCollected() {
+        ValueRef ref;
+        while ((ref = (ValueRef) collected.poll()) != null) {
+            for (String key : ref.keys) {
+                List<ValueRef> refs = index.get(key);
+                if (refs != null) {
+                    refs.remove(ref);
+                    if (refs.isEmpty()) {
+                        index.remove(key);
+                    }
+                }
+            }
+            valueCount--;
+        }
+    }
+
+    @Override
+    public void onConfigEvent(ConfigEvent<?> event) {
+        if (event instanceof ConfigurationChange) {
+            Collection<PropertyChangeEvent> changes = ((ConfigurationChange) event).getChanges();
+            List<String> keys = new ArrayList<>(changes.size());
+            for (PropertyChangeEvent change : changes) {
+                keys.add(change.getPropertyName());
+            }
+            refresh(keys);
+        }
+    }
+
+    /**
+     * Refreshes the values depending on the given keys in one batch.
+     *
+     * @param keys the keys changed, not null.
+     * @return the number of values refreshed.
+     */
+    public int refresh(Collection<String> keys) {
+        Set<DefaultDynamicValue<?>> values = new LinkedHashSet<>();
+        synchronized (index) {
+            expungeCollected();
+            for (String key : keys) {
+                List<ValueRef> refs = index.get(key);
+                if (refs != null) {
+                    for (ValueRef ref : refs) {
+                        DefaultDynamicValue<?> value = ref.get();
+                        if (value != null) {
+                            values.add(value);
+                        }
+                    }
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return 0;
+        }
+        synchronized (batchLock) {
+            long start = System.nanoTime();
+            List<Refresh<?>> refreshes = new ArrayList<>(values.size());
+            for (DefaultDynamicValue<?> value : values) {
+                value.invalidate();
+                refreshes.add(Refresh.of(value));
+            }
+            evaluate(refreshes);
+            List<Refresh<?>> changed = new ArrayList<>();
+            int failures = 0;
+            for (Refresh<?> refresh : refreshes) {
+                if (refresh.failure != null) {
+                    failures++;
+                    LOG.log(Level.WARNING, "Failed to refresh dynamic value: " + refresh.value, refresh.failure);
+                } else if (refresh.apply()) {
+                    changed.add(refresh);
+                }
+            }
+            for (Refresh<?> refresh : changed) {
+                try {
+                    refresh.value.publish(refresh.event);
+                } catch (RuntimeException e) {
+                    LOG.log(Level.WARNING, "Listener failed to handle change: " + refresh.event, e);
+                }
+            }
+            long latency = System.nanoTime() - start;
+            batchCount++;
+            refreshCount += refreshes.size();
+            changeCount += changed.size();
+            failureCount += failures;
+            totalLatencyNanos += latency;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        }
+        return values.size();
+    }
+
+    /**
+     * Evaluates the values, in parallel, if an executor is set. The calling thread evaluates a part of the values
+     * itself and waits for the remaining parts to be evaluated.
+     *
+     * @param refreshes the values to be evaluated, not null.
+     */
+    private void evaluate(List<Refresh<?>> refreshes) {
+        Executor executor = this.executor;
+        int parts = Math.min(refreshes.size(), parallelism);
+        if (executor == null || parts < 2) {
+            for (Refresh<?> refresh : refreshes) {
+                refresh.run();
+            }
+            return;
+        }
+        int partSize = (refreshes.size() + parts - 1) / parts;
+        // the first part is evaluated by the calling thread, the latch counts the parts submitted.
+        int tasks = (refreshes.size() - 1) / partSize;
+        final CountDownLatch done = new CountDownLatch(tasks);
+        for (int from = partSize; from < refreshes.size(); from += partSize) {
+            final List<Refresh<?>> part = refreshes.subList(from, Math.min(from + partSize, refreshes.size()));
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (Refresh<?> refresh : part) {
+                            refresh.run();
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        for (Refresh<?> refresh : refreshes.subList(0, partSize)) {
+            refresh.run();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                // the values evaluated must be applied, so wait for them.
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the statistics of the batches run.
+     *
+     * @return the statistics, never null.
+     */
+    public RefreshStatistics getStatistics() {
+        int values;
+        int keys;
+        synchronized (index) {
+            expungeCollected();
+            values = valueCount;
+            keys = index.size();
+        }
+        synchronized (batchLock) {
+            return new RefreshStatistics(values, keys, batchCount, refreshCount, changeCount, failureCount,
+                    totalLatencyNanos, maxLatencyNanos);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshScheduler{" + getStatistics() + '}';
+    }
+
+    /**
+     * Weak reference to a value registered, also holding the keys it is registered for.
+     */
+    private static final class ValueRef extends WeakReference<DefaultDynamicValue<?>> {
+        private final String[] keys;
+
+        ValueRef(DefaultDynamicValue<?> value, String[] keys, ReferenceQueue<DefaultDynamicValue<?>> queue) {
+            super(value, queue);
+            this.keys = keys.clone();
+        }
+    }
+
+    /**
+     * The refresh of a single value within a batch.
+     *
+     * @param <T> the type of the value.
+     */
+    private static final class Refresh<T> implements Runnable {
+        private final DefaultDynamicValue<T> value;
+        private T newValue;
+        private RuntimeException failure;
+        private PropertyChangeEvent event;
+
+        private Refresh(DefaultDynamicValue<T> value) {
+            this.value = value;
+        }
+
+        static <T> Refresh<T> of(DefaultDynamicValue<T> value) {
+            return new Refresh<>(value);
+        }
+
+        @Override
+        public void run() {
+            try {
+                newValue = value.reevaluate();
+            } catch (RuntimeException e) {
+                // evaluate again on the next access.
+                value.invalidate();
+                failure = e;
+            }
+        }
+
+        /**
+         * Applies the value evaluated.
+         *
+         * @return true, if the listeners of the value must be informed.
+         */
+        boolean apply() {
+            event = value.apply(newValue);
+            return event != null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.VersionedConfiguration;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Precompiled accessor of a configuration template method. Keys, default value and converter are evaluated
+ * once, the converted value is cached together with the configuration and snapshot generation it was
+ * evaluated for. As long as the generation does not change, invocations return the cached value. Values of
+ * configurations not providing a generation, i.e. no {@link VersionedConfiguration} or with snapshots disabled, are
+ * evaluated on each invocation.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class TemplateMethod {
+
+    private final Method method;
+    private final List<String> keys;
+    private final String defaultValue;
+    private final TypeLiteral targetType;
+    private final PropertyConverter propertyConverter;
+    private final boolean dynamicValue;
+    /**
+     * The value cached, or null.
+     */
+    private volatile Slot slot;
+
+    /**
+     * Compiles the given template method.
+     *
+     * @param method the template method, not null.
+     */
+    TemplateMethod(Method method) {
+        this.method = method;
+        this.keys = InjectionHelper.getKeys(method);
+        this.defaultValue = InjectionHelper.getDefaultValue(method);
+        this.targetType = TypeLiteral.of(method.getReturnType());
+        this.propertyConverter = InjectionHelper.createPropertyConverter(method);
+        this.dynamicValue = method.getReturnType() == DynamicValue.class;
+    }
+
+    /**
+     * Evaluates the value of the template method, or returns the value cached, if the configuration has not
+     * changed since.
+     *
+     * @param config the configuration, not null.
+     * @return the value.
+     */
+    Object getValue(Configuration config) {
+        if (dynamicValue) {
+            return DefaultDynamicValue.of(method, config);
+        }
+        long generation = getGeneration(config);
+        Slot current = this.slot;
+        if (generation != 0L && current != null && current.generation == generation
+                && current.configuration == config) {
+            return current.value;
+        }
+        String[] retKey = new String[1];
+        String configValue = InjectionHelper.getConfigValue(keys, defaultValue, retKey, config);
+        Object value = InjectionHelper.adaptValue(method, targetType, retKey[0], configValue, propertyConverter);
+        if (generation != 0L) {
+            this.slot = new Slot(config, generation, value);
+        }
+        return value;
+    }
+
+    private static long getGeneration(Configuration config) {
+        if (config instanceof VersionedConfiguration) {
+            return ((VersionedConfiguration) config).getGeneration();
+        }
+        return 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "TemplateMethod[" + method + ']';
+    }
+
+    /**
+     * Immutable cache entry, so configuration, generation and value are always read consistently.
+     */
+    private static final class Slot {
+        final Configuration configuration;
+        final long generation;
+        final Object value;
+
+        Slot(Configuration configuration, long generation, Object value) {
+            this.configuration = configuration;
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
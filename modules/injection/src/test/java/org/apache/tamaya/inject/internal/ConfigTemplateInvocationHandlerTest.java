@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.core.internal.DefaultConfiguration;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.inject.ConfigurationInjection;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigTemplateInvocationHandler}.
+ */
+public class ConfigTemplateInvocationHandlerTest {
+
+    private static final AtomicInteger CONVERSIONS = new AtomicInteger();
+
+    private final Map<String, String> properties = new HashMap<>();
+
+    @Test
+    public void testValuesAreCachedPerGeneration() {
+        properties.put("template.name", "first");
+        properties.put("template.port", "8080");
+        DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new MapPropertySource(properties)).build(), true);
+        Template template = ConfigurationInjection.getConfigurationInjector().createTemplate(Template.class, config);
+        int conversions = CONVERSIONS.get();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("FIRST", template.name());
+            assertEquals(8080, template.port());
+            assertEquals("none", template.missing());
+        }
+        assertEquals(conversions + 1, CONVERSIONS.get());
+
+        properties.put("template.name", "second");
+        properties.put("template.port", "8081");
+        assertEquals("FIRST", template.name());
+        config.refreshSnapshot();
+        assertEquals("SECOND", template.name());
+        assertEquals(8081, template.port());
+        assertEquals(conversions + 2, CONVERSIONS.get());
+    }
+
+    @Test
+    public void testValuesAreEvaluatedWithoutSnapshot() {
+        properties.put("template.name", "first");
+        properties.put("template.port", "8080");
+        DefaultConfiguration config = new DefaultConfiguration(new DefaultConfigurationContextBuilder()
+                .addPropertySources(new MapPropertySource(properties)).build(), false);
+        Template template = ConfigurationInjection.getConfigurationInjector().createTemplate(Template.class, config);
+        assertEquals("FIRST", template.name());
+        properties.put("template.name", "second");
+        assertEquals("SECOND", template.name());
+        assertTrue(template.toString().contains(Template.class.getName()));
+    }
+
+    /**
+     * Property source reading the values of a map, which may be changed by the tests.
+     */
+    private static final class MapPropertySource implements PropertySource {
+        private final Map<String, String> properties;
+
+        MapPropertySource(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "template";
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return true;
+        }
+    }
+
+    public static final class CountingUpperCaseConverter implements PropertyConverter<String> {
+        @Override
+        public String convert(String value, ConversionContext context) {
+            CONVERSIONS.incrementAndGet();
+            return value == null ? null : value.toUpperCase();
+        }
+    }
+
+    public interface Template {
+
+        @Config("template.name")
+        @WithPropertyConverter(CountingUpperCaseConverter.class)
+        String name();
+
+        @Config("template.port")
+        int port();
+
+        @Config(value = "template.missing", defaultValue = "none")
+        String missing();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.core.propertysource.SimplePropertySource;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfiguredTypeImpl}.
+ */
+public class ConfiguredTypeImplTest {
+
+    private static final AtomicInteger CONVERTERS_CREATED = new AtomicInteger();
+
+    private final Configuration config = createConfig();
+
+    private static Configuration createConfig() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("plan.count", "42");
+        properties.put("plan.name", "planned");
+        properties.put("plan.upper", "value");
+        return new ConfigurationBuilder().addPropertySources(new SimplePropertySource("plan", properties)).build();
+    }
+
+    @Test
+    public void testInstancesAreConfiguredByPlan() {
+        ConfiguredTypeImpl type = new ConfiguredTypeImpl(PlannedBean.class);
+        int created = CONVERTERS_CREATED.get();
+        for (int i = 0; i < 10; i++) {
+            PlannedBean bean = new PlannedBean();
+            type.configure(bean, config);
+            assertEquals(42, bean.count);
+            assertEquals("planned", bean.name);
+            assertEquals("VALUE", bean.upper);
+            assertEquals("fallback", bean.missing);
+        }
+        // explicit converters are created once, when the type is registered.
+        assertEquals(created, CONVERTERS_CREATED.get());
+        assertEquals(3, type.getConfiguredFields().size());
+        assertEquals(1, type.getConfiguredMethods().size());
+        assertEquals(Arrays.asList("plan.count"), type.getConfiguredFields().iterator().next().getConfiguredKeys());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonSetterMethodIsRejected() throws Exception {
+        new ConfiguredSetterMethod(PlannedBean.class.getDeclaredMethod("getName"));
+    }
+
+    public static final class UpperCaseConverter implements PropertyConverter<String> {
+
+        public UpperCaseConverter() {
+            CONVERTERS_CREATED.incrementAndGet();
+        }
+
+        @Override
+        public String convert(String value, ConversionContext context) {
+            return value == null ? null : value.toUpperCase();
+        }
+    }
+
+    static final class PlannedBean {
+
+        @Config("plan.count")
+        private int count;
+
+        @Config("plan.name")
+        private String name;
+
+        @Config("plan.upper")
+        @WithPropertyConverter(UpperCaseConverter.class)
+        private String upper;
+
+        private String missing;
+
+        @Config(value = "plan.missing", defaultValue = "fallback")
+        private void setMissing(String missing) {
+            this.missing = missing;
+        }
+
+        @Config("plan.name")
+        String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import annottext.AnnotatedConfigBean;
+import org.apache.tamaya.inject.spi.ConfiguredField;
+import org.apache.tamaya.inject.spi.ConfiguredType;
+import org.apache.tamaya.inject.spi.ConfiguredTypeMetadata;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DefaultConfigurationInjector}.
+ */
+public class DefaultConfigurationInjectorTest {
+
+    @Test
+    public void testGeneratedMetadataIsUsed() {
+        ConfiguredTypeMetadata metadata = InjectionHelper.loadMetadata(AnnotatedConfigBean.class);
+        assertNotNull("Metadata should be generated by the annotation processor.", metadata);
+        ConfiguredType type = new DefaultConfigurationInjector().registerType(AnnotatedConfigBean.class);
+        Set<String> fields = new HashSet<>();
+        for (ConfiguredField field : type.getConfiguredFields()) {
+            fields.add(field.getName());
+        }
+        // same members as found by scanning the type.
+        Set<String> scannedFields = new HashSet<>();
+        for (ConfiguredField field : new ConfiguredTypeImpl(AnnotatedConfigBean.class).getConfiguredFields()) {
+            scannedFields.add(field.getName());
+        }
+        assertEquals(scannedFields, fields);
+        assertEquals(1, type.getConfiguredMethods().size());
+    }
+
+    @Test
+    public void testUnconfiguredTypes() {
+        DefaultConfigurationInjector injector = new DefaultConfigurationInjector();
+        assertNull(InjectionHelper.loadMetadata(String.class));
+        assertNull(injector.registerType(String.class));
+        assertNull(injector.registerType(String.class));
+        String value = "unchanged";
+        assertSame(value, injector.configure(value));
+    }
+}
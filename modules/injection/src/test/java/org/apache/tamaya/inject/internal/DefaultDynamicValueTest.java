@@ -21,13 +21,19 @@ package org.apache.tamaya.inject.internal;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.core.internal.DefaultConfigurationContextBuilder;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.spi.ConfigEventManagerSpi;
 import org.apache.tamaya.inject.api.ConfiguredItemSupplier;
 import org.apache.tamaya.inject.api.DynamicValue;
 import org.apache.tamaya.inject.api.Config;
 import org.apache.tamaya.inject.api.UpdatePolicy;
+import org.apache.tamaya.spi.ConfigurationContext;
 import org.apache.tamaya.spi.ConversionContext;
 import org.apache.tamaya.spi.PropertyConverter;
 import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.ServiceContextManager;
 import org.junit.Test;
 
 import org.apache.tamaya.Configuration;
@@ -36,6 +42,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -65,8 +72,8 @@ public class DefaultDynamicValueTest {
     };
 
     private Map<String,String> properties = new HashMap<>();
-    private Configuration config = new ConfigurationBuilder().addPropertySources(
-            new PropertySource() {
+    private AtomicInteger lookups = new AtomicInteger();
+    private PropertySource propertySource = new PropertySource() {
                 @Override
                 public int getOrdinal() {
                     return 0;
@@ -79,6 +86,7 @@ public class DefaultDynamicValueTest {
 
                 @Override
                 public String get(String key) {
+                    lookups.incrementAndGet();
                     return properties.get(key);
                 }
 
@@ -91,8 +99,8 @@ public class DefaultDynamicValueTest {
                 public boolean isScannable() {
                     return false;
                 }
-            }
-    ).build();
+            };
+    private Configuration config = new ConfigurationBuilder().addPropertySources(propertySource).build();
 
     @Test
     public void testOf_Field() throws Exception {
@@ -304,6 +312,47 @@ public class DefaultDynamicValueTest {
         }));
     }
 
+    @Test
+    public void testGet_EvaluatedOnlyAfterKeysChanged() throws Exception {
+        ConfigEventManagerSpi eventSpi = ServiceContextManager.getServiceContext()
+                .getService(ConfigEventManagerSpi.class);
+        ConfigurationContext oldContext = ConfigurationProvider.getConfigurationContext();
+        long oldPeriod = eventSpi.getChangeMonitoringPeriod();
+        boolean oldMonitoring = ConfigEventManager.isChangeMonitoring();
+        properties.put("a", "aValue");
+        ConfigurationProvider.setConfigurationContext(new DefaultConfigurationContextBuilder()
+                .addPropertySources(propertySource).build());
+        // no periodic check during the test, changes are published explicitly.
+        eventSpi.setChangeMonitoringPeriod(3600000L);
+        ConfigEventManager.enableChangeMonitoring(true);
+        try {
+            DynamicValue val = DefaultDynamicValue.of(getClass().getDeclaredField("myValue"),
+                    ConfigurationProvider.getConfiguration());
+            val.addListener(consumer);
+            assertEquals("aValue", val.get());
+            int lookupCount = lookups.get();
+            properties.put("a", "aValue2");
+            assertEquals("aValue", val.get());
+            assertEquals(lookupCount, lookups.get());
+            ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of().addChange("b", null, "bValue").build());
+            assertEquals("aValue", val.get());
+            assertEquals(lookupCount, lookups.get());
+            ConfigEventManager.fireEvent(ConfigurationChangeBuilder.of().addChange("a", "aValue", "aValue2").build());
+            assertEquals("aValue2", val.get());
+            assertNotNull(event);
+            assertEquals("aValue2", event.getNewValue());
+            // values of other configurations are evaluated on each access.
+            DynamicValue other = DefaultDynamicValue.of(getClass().getDeclaredField("myValue"), config);
+            assertEquals("aValue2", other.get());
+            properties.put("a", "aValue3");
+            assertEquals("aValue3", other.get());
+        } finally {
+            ConfigEventManager.enableChangeMonitoring(oldMonitoring);
+            eventSpi.setChangeMonitoringPeriod(oldPeriod);
+            ConfigurationProvider.setConfigurationContext(oldContext);
+        }
+    }
+
     private static final class DoublicatingConverter implements PropertyConverter<String>{
 
         @Override
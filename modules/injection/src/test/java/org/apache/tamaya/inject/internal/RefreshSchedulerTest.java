@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.inject.internal;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.builder.ConfigurationBuilder;
+import org.apache.tamaya.inject.RefreshStatistics;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.DynamicValue;
+import org.apache.tamaya.inject.api.UpdatePolicy;
+import org.apache.tamaya.inject.api.WithPropertyConverter;
+import org.apache.tamaya.spi.ConversionContext;
+import org.apache.tamaya.spi.PropertyConverter;
+import org.apache.tamaya.spi.PropertySource;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RefreshScheduler}.
+ */
+public class RefreshSchedulerTest {
+
+    @Config("refresh.a")
+    String a;
+
+    @Config("refresh.b")
+    String b;
+
+    @Config("refresh.c")
+    @WithPropertyConverter(FailingConverter.class)
+    String c;
+
+    private final Map<String, String> properties = new HashMap<>();
+
+    private final Configuration config = new ConfigurationBuilder().addPropertySources(new PropertySource() {
+        @Override
+        public int getOrdinal() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "refresh";
+        }
+
+        @Override
+        public String get(String key) {
+            return properties.get(key);
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public boolean isScannable() {
+            return false;
+        }
+    }).build();
+
+    private final RefreshScheduler scheduler = new RefreshScheduler();
+
+    private final List<PropertyChangeEvent> events = Collections.synchronizedList(new ArrayList<PropertyChangeEvent>());
+
+    private final PropertyChangeListener recorder = new PropertyChangeListener() {
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            events.add(evt);
+        }
+    };
+
+    private DefaultDynamicValue<?> register(String fieldName) throws Exception {
+        return register(scheduler, fieldName);
+    }
+
+    private DefaultDynamicValue<?> register(RefreshScheduler scheduler, String fieldName) throws Exception {
+        DefaultDynamicValue<?> value = (DefaultDynamicValue<?>) DefaultDynamicValue.of(
+                getClass().getDeclaredField(fieldName), config);
+        value.get();
+        value.addListener(recorder);
+        assertTrue(scheduler.register(value, "refresh." + fieldName));
+        return value;
+    }
+
+    @Test
+    public void testOnlyAffectedValuesAreRefreshed() throws Exception {
+        properties.put("refresh.a", "a1");
+        properties.put("refresh.b", "b1");
+        DefaultDynamicValue<?> valueA = register("a");
+        register("b");
+        properties.put("refresh.a", "a2");
+        properties.put("refresh.b", "b2");
+        assertEquals(1, scheduler.refresh(Arrays.asList("refresh.a", "other.key")));
+        assertEquals(1, events.size());
+        assertSame(valueA, events.get(0).getSource());
+        assertEquals("a1", events.get(0).getOldValue());
+        assertEquals("a2", events.get(0).getNewValue());
+        assertEquals(0, scheduler.refresh(Collections.singletonList("other.key")));
+
+        RefreshStatistics statistics = scheduler.getStatistics();
+        assertEquals(2, statistics.getValueCount());
+        assertEquals(2, statistics.getKeyCount());
+        assertEquals(1L, statistics.getBatchCount());
+        assertEquals(1L, statistics.getRefreshCount());
+        assertEquals(1L, statistics.getChangeCount());
+        assertEquals(0L, statistics.getFailureCount());
+        assertTrue(statistics.getMaxLatencyNanos() >= statistics.getAverageLatencyNanos());
+    }
+
+    @Test
+    public void testListenersAreInformedAfterBatchIsApplied() throws Exception {
+        properties.put("refresh.a", "a1");
+        properties.put("refresh.b", "b1");
+        DefaultDynamicValue<?> valueA = register("a");
+        final DefaultDynamicValue<?> valueB = register("b");
+        valueB.setUpdatePolicy(UpdatePolicy.EXPLCIT);
+        final List<Object> seen = new ArrayList<>();
+        valueA.addListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                seen.add(valueB.getNewValue());
+            }
+        });
+        properties.put("refresh.a", "a2");
+        properties.put("refresh.b", "b2");
+        assertEquals(2, scheduler.refresh(Arrays.asList("refresh.b", "refresh.a")));
+        assertEquals(Collections.<Object>singletonList("b2"), seen);
+        // explicit updates are not published, before being committed.
+        assertEquals(1, events.size());
+        assertEquals("b1", valueB.get());
+        valueB.commit();
+        assertEquals("b2", valueB.get());
+    }
+
+    @Test
+    public void testFailuresDoNotAffectOtherValues() throws Exception {
+        properties.put("refresh.a", "a1");
+        properties.put("refresh.c", "c1");
+        register("a");
+        DefaultDynamicValue<?> valueC = register("c");
+        properties.put("refresh.a", "a2");
+        properties.put("refresh.c", "fail");
+        assertEquals(2, scheduler.refresh(Arrays.asList("refresh.a", "refresh.c")));
+        assertEquals(1, events.size());
+        assertEquals("a2", events.get(0).getNewValue());
+        assertEquals(1L, scheduler.getStatistics().getFailureCount());
+        properties.put("refresh.c", "c2");
+        assertEquals("c2", valueC.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testValuesAreRefreshedInParallel() throws Exception {
+        // value counts, which are multiples of the part count and which are not.
+        assertRefreshedInParallel(100, 4);
+        assertRefreshedInParallel(5, 4);
+        assertRefreshedInParallel(10, 8);
+        assertRefreshedInParallel(7, 3);
+        assertRefreshedInParallel(2, 8);
+    }
+
+    private void assertRefreshedInParallel(int valueCount, int parallelism) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        final AtomicInteger tasks = new AtomicInteger();
+        try {
+            RefreshScheduler parallelScheduler = new RefreshScheduler();
+            parallelScheduler.setParallelism(parallelism);
+            parallelScheduler.setExecutor(new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    tasks.incrementAndGet();
+                    pool.execute(command);
+                }
+            });
+            events.clear();
+            properties.put("refresh.a", "a1");
+            properties.put("refresh.b", "b1");
+            List<DefaultDynamicValue<?>> values = new ArrayList<>();
+            for (int i = 0; i < valueCount; i++) {
+                values.add(register(parallelScheduler, i % 2 == 0 ? "a" : "b"));
+            }
+            properties.put("refresh.a", "a2");
+            properties.put("refresh.b", "b2");
+            assertEquals(valueCount, parallelScheduler.refresh(Arrays.asList("refresh.a", "refresh.b")));
+            assertTrue(tasks.get() > 0);
+            assertEquals(valueCount, events.size());
+            for (int i = 0; i < valueCount; i++) {
+                DynamicValue<?> value = values.get(i);
+                assertEquals(i % 2 == 0 ? "a2" : "b2", value.get());
+            }
+            assertEquals(valueCount, parallelScheduler.getStatistics().getChangeCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Converter failing for the value {@code fail}.
+     */
+    public static final class FailingConverter implements PropertyConverter<String> {
+        @Override
+        public String convert(String value, ConversionContext context) {
+            if ("fail".equals(value)) {
+                throw new IllegalArgumentException("Conversion failed: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -20,7 +20,9 @@ package org.apache.tamaya.integration.cdi;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
+import org.apache.tamaya.ConfigurationProvider;
 import org.apache.tamaya.TypeLiteral;
+import org.apache.tamaya.events.ConfigEventManager;
 import org.apache.tamaya.inject.api.BaseDynamicValue;
 import org.apache.tamaya.inject.api.DynamicValue;
 import org.apache.tamaya.inject.api.InjectionUtils;
@@ -53,6 +55,10 @@ import java.util.logging.Logger;
  * new value. Depending on the {@link UpdatePolicy} the new value is immedeately active or it requires an active commit
  * by client code. Similarly an instance also can ignore all later changes to the value.
  * <h3>Implementation Details</h3>
+ * If tamaya-events is available, instances are registered with the {@link KeySubscriptions}, which mark them on
+ * the changes of their keys published by the {@link ConfigEventManager}. While change monitoring is active and the value is bound to the configuration
+ * monitored, the value is only reevaluated after one of its keys has changed, otherwise it is reevaluated on
+ * each access.
  * This class is
  * <ul>
  * <li>Serializable, when also the item stored is serializable</li>
@@ -65,6 +71,8 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
 
     private static final long serialVersionUID = -2071172847144537443L;
 
+    private static final boolean EVENTS_AVAILABLE = checkForEvents();
+
     /**
      * The property name of the entry.
      */
@@ -100,7 +108,7 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
     /**
      * The current value, never null.
      */
-    private transient T value;
+    private transient volatile T value;
     /**
      * The new value, or null.
      */
@@ -109,6 +117,14 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
      * List of listeners that listen for changes.
      */
     private transient WeakList<PropertyChangeListener> listeners;
+    /**
+     * Flag, if the value was evaluated after the last change of its keys has been published.
+     */
+    private transient volatile boolean upToDate;
+    /**
+     * Flag, if the value is registered with the {@link KeySubscriptions}, false, if changes are not published.
+     */
+    private transient boolean registered;
 
     /**
      * Constructor.
@@ -131,9 +147,28 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
         this.updatePolicy = Objects.requireNonNull(updatePolicy);
         if(loadPolicy == LoadPolicy.INITIAL){
             this.value = evaluateValue();
+        }else if(EVENTS_AVAILABLE){
+            subscribe();
+        }
+    }
+
+    private static boolean checkForEvents() {
+        try{
+            Class.forName("org.apache.tamaya.events.ConfigEventManager");
+            return true;
+        } catch(Exception e){
+            return false;
         }
     }
 
+    /**
+     * Subscribes this value to the changes of its keys. If no {@link ConfigEventManager} is available, the value
+     * is evaluated on each access.
+     */
+    private void subscribe() {
+        this.registered = KeySubscriptions.getDefault().register(this, keys);
+    }
+
     public static DynamicValue of(Field annotatedField, Configuration configuration) {
         return of(annotatedField, configuration, LoadPolicy.ALWAYS, UpdatePolicy.IMMEDEATE);
     }
@@ -305,7 +340,7 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
      */
     public T get() {
         T newLocalValue;
-        if(loadPolicy!=LoadPolicy.INITIAL) {
+        if(loadPolicy!=LoadPolicy.INITIAL && needsEvaluation()) {
             newLocalValue = evaluateValue();
             if (this.value == null) {
                 this.value = newLocalValue;
@@ -313,6 +348,7 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
             if(!Objects.equals(this.value, newLocalValue)){
                 switch (updatePolicy){
                     case IMMEDEATE:
+                        this.newValue = new Object[]{newLocalValue};
                         commit();
                         break;
                     case EXPLCIT:
@@ -334,6 +370,32 @@ final class DefaultDynamicValue<T> extends BaseDynamicValue<T> {
         return value;
     }
 
+    /**
+     * Marks the value to be evaluated again on the next access, called after one of its keys has changed.
+     */
+    void invalidate() {
+        this.upToDate = false;
+    }
+
+    /**
+     * Checks if the value must be evaluated on access. Evaluation can be skipped, if the changes of the
+     * configuration of this value are published and none of its keys has changed since the last evaluation.
+     *
+     * @return true, if the value must be evaluated.
+     */
+    private boolean needsEvaluation() {
+        if (!registered || !ConfigEventManager.isChangeMonitoring()
+                || configuration != ConfigurationProvider.getConfiguration()) {
+            return true;
+        }
+        if (upToDate) {
+            return false;
+        }
+        // reset before evaluating, so changes published during evaluation are not lost.
+        upToDate = true;
+        return true;
+    }
+
     /**
      * Method to check for and apply a new value. Depending on the {@link  UpdatePolicy}
      * the value is immediately or deferred visible (or it may even be ignored completely).
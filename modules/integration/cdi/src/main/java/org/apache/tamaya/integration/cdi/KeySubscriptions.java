@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.events.ConfigEvent;
+import org.apache.tamaya.events.ConfigEventListener;
+import org.apache.tamaya.events.ConfigEventManager;
+import org.apache.tamaya.events.ConfigurationChange;
+import org.apache.tamaya.events.KeySelector;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Marks the {@link DefaultDynamicValue}s to be evaluated again, after one of their keys has changed. A single
+ * listener is subscribed to the changes published by the {@link ConfigEventManager}, selecting each key once,
+ * independent of the number of values depending on it. The values depending on each key are kept in an index.
+ * Values are only weakly referenced, values collected are removed from the index.
+ */
+final class KeySubscriptions implements ConfigEventListener {
+
+    private static final Logger LOG = Logger.getLogger(KeySubscriptions.class.getName());
+
+    /** The subscriptions used by the injected values. */
+    private static final KeySubscriptions DEFAULT = new KeySubscriptions();
+
+    /** The values depending on each key, guarded by the index's monitor. */
+    private final Map<String, List<ValueRef>> index = new HashMap<>();
+
+    /** Queue of the values collected. */
+    private final ReferenceQueue<DefaultDynamicValue<?>> collected = new ReferenceQueue<>();
+
+    /** The number of values registered, guarded by the index's monitor. */
+    private int valueCount;
+
+    /**
+     * Constructor, used for the default subscriptions and for testing.
+     */
+    KeySubscriptions() {
+    }
+
+    /**
+     * Get the subscriptions used by the injected values.
+     *
+     * @return the subscriptions, never null.
+     */
+    static KeySubscriptions getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a value to be marked on changes of the given keys. Keys not selected yet are subscribed with
+     * the {@link ConfigEventManager}, a key stays subscribed, once selected.
+     *
+     * @param value the value, not null.
+     * @param keys the keys the value depends on, not null.
+     * @return true, if the value will be marked on changes, false, if no changes are published.
+     */
+    boolean register(DefaultDynamicValue<?> value, String... keys) {
+        synchronized (index) {
+            expungeCollected();
+            List<KeySelector> selectors = new ArrayList<>();
+            for (String key : keys) {
+                if (!index.containsKey(key)) {
+                    selectors.add(KeySelector.key(key));
+                }
+            }
+            if (!selectors.isEmpty()) {
+                try {
+                    ConfigEventManager.subscribe(this, selectors.toArray(new KeySelector[selectors.size()]));
+                } catch (ConfigException e) {
+                    LOG.log(Level.FINEST, "Config changes not published, dynamic values are evaluated on each access.",
+                            e);
+                    return false;
+                }
+            }
+            ValueRef ref = new ValueRef(value, keys, collected);
+            for (String key : ref.keys) {
+                List<ValueRef> refs = index.get(key);
+                if (refs == null) {
+                    refs = new ArrayList<>(1);
+                    index.put(key, refs);
+                }
+                refs.add(ref);
+            }
+            valueCount++;
+            return true;
+        }
+    }
+
+    /**
+     * Removes the values collected from the index. The keys are kept, since they stay subscribed.
+     */
+    private void expungeCollected() {
+        ValueRef ref;
+        while ((ref = (ValueRef) collected.poll()) != null) {
+            for (String key : ref.keys) {
+                List<ValueRef> refs = index.get(key);
+                if (refs != null) {
+                    refs.remove(ref);
+                }
+            }
+            valueCount--;
+        }
+    }
+
+    @Override
+    public void onConfigEvent(ConfigEvent<?> event) {
+        if (event instanceof ConfigurationChange) {
+            synchronized (index) {
+                expungeCollected();
+                for (PropertyChangeEvent change : ((ConfigurationChange) event).getChanges()) {
+                    List<ValueRef> refs = index.get(change.getPropertyName());
+                    if (refs != null) {
+                        for (ValueRef ref : refs) {
+                            DefaultDynamicValue<?> value = ref.get();
+                            if (value != null) {
+                                value.invalidate();
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of values registered and not collected yet.
+     *
+     * @return the number of values.
+     */
+    int getValueCount() {
+        synchronized (index) {
+            expungeCollected();
+            return valueCount;
+        }
+    }
+
+    /**
+     * Get the number of keys subscribed.
+     *
+     * @return the number of keys.
+     */
+    int getKeyCount() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeySubscriptions{values=" + getValueCount() + ", keys=" + getKeyCount() + '}';
+    }
+
+    /**
+     * Weak reference to a value registered, also holding the keys it is registered for.
+     */
+    private static final class ValueRef extends WeakReference<DefaultDynamicValue<?>> {
+        private final String[] keys;
+
+        ValueRef(DefaultDynamicValue<?> value, String[] keys, ReferenceQueue<DefaultDynamicValue<?>> queue) {
+            super(value, queue);
+            this.keys = keys.clone();
+        }
+    }
+}
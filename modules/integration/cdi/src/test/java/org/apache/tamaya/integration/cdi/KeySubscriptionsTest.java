@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.tamaya.ConfigurationProvider;
+import org.apache.tamaya.events.ConfigurationChangeBuilder;
+import org.apache.tamaya.events.FrozenConfiguration;
+import org.apache.tamaya.inject.api.Config;
+import org.apache.tamaya.inject.api.LoadPolicy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeySubscriptions}.
+ */
+public class KeySubscriptionsTest {
+
+    @Config("subscriptions.a")
+    String a;
+
+    private final KeySubscriptions subscriptions = new KeySubscriptions();
+
+    private DefaultDynamicValue<?> newValue() throws Exception {
+        return (DefaultDynamicValue<?>) DefaultDynamicValue.of(getClass().getDeclaredField("a"),
+                ConfigurationProvider.getConfiguration(), LoadPolicy.INITIAL);
+    }
+
+    @Test
+    public void testKeysAreSubscribedOnce() throws Exception {
+        List<DefaultDynamicValue<?>> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            DefaultDynamicValue<?> value = newValue();
+            values.add(value);
+            assertTrue(subscriptions.register(value, "subscriptions.a", "subscriptions.b"));
+        }
+        assertEquals(100, subscriptions.getValueCount());
+        assertEquals(2, subscriptions.getKeyCount());
+        // changes of other keys are ignored.
+        subscriptions.onConfigEvent(ConfigurationChangeBuilder.of(
+                FrozenConfiguration.of(ConfigurationProvider.getConfiguration()))
+                .addChange("subscriptions.c", "1").build());
+        subscriptions.onConfigEvent(ConfigurationChangeBuilder.of(
+                FrozenConfiguration.of(ConfigurationProvider.getConfiguration()))
+                .addChange("subscriptions.a", "1").build());
+        assertEquals(2, subscriptions.getKeyCount());
+    }
+}
@@ -19,7 +19,7 @@
 package org.apache.tamaya.json;
 
 import org.apache.tamaya.ConfigException;
-import org.apache.tamaya.spi.PropertySource;
+import org.apache.tamaya.spi.VersionedPropertySource;
 
 import java.io.InputStream;
 import java.net.URL;
@@ -39,9 +39,10 @@ import javax.json.JsonStructure;
 import static java.lang.String.format;
 
 /**
- * Property source based on a JSON file.
+ * Property source based on a JSON file. The file is read once on creation, so the version of this property
+ * source never changes.
  */
-public class JSONPropertySource implements PropertySource {
+public class JSONPropertySource implements VersionedPropertySource {
     /** Constant for enabling comments in Johnzon. */
     public static final String JOHNZON_SUPPORTS_COMMENTS_PROP = "org.apache.johnzon.supports-comments";
 
@@ -116,6 +117,11 @@ public class JSONPropertySource implements PropertySource {
         return Collections.unmodifiableMap(values);
     }
 
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     /**
      * Reads the configuration.
      * @param urlResource soure of the configuration.
@@ -29,6 +29,10 @@ import java.util.logging.Logger;
  * Default expression evaluator that manages several instances of {@link org.apache.tamaya.resolver.spi.ExpressionResolver}.
  * Each resolver is identified by a resolver id. Each expression passed has the form resolverId:resolverExpression, which
  * has the advantage that different resolvers can be active in parallel.
+ * <p>This filter is neither a {@link org.apache.tamaya.spi.ScopedPropertyFilter} nor a
+ * {@link org.apache.tamaya.spi.KeyLocalPropertyFilter}: whether it changes a value depends on the value, not on its
+ * key; a value resolved may contain further expressions, which are resolved in the next filter cycle; and the value
+ * resolved depends on the values of other keys.</p>
  */
 @Priority(10000)
 public class ExpressionResolutionFilter implements PropertyFilter {
@@ -16,6 +16,8 @@
  */
 package org.apache.tamaya.spisupport;
 
+import org.apache.tamaya.spi.VersionedPropertySource;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,9 +26,10 @@ import java.util.Properties;
 
 /**
  * Simple PropertySource implementation that just takes a Map and an (optional) priority.
- * Optionally the entries passed can be mapped to a different rootContext.
+ * Optionally the entries passed can be mapped to a different rootContext. The entries are copied on creation,
+ * so the version of this property source never changes.
  */
-public class MapPropertySource extends BasePropertySource {
+public class MapPropertySource extends BasePropertySource implements VersionedPropertySource {
 
     /** The unique name of the PropertySource. */
     private final String name;
@@ -128,6 +131,11 @@ public class MapPropertySource extends BasePropertySource {
         return Collections.unmodifiableMap(this.props);
     }
 
+    @Override
+    public long getVersion() {
+        return 0L;
+    }
+
     @Override
     public int getOrdinal() {
         if(priority!=null) {